@@ -1,23 +1,51 @@
 package dev.tsj.cli;
 
+import dev.tsj.compiler.backend.jvm.CompilationWorkers;
 import dev.tsj.compiler.backend.jvm.JvmBytecodeRunner;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 final class ClasspathSymbolIndexer {
     private static final String INDEX_FILE_NAME = "class-index.json";
+    private static final String BINARY_INDEX_FILE_NAME = "class-index.bin";
+    private static final int BINARY_INDEX_MAGIC = 0x54534A49;
+    private static final int BINARY_INDEX_FORMAT = 1;
+    private static final int JAR_TAIL_HASH_BYTES = 64 * 1024;
+    private static final int SECTION_CACHE_MAX_ENTRIES = 512;
+    private static final Map<EntryStamp, IndexedSection> SECTION_CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<EntryStamp, IndexedSection> eldest) {
+                    return size() > SECTION_CACHE_MAX_ENTRIES;
+                }
+            }
+    );
 
     private ClasspathSymbolIndexer() {
     }
@@ -27,46 +55,183 @@ final class ClasspathSymbolIndexer {
             final List<Path> classpathEntries,
             final JvmBytecodeRunner.ClassloaderIsolationMode isolationMode
     ) {
-        final Map<String, ClassOrigin> winners = new LinkedHashMap<>();
-        final List<DuplicateSymbol> duplicates = new ArrayList<>();
+        return build(appOutputDirectory, classpathEntries, isolationMode, null);
+    }
+
+    /**
+     * Builds the symbol index for the app output and classpath.
+     *
+     * <p>Each classpath entry is indexed on its own worker into a section of class origins. Jar and
+     * {@code jrt:/} sections are reused when their stamp (path, size, timestamp, and a hash of the jar's
+     * trailing central-directory block) matches a section cached in this process or recorded in
+     * {@code previousBinaryIndex}. Sections are then merged in classpath order, so winners, duplicates,
+     * and isolation conflicts are the same as with sequential indexing.
+     */
+    static ClasspathSymbolIndex build(
+            final Path appOutputDirectory,
+            final List<Path> classpathEntries,
+            final JvmBytecodeRunner.ClassloaderIsolationMode isolationMode,
+            final Path previousBinaryIndex
+    ) {
+        final Map<EntryStamp, IndexedSection> previousSections = new LinkedHashMap<>();
+        if (previousBinaryIndex != null && Files.isRegularFile(previousBinaryIndex)) {
+            try {
+                for (IndexedSection section : readSections(previousBinaryIndex)) {
+                    if (section.stamp().reusable()) {
+                        previousSections.put(section.stamp(), section);
+                    }
+                }
+            } catch (final IOException ignored) {
+                // A stale or damaged binary index only costs a full re-index.
+            }
+        }
         final Path normalizedAppOutput = appOutputDirectory.toAbsolutePath().normalize();
+        final List<Callable<IndexedSection>> tasks = new ArrayList<>();
         if (Files.isDirectory(normalizedAppOutput)) {
-            indexDirectory(
-                    normalizedAppOutput,
-                    normalizedAppOutput,
-                    "app",
-                    "directory",
-                    winners,
-                    duplicates,
-                    isolationMode
-            );
+            tasks.add(() -> indexDirectory(normalizedAppOutput, "app"));
         }
+        final AtomicInteger reusedSections = new AtomicInteger();
         for (Path classpathEntry : classpathEntries) {
             final Path normalized = classpathEntry.toAbsolutePath().normalize();
             if (Files.isDirectory(normalized)) {
                 if (isJrtPath(normalized)) {
-                    indexJrtDirectory(
-                            normalized,
-                            "dependency",
-                            winners,
-                            duplicates,
-                            isolationMode
-                    );
+                    tasks.add(() -> cachedSection(
+                            jrtStamp(normalized),
+                            previousSections,
+                            reusedSections,
+                            () -> indexJrtDirectory(normalized, "dependency")
+                    ));
                 } else {
-                    indexDirectory(
-                            normalized,
-                            normalized,
-                            "dependency",
-                            "directory",
-                            winners,
-                            duplicates,
-                            isolationMode
-                    );
+                    tasks.add(() -> indexDirectory(normalized, "dependency"));
                 }
                 continue;
             }
             if (Files.isRegularFile(normalized)) {
-                indexJar(normalized, winners, duplicates, isolationMode);
+                tasks.add(() -> cachedSection(
+                        jarStamp(normalized),
+                        previousSections,
+                        reusedSections,
+                        () -> indexJar(normalized)
+                ));
+            }
+        }
+        final List<IndexedSection> sections = CompilationWorkers.invokeAll(tasks);
+
+        return merge(sections, isolationMode, reusedSections.get());
+    }
+
+    static Path writeIndexFile(
+            final Path outDir,
+            final ClasspathSymbolIndex classpathSymbolIndex,
+            final JvmBytecodeRunner.ClassloaderIsolationMode isolationMode
+    ) throws IOException {
+        final Path indexPath = outDir.resolve(INDEX_FILE_NAME);
+        try (Writer writer = Files.newBufferedWriter(indexPath, UTF_8)) {
+            writer.write("{");
+            writer.write("\"formatVersion\":\"0.1\",");
+            writer.write("\"isolationMode\":\"" + escapeJson(isolationMode.cliValue()) + "\",");
+            writer.write("\"symbolCount\":" + classpathSymbolIndex.symbolCount() + ",");
+            writer.write("\"duplicateCount\":" + classpathSymbolIndex.duplicateCount() + ",");
+            writer.write("\"symbols\":[");
+            writeSymbolsJson(writer, classpathSymbolIndex.symbols());
+            writer.write("],");
+            writer.write("\"duplicates\":[");
+            writeDuplicatesJson(writer, classpathSymbolIndex.duplicates());
+            writer.write("]");
+            writer.write("}");
+        }
+        writeBinaryIndexFile(outDir.resolve(BINARY_INDEX_FILE_NAME), classpathSymbolIndex.sections());
+        return indexPath.toAbsolutePath().normalize();
+    }
+
+    static Path binaryIndexPath(final Path outDir) {
+        return outDir.resolve(BINARY_INDEX_FILE_NAME).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Reloads an index written next to {@code class-index.json} without touching the classpath.
+     */
+    static ClasspathSymbolIndex readBinaryIndexFile(
+            final Path binaryIndexPath,
+            final JvmBytecodeRunner.ClassloaderIsolationMode isolationMode
+    ) throws IOException {
+        final List<IndexedSection> sections = readSections(binaryIndexPath);
+        return merge(sections, isolationMode, sections.size());
+    }
+
+    /**
+     * Reloads the index written by an earlier build of the same output directory when it was recorded for the
+     * same classpath and every dependency section's stamp still matches its entry. Only the app output is
+     * re-indexed. Returns {@code null} when the binary index is missing, damaged, or stale, or when an entry
+     * (such as a plain class directory) cannot be stamped; callers then fall back to {@link #build}.
+     */
+    static ClasspathSymbolIndex readBinaryIndexFile(
+            final Path binaryIndexPath,
+            final Path appOutputDirectory,
+            final List<Path> classpathEntries,
+            final JvmBytecodeRunner.ClassloaderIsolationMode isolationMode
+    ) {
+        if (binaryIndexPath == null || !Files.isRegularFile(binaryIndexPath)) {
+            return null;
+        }
+        final List<IndexedSection> recorded;
+        try {
+            recorded = readSections(binaryIndexPath);
+        } catch (final IOException ignored) {
+            return null;
+        }
+        final Path normalizedAppOutput = appOutputDirectory.toAbsolutePath().normalize();
+        final int appSections = Files.isDirectory(normalizedAppOutput) ? 1 : 0;
+        final List<IndexedSection> sections = new ArrayList<>();
+        if (appSections == 1) {
+            if (recorded.isEmpty() || recorded.getFirst().stamp().reusable()) {
+                return null;
+            }
+            sections.add(indexDirectory(normalizedAppOutput, "app"));
+        }
+        int recordedIndex = appSections;
+        for (Path classpathEntry : classpathEntries) {
+            final Path normalized = classpathEntry.toAbsolutePath().normalize();
+            final EntryStamp stamp;
+            if (Files.isDirectory(normalized)) {
+                if (!isJrtPath(normalized)) {
+                    return null;
+                }
+                stamp = jrtStamp(normalized);
+            } else if (Files.isRegularFile(normalized)) {
+                stamp = jarStamp(normalized);
+            } else {
+                continue;
+            }
+            if (!stamp.reusable()
+                    || recordedIndex >= recorded.size()
+                    || !stamp.equals(recorded.get(recordedIndex).stamp())) {
+                return null;
+            }
+            sections.add(recorded.get(recordedIndex));
+            recordedIndex++;
+        }
+        if (recordedIndex != recorded.size()) {
+            return null;
+        }
+        for (IndexedSection section : sections) {
+            if (section.stamp().reusable()) {
+                SECTION_CACHE.put(section.stamp(), section);
+            }
+        }
+        return merge(sections, isolationMode, recordedIndex - appSections);
+    }
+
+    private static ClasspathSymbolIndex merge(
+            final List<IndexedSection> sections,
+            final JvmBytecodeRunner.ClassloaderIsolationMode isolationMode,
+            final int reusedSections
+    ) {
+        final Map<String, ClassOrigin> winners = new LinkedHashMap<>();
+        final List<DuplicateSymbol> duplicates = new ArrayList<>();
+        for (IndexedSection section : sections) {
+            for (SymbolEntry symbol : section.symbols()) {
+                registerSymbol(symbol.internalName(), symbol.origin(), winners, duplicates, isolationMode);
             }
         }
         final List<SymbolEntry> symbols = winners.entrySet().stream()
@@ -80,88 +245,186 @@ final class ClasspathSymbolIndexer {
                                 .thenComparing(symbol -> symbol.shadowed().entry())
                 )
                 .toList();
-        return new ClasspathSymbolIndex(symbols, sortedDuplicates);
+        return new ClasspathSymbolIndex(symbols, sortedDuplicates, sections, reusedSections);
     }
 
-    static Path writeIndexFile(
-            final Path outDir,
-            final ClasspathSymbolIndex classpathSymbolIndex,
-            final JvmBytecodeRunner.ClassloaderIsolationMode isolationMode
-    ) throws IOException {
-        final Path indexPath = outDir.resolve(INDEX_FILE_NAME);
-        final StringBuilder builder = new StringBuilder();
-        builder.append("{");
-        builder.append("\"formatVersion\":\"0.1\",");
-        builder.append("\"isolationMode\":\"").append(escapeJson(isolationMode.cliValue())).append("\",");
-        builder.append("\"symbolCount\":").append(classpathSymbolIndex.symbolCount()).append(",");
-        builder.append("\"duplicateCount\":").append(classpathSymbolIndex.duplicateCount()).append(",");
-        builder.append("\"symbols\":[");
-        appendSymbolsJson(builder, classpathSymbolIndex.symbols());
-        builder.append("],");
-        builder.append("\"duplicates\":[");
-        appendDuplicatesJson(builder, classpathSymbolIndex.duplicates());
-        builder.append("]");
-        builder.append("}");
-        Files.writeString(indexPath, builder.toString());
-        return indexPath.toAbsolutePath().normalize();
+    private static IndexedSection cachedSection(
+            final EntryStamp stamp,
+            final Map<EntryStamp, IndexedSection> previousSections,
+            final AtomicInteger reusedSections,
+            final Callable<IndexedSection> indexer
+    ) throws Exception {
+        if (stamp.reusable()) {
+            IndexedSection cached = SECTION_CACHE.get(stamp);
+            if (cached == null) {
+                cached = previousSections.get(stamp);
+            }
+            if (cached != null) {
+                SECTION_CACHE.put(stamp, cached);
+                reusedSections.incrementAndGet();
+                return cached;
+            }
+        }
+        final IndexedSection indexed = indexer.call();
+        final IndexedSection section = new IndexedSection(stamp, indexed.symbols());
+        if (stamp.reusable()) {
+            SECTION_CACHE.put(stamp, section);
+        }
+        return section;
+    }
+
+    static EntryStamp jarStamp(final Path jarPath) {
+        try {
+            final long size = Files.size(jarPath);
+            final long lastModified = Files.getLastModifiedTime(jarPath).toMillis();
+            final CRC32 crc = new CRC32();
+            try (FileChannel channel = FileChannel.open(jarPath, StandardOpenOption.READ)) {
+                final long start = Math.max(0L, size - JAR_TAIL_HASH_BYTES);
+                final ByteBuffer tail = ByteBuffer.allocate((int) (size - start));
+                while (tail.hasRemaining()) {
+                    if (channel.read(tail, start + tail.position()) < 0) {
+                        break;
+                    }
+                }
+                tail.flip();
+                crc.update(tail);
+            }
+            return new EntryStamp(jarPath.toString(), size, lastModified, crc.getValue(), Runtime.version().feature());
+        } catch (final IOException ioException) {
+            return EntryStamp.unstamped(jarPath.toString());
+        }
+    }
+
+    private static EntryStamp jrtStamp(final Path root) {
+        return new EntryStamp(
+                root + "@" + Runtime.version(),
+                0L,
+                0L,
+                0L,
+                Runtime.version().feature()
+        );
     }
 
-    private static void appendSymbolsJson(final StringBuilder builder, final List<SymbolEntry> symbols) {
+    private static void writeSymbolsJson(final Writer writer, final List<SymbolEntry> symbols) throws IOException {
         boolean first = true;
         for (SymbolEntry symbol : symbols) {
             if (!first) {
-                builder.append(",");
+                writer.write(",");
             }
             first = false;
-            builder.append("{");
-            builder.append("\"internalName\":\"").append(escapeJson(symbol.internalName())).append("\",");
-            builder.append("\"origin\":");
-            appendOriginJson(builder, symbol.origin());
-            builder.append("}");
+            writer.write("{");
+            writer.write("\"internalName\":\"" + escapeJson(symbol.internalName()) + "\",");
+            writer.write("\"origin\":");
+            writeOriginJson(writer, symbol.origin());
+            writer.write("}");
         }
     }
 
-    private static void appendDuplicatesJson(final StringBuilder builder, final List<DuplicateSymbol> duplicates) {
+    private static void writeDuplicatesJson(
+            final Writer writer,
+            final List<DuplicateSymbol> duplicates
+    ) throws IOException {
         boolean first = true;
         for (DuplicateSymbol duplicate : duplicates) {
             if (!first) {
-                builder.append(",");
+                writer.write(",");
             }
             first = false;
-            builder.append("{");
-            builder.append("\"internalName\":\"").append(escapeJson(duplicate.internalName())).append("\",");
-            builder.append("\"mode\":\"").append(escapeJson(duplicate.mode())).append("\",");
-            builder.append("\"rule\":\"").append(escapeJson(duplicate.rule())).append("\",");
-            builder.append("\"winner\":");
-            appendOriginJson(builder, duplicate.winner());
-            builder.append(",");
-            builder.append("\"shadowed\":");
-            appendOriginJson(builder, duplicate.shadowed());
-            builder.append("}");
-        }
-    }
-
-    private static void appendOriginJson(final StringBuilder builder, final ClassOrigin origin) {
-        builder.append("{");
-        builder.append("\"owner\":\"").append(escapeJson(origin.owner())).append("\",");
-        builder.append("\"sourceKind\":\"").append(escapeJson(origin.sourceKind())).append("\",");
-        builder.append("\"location\":\"").append(escapeJson(origin.location())).append("\",");
-        builder.append("\"entry\":\"").append(escapeJson(origin.entry())).append("\",");
-        builder.append("\"moduleName\":\"").append(escapeJson(origin.moduleName())).append("\",");
-        builder.append("\"packageName\":\"").append(escapeJson(origin.packageName())).append("\",");
-        builder.append("\"mrJarSource\":\"").append(escapeJson(origin.mrJarSource())).append("\"");
-        builder.append("}");
-    }
-
-    private static void indexDirectory(
-            final Path root,
-            final Path location,
-            final String owner,
-            final String sourceKind,
-            final Map<String, ClassOrigin> winners,
-            final List<DuplicateSymbol> duplicates,
-            final JvmBytecodeRunner.ClassloaderIsolationMode isolationMode
-    ) {
+            writer.write("{");
+            writer.write("\"internalName\":\"" + escapeJson(duplicate.internalName()) + "\",");
+            writer.write("\"mode\":\"" + escapeJson(duplicate.mode()) + "\",");
+            writer.write("\"rule\":\"" + escapeJson(duplicate.rule()) + "\",");
+            writer.write("\"winner\":");
+            writeOriginJson(writer, duplicate.winner());
+            writer.write(",");
+            writer.write("\"shadowed\":");
+            writeOriginJson(writer, duplicate.shadowed());
+            writer.write("}");
+        }
+    }
+
+    private static void writeOriginJson(final Writer writer, final ClassOrigin origin) throws IOException {
+        writer.write("{");
+        writer.write("\"owner\":\"" + escapeJson(origin.owner()) + "\",");
+        writer.write("\"sourceKind\":\"" + escapeJson(origin.sourceKind()) + "\",");
+        writer.write("\"location\":\"" + escapeJson(origin.location()) + "\",");
+        writer.write("\"entry\":\"" + escapeJson(origin.entry()) + "\",");
+        writer.write("\"moduleName\":\"" + escapeJson(origin.moduleName()) + "\",");
+        writer.write("\"packageName\":\"" + escapeJson(origin.packageName()) + "\",");
+        writer.write("\"mrJarSource\":\"" + escapeJson(origin.mrJarSource()) + "\"");
+        writer.write("}");
+    }
+
+    /**
+     * Writes the per-entry sections in classpath order. Owner, source kind, and location are stored once per
+     * section; each class stores its internal name, entry, module name, and multi-release source.
+     */
+    private static void writeBinaryIndexFile(final Path path, final List<IndexedSection> sections) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            output.writeInt(BINARY_INDEX_MAGIC);
+            output.writeInt(BINARY_INDEX_FORMAT);
+            output.writeInt(sections.size());
+            for (IndexedSection section : sections) {
+                final EntryStamp stamp = section.stamp();
+                output.writeUTF(stamp.location());
+                output.writeLong(stamp.size());
+                output.writeLong(stamp.lastModified());
+                output.writeLong(stamp.contentHash());
+                output.writeInt(stamp.runtimeFeature());
+                output.writeUTF(section.owner());
+                output.writeUTF(section.sourceKind());
+                output.writeUTF(section.location());
+                output.writeInt(section.symbols().size());
+                for (SymbolEntry symbol : section.symbols()) {
+                    output.writeUTF(symbol.internalName());
+                    output.writeUTF(symbol.origin().entry());
+                    output.writeUTF(symbol.origin().moduleName());
+                    output.writeUTF(symbol.origin().mrJarSource());
+                }
+            }
+        }
+    }
+
+    private static List<IndexedSection> readSections(final Path path) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (input.readInt() != BINARY_INDEX_MAGIC || input.readInt() != BINARY_INDEX_FORMAT) {
+                throw new IOException("Unsupported class index format: " + path);
+            }
+            final int sectionCount = input.readInt();
+            final List<IndexedSection> sections = new ArrayList<>(sectionCount);
+            for (int sectionIndex = 0; sectionIndex < sectionCount; sectionIndex++) {
+                final EntryStamp stamp = new EntryStamp(
+                        input.readUTF(),
+                        input.readLong(),
+                        input.readLong(),
+                        input.readLong(),
+                        input.readInt()
+                );
+                final String owner = input.readUTF();
+                final String sourceKind = input.readUTF();
+                final String location = input.readUTF();
+                final int symbolCount = input.readInt();
+                final List<SymbolEntry> symbols = new ArrayList<>(symbolCount);
+                for (int symbolIndex = 0; symbolIndex < symbolCount; symbolIndex++) {
+                    final String internalName = input.readUTF();
+                    symbols.add(new SymbolEntry(internalName, new ClassOrigin(
+                            owner,
+                            sourceKind,
+                            location,
+                            input.readUTF(),
+                            input.readUTF(),
+                            packageNameFromInternalName(internalName),
+                            input.readUTF()
+                    )));
+                }
+                sections.add(new IndexedSection(stamp, List.copyOf(symbols)));
+            }
+            return List.copyOf(sections);
+        }
+    }
+
+    private static IndexedSection indexDirectory(final Path root, final String owner) {
+        final List<SymbolEntry> symbols = new ArrayList<>();
         try (Stream<Path> paths = Files.walk(root)) {
             paths.filter(path -> Files.isRegularFile(path) && path.toString().endsWith(".class"))
                     .sorted()
@@ -172,29 +435,24 @@ final class ClasspathSymbolIndexer {
                         if (internalName == null) {
                             return;
                         }
-                        final ClassOrigin origin = new ClassOrigin(
+                        symbols.add(new SymbolEntry(internalName, new ClassOrigin(
                                 owner,
-                                sourceKind,
-                                location.toString(),
+                                "directory",
+                                root.toString(),
                                 entry,
                                 "",
                                 packageNameFromInternalName(internalName),
                                 ""
-                        );
-                        registerSymbol(internalName, origin, winners, duplicates, isolationMode);
+                        )));
                     });
         } catch (final IOException ignored) {
             // Best-effort indexing for inaccessible directory roots.
         }
+        return new IndexedSection(EntryStamp.unstamped(root.toString()), List.copyOf(symbols));
     }
 
-    private static void indexJrtDirectory(
-            final Path root,
-            final String owner,
-            final Map<String, ClassOrigin> winners,
-            final List<DuplicateSymbol> duplicates,
-            final JvmBytecodeRunner.ClassloaderIsolationMode isolationMode
-    ) {
+    private static IndexedSection indexJrtDirectory(final Path root, final String owner) {
+        final List<SymbolEntry> symbols = new ArrayList<>();
         try (Stream<Path> paths = Files.walk(root)) {
             paths.filter(path -> Files.isRegularFile(path) && path.toString().endsWith(".class"))
                     .sorted()
@@ -203,7 +461,7 @@ final class ClasspathSymbolIndexer {
                         if (jrtClassRecord == null) {
                             return;
                         }
-                        final ClassOrigin origin = new ClassOrigin(
+                        symbols.add(new SymbolEntry(jrtClassRecord.internalName(), new ClassOrigin(
                                 owner,
                                 "jrt-module",
                                 root.toString(),
@@ -211,26 +469,16 @@ final class ClasspathSymbolIndexer {
                                 jrtClassRecord.moduleName(),
                                 packageNameFromInternalName(jrtClassRecord.internalName()),
                                 ""
-                        );
-                        registerSymbol(
-                                jrtClassRecord.internalName(),
-                                origin,
-                                winners,
-                                duplicates,
-                                isolationMode
-                        );
+                        )));
                     });
         } catch (final IOException ignored) {
             // Best-effort indexing for inaccessible JRT paths.
         }
+        return new IndexedSection(EntryStamp.unstamped(root.toString()), List.copyOf(symbols));
     }
 
-    private static void indexJar(
-            final Path jarPath,
-            final Map<String, ClassOrigin> winners,
-            final List<DuplicateSymbol> duplicates,
-            final JvmBytecodeRunner.ClassloaderIsolationMode isolationMode
-    ) {
+    private static IndexedSection indexJar(final Path jarPath) {
+        final List<SymbolEntry> symbols = new ArrayList<>();
         try (JarFile jarFile = new JarFile(jarPath.toFile())) {
             final boolean multiRelease = isMultiReleaseJar(jarFile);
             final int runtimeFeature = Runtime.version().feature();
@@ -261,7 +509,7 @@ final class ClasspathSymbolIndexer {
                 if (winner == null) {
                     continue;
                 }
-                final ClassOrigin origin = new ClassOrigin(
+                symbols.add(new SymbolEntry(internalName, new ClassOrigin(
                         "dependency",
                         "jar",
                         jarPath.toString(),
@@ -269,12 +517,12 @@ final class ClasspathSymbolIndexer {
                         "",
                         packageNameFromInternalName(internalName),
                         winner.mrJarSource()
-                );
-                registerSymbol(internalName, origin, winners, duplicates, isolationMode);
+                )));
             }
         } catch (final IOException ignored) {
             // Best-effort indexing for unreadable jar files.
         }
+        return new IndexedSection(EntryStamp.unstamped(jarPath.toString()), List.copyOf(symbols));
     }
 
     private static JarClassCandidate parseJarClassCandidate(final String entryName) {
@@ -469,7 +717,20 @@ final class ClasspathSymbolIndexer {
                 .replace("\t", "\\t");
     }
 
-    record ClasspathSymbolIndex(List<SymbolEntry> symbols, List<DuplicateSymbol> duplicates) {
+    /**
+     * Merged symbol index.
+     *
+     * @param symbols winning origin of every class, sorted by internal name
+     * @param duplicates shadowed origins, sorted by internal name and shadowed location
+     * @param sections per-entry class origins in classpath order, app output first
+     * @param reusedSections sections taken from the section cache or a previous binary index
+     */
+    record ClasspathSymbolIndex(
+            List<SymbolEntry> symbols,
+            List<DuplicateSymbol> duplicates,
+            List<IndexedSection> sections,
+            int reusedSections
+    ) {
         int symbolCount() {
             return symbols.size();
         }
@@ -520,6 +781,34 @@ final class ClasspathSymbolIndexer {
     ) {
     }
 
+    /**
+     * Identity of an indexed classpath entry. Directory sections are never reused because their contents
+     * are not captured by a stamp; they carry a size of {@code -1}.
+     */
+    record EntryStamp(String location, long size, long lastModified, long contentHash, int runtimeFeature) {
+        static EntryStamp unstamped(final String location) {
+            return new EntryStamp(location, -1L, 0L, 0L, 0);
+        }
+
+        boolean reusable() {
+            return size >= 0L;
+        }
+    }
+
+    record IndexedSection(EntryStamp stamp, List<SymbolEntry> symbols) {
+        String owner() {
+            return symbols.isEmpty() ? "dependency" : symbols.getFirst().origin().owner();
+        }
+
+        String sourceKind() {
+            return symbols.isEmpty() ? "" : symbols.getFirst().origin().sourceKind();
+        }
+
+        String location() {
+            return symbols.isEmpty() ? stamp.location() : symbols.getFirst().origin().location();
+        }
+    }
+
     record JrtClassRecord(String internalName, String entry, String moduleName) {
     }
 
@@ -0,0 +1,499 @@
+package dev.tsj.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Minimal zip writer for packaged jars.
+ *
+ * <p>Unlike {@link java.util.jar.JarOutputStream} it accepts entries that were compressed ahead of time, so
+ * app classes can be deflated on worker threads, and it copies deflated dependency entries byte for byte from
+ * their source jar without inflating and recompressing them. Entries written from content carry a fixed
+ * timestamp, so unchanged inputs produce identical jar bytes.
+ */
+final class PackageJarWriter implements Closeable {
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int END_SIZE = 22;
+    private static final int FLAG_ENCRYPTED = 0x1;
+    private static final int FLAG_UTF8 = 0x800;
+    private static final int VERSION_DEFAULT = 20;
+    private static final int VERSION_ZIP64 = 45;
+    private static final long ZIP32_LIMIT = 0xFFFFFFFFL;
+    private static final int ZIP32_ENTRY_LIMIT = 0xFFFF;
+    // 1980-02-01 00:00, the earliest DOS timestamp that survives time zone conversion.
+    private static final int FIXED_DOS_DATE_TIME = (2 << 21) | (1 << 16);
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+    private final OutputStream output;
+    private final List<CentralRecord> centralRecords = new ArrayList<>();
+    private final byte[] copyBuffer = new byte[COPY_BUFFER_BYTES];
+    private long offset;
+    private int rawCopiedEntries;
+    private boolean finished;
+
+    PackageJarWriter(final OutputStream output) {
+        this.output = output;
+    }
+
+    /**
+     * Writes {@code META-INF/} and {@code META-INF/MANIFEST.MF} first, where {@link java.util.jar.JarInputStream}
+     * expects them.
+     */
+    void writeManifest(final Manifest manifest) throws IOException {
+        putDirectory("META-INF/");
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        manifest.write(bytes);
+        putPrepared(prepare(JarFile.MANIFEST_NAME, bytes.toByteArray()));
+    }
+
+    void putDirectory(final String name) throws IOException {
+        writeEntry(name, 0, 0L, new byte[0], 0L, FIXED_DOS_DATE_TIME);
+    }
+
+    void putBytes(final String name, final byte[] content) throws IOException {
+        putPrepared(prepare(name, content));
+    }
+
+    /**
+     * Compresses {@code content} for {@link #putPrepared}. Safe to call from several threads at once.
+     */
+    static PreparedEntry prepare(final String name, final byte[] content) {
+        final CRC32 crc = new CRC32();
+        crc.update(content);
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(content);
+            deflater.finish();
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, content.length / 2));
+            final byte[] buffer = new byte[8 * 1024];
+            while (!deflater.finished()) {
+                final int count = deflater.deflate(buffer);
+                compressed.write(buffer, 0, count);
+            }
+            if (compressed.size() >= content.length) {
+                return new PreparedEntry(name, 0, crc.getValue(), content, content.length);
+            }
+            return new PreparedEntry(name, 8, crc.getValue(), compressed.toByteArray(), content.length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    void putPrepared(final PreparedEntry entry) throws IOException {
+        writeEntry(entry.name(), entry.method(), entry.crc(), entry.data(), entry.size(), FIXED_DOS_DATE_TIME);
+    }
+
+    /**
+     * Copies one entry of {@code source} into this jar under {@code name} without decompressing it, keeping
+     * its timestamp.
+     */
+    void copyRaw(final SourceJar source, final SourceJar.Entry entry, final String name) throws IOException {
+        final long dataStart = source.dataStart(entry);
+        final long localOffset = offset;
+        final byte[] nameBytes = name.getBytes(UTF_8);
+        writeLocalHeader(nameBytes, entry.method(), entry.crc(), entry.compressedSize(), entry.size(), entry.dosTime());
+        long remaining = entry.compressedSize();
+        long position = dataStart;
+        while (remaining > 0) {
+            final int chunk = (int) Math.min(copyBuffer.length, remaining);
+            source.readFully(position, copyBuffer, chunk);
+            write(copyBuffer, 0, chunk);
+            position += chunk;
+            remaining -= chunk;
+        }
+        centralRecords.add(new CentralRecord(
+                nameBytes,
+                entry.method(),
+                entry.crc(),
+                entry.compressedSize(),
+                entry.size(),
+                entry.dosTime(),
+                localOffset
+        ));
+        rawCopiedEntries++;
+    }
+
+    int rawCopiedEntries() {
+        return rawCopiedEntries;
+    }
+
+    /**
+     * Writes the central directory, switching to zip64 end records when the entry count or offsets need them.
+     */
+    void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        final long centralStart = offset;
+        for (CentralRecord record : centralRecords) {
+            writeCentralHeader(record);
+        }
+        final long centralSize = offset - centralStart;
+        final boolean zip64 = centralRecords.size() >= ZIP32_ENTRY_LIMIT
+                || centralStart >= ZIP32_LIMIT
+                || centralSize >= ZIP32_LIMIT;
+        if (zip64) {
+            final long zip64EndOffset = offset;
+            final ByteBuffer end = buffer(56);
+            end.putInt(ZIP64_END_SIGNATURE);
+            end.putLong(44L);
+            end.putShort((short) VERSION_ZIP64);
+            end.putShort((short) VERSION_ZIP64);
+            end.putInt(0);
+            end.putInt(0);
+            end.putLong(centralRecords.size());
+            end.putLong(centralRecords.size());
+            end.putLong(centralSize);
+            end.putLong(centralStart);
+            write(end);
+            final ByteBuffer locator = buffer(20);
+            locator.putInt(ZIP64_LOCATOR_SIGNATURE);
+            locator.putInt(0);
+            locator.putLong(zip64EndOffset);
+            locator.putInt(1);
+            write(locator);
+        }
+        final ByteBuffer end = buffer(END_SIZE);
+        end.putInt(END_SIGNATURE);
+        end.putShort((short) 0);
+        end.putShort((short) 0);
+        end.putShort((short) Math.min(centralRecords.size(), ZIP32_ENTRY_LIMIT));
+        end.putShort((short) Math.min(centralRecords.size(), ZIP32_ENTRY_LIMIT));
+        end.putInt((int) Math.min(centralSize, ZIP32_LIMIT));
+        end.putInt((int) Math.min(centralStart, ZIP32_LIMIT));
+        end.putShort((short) 0);
+        write(end);
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            output.close();
+        }
+    }
+
+    private void writeEntry(
+            final String name,
+            final int method,
+            final long crc,
+            final byte[] data,
+            final long size,
+            final int dosTime
+    ) throws IOException {
+        if (size >= ZIP32_LIMIT) {
+            throw new IOException("Jar entry exceeds 4 GiB: " + name);
+        }
+        final long localOffset = offset;
+        final byte[] nameBytes = name.getBytes(UTF_8);
+        writeLocalHeader(nameBytes, method, crc, data.length, size, dosTime);
+        write(data, 0, data.length);
+        centralRecords.add(new CentralRecord(nameBytes, method, crc, data.length, size, dosTime, localOffset));
+    }
+
+    private void writeLocalHeader(
+            final byte[] nameBytes,
+            final int method,
+            final long crc,
+            final long compressedSize,
+            final long size,
+            final int dosTime
+    ) throws IOException {
+        final ByteBuffer header = buffer(LOCAL_HEADER_SIZE);
+        header.putInt(LOCAL_HEADER_SIGNATURE);
+        header.putShort((short) VERSION_DEFAULT);
+        header.putShort((short) FLAG_UTF8);
+        header.putShort((short) method);
+        header.putInt(dosTime);
+        header.putInt((int) crc);
+        header.putInt((int) compressedSize);
+        header.putInt((int) size);
+        header.putShort((short) nameBytes.length);
+        header.putShort((short) 0);
+        write(header);
+        write(nameBytes, 0, nameBytes.length);
+    }
+
+    private void writeCentralHeader(final CentralRecord record) throws IOException {
+        final boolean zip64Offset = record.localOffset() >= ZIP32_LIMIT;
+        final ByteBuffer header = buffer(CENTRAL_HEADER_SIZE);
+        header.putInt(CENTRAL_HEADER_SIGNATURE);
+        header.putShort((short) (zip64Offset ? VERSION_ZIP64 : VERSION_DEFAULT));
+        header.putShort((short) (zip64Offset ? VERSION_ZIP64 : VERSION_DEFAULT));
+        header.putShort((short) FLAG_UTF8);
+        header.putShort((short) record.method());
+        header.putInt(record.dosTime());
+        header.putInt((int) record.crc());
+        header.putInt((int) record.compressedSize());
+        header.putInt((int) record.size());
+        header.putShort((short) record.nameBytes().length);
+        header.putShort((short) (zip64Offset ? 12 : 0));
+        header.putShort((short) 0);
+        header.putShort((short) 0);
+        header.putShort((short) 0);
+        header.putInt(0);
+        header.putInt((int) (zip64Offset ? ZIP32_LIMIT : record.localOffset()));
+        write(header);
+        write(record.nameBytes(), 0, record.nameBytes().length);
+        if (zip64Offset) {
+            final ByteBuffer extra = buffer(12);
+            extra.putShort((short) 0x0001);
+            extra.putShort((short) 8);
+            extra.putLong(record.localOffset());
+            write(extra);
+        }
+    }
+
+    private static ByteBuffer buffer(final int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private void write(final ByteBuffer buffer) throws IOException {
+        write(buffer.array(), 0, buffer.position());
+    }
+
+    private void write(final byte[] bytes, final int start, final int length) throws IOException {
+        output.write(bytes, start, length);
+        offset += length;
+    }
+
+    /**
+     * An entry compressed ahead of time; {@code method} is 0 (stored) or 8 (deflated).
+     */
+    record PreparedEntry(String name, int method, long crc, byte[] data, long size) {
+    }
+
+    private record CentralRecord(
+            byte[] nameBytes,
+            int method,
+            long crc,
+            long compressedSize,
+            long size,
+            int dosTime,
+            long localOffset
+    ) {
+    }
+
+    /**
+     * Central-directory view of a dependency jar whose entries can be copied without recompression.
+     */
+    static final class SourceJar implements Closeable {
+        private final FileChannel channel;
+        private final long baseOffset;
+        private final List<Entry> entries;
+
+        private SourceJar(final FileChannel channel, final long baseOffset, final List<Entry> entries) {
+            this.channel = channel;
+            this.baseOffset = baseOffset;
+            this.entries = entries;
+        }
+
+        /**
+         * Opens {@code jar}, or returns {@code null} when it uses zip64, encryption, multiple disks, or a
+         * compression method other than stored/deflated; callers then fall back to {@link JarFile}.
+         */
+        static SourceJar open(final Path jar) throws IOException {
+            final FileChannel channel = FileChannel.open(jar, StandardOpenOption.READ);
+            try {
+                final SourceJar sourceJar = readCentralDirectory(channel);
+                if (sourceJar == null) {
+                    channel.close();
+                }
+                return sourceJar;
+            } catch (final IOException | RuntimeException exception) {
+                channel.close();
+                throw exception;
+            }
+        }
+
+        List<Entry> entries() {
+            return entries;
+        }
+
+        /**
+         * Returns the uncompressed bytes of {@code entry}, for entries the packager merges rather than copies.
+         */
+        byte[] readContent(final Entry entry) throws IOException {
+            final byte[] compressed = new byte[Math.toIntExact(entry.compressedSize())];
+            readFully(dataStart(entry), compressed, compressed.length);
+            if (entry.method() == 0) {
+                return compressed;
+            }
+            final Inflater inflater = new Inflater(true);
+            try {
+                inflater.setInput(compressed);
+                final byte[] content = new byte[Math.toIntExact(entry.size())];
+                int filled = 0;
+                while (filled < content.length) {
+                    final int count = inflater.inflate(content, filled, content.length - filled);
+                    if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new IOException("Truncated deflate data for jar entry " + entry.name());
+                    }
+                    filled += count;
+                }
+                return content;
+            } catch (final DataFormatException dataFormatException) {
+                throw new IOException("Corrupt deflate data for jar entry " + entry.name(), dataFormatException);
+            } finally {
+                inflater.end();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private long dataStart(final Entry entry) throws IOException {
+            final ByteBuffer header = buffer(LOCAL_HEADER_SIZE);
+            readFully(baseOffset + entry.localHeaderOffset(), header);
+            if (header.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+                throw new IOException("Missing local header for jar entry " + entry.name());
+            }
+            final int nameLength = Short.toUnsignedInt(header.getShort(26));
+            final int extraLength = Short.toUnsignedInt(header.getShort(28));
+            return baseOffset + entry.localHeaderOffset() + LOCAL_HEADER_SIZE + nameLength + extraLength;
+        }
+
+        private void readFully(final long position, final byte[] target, final int length) throws IOException {
+            readFully(position, ByteBuffer.wrap(target, 0, length));
+        }
+
+        private void readFully(final long position, final ByteBuffer target) throws IOException {
+            readFully(channel, position, target);
+        }
+
+        private static SourceJar readCentralDirectory(final FileChannel channel) throws IOException {
+            final long fileSize = channel.size();
+            final int tailSize = (int) Math.min(fileSize, END_SIZE + 0xFFFF);
+            if (tailSize < END_SIZE) {
+                return null;
+            }
+            final ByteBuffer tail = buffer(tailSize);
+            final long tailStart = fileSize - tailSize;
+            readFully(channel, tailStart, tail);
+            int endPosition = -1;
+            for (int position = tailSize - END_SIZE; position >= 0; position--) {
+                if (tail.getInt(position) == END_SIGNATURE
+                        && position + END_SIZE + Short.toUnsignedInt(tail.getShort(position + 20)) == tailSize) {
+                    endPosition = position;
+                    break;
+                }
+            }
+            if (endPosition < 0) {
+                return null;
+            }
+            final int disk = Short.toUnsignedInt(tail.getShort(endPosition + 4));
+            final int centralDisk = Short.toUnsignedInt(tail.getShort(endPosition + 6));
+            final int entryCount = Short.toUnsignedInt(tail.getShort(endPosition + 10));
+            final long centralSize = Integer.toUnsignedLong(tail.getInt(endPosition + 12));
+            final long centralOffset = Integer.toUnsignedLong(tail.getInt(endPosition + 16));
+            final long endOffset = tailStart + endPosition;
+            if (disk != 0 || centralDisk != 0 || entryCount == ZIP32_ENTRY_LIMIT
+                    || centralSize == ZIP32_LIMIT || centralOffset == ZIP32_LIMIT
+                    || centralSize > endOffset || centralSize > Integer.MAX_VALUE) {
+                return null;
+            }
+            final long centralStart = endOffset - centralSize;
+            final long baseOffset = centralStart - centralOffset;
+            if (baseOffset < 0) {
+                return null;
+            }
+            final ByteBuffer central = buffer((int) centralSize);
+            readFully(channel, centralStart, central);
+            final List<Entry> entries = new ArrayList<>(entryCount);
+            int position = 0;
+            for (int index = 0; index < entryCount; index++) {
+                if (position + CENTRAL_HEADER_SIZE > central.capacity()
+                        || central.getInt(position) != CENTRAL_HEADER_SIGNATURE) {
+                    return null;
+                }
+                final int flags = Short.toUnsignedInt(central.getShort(position + 8));
+                final int method = Short.toUnsignedInt(central.getShort(position + 10));
+                final int dosTime = central.getInt(position + 12);
+                final long crc = Integer.toUnsignedLong(central.getInt(position + 16));
+                final long compressedSize = Integer.toUnsignedLong(central.getInt(position + 20));
+                final long size = Integer.toUnsignedLong(central.getInt(position + 24));
+                final int nameLength = Short.toUnsignedInt(central.getShort(position + 28));
+                final int extraLength = Short.toUnsignedInt(central.getShort(position + 30));
+                final int commentLength = Short.toUnsignedInt(central.getShort(position + 32));
+                final long localHeaderOffset = Integer.toUnsignedLong(central.getInt(position + 42));
+                if ((flags & FLAG_ENCRYPTED) != 0 || (method != 0 && method != 8)
+                        || compressedSize == ZIP32_LIMIT || size == ZIP32_LIMIT || localHeaderOffset == ZIP32_LIMIT
+                        || position + CENTRAL_HEADER_SIZE + nameLength > central.capacity()) {
+                    return null;
+                }
+                final String name = new String(
+                        central.array(),
+                        position + CENTRAL_HEADER_SIZE,
+                        nameLength,
+                        UTF_8
+                );
+                entries.add(new Entry(
+                        name,
+                        method,
+                        crc,
+                        compressedSize,
+                        size,
+                        dosTime,
+                        localHeaderOffset
+                ));
+                position += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+            }
+            return new SourceJar(channel, baseOffset, List.copyOf(entries));
+        }
+
+        private static void readFully(final FileChannel channel, final long position, final ByteBuffer target)
+                throws IOException {
+            long cursor = position;
+            while (target.hasRemaining()) {
+                final int count = channel.read(target, cursor);
+                if (count < 0) {
+                    throw new EOFException("Unexpected end of jar at offset " + cursor);
+                }
+                cursor += count;
+            }
+        }
+
+        record Entry(
+                String name,
+                int method,
+                long crc,
+                long compressedSize,
+                long size,
+                int dosTime,
+                long localHeaderOffset
+        ) {
+            boolean isDirectory() {
+                return name.endsWith("/");
+            }
+        }
+    }
+}
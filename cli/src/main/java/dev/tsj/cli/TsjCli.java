@@ -5,6 +5,7 @@ import dev.tsj.cli.fixtures.FixtureHarness;
 import dev.tsj.cli.fixtures.FixtureSuiteResult;
 import dev.tsj.cli.fixtures.FixtureRunResult;
 import dev.tsj.compiler.backend.jvm.BackendJvmModule;
+import dev.tsj.compiler.backend.jvm.CompilationWorkers;
 import dev.tsj.compiler.backend.jvm.InteropBridgeArtifact;
 import dev.tsj.compiler.backend.jvm.InteropBridgeGenerator;
 import dev.tsj.compiler.backend.jvm.JvmBytecodeCompiler;
@@ -12,15 +13,24 @@ import dev.tsj.compiler.backend.jvm.JvmBytecodeRunner;
 import dev.tsj.compiler.backend.jvm.JvmCompilationException;
 import dev.tsj.compiler.backend.jvm.JvmCompiledArtifact;
 import dev.tsj.compiler.backend.jvm.JvmOptimizationOptions;
+import dev.tsj.compiler.backend.jvm.JvmProgramHost;
 import dev.tsj.compiler.frontend.FrontendModule;
 import dev.tsj.compiler.frontend.StrictEligibilityChecker;
 import dev.tsj.compiler.ir.IrModule;
 import dev.tsj.runtime.RuntimeModule;
 import dev.tsj.runtime.TsjJavaInterop;
+import dev.tsj.runtime.TsjRealm;
 import dev.tsj.runtime.TsjRuntime;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.File;
@@ -33,27 +43,32 @@ import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
 import java.util.stream.Stream;
 import java.util.regex.Pattern;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
-import java.util.jar.JarOutputStream;
 import java.util.jar.Manifest;
 import javax.tools.Diagnostic;
 import javax.tools.DiagnosticCollector;
@@ -76,6 +91,7 @@ public final class TsjCli {
     private static final String COMMAND_FIXTURES = "fixtures";
     private static final String COMMAND_INTEROP = "interop";
     private static final String COMMAND_BENCH = "bench";
+    private static final String COMMAND_SERVE = "serve";
     private static final String OPTION_OUT = "--out";
     private static final String OPTION_CLASSPATH = "--classpath";
     private static final String OPTION_JAR = "--jar";
@@ -95,16 +111,55 @@ public final class TsjCli {
     private static final String OPTION_SMOKE_ENDPOINT_URL = "--smoke-endpoint-url";
     private static final String OPTION_SMOKE_TIMEOUT_MS = "--smoke-timeout-ms";
     private static final String OPTION_SMOKE_POLL_MS = "--smoke-poll-ms";
+    private static final String OPTION_CDS_ARCHIVE = "--cds-archive";
+    private static final String OPTION_JAR_LAYOUT = "--jar-layout";
     private static final String OPTION_TS_STACKTRACE = "--ts-stacktrace";
     private static final String OPTION_OPTIMIZE = "--optimize";
     private static final String OPTION_NO_OPTIMIZE = "--no-optimize";
+    private static final String OPTION_NO_INLINE = "--no-inline";
     private static final String OPTION_MODE = "--mode";
+    private static final String OPTION_CACHE_DIR = "--cache-dir";
+    private static final String OPTION_PROFILE = "--profile";
+    private static final String OPTION_PROFILE_OUT = "--profile-out";
     private static final String OPTION_WARMUP = "--warmup";
     private static final String OPTION_ITERATIONS = "--iterations";
     private static final String OPTION_SMOKE = "--smoke";
+    private static final String OPTION_PORT = "--port";
+    private static final String OPTION_MAX_REQUESTS = "--max-requests";
+    private static final String SERVE_REQUEST_RUN = "run";
+    private static final String SERVE_REQUEST_STOP = "stop";
+    private static final String SERVE_TOKEN_FILE = "serve.token";
+    private static final int SERVE_TOKEN_BYTES = 32;
     private static final String PACKAGE_STAGING_SUFFIX = ".tmp";
+    private static final String PACKAGE_LAYER_DIRECTORY = "lib";
+    private static final int PACKAGE_WRITE_BUFFER_BYTES = 256 * 1024;
+    private static final long PACKAGE_COMPRESS_MIN_BATCH_BYTES = 256L * 1024L;
     private static final String SYSTEM_PROPERTY_GLOBAL_POLICY_PATH = "tsj.interop.globalPolicy";
     private static final String SYSTEM_PROPERTY_BACKEND_ADDITIONAL_CLASSPATH = "tsj.backend.additionalClasspath";
+    private static final String SYSTEM_PROPERTY_BACKEND_CACHE_DIR = "tsj.backend.cacheDir";
+    private static final String CLI_CACHE_LAYOUT_VERSION = "v1";
+    private static final String MAVEN_METADATA_CACHE_KIND = "maven-metadata";
+    private static final String CLASSPATH_MEDIATION_CACHE_KIND = "classpath-mediation";
+    private static final int MAVEN_CACHE_MAGIC = 0x54534A4D;
+    private static final int MAVEN_CACHE_FORMAT = 1;
+    private static final int MAVEN_METADATA_MEMO_MAX_ENTRIES = 1024;
+    private static final int CLASSPATH_MEDIATION_MEMO_MAX_ENTRIES = 64;
+    private static final Map<ClasspathSymbolIndexer.EntryStamp, Optional<MavenJarMetadata>> MAVEN_METADATA_MEMO =
+            Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        final Map.Entry<ClasspathSymbolIndexer.EntryStamp, Optional<MavenJarMetadata>> eldest
+                ) {
+                    return size() > MAVEN_METADATA_MEMO_MAX_ENTRIES;
+                }
+            });
+    private static final Map<String, ClasspathResolution> CLASSPATH_MEDIATION_MEMO =
+            Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, ClasspathResolution> eldest) {
+                    return size() > CLASSPATH_MEDIATION_MEMO_MAX_ENTRIES;
+                }
+            });
     private static final String ENV_GLOBAL_POLICY_PATH = "TSJ_INTEROP_GLOBAL_POLICY";
     private static final String PROJECT_POLICY_RELATIVE_PATH = ".tsj/interop-policy.properties";
     private static final String POLICY_KEY_INTEROP_POLICY = "interop.policy";
@@ -129,6 +184,10 @@ public final class TsjCli {
     private static final String ARTIFACT_INTEROP_SCOPE_EXCLUDED_ENTRY_PREFIX = "interopClasspath.scope.excluded.";
     private static final String ARTIFACT_INTEROP_CLASSLOADER_ISOLATION = "interopClasspath.classloaderIsolation";
     private static final String ARTIFACT_INTEROP_CLASS_INDEX_PATH = "interopClasspath.classIndex.path";
+    private static final String ARTIFACT_INTEROP_CLASS_INDEX_BINARY_PATH = "interopClasspath.classIndex.binaryPath";
+    private static final String ARTIFACT_INTEROP_CLASS_INDEX_REUSED_SECTIONS =
+            "interopClasspath.classIndex.reusedSections";
+    private static final String ARTIFACT_INTEROP_CLASS_INDEX_RELOADED = "interopClasspath.classIndex.reloaded";
     private static final String ARTIFACT_INTEROP_CLASS_INDEX_SYMBOL_COUNT = "interopClasspath.classIndex.symbolCount";
     private static final String ARTIFACT_INTEROP_CLASS_INDEX_DUPLICATE_COUNT =
             "interopClasspath.classIndex.duplicateCount";
@@ -145,6 +204,7 @@ public final class TsjCli {
     private static final int MAX_AGGREGATE_AUDIT_EVENTS = 256;
     private static final long DEFAULT_SMOKE_ENDPOINT_TIMEOUT_MS = 5_000L;
     private static final long DEFAULT_SMOKE_ENDPOINT_POLL_MS = 150L;
+    private static final long INTEROP_BRIDGE_JAVAC_MIN_BATCH_BYTES = 64L * 1024L;
     private static final String AUTO_INTEROP_SPEC_FILE = ".tsj-auto-interop.properties";
     private static final String AUTO_INTEROP_CACHE_FILE = ".tsj-auto-interop-cache.properties";
     private static final String AUTO_INTEROP_CACHE_FINGERPRINT_KEY = "fingerprint";
@@ -187,7 +247,7 @@ public final class TsjCli {
                 throw CliFailure.usage(
                         "TSJ-CLI-001",
                         "Missing command. Expected `compile`, `run`, `package`, `fixtures`, "
-                                + "`interop`, or `bench`."
+                                + "`interop`, `bench`, or `serve`."
                 );
             }
 
@@ -198,11 +258,12 @@ public final class TsjCli {
                 case COMMAND_FIXTURES -> handleFixtures(args, stdout);
                 case COMMAND_INTEROP -> handleInterop(args, stdout);
                 case COMMAND_BENCH -> handleBench(args, stdout);
+                case COMMAND_SERVE -> handleServe(args, stdout);
                 default -> throw CliFailure.usage(
                         "TSJ-CLI-002",
                         "Unknown command `" + args[0]
                                 + "`. Expected `compile`, `run`, `package`, `fixtures`, "
-                                + "`interop`, or `bench`."
+                                + "`interop`, `bench`, or `serve`."
                 );
             };
         } catch (final CliFailure failure) {
@@ -244,6 +305,8 @@ public final class TsjCli {
                             + "[--interop-denylist <patterns>] [--interop-audit-log <path>] "
                             + "[--interop-audit-aggregate <path>] "
                             + "[--mode default|jvm-strict] "
+                            + "[--cache-dir <dir>] "
+                            + "[--profile <file>] [--profile-out <file>] "
                             + "[--interop-trace]"
             );
         }
@@ -267,6 +330,7 @@ public final class TsjCli {
                 options.interopTraceEnabled(),
                 JvmBytecodeRunner.ClassloaderIsolationMode.SHARED,
                 options.compilerMode(),
+                options.cacheDir(),
                 COMMAND_COMPILE
         );
 
@@ -337,11 +401,44 @@ public final class TsjCli {
         context.put("interopBridgeTargets", Integer.toString(artifact.interopBridgeResult().targets().size()));
         context.put("interopBridgeSourceCount", Integer.toString(artifact.interopBridgeResult().sourceCount()));
         context.put("interopBridgeRegenerated", Boolean.toString(artifact.interopBridgeResult().regenerated()));
+        if (options.interopTraceEnabled()) {
+            final InteropBridgeGenerator.OverloadCacheStats overloadCacheStats =
+                    artifact.interopBridgeResult().overloadCacheStats();
+            context.put("interopOverloadCacheHits", Integer.toString(overloadCacheStats.resolutionHits()));
+            context.put("interopOverloadCacheMisses", Integer.toString(overloadCacheStats.resolutionMisses()));
+            context.put("interopConversionCacheHits", Integer.toString(overloadCacheStats.conversionHits()));
+            context.put("interopConversionCacheMisses", Integer.toString(overloadCacheStats.conversionMisses()));
+        }
         context.put("optConstantFolding", Boolean.toString(options.optimizationOptions().constantFoldingEnabled()));
         context.put(
                 "optDeadCodeElimination",
                 Boolean.toString(options.optimizationOptions().deadCodeEliminationEnabled())
         );
+        context.put("optInlining", Boolean.toString(options.optimizationOptions().inliningEnabled()));
+        context.put("optInlinedCallSites", Integer.toString(artifact.optimizationReport().inlinedCallSites()));
+        context.put(
+                "optSpecializedCallSites",
+                Integer.toString(artifact.optimizationReport().specializedCallSites())
+        );
+        context.put("optProfile", artifact.profileReport().status());
+        context.put(
+                "optProfileSpecializedSites",
+                Integer.toString(artifact.profileReport().numericAddSites()
+                        + artifact.profileReport().reorderedBranchSites()
+                        + artifact.profileReport().devirtualizedCallSites())
+        );
+        if ("stale".equals(artifact.profileReport().status())) {
+            emitDiagnostic(
+                    stdout,
+                    "WARN",
+                    "TSJ-PROFILE-STALE",
+                    "Type feedback profile has no entry for this program; compiled without profile guidance.",
+                    Map.of(
+                            "profile", String.valueOf(options.optimizationOptions().profileInput()),
+                            "unit", artifact.profileReport().unit()
+                    )
+            );
+        }
         context.put(
                 "incrementalCacheEnabled",
                 Boolean.toString(artifact.incrementalCompilationReport().cacheEnabled())
@@ -366,6 +463,24 @@ public final class TsjCli {
                 "incrementalBackendStage",
                 artifact.incrementalCompilationReport().backend().name().toLowerCase(Locale.ROOT)
         );
+        context.put(
+                "incrementalRebuiltModules",
+                Integer.toString(artifact.incrementalCompilationReport().rebuiltModules().size())
+        );
+        context.put(
+                "incrementalModuleCount",
+                Integer.toString(artifact.incrementalCompilationReport().moduleCount())
+        );
+        context.put(
+                "descriptorCachePersistent",
+                Boolean.toString(artifact.descriptorCacheReport().persistent())
+        );
+        context.put("descriptorCacheHits", Long.toString(artifact.descriptorCacheReport().hits()));
+        context.put("descriptorCacheMisses", Long.toString(artifact.descriptorCacheReport().misses()));
+        context.put(
+                "descriptorCacheAppended",
+                Integer.toString(artifact.descriptorCacheReport().appendedEntries())
+        );
         emitDiagnostic(
                 stdout,
                 "INFO",
@@ -389,15 +504,34 @@ public final class TsjCli {
                             + "[--interop-trace] "
                             + "[--mode default|jvm-strict] "
                             + "[--classloader-isolation shared|app-isolated] "
+                            + "[--cache-dir <dir>] "
+                            + "[--profile <file>] [--profile-out <file>] "
                             + "[--ts-stacktrace]"
             );
         }
         final Path entryPath = Path.of(args[1]);
         final RunOptions runOptions = parseRunOptions(entryPath, args, 2);
         final Path outDir = runOptions.outDir() != null ? runOptions.outDir() : Path.of(DEFAULT_RUN_OUT_DIR);
-        final CompiledArtifact artifact;
+        final CompiledArtifact artifact = compileRunArtifact(entryPath, outDir, runOptions, COMMAND_RUN);
+        executeArtifact(
+                artifact,
+                stdout,
+                stderr,
+                runOptions.showTsStackTrace(),
+                runOptions.interopTraceEnabled(),
+                runOptions.classloaderIsolationMode()
+        );
+        return 0;
+    }
+
+    private static CompiledArtifact compileRunArtifact(
+            final Path entryPath,
+            final Path outDir,
+            final RunOptions runOptions,
+            final String commandName
+    ) {
         try {
-            artifact = compileArtifact(
+            return compileArtifact(
                     entryPath,
                     outDir,
                     runOptions.optimizationOptions(),
@@ -415,7 +549,8 @@ public final class TsjCli {
                     runOptions.interopTraceEnabled(),
                     runOptions.classloaderIsolationMode(),
                     runOptions.compilerMode(),
-                    COMMAND_RUN
+                    runOptions.cacheDir(),
+                    commandName
             );
         } catch (final CliFailure failure) {
             final CliFailure remappedFailure = maybeRunInteropClasspathFailure(failure, entryPath);
@@ -424,17 +559,203 @@ public final class TsjCli {
             }
             throw failure;
         }
-        executeArtifact(
-                artifact,
+    }
+
+    private static int handleServe(final String[] args, final PrintStream stdout) {
+        if (args.length < 2) {
+            throw CliFailure.usage(
+                    "TSJ-CLI-019",
+                    "Missing entry file. Usage: tsj serve <entry.ts> [--port <n>] [--max-requests <n>] "
+                            + "[--out <dir>] [--classpath <entries>] [--jar <jar-file>] "
+                            + "[--interop-spec <interop.properties>] [--interop-policy strict|broad] "
+                            + "[--ack-interop-risk] [--interop-trace] "
+                            + "[--mode default|jvm-strict] "
+                            + "[--classloader-isolation shared|app-isolated] "
+                            + "[--cache-dir <dir>] "
+                            + "[--profile <file>] [--profile-out <file>] "
+                            + "[--ts-stacktrace]"
+            );
+        }
+        final Path entryPath = Path.of(args[1]);
+        int port = 0;
+        int maxRequests = 0;
+        final List<String> runArgs = new ArrayList<>(List.of(COMMAND_SERVE, args[1]));
+        int index = 2;
+        while (index < args.length) {
+            final String token = args[index];
+            if (OPTION_PORT.equals(token) || OPTION_MAX_REQUESTS.equals(token)) {
+                if (index + 1 >= args.length) {
+                    throw CliFailure.usage(
+                            "TSJ-CLI-006",
+                            "Missing value for `" + token + "`."
+                    );
+                }
+                if (OPTION_PORT.equals(token)) {
+                    port = parseNonNegativeInteger(args[index + 1], OPTION_PORT);
+                    if (port > 65_535) {
+                        throw CliFailure.usage(
+                                "TSJ-CLI-010",
+                                "Value for `--port` must be <= 65535."
+                        );
+                    }
+                } else {
+                    maxRequests = parsePositiveInteger(args[index + 1], OPTION_MAX_REQUESTS);
+                }
+                index += 2;
+                continue;
+            }
+            runArgs.add(token);
+            index++;
+        }
+        final RunOptions runOptions = parseRunOptions(entryPath, runArgs.toArray(String[]::new), 2);
+        final Path outDir = runOptions.outDir() != null ? runOptions.outDir() : Path.of(DEFAULT_RUN_OUT_DIR);
+
+        int servedRequests = 0;
+        final Path tokenFile = outDir.resolve(SERVE_TOKEN_FILE).toAbsolutePath().normalize();
+        try (ServeSession session = new ServeSession(entryPath, outDir, runOptions);
+             ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            session.refresh();
+            // Loopback is reachable by every local user, so requests must prove they can read the
+            // owner-only token file written for this session.
+            final String sessionToken = writeServeToken(tokenFile);
+            emitDiagnostic(
+                    stdout,
+                    "INFO",
+                    "TSJ-SERVE-READY",
+                    "Warm program host listening.",
+                    Map.of(
+                            "entry", entryPath.toString(),
+                            "host", serverSocket.getInetAddress().getHostAddress(),
+                            "port", Integer.toString(serverSocket.getLocalPort()),
+                            "tokenFile", tokenFile.toString(),
+                            "moduleFingerprint", moduleFingerprint()
+                    )
+            );
+            stdout.flush();
+            boolean stopRequested = false;
+            while (!stopRequested && (maxRequests == 0 || servedRequests < maxRequests)) {
+                try (Socket socket = serverSocket.accept()) {
+                    stopRequested = serveRequest(socket, session, sessionToken);
+                }
+                servedRequests++;
+            }
+        } catch (final IOException ioException) {
+            throw CliFailure.runtime(
+                    "TSJ-SERVE-001",
+                    "Warm program host failed: " + ioException.getMessage(),
+                    Map.of("entry", entryPath.toString())
+            );
+        } finally {
+            try {
+                Files.deleteIfExists(tokenFile);
+            } catch (final IOException ignored) {
+                // A stale token is useless once the session socket is closed.
+            }
+        }
+        emitDiagnostic(
                 stdout,
-                stderr,
-                runOptions.showTsStackTrace(),
-                runOptions.interopTraceEnabled(),
-                runOptions.classloaderIsolationMode()
+                "INFO",
+                "TSJ-SERVE-STOP",
+                "Warm program host stopped.",
+                Map.of(
+                        "entry", entryPath.toString(),
+                        "requests", Integer.toString(servedRequests)
+                )
         );
         return 0;
     }
 
+    private static String writeServeToken(final Path tokenFile) throws IOException {
+        final byte[] secret = new byte[SERVE_TOKEN_BYTES];
+        new java.security.SecureRandom().nextBytes(secret);
+        final String token = java.util.HexFormat.of().formatHex(secret);
+        Files.createDirectories(tokenFile.getParent());
+        Files.deleteIfExists(tokenFile);
+        if (tokenFile.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(
+                    tokenFile,
+                    java.nio.file.attribute.PosixFilePermissions.asFileAttribute(
+                            java.nio.file.attribute.PosixFilePermissions.fromString("rw-------")
+                    )
+            );
+        } else {
+            Files.createFile(tokenFile);
+            final File file = tokenFile.toFile();
+            file.setReadable(false, false);
+            file.setWritable(false, false);
+            file.setReadable(true, true);
+            file.setWritable(true, true);
+        }
+        Files.writeString(tokenFile, token + "\n", java.nio.charset.StandardCharsets.UTF_8);
+        return token;
+    }
+
+    private static boolean serveRequest(
+            final Socket socket,
+            final ServeSession session,
+            final String sessionToken
+    ) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(
+                socket.getInputStream(),
+                java.nio.charset.StandardCharsets.UTF_8
+        ));
+        final PrintStream output = new PrintStream(
+                socket.getOutputStream(),
+                true,
+                java.nio.charset.StandardCharsets.UTF_8
+        );
+        final String rawRequest = reader.readLine();
+        final String[] requestParts = (rawRequest == null ? "" : rawRequest.trim()).split("\\s+", 2);
+        final String presentedToken = requestParts[0];
+        if (!MessageDigest.isEqual(
+                presentedToken.getBytes(java.nio.charset.StandardCharsets.UTF_8),
+                sessionToken.getBytes(java.nio.charset.StandardCharsets.UTF_8)
+        )) {
+            emitDiagnostic(
+                    output,
+                    "ERROR",
+                    "TSJ-SERVE-003",
+                    "Serve request rejected: expected `<session-token> run|stop` with the token from the session "
+                            + "token file.",
+                    Map.of()
+            );
+            output.flush();
+            return false;
+        }
+        final String request = requestParts.length > 1 ? requestParts[1].trim() : "";
+        if (SERVE_REQUEST_STOP.equals(request)) {
+            emitDiagnostic(output, "INFO", "TSJ-SERVE-STOP", "Warm program host stopping.", Map.of());
+            output.flush();
+            return true;
+        }
+        if (!SERVE_REQUEST_RUN.equals(request)) {
+            emitDiagnostic(
+                    output,
+                    "ERROR",
+                    "TSJ-SERVE-002",
+                    "Unknown serve request `" + request + "`. Expected `run` or `stop`.",
+                    Map.of()
+            );
+            output.flush();
+            return false;
+        }
+        try {
+            session.run(output);
+        } catch (final CliFailure failure) {
+            emitDiagnostic(output, "ERROR", failure.code, failure.getMessage(), failure.context);
+        } catch (final RuntimeException runtimeException) {
+            emitDiagnostic(
+                    output,
+                    "ERROR",
+                    "TSJ-CLI-500",
+                    "Unhandled CLI error: " + runtimeException.getMessage(),
+                    Map.of()
+            );
+        }
+        output.flush();
+        return false;
+    }
+
     private static int handlePackage(
             final String[] args,
             final PrintStream stdout
@@ -452,9 +773,11 @@ public final class TsjCli {
                             + "[--interop-trace] "
                             + "[--resource-dir <dir>] [--boot-jar <jar-file>] [--smoke-run] "
                             + "[--smoke-endpoint-url <http-url>] [--smoke-timeout-ms <ms>] "
-                            + "[--smoke-poll-ms <ms>] "
+                            + "[--smoke-poll-ms <ms>] [--cds-archive] [--jar-layout fat|layered] "
                             + "[--mode default|jvm-strict] "
-                            + "[--optimize|--no-optimize]"
+                            + "[--cache-dir <dir>] "
+                            + "[--profile <file>] [--profile-out <file>] "
+                            + "[--optimize|--no-optimize] [--no-inline]"
             );
         }
         final Path entryPath = Path.of(args[1]);
@@ -480,6 +803,7 @@ public final class TsjCli {
                     options.interopTraceEnabled(),
                     JvmBytecodeRunner.ClassloaderIsolationMode.SHARED,
                     options.compilerMode(),
+                    options.cacheDir(),
                     COMMAND_PACKAGE
             );
         } catch (final CliFailure failure) {
@@ -490,6 +814,9 @@ public final class TsjCli {
             );
         }
         final PackagedJarResult packageResult = packageJar(artifact, options, metadata);
+        final StartupArchiveResult startupArchive = options.cdsArchive()
+                ? trainStartupArchive(packageResult.jarPath(), packageResult.mainClassName(), options, metadata)
+                : null;
         final Map<String, String> packageContext = new LinkedHashMap<>();
         packageContext.put("entry", artifact.entryPath().toAbsolutePath().normalize().toString());
         packageContext.put("outDir", options.outDir().toAbsolutePath().normalize().toString());
@@ -499,6 +826,16 @@ public final class TsjCli {
         packageContext.put("resourceDirs", Integer.toString(packageResult.resourceDirectories().size()));
         packageContext.put("fatJarDependencyEntries", Integer.toString(packageResult.dependencyEntryCount()));
         packageContext.put("fatJarDependencySources", Integer.toString(packageResult.dependencySources().size()));
+        packageContext.put("jarLayout", packageResult.jarLayout().cliValue());
+        if (packageResult.jarLayout() == PackageJarLayout.LAYERED) {
+            packageContext.put("dependencyLayers", Integer.toString(packageResult.dependencyLayerCount()));
+            packageContext.put(
+                    "dependencyLayersReused",
+                    Integer.toString(packageResult.reusedDependencyLayerCount())
+            );
+        } else {
+            packageContext.put("fatJarRawCopiedEntries", Integer.toString(packageResult.rawCopiedEntryCount()));
+        }
         packageContext.put("interopPolicy", options.interopPolicy().cliValue());
         packageContext.put("interopPolicySource", options.interopPolicySource());
         packageContext.put("compilerMode", options.compilerMode().cliValue());
@@ -509,6 +846,15 @@ public final class TsjCli {
                 "interopAuditAggregate",
                 options.interopAuditAggregatePath() == null ? "" : options.interopAuditAggregatePath().toString()
         );
+        if (startupArchive != null) {
+            packageContext.put("cdsArchive", startupArchive.cdsArchivePath().toString());
+            packageContext.put(
+                    "aotCache",
+                    startupArchive.aotCachePath() == null ? "" : startupArchive.aotCachePath().toString()
+            );
+            packageContext.put("launcherArgsFile", startupArchive.launcherArgsFile().toString());
+            packageContext.put("cdsTrainingMs", Long.toString(startupArchive.trainingMs()));
+        }
         emitDiagnostic(
                 stdout,
                 "INFO",
@@ -521,6 +867,7 @@ public final class TsjCli {
                     artifact,
                     packageResult.jarPath(),
                     packageResult.mainClassName(),
+                    List.of(),
                     options,
                     metadata
             );
@@ -552,6 +899,18 @@ public final class TsjCli {
                 smokeContext.put("endpointUrl", smokeResult.endpointUrl());
                 smokeContext.put("endpointPort", smokeResult.endpointPort());
             }
+            if (startupArchive != null) {
+                final PackageSmokeResult archiveSmokeResult = smokeRunPackagedJar(
+                        artifact,
+                        packageResult.jarPath(),
+                        packageResult.mainClassName(),
+                        List.of("@" + startupArchive.launcherArgsFile()),
+                        options,
+                        metadata
+                );
+                smokeContext.put("cdsRuntimeMs", Long.toString(archiveSmokeResult.runtimeMs()));
+                smokeContext.put("cdsReproCommand", archiveSmokeResult.reproCommand());
+            }
             emitDiagnostic(
                     stdout,
                     "INFO",
@@ -704,7 +1063,7 @@ public final class TsjCli {
             throw CliFailure.usage(
                     "TSJ-CLI-009",
                     "Missing benchmark report path. Usage: tsj bench <report.json> [--warmup <n>] "
-                            + "[--iterations <n>] [--smoke] [--optimize|--no-optimize]"
+                            + "[--iterations <n>] [--smoke] [--optimize|--no-optimize] [--no-inline]"
             );
         }
         final Path reportPath = Path.of(args[1]);
@@ -761,6 +1120,7 @@ public final class TsjCli {
         boolean interopApprovalExplicit = false;
         boolean interopTraceEnabled = false;
         CompilerMode compilerMode = CompilerMode.DEFAULT;
+        Path cacheDir = null;
         Path interopAuditLogPath = null;
         Path interopAuditAggregatePath = null;
         String interopApprovalToken = null;
@@ -906,7 +1266,23 @@ public final class TsjCli {
                 index += 2;
                 continue;
             }
-            final JvmOptimizationOptions toggled = parseOptimizationToggle(token);
+            if (OPTION_CACHE_DIR.equals(token)) {
+                if (index + 1 >= args.length) {
+                    throw CliFailure.usage(
+                            "TSJ-CLI-006",
+                            "Missing value for `--cache-dir`."
+                    );
+                }
+                cacheDir = normalizeCacheDirectory(args[index + 1]);
+                index += 2;
+                continue;
+            }
+            if (OPTION_PROFILE.equals(token) || OPTION_PROFILE_OUT.equals(token)) {
+                optimizationOptions = parseProfileOption(args, index, optimizationOptions);
+                index += 2;
+                continue;
+            }
+            final JvmOptimizationOptions toggled = parseOptimizationToggle(token, optimizationOptions);
             if (toggled != null) {
                 optimizationOptions = toggled;
                 index++;
@@ -947,7 +1323,8 @@ public final class TsjCli {
         );
         final ClasspathResolution classpathResolution = normalizeClasspathInputs(
                 classpathInputs,
-                ClasspathUsageMode.COMPILE
+                ClasspathUsageMode.COMPILE,
+                cacheDir
         );
         return new CompileOptions(
                 outDir,
@@ -965,7 +1342,8 @@ public final class TsjCli {
                 interopAuditLogPath,
                 interopAuditAggregatePath,
                 interopTraceEnabled,
-                compilerMode
+                compilerMode,
+                cacheDir
         );
     }
 
@@ -1035,7 +1413,7 @@ public final class TsjCli {
                 index++;
                 continue;
             }
-            final JvmOptimizationOptions toggled = parseOptimizationToggle(token);
+            final JvmOptimizationOptions toggled = parseOptimizationToggle(token, optimizationOptions);
             if (toggled != null) {
                 optimizationOptions = toggled;
                 index++;
@@ -1107,6 +1485,7 @@ public final class TsjCli {
             final boolean interopTraceEnabled,
             final JvmBytecodeRunner.ClassloaderIsolationMode classloaderIsolationMode,
             final CompilerMode compilerMode,
+            final Path cacheDir,
             final String commandName
     ) {
         if (!Files.exists(entryPath) || !Files.isRegularFile(entryPath)) {
@@ -1183,6 +1562,10 @@ public final class TsjCli {
         final JvmCompiledArtifact jvmArtifact;
         JvmBytecodeCompiler.IncrementalCompilationReport incrementalCompilationReport =
                 JvmBytecodeCompiler.IncrementalCompilationReport.disabled();
+        JvmBytecodeCompiler.OptimizationReport optimizationReport = JvmBytecodeCompiler.OptimizationReport.none();
+        JvmBytecodeCompiler.ProfileReport profileReport = JvmBytecodeCompiler.ProfileReport.none();
+        JvmBytecodeCompiler.DescriptorCacheReport descriptorCacheReport =
+                JvmBytecodeCompiler.DescriptorCacheReport.none();
         final String previousAdditionalClasspath = System.getProperty(SYSTEM_PROPERTY_BACKEND_ADDITIONAL_CLASSPATH);
         final String additionalClasspath = renderAdditionalBackendClasspath(interopClasspathEntries);
         if (additionalClasspath.isBlank()) {
@@ -1190,12 +1573,19 @@ public final class TsjCli {
         } else {
             System.setProperty(SYSTEM_PROPERTY_BACKEND_ADDITIONAL_CLASSPATH, additionalClasspath);
         }
+        final String previousCacheDir = System.getProperty(SYSTEM_PROPERTY_BACKEND_CACHE_DIR);
+        if (cacheDir != null) {
+            System.setProperty(SYSTEM_PROPERTY_BACKEND_CACHE_DIR, cacheDir.toString());
+        }
         try {
             final JvmBytecodeCompiler.BackendMode backendMode = compilerMode == CompilerMode.JVM_STRICT
                     ? JvmBytecodeCompiler.BackendMode.JVM_STRICT
                     : JvmBytecodeCompiler.BackendMode.DEFAULT;
             jvmArtifact = backendCompiler.compile(entryPath, outDir, optimizationOptions, backendMode);
             incrementalCompilationReport = backendCompiler.lastIncrementalCompilationReport();
+            optimizationReport = backendCompiler.lastOptimizationReport();
+            profileReport = backendCompiler.lastProfileReport();
+            descriptorCacheReport = backendCompiler.lastDescriptorCacheReport();
         } catch (final JvmCompilationException compilationException) {
             throw CliFailure.runtime(
                     compilationException.code(),
@@ -1208,6 +1598,11 @@ public final class TsjCli {
             } else {
                 System.setProperty(SYSTEM_PROPERTY_BACKEND_ADDITIONAL_CLASSPATH, previousAdditionalClasspath);
             }
+            if (previousCacheDir == null) {
+                System.clearProperty(SYSTEM_PROPERTY_BACKEND_CACHE_DIR);
+            } else {
+                System.setProperty(SYSTEM_PROPERTY_BACKEND_CACHE_DIR, previousCacheDir);
+            }
         }
         final AutoInteropBridgeResult interopBridgeResult;
         try {
@@ -1236,12 +1631,23 @@ public final class TsjCli {
             );
         }
         final ClasspathSymbolIndexer.ClasspathSymbolIndex classpathSymbolIndex;
+        final boolean classIndexReloaded;
         try {
-            classpathSymbolIndex = ClasspathSymbolIndexer.build(
+            final ClasspathSymbolIndexer.ClasspathSymbolIndex reloadedIndex = ClasspathSymbolIndexer.readBinaryIndexFile(
+                    ClasspathSymbolIndexer.binaryIndexPath(outDir),
                     jvmArtifact.outputDirectory(),
                     interopClasspathEntries,
                     classloaderIsolationMode
             );
+            classIndexReloaded = reloadedIndex != null;
+            classpathSymbolIndex = classIndexReloaded
+                    ? reloadedIndex
+                    : ClasspathSymbolIndexer.build(
+                            jvmArtifact.outputDirectory(),
+                            interopClasspathEntries,
+                            classloaderIsolationMode,
+                            ClasspathSymbolIndexer.binaryIndexPath(outDir)
+                    );
         } catch (final ClasspathSymbolIndexer.AppIsolationConflictException conflictException) {
             final Map<String, String> context = new LinkedHashMap<>();
             context.put("entry", entryPath.toAbsolutePath().normalize().toString());
@@ -1399,6 +1805,15 @@ public final class TsjCli {
                     classloaderIsolationMode.cliValue()
             );
             properties.setProperty(ARTIFACT_INTEROP_CLASS_INDEX_PATH, classIndexPath.toString());
+            properties.setProperty(
+                    ARTIFACT_INTEROP_CLASS_INDEX_BINARY_PATH,
+                    ClasspathSymbolIndexer.binaryIndexPath(outDir).toString()
+            );
+            properties.setProperty(
+                    ARTIFACT_INTEROP_CLASS_INDEX_REUSED_SECTIONS,
+                    Integer.toString(classpathSymbolIndex.reusedSections())
+            );
+            properties.setProperty(ARTIFACT_INTEROP_CLASS_INDEX_RELOADED, Boolean.toString(classIndexReloaded));
             properties.setProperty(
                     ARTIFACT_INTEROP_CLASS_INDEX_SYMBOL_COUNT,
                     Integer.toString(classpathSymbolIndex.symbolCount())
@@ -1432,6 +1847,52 @@ public final class TsjCli {
                     "optimization.deadCodeEliminationEnabled",
                     Boolean.toString(optimizationOptions.deadCodeEliminationEnabled())
             );
+            properties.setProperty(
+                    "optimization.inliningEnabled",
+                    Boolean.toString(optimizationOptions.inliningEnabled())
+            );
+            properties.setProperty(
+                    "optimization.loopOptimizationEnabled",
+                    Boolean.toString(optimizationOptions.loopOptimizationEnabled())
+            );
+            properties.setProperty(
+                    "optimization.inlinedCallSites",
+                    Integer.toString(optimizationReport.inlinedCallSites())
+            );
+            properties.setProperty(
+                    "optimization.specializedCallSites",
+                    Integer.toString(optimizationReport.specializedCallSites())
+            );
+            properties.setProperty(
+                    "optimization.removedFunctions",
+                    Integer.toString(optimizationReport.removedFunctions())
+            );
+            properties.setProperty(
+                    "optimization.shakenDeclarations",
+                    Integer.toString(optimizationReport.shakenDeclarations())
+            );
+            properties.setProperty(
+                    "optimization.shakenModules",
+                    Integer.toString(optimizationReport.shakenModules())
+            );
+            properties.setProperty("optimization.profile", profileReport.status());
+            properties.setProperty("optimization.profileUnit", profileReport.unit());
+            properties.setProperty(
+                    "optimization.profileInstrumentedSites",
+                    Integer.toString(profileReport.instrumentedSites())
+            );
+            properties.setProperty(
+                    "optimization.profileNumericAddSites",
+                    Integer.toString(profileReport.numericAddSites())
+            );
+            properties.setProperty(
+                    "optimization.profileReorderedBranchSites",
+                    Integer.toString(profileReport.reorderedBranchSites())
+            );
+            properties.setProperty(
+                    "optimization.profileDevirtualizedCallSites",
+                    Integer.toString(profileReport.devirtualizedCallSites())
+            );
             properties.setProperty(
                     "incremental.cacheEnabled",
                     Boolean.toString(incrementalCompilationReport.cacheEnabled())
@@ -1453,6 +1914,17 @@ public final class TsjCli {
                     "incremental.backend",
                     incrementalCompilationReport.backend().name().toLowerCase(Locale.ROOT)
             );
+            properties.setProperty(
+                    "incremental.moduleCount",
+                    Integer.toString(incrementalCompilationReport.moduleCount())
+            );
+            properties.setProperty(
+                    "incremental.rebuiltModules",
+                    String.join(
+                            File.pathSeparator,
+                            incrementalCompilationReport.rebuiltModules().stream().map(Path::toString).toList()
+                    )
+            );
 
             try (OutputStream outputStream = Files.newOutputStream(artifactPath)) {
                 properties.store(outputStream, "TSJ compiled artifact");
@@ -1476,7 +1948,10 @@ public final class TsjCli {
                             classpathSymbolIndex.mrJarVersionedWinnerCount()
                     ),
                     interopBridgeResult,
-                    incrementalCompilationReport
+                    incrementalCompilationReport,
+                    optimizationReport,
+                    profileReport,
+                    descriptorCacheReport
             );
         } catch (final IOException ioException) {
             throw CliFailure.runtime(
@@ -1717,10 +2192,17 @@ public final class TsjCli {
         final Attributes attributes = manifest.getMainAttributes();
         attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
         attributes.put(Attributes.Name.MAIN_CLASS, mainClassName);
-        attributes.putValue("TSJ-Boot-Layout", "fat");
+        attributes.putValue("TSJ-Boot-Layout", options.jarLayout().cliValue());
+        final DependencyLayers dependencyLayers = options.jarLayout() == PackageJarLayout.LAYERED
+                ? writeDependencyLayers(jarPath, dependencySources, artifact.entryPath(), metadata)
+                : DependencyLayers.none();
+        if (!dependencyLayers.classPath().isEmpty()) {
+            attributes.put(Attributes.Name.CLASS_PATH, String.join(" ", dependencyLayers.classPath()));
+        }
 
         int resourceFileCount = 0;
         int dependencyEntryCount = 0;
+        final int rawCopiedEntryCount;
         final Set<String> writtenEntries = new LinkedHashSet<>();
         final MergedJarMetadata mergedJarMetadata = new MergedJarMetadata();
         final Path stagedJarPath = stagedPackageJarPath(jarPath);
@@ -1730,11 +2212,15 @@ public final class TsjCli {
                 StandardOpenOption.TRUNCATE_EXISTING,
                 StandardOpenOption.WRITE
         );
-             OutputStream stagedOutputStream = Channels.newOutputStream(stagedChannel);
-             JarOutputStream jarOutputStream = new JarOutputStream(stagedOutputStream, manifest)) {
+             PackageJarWriter jarWriter = new PackageJarWriter(
+                     new BufferedOutputStream(Channels.newOutputStream(stagedChannel), PACKAGE_WRITE_BUFFER_BYTES)
+             )) {
+            jarWriter.writeManifest(manifest);
+            writtenEntries.add("META-INF/");
+            writtenEntries.add(JarFile.MANIFEST_NAME);
             try {
                 writeDirectoryToJar(
-                        jarOutputStream,
+                        jarWriter,
                         artifact.jvmArtifact().outputDirectory(),
                         artifact.jvmArtifact().outputDirectory(),
                         writtenEntries,
@@ -1753,7 +2239,7 @@ public final class TsjCli {
             for (Path resourceDirectory : resourceDirectories) {
                 try {
                     resourceFileCount += writeDirectoryToJar(
-                            jarOutputStream,
+                            jarWriter,
                             resourceDirectory,
                             resourceDirectory,
                             writtenEntries,
@@ -1773,7 +2259,7 @@ public final class TsjCli {
             }
             try {
                 addFileToJar(
-                        jarOutputStream,
+                        jarWriter,
                         artifact.artifactPath(),
                         "META-INF/tsj/program.tsj.properties",
                         writtenEntries,
@@ -1789,29 +2275,31 @@ public final class TsjCli {
                         Map.of()
                 );
             }
-            for (Path dependencySource : dependencySources) {
-                try {
-                    dependencyEntryCount += writeClasspathEntryToJar(
-                            jarOutputStream,
-                            dependencySource,
-                            writtenEntries,
-                            mergedJarMetadata
-                    );
-                } catch (final IOException ioException) {
-                    throw packageFailure(
-                            metadata,
-                            "repackage",
-                            "Failed to merge dependency into packaged jar: " + dependencySource
-                                    + " (" + ioException.getMessage() + ")",
-                            jarPath,
-                            artifact.entryPath(),
-                            Map.of("dependency", dependencySource.toString())
-                    );
+            if (options.jarLayout() == PackageJarLayout.FAT) {
+                for (Path dependencySource : dependencySources) {
+                    try {
+                        dependencyEntryCount += writeClasspathEntryToJar(
+                                jarWriter,
+                                dependencySource,
+                                writtenEntries,
+                                mergedJarMetadata
+                        );
+                    } catch (final IOException ioException) {
+                        throw packageFailure(
+                                metadata,
+                                "repackage",
+                                "Failed to merge dependency into packaged jar: " + dependencySource
+                                        + " (" + ioException.getMessage() + ")",
+                                jarPath,
+                                artifact.entryPath(),
+                                Map.of("dependency", dependencySource.toString())
+                        );
+                    }
                 }
             }
-            dependencyEntryCount += writeMergedMetadataToJar(jarOutputStream, writtenEntries, mergedJarMetadata);
-            jarOutputStream.finish();
-            jarOutputStream.flush();
+            dependencyEntryCount += writeMergedMetadataToJar(jarWriter, writtenEntries, mergedJarMetadata);
+            jarWriter.finish();
+            rawCopiedEntryCount = jarWriter.rawCopiedEntries();
             stagedChannel.force(true);
         } catch (final IOException ioException) {
             deleteQuietly(stagedJarPath);
@@ -1832,10 +2320,137 @@ public final class TsjCli {
                 resourceFileCount,
                 resourceDirectories,
                 dependencyEntryCount,
-                dependencySources
+                dependencySources,
+                options.jarLayout(),
+                rawCopiedEntryCount,
+                dependencyLayers.classPath().size(),
+                dependencyLayers.reusedCount()
         );
     }
 
+    /**
+     * Places each dependency of a layered package as its own jar under {@code lib/} next to the app jar.
+     *
+     * <p>Dependency jars are copied as-is and classpath directories are packed into deterministic jars. A layer
+     * whose bytes are unchanged from the previous package is left untouched, so its timestamp, and any
+     * container image layer built from the directory, stays reusable.
+     */
+    private static DependencyLayers writeDependencyLayers(
+            final Path jarPath,
+            final List<Path> dependencySources,
+            final Path entryPath,
+            final PackageCommandMetadata metadata
+    ) {
+        final Path libDirectory = jarPath.resolveSibling(PACKAGE_LAYER_DIRECTORY);
+        final List<String> classPath = new ArrayList<>();
+        final Set<String> layerNames = new LinkedHashSet<>();
+        int reusedCount = 0;
+        for (Path dependencySource : dependencySources) {
+            final Path normalized = dependencySource.toAbsolutePath().normalize();
+            final String fileName = normalized.getFileName() == null ? "" : normalized.getFileName().toString();
+            final boolean directory = Files.isDirectory(normalized);
+            if (!directory && !(Files.isRegularFile(normalized)
+                    && fileName.toLowerCase(Locale.ROOT).endsWith(".jar"))) {
+                continue;
+            }
+            final String layerName = uniqueLayerName(directory ? fileName + ".jar" : fileName, layerNames);
+            final Path layerPath = libDirectory.resolve(layerName);
+            final Path stagedLayerPath = stagedPackageJarPath(layerPath);
+            try {
+                Files.createDirectories(libDirectory);
+                if (directory) {
+                    try (PackageJarWriter layerWriter = new PackageJarWriter(new BufferedOutputStream(
+                            Files.newOutputStream(stagedLayerPath),
+                            PACKAGE_WRITE_BUFFER_BYTES
+                    ))) {
+                        final Set<String> layerEntries = new LinkedHashSet<>();
+                        final MergedJarMetadata layerMetadata = new MergedJarMetadata();
+                        writeDirectoryToJar(layerWriter, normalized, normalized, layerEntries, layerMetadata);
+                        writeMergedMetadataToJar(layerWriter, layerEntries, layerMetadata);
+                    }
+                } else {
+                    if (sameLayerFile(normalized, layerPath, true)) {
+                        classPath.add(layerClassPathEntry(layerName));
+                        reusedCount++;
+                        continue;
+                    }
+                    Files.copy(
+                            normalized,
+                            stagedLayerPath,
+                            StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.COPY_ATTRIBUTES
+                    );
+                }
+                if (directory && sameLayerFile(stagedLayerPath, layerPath, false)) {
+                    Files.delete(stagedLayerPath);
+                    reusedCount++;
+                } else {
+                    publishLayerFile(stagedLayerPath, layerPath);
+                }
+            } catch (final IOException ioException) {
+                deleteQuietly(stagedLayerPath);
+                throw packageFailure(
+                        metadata,
+                        "repackage",
+                        "Failed to write dependency layer: " + dependencySource
+                                + " (" + ioException.getMessage() + ")",
+                        jarPath,
+                        entryPath,
+                        Map.of("dependency", dependencySource.toString())
+                );
+            }
+            classPath.add(layerClassPathEntry(layerName));
+        }
+        return new DependencyLayers(List.copyOf(classPath), reusedCount);
+    }
+
+    private static String uniqueLayerName(final String candidate, final Set<String> layerNames) {
+        if (layerNames.add(candidate)) {
+            return candidate;
+        }
+        final int extension = candidate.lastIndexOf('.');
+        final String stem = extension < 0 ? candidate : candidate.substring(0, extension);
+        final String suffix = extension < 0 ? "" : candidate.substring(extension);
+        int ordinal = 2;
+        while (!layerNames.add(stem + "-" + ordinal + suffix)) {
+            ordinal++;
+        }
+        return stem + "-" + ordinal + suffix;
+    }
+
+    private static String layerClassPathEntry(final String layerName) {
+        try {
+            return new URI(null, null, PACKAGE_LAYER_DIRECTORY + "/" + layerName, null).getRawPath();
+        } catch (final java.net.URISyntaxException uriSyntaxException) {
+            throw new IllegalStateException("Invalid dependency layer name: " + layerName, uriSyntaxException);
+        }
+    }
+
+    private static boolean sameLayerFile(final Path candidate, final Path existing, final boolean trustTimestamps)
+            throws IOException {
+        if (!Files.isRegularFile(existing) || Files.size(candidate) != Files.size(existing)) {
+            return false;
+        }
+        if (trustTimestamps
+                && Files.getLastModifiedTime(candidate).equals(Files.getLastModifiedTime(existing))) {
+            return true;
+        }
+        return Files.mismatch(candidate, existing) == -1L;
+    }
+
+    private static void publishLayerFile(final Path stagedLayerPath, final Path layerPath) throws IOException {
+        try {
+            Files.move(
+                    stagedLayerPath,
+                    layerPath,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE
+            );
+        } catch (final AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+            Files.move(stagedLayerPath, layerPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
     private static Path stagedPackageJarPath(final Path jarPath) {
         return jarPath.resolveSibling(jarPath.getFileName().toString() + PACKAGE_STAGING_SUFFIX);
     }
@@ -2029,11 +2644,13 @@ public final class TsjCli {
             final CompiledArtifact artifact,
             final Path jarPath,
             final String mainClassName,
+            final List<String> launcherOptions,
             final PackageOptions options,
             final PackageCommandMetadata metadata
     ) {
         final List<String> command = new ArrayList<>();
         command.add(resolveJavaLauncher().toString());
+        command.addAll(launcherOptions);
         if (options.interopTraceEnabled()) {
             command.add("-Dtsj.interop.trace=true");
         }
@@ -2137,6 +2754,330 @@ public final class TsjCli {
         }
     }
 
+    private static StartupArchiveResult trainStartupArchive(
+            final Path jarPath,
+            final String mainClassName,
+            final PackageOptions options,
+            final PackageCommandMetadata metadata
+    ) {
+        final String fileName = jarPath.getFileName().toString();
+        final String stem = fileName.endsWith(".jar")
+                ? fileName.substring(0, fileName.length() - ".jar".length())
+                : fileName;
+        final Path absoluteJarPath = jarPath.toAbsolutePath().normalize();
+        final Path cdsArchivePath = absoluteJarPath.resolveSibling(stem + ".jsa");
+        final Path aotConfigurationPath = absoluteJarPath.resolveSibling(stem + ".aotconf");
+        final Path aotCachePath = absoluteJarPath.resolveSibling(stem + ".aot");
+        final Path launcherArgsFile = absoluteJarPath.resolveSibling(stem + ".jvm-args");
+        try {
+            Files.deleteIfExists(cdsArchivePath);
+            Files.deleteIfExists(aotConfigurationPath);
+            Files.deleteIfExists(aotCachePath);
+            Files.deleteIfExists(launcherArgsFile);
+        } catch (final IOException ioException) {
+            throw startupArchiveFailure(
+                    metadata,
+                    "Failed to clear previous startup archive: " + ioException.getMessage(),
+                    jarPath,
+                    mainClassName,
+                    ""
+            );
+        }
+
+        // Archives record the classpath as launched and validate it against the working directory,
+        // so training uses absolute jar and archive paths to keep them usable from any directory.
+        final long startedAtNanos = System.nanoTime();
+        runStartupTraining(
+                absoluteJarPath,
+                mainClassName,
+                List.of("-XX:ArchiveClassesAtExit=" + cdsArchivePath),
+                true,
+                cdsArchivePath,
+                options,
+                metadata
+        );
+        // AOT caches (JEP 483) also keep linked classes and need the two-step record/create workflow.
+        final boolean aotCacheSupported = Runtime.version().feature() >= 24;
+        if (aotCacheSupported) {
+            runStartupTraining(
+                    absoluteJarPath,
+                    mainClassName,
+                    List.of("-XX:AOTMode=record", "-XX:AOTConfiguration=" + aotConfigurationPath),
+                    true,
+                    aotConfigurationPath,
+                    options,
+                    metadata
+            );
+            runStartupTraining(
+                    absoluteJarPath,
+                    mainClassName,
+                    List.of(
+                            "-XX:AOTMode=create",
+                            "-XX:AOTConfiguration=" + aotConfigurationPath,
+                            "-XX:AOTCache=" + aotCachePath
+                    ),
+                    false,
+                    aotCachePath,
+                    options,
+                    metadata
+            );
+        }
+        final long trainingMs = nanosToMillis(System.nanoTime() - startedAtNanos);
+
+        // Quoting keeps the absolute path a single argfile argument whatever the directory contains.
+        final String launcherOption = quoteArgfileValue(
+                aotCacheSupported
+                        ? "-XX:AOTCache=" + aotCachePath
+                        : "-XX:SharedArchiveFile=" + cdsArchivePath
+        );
+        try {
+            Files.deleteIfExists(aotConfigurationPath);
+            Files.writeString(launcherArgsFile, launcherOption + "\n", java.nio.charset.StandardCharsets.UTF_8);
+        } catch (final IOException ioException) {
+            throw startupArchiveFailure(
+                    metadata,
+                    "Failed to write launcher arguments file: " + ioException.getMessage(),
+                    jarPath,
+                    mainClassName,
+                    ""
+            );
+        }
+        verifyStartupArchive(absoluteJarPath, mainClassName, launcherArgsFile, aotCacheSupported, options, metadata);
+        return new StartupArchiveResult(
+                cdsArchivePath,
+                aotCacheSupported ? aotCachePath : null,
+                launcherArgsFile,
+                trainingMs
+        );
+    }
+
+    /**
+     * Starts a JVM with the launcher argfile from outside the jar directory and requires it to map the
+     * archive; {@code -Xshare:on} and {@code -XX:AOTMode=on} turn an unusable archive into a startup error
+     * instead of a silent fallback.
+     */
+    private static void verifyStartupArchive(
+            final Path jarPath,
+            final String mainClassName,
+            final Path launcherArgsFile,
+            final boolean aotCache,
+            final PackageOptions options,
+            final PackageCommandMetadata metadata
+    ) {
+        final List<String> command = List.of(
+                resolveJavaLauncher().toString(),
+                aotCache ? "-XX:AOTMode=on" : "-Xshare:on",
+                "@" + launcherArgsFile,
+                "-cp",
+                jarPath.toString(),
+                "-version"
+        );
+        final String reproCommand = String.join(" ", command);
+        Path verifyLogPath = null;
+        Process process = null;
+        try {
+            verifyLogPath = Files.createTempFile("tsj-package-archive-check-", ".log");
+            final ProcessBuilder processBuilder = new ProcessBuilder(command);
+            processBuilder.directory(verifyLogPath.getParent().toFile());
+            processBuilder.redirectErrorStream(true);
+            processBuilder.redirectOutput(verifyLogPath.toFile());
+            process = processBuilder.start();
+            if (!process.waitFor(options.smokeTimeoutMs(), java.util.concurrent.TimeUnit.MILLISECONDS)) {
+                throw startupArchiveFailure(
+                        metadata,
+                        "Startup archive check did not finish within " + options.smokeTimeoutMs() + " ms.",
+                        jarPath,
+                        mainClassName,
+                        reproCommand
+                );
+            }
+            if (process.exitValue() != 0) {
+                final Map<String, String> context = new LinkedHashMap<>();
+                context.put("stage", "package");
+                context.put("failureKind", "cds");
+                context.put("jar", jarPath.toString());
+                context.put("mainClass", mainClassName);
+                context.put("exitCode", Integer.toString(process.exitValue()));
+                context.put("outputPreview", truncateOutput(readSmokeLog(verifyLogPath), 240));
+                context.put("reproCommand", reproCommand);
+                throw CliFailure.runtime(
+                        metadata.packageFailureCode(),
+                        "Startup archive `" + launcherArgsFile + "` could not be mapped by a fresh JVM.",
+                        Map.copyOf(context)
+                );
+            }
+        } catch (final IOException ioException) {
+            throw startupArchiveFailure(
+                    metadata,
+                    "Failed to launch startup archive check: " + ioException.getMessage(),
+                    jarPath,
+                    mainClassName,
+                    reproCommand
+            );
+        } catch (final InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw startupArchiveFailure(
+                    metadata,
+                    "Startup archive check was interrupted.",
+                    jarPath,
+                    mainClassName,
+                    reproCommand
+            );
+        } finally {
+            if (process != null && process.isAlive()) {
+                process.destroyForcibly();
+            }
+            if (verifyLogPath != null) {
+                try {
+                    Files.deleteIfExists(verifyLogPath);
+                } catch (final IOException ignored) {
+                    // Ignore cleanup failures for temporary check logs.
+                }
+            }
+        }
+    }
+
+    private static String quoteArgfileValue(final String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static void runStartupTraining(
+            final Path jarPath,
+            final String mainClassName,
+            final List<String> launcherOptions,
+            final boolean runsApplication,
+            final Path expectedOutput,
+            final PackageOptions options,
+            final PackageCommandMetadata metadata
+    ) {
+        final List<String> command = new ArrayList<>();
+        command.add(resolveJavaLauncher().toString());
+        command.addAll(launcherOptions);
+        command.add("-jar");
+        command.add(jarPath.toString());
+        final String reproCommand = String.join(" ", command);
+        final boolean untilEndpoint = runsApplication
+                && options.smokeEndpointUrl() != null
+                && !options.smokeEndpointUrl().isBlank();
+
+        Path trainingLogPath = null;
+        Process process = null;
+        try {
+            trainingLogPath = Files.createTempFile("tsj-package-training-", ".log");
+            final ProcessBuilder processBuilder = new ProcessBuilder(command);
+            processBuilder.redirectErrorStream(true);
+            processBuilder.redirectOutput(trainingLogPath.toFile());
+            process = processBuilder.start();
+            final long deadline = System.nanoTime() + (options.smokeTimeoutMs() * 1_000_000L);
+            if (untilEndpoint) {
+                // Long-running services never exit on their own; a normal shutdown still writes the archive.
+                boolean healthy = probeEndpoint(options.smokeEndpointUrl(), trainingLogPath).success();
+                while (!healthy && process.isAlive() && System.nanoTime() < deadline) {
+                    Thread.sleep(options.smokePollMs());
+                    healthy = probeEndpoint(options.smokeEndpointUrl(), trainingLogPath).success();
+                }
+                process.destroy();
+                if (!healthy) {
+                    // An archive dumped from a start that never became healthy would capture the wrong classes.
+                    final Map<String, String> context = new LinkedHashMap<>();
+                    context.put("stage", "package");
+                    context.put("failureKind", "cds");
+                    context.put("jar", jarPath.toString());
+                    context.put("mainClass", mainClassName);
+                    context.put("endpointUrl", options.smokeEndpointUrl());
+                    context.put("outputPreview", truncateOutput(readSmokeLog(trainingLogPath), 240));
+                    context.put("reproCommand", reproCommand);
+                    throw CliFailure.runtime(
+                            metadata.packageFailureCode(),
+                            "Startup archive training run never passed the `"
+                                    + options.smokeEndpointUrl()
+                                    + "` probe within "
+                                    + options.smokeTimeoutMs()
+                                    + " ms.",
+                            Map.copyOf(context)
+                    );
+                }
+            }
+            final long remainingMs = Math.max(1L, nanosToMillis(deadline - System.nanoTime()));
+            if (!process.waitFor(remainingMs, java.util.concurrent.TimeUnit.MILLISECONDS)) {
+                throw startupArchiveFailure(
+                        metadata,
+                        "Startup archive training run did not finish within "
+                                + options.smokeTimeoutMs() + " ms.",
+                        jarPath,
+                        mainClassName,
+                        reproCommand
+                );
+            }
+            final int exitCode = process.exitValue();
+            if ((!untilEndpoint && exitCode != 0) || !Files.isRegularFile(expectedOutput)) {
+                final Map<String, String> context = new LinkedHashMap<>();
+                context.put("stage", "package");
+                context.put("failureKind", "cds");
+                context.put("jar", jarPath.toString());
+                context.put("mainClass", mainClassName);
+                context.put("exitCode", Integer.toString(exitCode));
+                context.put("outputPreview", truncateOutput(readSmokeLog(trainingLogPath), 240));
+                context.put("reproCommand", reproCommand);
+                throw CliFailure.runtime(
+                        metadata.packageFailureCode(),
+                        exitCode != 0 && !untilEndpoint
+                                ? "Startup archive training run failed with exit code " + exitCode + "."
+                                : "Startup archive training run did not produce `" + expectedOutput + "`.",
+                        Map.copyOf(context)
+                );
+            }
+        } catch (final IOException ioException) {
+            throw startupArchiveFailure(
+                    metadata,
+                    "Failed to launch startup archive training run: " + ioException.getMessage(),
+                    jarPath,
+                    mainClassName,
+                    reproCommand
+            );
+        } catch (final InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw startupArchiveFailure(
+                    metadata,
+                    "Startup archive training run was interrupted.",
+                    jarPath,
+                    mainClassName,
+                    reproCommand
+            );
+        } finally {
+            if (process != null && process.isAlive()) {
+                process.destroyForcibly();
+            }
+            if (trainingLogPath != null) {
+                try {
+                    Files.deleteIfExists(trainingLogPath);
+                } catch (final IOException ignored) {
+                    // Ignore cleanup failures for temporary training logs.
+                }
+            }
+        }
+    }
+
+    private static CliFailure startupArchiveFailure(
+            final PackageCommandMetadata metadata,
+            final String message,
+            final Path jarPath,
+            final String mainClassName,
+            final String reproCommand
+    ) {
+        return CliFailure.runtime(
+                metadata.packageFailureCode(),
+                message,
+                Map.of(
+                        "stage", "package",
+                        "failureKind", "cds",
+                        "jar", jarPath.toString(),
+                        "mainClass", mainClassName,
+                        "reproCommand", reproCommand
+                )
+        );
+    }
+
     private static boolean isStrictNativePackagedEntrypointClass(final Class<?> classType) {
         for (Class<?> implementedInterface : classType.getInterfaces()) {
             if ("__TsjStrictNativeInstance".equals(implementedInterface.getSimpleName())) {
@@ -2355,26 +3296,64 @@ public final class TsjCli {
     }
 
     private static int writeClasspathEntryToJar(
-            final JarOutputStream jarOutputStream,
+            final PackageJarWriter jarWriter,
             final Path classpathEntry,
             final Set<String> writtenEntries,
             final MergedJarMetadata mergedJarMetadata
     ) throws IOException {
         final Path normalized = classpathEntry.toAbsolutePath().normalize();
         if (Files.isDirectory(normalized)) {
-            return writeDirectoryToJar(jarOutputStream, normalized, normalized, writtenEntries, mergedJarMetadata);
+            return writeDirectoryToJar(jarWriter, normalized, normalized, writtenEntries, mergedJarMetadata);
         }
         final String fileName = normalized.getFileName() == null
                 ? ""
                 : normalized.getFileName().toString().toLowerCase(Locale.ROOT);
         if (Files.isRegularFile(normalized) && fileName.endsWith(".jar")) {
-            return writeJarFileToJar(jarOutputStream, normalized, writtenEntries, mergedJarMetadata);
+            return writeJarFileToJar(jarWriter, normalized, writtenEntries, mergedJarMetadata);
         }
         return 0;
     }
 
+    /**
+     * Merges a dependency jar, copying stored and deflated entries without recompressing them. Jars the raw
+     * reader does not handle (zip64, encrypted entries) are re-read through {@link JarFile}.
+     */
     private static int writeJarFileToJar(
-            final JarOutputStream jarOutputStream,
+            final PackageJarWriter jarWriter,
+            final Path sourceJar,
+            final Set<String> writtenEntries,
+            final MergedJarMetadata mergedJarMetadata
+    ) throws IOException {
+        int added = 0;
+        try (PackageJarWriter.SourceJar source = PackageJarWriter.SourceJar.open(sourceJar)) {
+            if (source == null) {
+                return writeJarFileToJarInflated(jarWriter, sourceJar, writtenEntries, mergedJarMetadata);
+            }
+            for (PackageJarWriter.SourceJar.Entry sourceEntry : source.entries()) {
+                if (sourceEntry.isDirectory()) {
+                    continue;
+                }
+                final String entryName = sourceEntry.name().replace('\\', '/');
+                if (shouldSkipDependencyEntry(entryName)) {
+                    continue;
+                }
+                if (mergedJarMetadata.supports(entryName)) {
+                    mergedJarMetadata.add(entryName, source.readContent(sourceEntry));
+                    continue;
+                }
+                if (!writtenEntries.add(entryName)) {
+                    continue;
+                }
+                ensureJarDirectories(jarWriter, entryName, writtenEntries);
+                jarWriter.copyRaw(source, sourceEntry, entryName);
+                added++;
+            }
+        }
+        return added;
+    }
+
+    private static int writeJarFileToJarInflated(
+            final PackageJarWriter jarWriter,
             final Path sourceJar,
             final Set<String> writtenEntries,
             final MergedJarMetadata mergedJarMetadata
@@ -2391,22 +3370,19 @@ public final class TsjCli {
                 if (shouldSkipDependencyEntry(entryName)) {
                     continue;
                 }
+                final byte[] content;
+                try (InputStream inputStream = jarFile.getInputStream(sourceEntry)) {
+                    content = inputStream.readAllBytes();
+                }
                 if (mergedJarMetadata.supports(entryName)) {
-                    try (InputStream inputStream = jarFile.getInputStream(sourceEntry)) {
-                        mergedJarMetadata.add(entryName, inputStream.readAllBytes());
-                    }
+                    mergedJarMetadata.add(entryName, content);
                     continue;
                 }
                 if (!writtenEntries.add(entryName)) {
                     continue;
                 }
-                ensureJarDirectories(jarOutputStream, entryName, writtenEntries);
-                final JarEntry mergedEntry = new JarEntry(entryName);
-                jarOutputStream.putNextEntry(mergedEntry);
-                try (InputStream inputStream = jarFile.getInputStream(sourceEntry)) {
-                    inputStream.transferTo(jarOutputStream);
-                }
-                jarOutputStream.closeEntry();
+                ensureJarDirectories(jarWriter, entryName, writtenEntries);
+                jarWriter.putBytes(entryName, content);
                 added++;
             }
         }
@@ -2424,14 +3400,20 @@ public final class TsjCli {
                 || upper.endsWith(".DSA");
     }
 
+    /**
+     * Adds the files of a directory in sorted order. File contents are read and compressed on the compile
+     * worker pool; entries are still written in the same order as a sequential walk.
+     */
     private static int writeDirectoryToJar(
-            final JarOutputStream jarOutputStream,
+            final PackageJarWriter jarWriter,
             final Path baseDirectory,
             final Path sourceDirectory,
             final Set<String> writtenEntries,
             final MergedJarMetadata mergedJarMetadata
     ) throws IOException {
         int added = 0;
+        final List<Path> selectedFiles = new ArrayList<>();
+        final List<String> selectedNames = new ArrayList<>();
         try (Stream<Path> paths = Files.walk(sourceDirectory)) {
             final List<Path> files = paths.filter(Files::isRegularFile).sorted().toList();
             for (Path file : files) {
@@ -2442,16 +3424,82 @@ public final class TsjCli {
                 if (entryName.isBlank()) {
                     continue;
                 }
-                if (addFileToJar(jarOutputStream, file, entryName, writtenEntries, mergedJarMetadata)) {
+                if (mergedJarMetadata.supports(entryName)) {
+                    mergedJarMetadata.add(entryName, Files.readAllBytes(file));
                     added++;
+                    continue;
+                }
+                if (writtenEntries.add(entryName)) {
+                    selectedFiles.add(file);
+                    selectedNames.add(entryName);
                 }
             }
         }
+        final List<PackageJarWriter.PreparedEntry> prepared = prepareJarEntries(selectedFiles, selectedNames);
+        for (PackageJarWriter.PreparedEntry entry : prepared) {
+            ensureJarDirectories(jarWriter, entry.name(), writtenEntries);
+            jarWriter.putPrepared(entry);
+            added++;
+        }
         return added;
     }
 
+    private static List<PackageJarWriter.PreparedEntry> prepareJarEntries(
+            final List<Path> files,
+            final List<String> entryNames
+    ) throws IOException {
+        final List<Integer> indexes = new ArrayList<>(files.size());
+        long totalBytes = 0L;
+        for (int index = 0; index < files.size(); index++) {
+            indexes.add(index);
+            totalBytes += packageFileSize(files.get(index));
+        }
+        final List<List<Integer>> batches = CompilationWorkers.partition(
+                indexes,
+                (int) Math.min(
+                        CompilationWorkers.parallelism(),
+                        Math.max(1L, totalBytes / PACKAGE_COMPRESS_MIN_BATCH_BYTES)
+                ),
+                index -> packageFileSize(files.get(index))
+        );
+        final List<Callable<List<PackageJarWriter.PreparedEntry>>> batchTasks = new ArrayList<>();
+        for (List<Integer> batch : batches) {
+            batchTasks.add(() -> {
+                final List<PackageJarWriter.PreparedEntry> entries = new ArrayList<>(batch.size());
+                for (int index : batch) {
+                    try {
+                        entries.add(PackageJarWriter.prepare(
+                                entryNames.get(index),
+                                Files.readAllBytes(files.get(index))
+                        ));
+                    } catch (final IOException ioException) {
+                        throw new java.io.UncheckedIOException(ioException);
+                    }
+                }
+                return entries;
+            });
+        }
+        final List<PackageJarWriter.PreparedEntry> prepared = new ArrayList<>(files.size());
+        try {
+            for (List<PackageJarWriter.PreparedEntry> batchEntries : CompilationWorkers.invokeAll(batchTasks)) {
+                prepared.addAll(batchEntries);
+            }
+        } catch (final java.io.UncheckedIOException uncheckedIOException) {
+            throw uncheckedIOException.getCause();
+        }
+        return prepared;
+    }
+
+    private static long packageFileSize(final Path file) {
+        try {
+            return Files.size(file);
+        } catch (final IOException ioException) {
+            return 0L;
+        }
+    }
+
     private static boolean addFileToJar(
-            final JarOutputStream jarOutputStream,
+            final PackageJarWriter jarWriter,
             final Path sourceFile,
             final String entryName,
             final Set<String> writtenEntries,
@@ -2465,16 +3513,13 @@ public final class TsjCli {
         if (!writtenEntries.add(normalizedEntry)) {
             return false;
         }
-        ensureJarDirectories(jarOutputStream, normalizedEntry, writtenEntries);
-        final JarEntry jarEntry = new JarEntry(normalizedEntry);
-        jarOutputStream.putNextEntry(jarEntry);
-        Files.copy(sourceFile, jarOutputStream);
-        jarOutputStream.closeEntry();
+        ensureJarDirectories(jarWriter, normalizedEntry, writtenEntries);
+        jarWriter.putBytes(normalizedEntry, Files.readAllBytes(sourceFile));
         return true;
     }
 
     private static void ensureJarDirectories(
-            final JarOutputStream jarOutputStream,
+            final PackageJarWriter jarWriter,
             final String entryName,
             final Set<String> writtenEntries
     ) throws IOException {
@@ -2482,20 +3527,18 @@ public final class TsjCli {
         while (slashIndex >= 0) {
             final String directoryEntry = entryName.substring(0, slashIndex + 1);
             if (writtenEntries.add(directoryEntry)) {
-                final JarEntry jarEntry = new JarEntry(directoryEntry);
-                jarOutputStream.putNextEntry(jarEntry);
-                jarOutputStream.closeEntry();
+                jarWriter.putDirectory(directoryEntry);
             }
             slashIndex = entryName.indexOf('/', slashIndex + 1);
         }
     }
 
     private static int writeMergedMetadataToJar(
-            final JarOutputStream jarOutputStream,
+            final PackageJarWriter jarWriter,
             final Set<String> writtenEntries,
             final MergedJarMetadata mergedJarMetadata
     ) throws IOException {
-        return mergedJarMetadata.writeToJar(jarOutputStream, writtenEntries);
+        return mergedJarMetadata.writeToJar(jarWriter, writtenEntries);
     }
 
     private static final class MergedJarMetadata {
@@ -2518,7 +3561,7 @@ public final class TsjCli {
         }
 
         private int writeToJar(
-                final JarOutputStream jarOutputStream,
+                final PackageJarWriter jarWriter,
                 final Set<String> writtenEntries
         ) throws IOException {
             int added = 0;
@@ -2535,11 +3578,11 @@ public final class TsjCli {
                             .append("\n");
                 }
                 if (!builder.isEmpty() && writtenEntries.add(mergedEntry.getKey())) {
-                    ensureJarDirectories(jarOutputStream, mergedEntry.getKey(), writtenEntries);
-                    final JarEntry jarEntry = new JarEntry(mergedEntry.getKey());
-                    jarOutputStream.putNextEntry(jarEntry);
-                    jarOutputStream.write(builder.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
-                    jarOutputStream.closeEntry();
+                    ensureJarDirectories(jarWriter, mergedEntry.getKey(), writtenEntries);
+                    jarWriter.putBytes(
+                            mergedEntry.getKey(),
+                            builder.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8)
+                    );
                     added++;
                 }
             }
@@ -2550,14 +3593,12 @@ public final class TsjCli {
                 if (!writtenEntries.add(entry.getKey())) {
                     continue;
                 }
-                ensureJarDirectories(jarOutputStream, entry.getKey(), writtenEntries);
-                final JarEntry mergedEntry = new JarEntry(entry.getKey());
-                jarOutputStream.putNextEntry(mergedEntry);
+                ensureJarDirectories(jarWriter, entry.getKey(), writtenEntries);
+                final StringBuilder builder = new StringBuilder();
                 for (String line : entry.getValue()) {
-                    jarOutputStream.write(line.getBytes(java.nio.charset.StandardCharsets.UTF_8));
-                    jarOutputStream.write('\n');
+                    builder.append(line).append('\n');
                 }
-                jarOutputStream.closeEntry();
+                jarWriter.putBytes(entry.getKey(), builder.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
                 added++;
             }
             return added;
@@ -2675,7 +3716,15 @@ public final class TsjCli {
             if (interopSpecPath == null) {
                 return AutoInteropBridgeResult.disabled();
             }
-            return new AutoInteropBridgeResult(true, List.of(), false, 0, List.of(), List.of());
+            return new AutoInteropBridgeResult(
+                    true,
+                    List.of(),
+                    false,
+                    0,
+                    List.of(),
+                    List.of(),
+                    InteropBridgeGenerator.OverloadCacheStats.none()
+            );
         }
 
         final Path normalizedOutDir = outDir.toAbsolutePath().normalize();
@@ -2690,18 +3739,21 @@ public final class TsjCli {
                     false,
                     readGeneratedBridgeCount(metadataPath),
                     readSelectedBridgeTargets(metadataPath),
-                    readUnresolvedBridgeTargets(metadataPath)
+                    readUnresolvedBridgeTargets(metadataPath),
+                    InteropBridgeGenerator.OverloadCacheStats.none()
             );
         }
 
         final Path autoSpecPath = normalizedOutDir.resolve(AUTO_INTEROP_SPEC_FILE);
         writeAutoInteropSpec(interopSpecPath, autoSpecPath, discoveredTargets, interopPolicy);
+        final InteropBridgeGenerator bridgeGenerator = new InteropBridgeGenerator();
         final InteropBridgeArtifact bridgeArtifact = generateInteropBridgesWithClasspath(
+                bridgeGenerator,
                 autoSpecPath,
                 generatedInteropDir,
                 interopClasspathEntries
         );
-        compileInteropBridgeSources(bridgeArtifact.sourceFiles(), classesDir);
+        compileInteropBridgeSources(bridgeArtifact.sourceFiles(), generatedInteropDir, classesDir);
         writeAutoInteropCache(cacheFile, fingerprint);
         return new AutoInteropBridgeResult(
                 true,
@@ -2709,7 +3761,8 @@ public final class TsjCli {
                 true,
                 bridgeArtifact.sourceFiles().size(),
                 bridgeArtifact.selectedTargets(),
-                bridgeArtifact.unresolvedTargets()
+                bridgeArtifact.unresolvedTargets(),
+                bridgeGenerator.overloadCacheStats()
         );
     }
 
@@ -3087,12 +4140,13 @@ public final class TsjCli {
     }
 
     private static InteropBridgeArtifact generateInteropBridgesWithClasspath(
+            final InteropBridgeGenerator bridgeGenerator,
             final Path autoSpecPath,
             final Path outputDir,
             final List<Path> interopClasspathEntries
     ) {
         if (interopClasspathEntries.isEmpty()) {
-            return new InteropBridgeGenerator().generate(autoSpecPath, outputDir);
+            return bridgeGenerator.generate(autoSpecPath, outputDir);
         }
         final URL[] urls = new URL[interopClasspathEntries.size()];
         for (int index = 0; index < interopClasspathEntries.size(); index++) {
@@ -3115,7 +4169,7 @@ public final class TsjCli {
         final ClassLoader original = thread.getContextClassLoader();
         try (URLClassLoader classLoader = new URLClassLoader(urls, original)) {
             thread.setContextClassLoader(classLoader);
-            return new InteropBridgeGenerator().generate(autoSpecPath, outputDir);
+            return bridgeGenerator.generate(autoSpecPath, outputDir);
         } catch (final IOException ioException) {
             throw new JvmCompilationException(
                     "TSJ-INTEROP-INPUT",
@@ -3132,7 +4186,15 @@ public final class TsjCli {
         }
     }
 
-    private static void compileInteropBridgeSources(final List<Path> sourceFiles, final Path classesDir) {
+    /**
+     * Compiles generated interop bridges, splitting large bridge sets into javac batches that run on the
+     * backend compile worker pool. Batches see each other's sources only through {@code -sourcepath}.
+     */
+    private static void compileInteropBridgeSources(
+            final List<Path> sourceFiles,
+            final Path sourceRoot,
+            final Path classesDir
+    ) {
         if (sourceFiles.isEmpty()) {
             return;
         }
@@ -3143,6 +4205,46 @@ public final class TsjCli {
                     "JDK compiler is unavailable. Use a JDK runtime for TSJ backend compile."
             );
         }
+        long totalBytes = 0L;
+        for (Path sourceFile : sourceFiles) {
+            totalBytes += interopBridgeSourceSize(sourceFile);
+        }
+        final List<List<Path>> batches = CompilationWorkers.partition(
+                sourceFiles,
+                (int) Math.min(
+                        CompilationWorkers.parallelism(),
+                        Math.max(1L, totalBytes / INTEROP_BRIDGE_JAVAC_MIN_BATCH_BYTES)
+                ),
+                TsjCli::interopBridgeSourceSize
+        );
+        if (batches.size() <= 1) {
+            compileInteropBridgeBatch(compiler, sourceFiles, null, classesDir);
+            return;
+        }
+        final List<Callable<Void>> batchCompiles = new ArrayList<>();
+        for (List<Path> batch : batches) {
+            batchCompiles.add(() -> {
+                compileInteropBridgeBatch(compiler, batch, sourceRoot, classesDir);
+                return null;
+            });
+        }
+        CompilationWorkers.invokeAll(batchCompiles);
+    }
+
+    private static long interopBridgeSourceSize(final Path sourceFile) {
+        try {
+            return Files.size(sourceFile);
+        } catch (final IOException ioException) {
+            return 0L;
+        }
+    }
+
+    private static void compileInteropBridgeBatch(
+            final JavaCompiler compiler,
+            final List<Path> sourceFiles,
+            final Path sourceRoot,
+            final Path classesDir
+    ) {
         final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
         try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(
                 diagnostics,
@@ -3152,7 +4254,7 @@ public final class TsjCli {
             final Iterable<? extends JavaFileObject> compilationUnits =
                     fileManager.getJavaFileObjectsFromPaths(sourceFiles);
             final String classPath = buildInteropBridgeJavacClasspath(classesDir);
-            final List<String> options = List.of(
+            final List<String> options = new ArrayList<>(List.of(
                     "--release",
                     "21",
                     "-parameters",
@@ -3160,7 +4262,10 @@ public final class TsjCli {
                     classPath,
                     "-d",
                     classesDir.toString()
-            );
+            ));
+            if (sourceRoot != null) {
+                options.addAll(List.of("-sourcepath", sourceRoot.toString(), "-implicit:none"));
+            }
             final Boolean success = compiler.getTask(
                     null,
                     fileManager,
@@ -3415,6 +4520,7 @@ public final class TsjCli {
         boolean interopApprovalExplicit = false;
         boolean interopTraceEnabled = false;
         CompilerMode compilerMode = CompilerMode.DEFAULT;
+        Path cacheDir = null;
         Path interopAuditLogPath = null;
         Path interopAuditAggregatePath = null;
         String interopApprovalToken = null;
@@ -3579,7 +4685,23 @@ public final class TsjCli {
                 index += 2;
                 continue;
             }
-            final JvmOptimizationOptions toggled = parseOptimizationToggle(token);
+            if (OPTION_CACHE_DIR.equals(token)) {
+                if (index + 1 >= args.length) {
+                    throw CliFailure.usage(
+                            "TSJ-CLI-006",
+                            "Missing value for `--cache-dir`."
+                    );
+                }
+                cacheDir = normalizeCacheDirectory(args[index + 1]);
+                index += 2;
+                continue;
+            }
+            if (OPTION_PROFILE.equals(token) || OPTION_PROFILE_OUT.equals(token)) {
+                optimizationOptions = parseProfileOption(args, index, optimizationOptions);
+                index += 2;
+                continue;
+            }
+            final JvmOptimizationOptions toggled = parseOptimizationToggle(token, optimizationOptions);
             if (toggled != null) {
                 optimizationOptions = toggled;
                 index++;
@@ -3613,7 +4735,8 @@ public final class TsjCli {
         );
         final ClasspathResolution classpathResolution = normalizeClasspathInputs(
                 classpathInputs,
-                ClasspathUsageMode.RUNTIME
+                ClasspathUsageMode.RUNTIME,
+                cacheDir
         );
         return new RunOptions(
                 outDir,
@@ -3633,7 +4756,8 @@ public final class TsjCli {
                 interopAuditAggregatePath,
                 interopTraceEnabled,
                 classloaderIsolationMode,
-                compilerMode
+                compilerMode,
+                cacheDir
         );
     }
 
@@ -3657,10 +4781,13 @@ public final class TsjCli {
         Path interopAuditAggregatePath = null;
         String interopApprovalToken = null;
         boolean smokeRun = false;
+        boolean cdsArchive = false;
+        PackageJarLayout jarLayout = PackageJarLayout.FAT;
         String smokeEndpointUrl = null;
         long smokeTimeoutMs = DEFAULT_SMOKE_ENDPOINT_TIMEOUT_MS;
         long smokePollMs = DEFAULT_SMOKE_ENDPOINT_POLL_MS;
         CompilerMode compilerMode = CompilerMode.DEFAULT;
+        Path cacheDir = null;
         JvmOptimizationOptions optimizationOptions = JvmOptimizationOptions.defaults();
         final List<String> interopDenylistPatterns = new ArrayList<>();
         final List<String> interopRoles = new ArrayList<>();
@@ -3792,6 +4919,19 @@ public final class TsjCli {
                 index++;
                 continue;
             }
+            if (OPTION_CDS_ARCHIVE.equals(token)) {
+                cdsArchive = true;
+                index++;
+                continue;
+            }
+            if (OPTION_JAR_LAYOUT.equals(token)) {
+                if (index + 1 >= args.length) {
+                    throw CliFailure.usage("TSJ-CLI-006", "Missing value for `--jar-layout`.");
+                }
+                jarLayout = parseJarLayoutValue(args[index + 1]);
+                index += 2;
+                continue;
+            }
             if (OPTION_SMOKE_ENDPOINT_URL.equals(token)) {
                 if (index + 1 >= args.length) {
                     throw CliFailure.usage("TSJ-CLI-017", "Missing value for `--smoke-endpoint-url`.");
@@ -3816,7 +4956,23 @@ public final class TsjCli {
                 index += 2;
                 continue;
             }
-            final JvmOptimizationOptions toggled = parseOptimizationToggle(token);
+            if (OPTION_CACHE_DIR.equals(token)) {
+                if (index + 1 >= args.length) {
+                    throw CliFailure.usage(
+                            "TSJ-CLI-006",
+                            "Missing value for `--cache-dir`."
+                    );
+                }
+                cacheDir = normalizeCacheDirectory(args[index + 1]);
+                index += 2;
+                continue;
+            }
+            if (OPTION_PROFILE.equals(token) || OPTION_PROFILE_OUT.equals(token)) {
+                optimizationOptions = parseProfileOption(args, index, optimizationOptions);
+                index += 2;
+                continue;
+            }
+            final JvmOptimizationOptions toggled = parseOptimizationToggle(token, optimizationOptions);
             if (toggled != null) {
                 optimizationOptions = toggled;
                 index++;
@@ -3862,7 +5018,8 @@ public final class TsjCli {
         );
         final ClasspathResolution classpathResolution = normalizeClasspathInputs(
                 classpathInputs,
-                ClasspathUsageMode.PACKAGING
+                ClasspathUsageMode.PACKAGING,
+                cacheDir
         );
         final List<Path> packageClasspathEntries = resolvePackageClasspathEntries(
                 classpathInputs,
@@ -3890,7 +5047,10 @@ public final class TsjCli {
                 smokeEndpointUrl,
                 smokeTimeoutMs,
                 smokePollMs,
-                compilerMode
+                cdsArchive,
+                jarLayout,
+                compilerMode,
+                cacheDir
         );
     }
 
@@ -4011,6 +5171,19 @@ public final class TsjCli {
         };
     }
 
+    private static PackageJarLayout parseJarLayoutValue(final String rawValue) {
+        final String normalized = rawValue == null ? "" : rawValue.trim();
+        for (PackageJarLayout layout : PackageJarLayout.values()) {
+            if (layout.cliValue().equals(normalized)) {
+                return layout;
+            }
+        }
+        throw CliFailure.usage(
+                "TSJ-CLI-022",
+                "Invalid value for `--jar-layout`: `" + rawValue + "`. Expected `fat` or `layered`."
+        );
+    }
+
     private static CompilerMode parseCompilerModeValue(final String rawValue) {
         if (rawValue == null) {
             throw CliFailure.usage(
@@ -4895,9 +6068,19 @@ public final class TsjCli {
         return classpathEntry.toString();
     }
 
+    /**
+     * Normalizes classpath inputs and mediates Maven dependency versions among them.
+     *
+     * <p>Maven metadata is memoized per jar stamp (path, size, timestamp, and trailing-bytes hash), and the
+     * mediation result per classpath fingerprint, in process and, with {@code --cache-dir}, under
+     * {@code <cache-dir>/v1/maven-metadata/} and {@code <cache-dir>/v1/classpath-mediation/}. An unchanged
+     * classpath therefore skips jar scanning and pom parsing entirely. Only successful mediations are stored,
+     * so a cached result never hides a legacy version conflict.
+     */
     private static ClasspathResolution normalizeClasspathInputs(
             final List<ClasspathInput> classpathInputs,
-            final ClasspathUsageMode usageMode
+            final ClasspathUsageMode usageMode,
+            final Path cacheDir
     ) {
         final LinkedHashSet<Path> normalized = new LinkedHashSet<>();
         final Map<String, JarVersionEntry> legacyJarVersionsByArtifact = new LinkedHashMap<>();
@@ -4919,8 +6102,17 @@ public final class TsjCli {
             normalized.add(value);
         }
         final List<Path> normalizedEntries = List.copyOf(normalized);
-        for (Path path : normalizedEntries) {
-            final MavenJarMetadata metadata = readMavenJarMetadata(path);
+        final List<ClasspathSymbolIndexer.EntryStamp> jarStamps = stampMavenJarCandidates(normalizedEntries);
+        final String mediationKey = classpathMediationKey(normalizedEntries, jarStamps, usageMode);
+        if (mediationKey != null) {
+            final ClasspathResolution cached = cachedClasspathMediation(mediationKey, normalizedEntries, cacheDir);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        for (int entryIndex = 0; entryIndex < normalizedEntries.size(); entryIndex++) {
+            final Path path = normalizedEntries.get(entryIndex);
+            final MavenJarMetadata metadata = cachedMavenJarMetadata(path, jarStamps.get(entryIndex), cacheDir);
             if (metadata != null) {
                 mavenJarMetadataByPath.put(path, metadata);
                 continue;
@@ -4950,10 +6142,321 @@ public final class TsjCli {
                 );
             }
         }
-        if (mavenJarMetadataByPath.isEmpty()) {
-            return new ClasspathResolution(normalizedEntries, List.of(), usageMode, List.of());
+        final ClasspathResolution resolution = mavenJarMetadataByPath.isEmpty()
+                ? new ClasspathResolution(normalizedEntries, List.of(), usageMode, List.of())
+                : mediateClasspathGraph(normalizedEntries, mavenJarMetadataByPath, usageMode);
+        if (mediationKey != null) {
+            storeClasspathMediation(mediationKey, normalizedEntries, resolution, cacheDir);
+        }
+        return resolution;
+    }
+
+    private static List<ClasspathSymbolIndexer.EntryStamp> stampMavenJarCandidates(final List<Path> entries) {
+        final List<ClasspathSymbolIndexer.EntryStamp> stamps = new ArrayList<>(entries.size());
+        for (Path entry : entries) {
+            stamps.add(isMavenJarCandidate(entry) ? ClasspathSymbolIndexer.jarStamp(entry) : null);
+        }
+        return Collections.unmodifiableList(stamps);
+    }
+
+    private static boolean isMavenJarCandidate(final Path value) {
+        return Files.isRegularFile(value)
+                && value.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".jar");
+    }
+
+    private static String classpathMediationKey(
+            final List<Path> entries,
+            final List<ClasspathSymbolIndexer.EntryStamp> jarStamps,
+            final ClasspathUsageMode usageMode
+    ) {
+        final StringBuilder material = new StringBuilder();
+        material.append(MAVEN_CACHE_FORMAT).append('|').append(usageMode.cliValue()).append('\n');
+        for (int index = 0; index < entries.size(); index++) {
+            material.append(serializeClasspathEntry(entries.get(index)));
+            final ClasspathSymbolIndexer.EntryStamp stamp = jarStamps.get(index);
+            if (stamp != null) {
+                if (!stamp.reusable()) {
+                    return null;
+                }
+                material.append('|').append(stampKeyMaterial(stamp));
+            }
+            material.append('\n');
+        }
+        return sha256Hex(material.toString());
+    }
+
+    private static String stampKeyMaterial(final ClasspathSymbolIndexer.EntryStamp stamp) {
+        return stamp.location() + "|" + stamp.size() + "|" + stamp.lastModified() + "|" + stamp.contentHash();
+    }
+
+    private static String sha256Hex(final String value) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException noSuchAlgorithmException) {
+            throw new IllegalStateException("Missing SHA-256 digest algorithm.", noSuchAlgorithmException);
+        }
+        final byte[] bytes = digest.digest(value.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        final StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (byte current : bytes) {
+            builder.append(String.format("%02x", current));
+        }
+        return builder.toString();
+    }
+
+    private static MavenJarMetadata cachedMavenJarMetadata(
+            final Path path,
+            final ClasspathSymbolIndexer.EntryStamp stamp,
+            final Path cacheDir
+    ) {
+        if (stamp == null || !stamp.reusable()) {
+            return readMavenJarMetadata(path);
+        }
+        final Optional<MavenJarMetadata> memoized = MAVEN_METADATA_MEMO.get(stamp);
+        if (memoized != null) {
+            return memoized.orElse(null);
+        }
+        final Path cacheFile = mavenCacheFile(cacheDir, MAVEN_METADATA_CACHE_KIND, sha256Hex(stampKeyMaterial(stamp)));
+        Optional<MavenJarMetadata> metadata = readCachedMavenJarMetadata(cacheFile, stamp, path);
+        if (metadata == null) {
+            metadata = Optional.ofNullable(readMavenJarMetadata(path));
+            if (cacheFile != null) {
+                writeMavenCacheFileQuietly(cacheFile, encodeMavenJarMetadata(stamp, metadata.orElse(null)));
+            }
+        }
+        MAVEN_METADATA_MEMO.put(stamp, metadata);
+        return metadata.orElse(null);
+    }
+
+    private static Path mavenCacheFile(final Path cacheDir, final String kind, final String key) {
+        if (cacheDir == null) {
+            return null;
+        }
+        return cacheDir.resolve(CLI_CACHE_LAYOUT_VERSION).resolve(kind).resolve(key + ".bin");
+    }
+
+    private static byte[] encodeMavenJarMetadata(
+            final ClasspathSymbolIndexer.EntryStamp stamp,
+            final MavenJarMetadata metadata
+    ) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(MAVEN_CACHE_MAGIC);
+            output.writeInt(MAVEN_CACHE_FORMAT);
+            output.writeUTF(stampKeyMaterial(stamp));
+            output.writeBoolean(metadata != null);
+            if (metadata != null) {
+                output.writeUTF(metadata.coordinate().groupId());
+                output.writeUTF(metadata.coordinate().artifactId());
+                output.writeUTF(metadata.coordinate().version());
+                output.writeInt(metadata.dependencies().size());
+                for (MavenDependencyCoordinate dependency : metadata.dependencies()) {
+                    output.writeUTF(dependency.groupId());
+                    output.writeUTF(dependency.artifactId());
+                    writeOptionalCacheString(output, dependency.version());
+                    writeOptionalCacheString(output, dependency.scope());
+                }
+            }
+        } catch (final IOException ioException) {
+            throw new IllegalStateException("Failed to encode Maven metadata cache entry.", ioException);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Optional<MavenJarMetadata> readCachedMavenJarMetadata(
+            final Path cacheFile,
+            final ClasspathSymbolIndexer.EntryStamp stamp,
+            final Path path
+    ) {
+        if (cacheFile == null || !Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(cacheFile)))) {
+            if (input.readInt() != MAVEN_CACHE_MAGIC
+                    || input.readInt() != MAVEN_CACHE_FORMAT
+                    || !stampKeyMaterial(stamp).equals(input.readUTF())) {
+                return null;
+            }
+            if (!input.readBoolean()) {
+                return Optional.empty();
+            }
+            final MavenCoordinate coordinate = new MavenCoordinate(input.readUTF(), input.readUTF(), input.readUTF());
+            final int dependencyCount = input.readInt();
+            final List<MavenDependencyCoordinate> dependencies = new ArrayList<>(dependencyCount);
+            for (int index = 0; index < dependencyCount; index++) {
+                dependencies.add(new MavenDependencyCoordinate(
+                        input.readUTF(),
+                        input.readUTF(),
+                        readOptionalCacheString(input),
+                        readOptionalCacheString(input)
+                ));
+            }
+            return Optional.of(new MavenJarMetadata(path, coordinate, List.copyOf(dependencies)));
+        } catch (final IOException ioException) {
+            return null;
+        }
+    }
+
+    private static ClasspathResolution cachedClasspathMediation(
+            final String mediationKey,
+            final List<Path> entries,
+            final Path cacheDir
+    ) {
+        final ClasspathResolution memoized = CLASSPATH_MEDIATION_MEMO.get(mediationKey);
+        if (memoized != null) {
+            return memoized;
+        }
+        final Path cacheFile = mavenCacheFile(cacheDir, CLASSPATH_MEDIATION_CACHE_KIND, mediationKey);
+        if (cacheFile == null || !Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(cacheFile)))) {
+            if (input.readInt() != MAVEN_CACHE_MAGIC
+                    || input.readInt() != MAVEN_CACHE_FORMAT
+                    || input.readInt() != entries.size()) {
+                return null;
+            }
+            final ClasspathUsageMode usageMode = ClasspathUsageMode.valueOf(input.readUTF());
+            final int keptCount = input.readInt();
+            final List<Path> kept = new ArrayList<>(keptCount);
+            for (int index = 0; index < keptCount; index++) {
+                kept.add(entries.get(input.readInt()));
+            }
+            final int decisionCount = input.readInt();
+            final List<ClasspathMediationDecision> decisions = new ArrayList<>(decisionCount);
+            for (int index = 0; index < decisionCount; index++) {
+                decisions.add(new ClasspathMediationDecision(
+                        input.readUTF(),
+                        input.readUTF(),
+                        entries.get(input.readInt()),
+                        input.readUTF(),
+                        entries.get(input.readInt()),
+                        input.readUTF()
+                ));
+            }
+            final int exclusionCount = input.readInt();
+            final List<ClasspathScopeExclusion> exclusions = new ArrayList<>(exclusionCount);
+            for (int index = 0; index < exclusionCount; index++) {
+                exclusions.add(new ClasspathScopeExclusion(
+                        input.readUTF(),
+                        input.readUTF(),
+                        input.readUTF(),
+                        input.readUTF(),
+                        input.readUTF(),
+                        input.readUTF(),
+                        entries.get(input.readInt())
+                ));
+            }
+            final ClasspathResolution resolution = new ClasspathResolution(
+                    List.copyOf(kept),
+                    List.copyOf(decisions),
+                    usageMode,
+                    List.copyOf(exclusions)
+            );
+            CLASSPATH_MEDIATION_MEMO.put(mediationKey, resolution);
+            return resolution;
+        } catch (final IOException | RuntimeException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores a mediation result with classpath entries recorded as indexes into the normalized entry list,
+     * which the fingerprint pins.
+     */
+    private static void storeClasspathMediation(
+            final String mediationKey,
+            final List<Path> entries,
+            final ClasspathResolution resolution,
+            final Path cacheDir
+    ) {
+        CLASSPATH_MEDIATION_MEMO.put(mediationKey, resolution);
+        final Path cacheFile = mavenCacheFile(cacheDir, CLASSPATH_MEDIATION_CACHE_KIND, mediationKey);
+        if (cacheFile == null || Files.isRegularFile(cacheFile)) {
+            return;
+        }
+        final Map<Path, Integer> indexByEntry = new LinkedHashMap<>();
+        for (int index = 0; index < entries.size(); index++) {
+            indexByEntry.putIfAbsent(entries.get(index), index);
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(MAVEN_CACHE_MAGIC);
+            output.writeInt(MAVEN_CACHE_FORMAT);
+            output.writeInt(entries.size());
+            output.writeUTF(resolution.usageMode().name());
+            output.writeInt(resolution.entries().size());
+            for (Path entry : resolution.entries()) {
+                output.writeInt(requireEntryIndex(indexByEntry, entry));
+            }
+            output.writeInt(resolution.decisions().size());
+            for (ClasspathMediationDecision decision : resolution.decisions()) {
+                output.writeUTF(decision.artifact());
+                output.writeUTF(decision.selectedVersion());
+                output.writeInt(requireEntryIndex(indexByEntry, decision.selectedPath()));
+                output.writeUTF(decision.rejectedVersion());
+                output.writeInt(requireEntryIndex(indexByEntry, decision.rejectedPath()));
+                output.writeUTF(decision.rule());
+            }
+            output.writeInt(resolution.scopeExclusions().size());
+            for (ClasspathScopeExclusion exclusion : resolution.scopeExclusions()) {
+                output.writeUTF(exclusion.ownerArtifact());
+                output.writeUTF(exclusion.ownerVersion());
+                output.writeUTF(exclusion.dependencyArtifact());
+                output.writeUTF(exclusion.dependencyVersion());
+                output.writeUTF(exclusion.scope());
+                output.writeUTF(exclusion.usage());
+                output.writeInt(requireEntryIndex(indexByEntry, exclusion.excludedPath()));
+            }
+        } catch (final IOException | IllegalArgumentException exception) {
+            return;
+        }
+        writeMavenCacheFileQuietly(cacheFile, bytes.toByteArray());
+    }
+
+    private static int requireEntryIndex(final Map<Path, Integer> indexByEntry, final Path entry) {
+        final Integer index = indexByEntry.get(entry);
+        if (index == null) {
+            throw new IllegalArgumentException("Mediation result references a path outside the classpath: " + entry);
+        }
+        return index;
+    }
+
+    private static void writeOptionalCacheString(final DataOutputStream output, final String value)
+            throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static String readOptionalCacheString(final DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    /**
+     * Publishes a cache file through a temp file and an atomic move. Cache writes are best effort: a failure
+     * only costs the next invocation a re-parse.
+     */
+    private static void writeMavenCacheFileQuietly(final Path cacheFile, final byte[] bytes) {
+        Path tempFile = null;
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            tempFile = Files.createTempFile(cacheFile.getParent(), cacheFile.getFileName().toString(), ".tmp");
+            Files.write(tempFile, bytes);
+            try {
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            tempFile = null;
+        } catch (final IOException ioException) {
+            // The next invocation recomputes the entry.
+        } finally {
+            if (tempFile != null) {
+                deleteQuietly(tempFile);
+            }
         }
-        return mediateClasspathGraph(normalizedEntries, mavenJarMetadataByPath, usageMode);
     }
 
     private static ClasspathResolution mediateClasspathGraph(
@@ -5408,6 +6911,17 @@ public final class TsjCli {
         return Map.copyOf(merged);
     }
 
+    private static Path normalizeCacheDirectory(final String value) {
+        final Path normalized = Path.of(value).toAbsolutePath().normalize();
+        if (Files.exists(normalized) && !Files.isDirectory(normalized)) {
+            throw CliFailure.usage(
+                    "TSJ-CLI-020",
+                    "Compile cache path is not a directory: " + normalized
+            );
+        }
+        return normalized;
+    }
+
     private static Path normalizeInteropSpecPath(final Path specPath) {
         final Path normalized = specPath.toAbsolutePath().normalize();
         if (!Files.exists(normalized) || !Files.isRegularFile(normalized)) {
@@ -5419,12 +6933,49 @@ public final class TsjCli {
         return normalized;
     }
 
-    private static JvmOptimizationOptions parseOptimizationToggle(final String token) {
+    private static JvmOptimizationOptions parseProfileOption(
+            final String[] args,
+            final int index,
+            final JvmOptimizationOptions current
+    ) {
+        final String token = args[index];
+        if (index + 1 >= args.length) {
+            throw CliFailure.usage(
+                    "TSJ-CLI-006",
+                    "Missing value for `" + token + "`."
+            );
+        }
+        final Path path = Path.of(args[index + 1]).toAbsolutePath().normalize();
+        if (OPTION_PROFILE_OUT.equals(token)) {
+            if (Files.isDirectory(path)) {
+                throw CliFailure.usage(
+                        "TSJ-CLI-021",
+                        "Profile output path is a directory: " + path
+                );
+            }
+            return current.withProfile(current.profileInput(), path);
+        }
+        if (!Files.isRegularFile(path)) {
+            throw CliFailure.usage(
+                    "TSJ-CLI-021",
+                    "Type feedback profile not found: " + path
+            );
+        }
+        return current.withProfile(path, current.profileOutput());
+    }
+
+    private static JvmOptimizationOptions parseOptimizationToggle(
+            final String token,
+            final JvmOptimizationOptions current
+    ) {
         if (OPTION_OPTIMIZE.equals(token)) {
-            return JvmOptimizationOptions.defaults();
+            return JvmOptimizationOptions.defaults().withProfile(current.profileInput(), current.profileOutput());
         }
         if (OPTION_NO_OPTIMIZE.equals(token)) {
-            return JvmOptimizationOptions.disabled();
+            return JvmOptimizationOptions.disabled().withProfile(current.profileInput(), current.profileOutput());
+        }
+        if (OPTION_NO_INLINE.equals(token)) {
+            return current.withInliningEnabled(false);
         }
         return null;
     }
@@ -5437,16 +6988,16 @@ public final class TsjCli {
         if (throwable == null) {
             return;
         }
+        // Bundled programs keep module code in sibling classes, so an empty main source map is not conclusive.
         final Map<Integer, TsSourceFrame> sourceMap = readSourceMap(executable.sourceMapFile());
-        if (sourceMap.isEmpty()) {
-            return;
-        }
+        final Map<String, Map<Integer, TsSourceFrame>> sourceMapsByClass = new LinkedHashMap<>();
+        sourceMapsByClass.put(executable.className(), sourceMap);
 
         final List<RenderedCause> renderedCauses = new ArrayList<>();
         Throwable current = throwable;
         int causeIndex = 0;
         while (current != null) {
-            final List<String> renderedFrames = renderMappedCauseFrames(executable, sourceMap, current);
+            final List<String> renderedFrames = renderMappedCauseFrames(executable, sourceMapsByClass, current);
             renderedCauses.add(new RenderedCause(causeIndex, describeThrowable(current), renderedFrames));
             current = current.getCause();
             causeIndex++;
@@ -5468,16 +7019,42 @@ public final class TsjCli {
         }
     }
 
+    private static Map<Integer, TsSourceFrame> sourceMapForFrame(
+            final JvmCompiledArtifact executable,
+            final Map<String, Map<Integer, TsSourceFrame>> sourceMapsByClass,
+            final String frameClassName
+    ) {
+        final Map<Integer, TsSourceFrame> cached = sourceMapsByClass.get(frameClassName);
+        if (cached != null) {
+            return cached;
+        }
+        // Module initializers are emitted as sibling classes with their own source map files.
+        if (!frameClassName.startsWith(executable.className() + "__TsjModule_")) {
+            return Map.of();
+        }
+        final String simpleName = frameClassName.substring(frameClassName.lastIndexOf('.') + 1);
+        final Map<Integer, TsSourceFrame> moduleSourceMap = readSourceMap(
+                executable.sourceMapFile().resolveSibling(simpleName + ".tsj.map")
+        );
+        sourceMapsByClass.put(frameClassName, moduleSourceMap);
+        return moduleSourceMap;
+    }
+
     private static List<String> renderMappedCauseFrames(
             final JvmCompiledArtifact executable,
-            final Map<Integer, TsSourceFrame> sourceMap,
+            final Map<String, Map<Integer, TsSourceFrame>> sourceMapsByClass,
             final Throwable throwable
     ) {
         final List<String> renderedFrames = new ArrayList<>();
         final Set<String> seenFrames = new LinkedHashSet<>();
         boolean inAsyncContinuationBlock = false;
         for (StackTraceElement stackTraceElement : throwable.getStackTrace()) {
-            if (!executable.className().equals(stackTraceElement.getClassName())) {
+            final Map<Integer, TsSourceFrame> sourceMap = sourceMapForFrame(
+                    executable,
+                    sourceMapsByClass,
+                    stackTraceElement.getClassName()
+            );
+            if (sourceMap.isEmpty()) {
                 continue;
             }
             final TsSourceFrame frame = sourceMap.get(stackTraceElement.getLineNumber());
@@ -5832,7 +7409,8 @@ public final class TsjCli {
             Path interopAuditLogPath,
             Path interopAuditAggregatePath,
             boolean interopTraceEnabled,
-            CompilerMode compilerMode
+            CompilerMode compilerMode,
+            Path cacheDir
     ) {
     }
 
@@ -5854,7 +7432,8 @@ public final class TsjCli {
             Path interopAuditAggregatePath,
             boolean interopTraceEnabled,
             JvmBytecodeRunner.ClassloaderIsolationMode classloaderIsolationMode,
-            CompilerMode compilerMode
+            CompilerMode compilerMode,
+            Path cacheDir
     ) {
     }
 
@@ -5880,10 +7459,28 @@ public final class TsjCli {
             String smokeEndpointUrl,
             long smokeTimeoutMs,
             long smokePollMs,
-            CompilerMode compilerMode
+            boolean cdsArchive,
+            PackageJarLayout jarLayout,
+            CompilerMode compilerMode,
+            Path cacheDir
     ) {
     }
 
+    private enum PackageJarLayout {
+        FAT("fat"),
+        LAYERED("layered");
+
+        private final String cliValue;
+
+        PackageJarLayout(final String cliValue) {
+            this.cliValue = cliValue;
+        }
+
+        private String cliValue() {
+            return cliValue;
+        }
+    }
+
     private enum CompilerMode {
         DEFAULT("default"),
         JVM_STRICT("jvm-strict");
@@ -5921,7 +7518,10 @@ public final class TsjCli {
             ClasspathResolution classpathResolution,
             ClasspathSymbolIndexSummary classpathSymbolIndex,
             AutoInteropBridgeResult interopBridgeResult,
-            JvmBytecodeCompiler.IncrementalCompilationReport incrementalCompilationReport
+            JvmBytecodeCompiler.IncrementalCompilationReport incrementalCompilationReport,
+            JvmBytecodeCompiler.OptimizationReport optimizationReport,
+            JvmBytecodeCompiler.ProfileReport profileReport,
+            JvmBytecodeCompiler.DescriptorCacheReport descriptorCacheReport
     ) {
     }
 
@@ -5941,10 +7541,19 @@ public final class TsjCli {
             boolean regenerated,
             int sourceCount,
             List<InteropBridgeArtifact.SelectedTargetIdentity> selectedTargets,
-            List<InteropBridgeArtifact.UnresolvedTarget> unresolvedTargets
+            List<InteropBridgeArtifact.UnresolvedTarget> unresolvedTargets,
+            InteropBridgeGenerator.OverloadCacheStats overloadCacheStats
     ) {
         private static AutoInteropBridgeResult disabled() {
-            return new AutoInteropBridgeResult(false, List.of(), false, 0, List.of(), List.of());
+            return new AutoInteropBridgeResult(
+                    false,
+                    List.of(),
+                    false,
+                    0,
+                    List.of(),
+                    List.of(),
+                    InteropBridgeGenerator.OverloadCacheStats.none()
+            );
         }
     }
 
@@ -5954,10 +7563,20 @@ public final class TsjCli {
             int resourceFileCount,
             List<Path> resourceDirectories,
             int dependencyEntryCount,
-            List<Path> dependencySources
+            List<Path> dependencySources,
+            PackageJarLayout jarLayout,
+            int rawCopiedEntryCount,
+            int dependencyLayerCount,
+            int reusedDependencyLayerCount
     ) {
     }
 
+    private record DependencyLayers(List<String> classPath, int reusedCount) {
+        private static DependencyLayers none() {
+            return new DependencyLayers(List.of(), 0);
+        }
+    }
+
     private record PackageCommandMetadata(
             String commandName,
             String defaultJarName,
@@ -5973,6 +7592,14 @@ public final class TsjCli {
     ) {
     }
 
+    private record StartupArchiveResult(
+            Path cdsArchivePath,
+            Path aotCachePath,
+            Path launcherArgsFile,
+            long trainingMs
+    ) {
+    }
+
     private record PackageSmokeResult(
             int exitCode,
             String outputPreview,
@@ -6002,6 +7629,188 @@ public final class TsjCli {
     private record RenderedCause(int index, String description, List<String> frames) {
     }
 
+    /**
+     * Compiled program kept warm by `tsj serve`; recompiles only when the relative source graph changes.
+     */
+    private static final class ServeSession implements AutoCloseable {
+        private final Path entryPath;
+        private final Path outDir;
+        private final RunOptions runOptions;
+        private String sourceFingerprint;
+        private Path artifactPath;
+        private JvmCompiledArtifact executable;
+        private List<Path> hostClasspathEntries;
+        private JvmProgramHost host;
+        private int runCount;
+
+        private ServeSession(final Path entryPath, final Path outDir, final RunOptions runOptions) {
+            this.entryPath = entryPath;
+            this.outDir = outDir;
+            this.runOptions = runOptions;
+            this.sourceFingerprint = null;
+            this.artifactPath = null;
+            this.executable = null;
+            this.hostClasspathEntries = List.of();
+            this.host = null;
+            this.runCount = 0;
+        }
+
+        private boolean refresh() {
+            final String fingerprint = computeServeSourceFingerprint(entryPath);
+            if (host != null && fingerprint.equals(sourceFingerprint)) {
+                return false;
+            }
+            final CompiledArtifact artifact = compileRunArtifact(entryPath, outDir, runOptions, COMMAND_SERVE);
+            final Properties properties = new Properties();
+            try (InputStream inputStream = Files.newInputStream(artifact.artifactPath)) {
+                properties.load(inputStream);
+            } catch (final IOException ioException) {
+                throw CliFailure.runtime(
+                        "TSJ-RUN-001",
+                        "Failed to read compilation artifact: " + ioException.getMessage(),
+                        Map.of("artifact", artifact.artifactPath.toString())
+                );
+            }
+            final String entry = properties.getProperty("entry", artifact.entryPath.toString());
+            final JvmCompiledArtifact nextExecutable = resolveExecutableArtifact(artifact, properties, entry);
+            final List<Path> classpathEntries = resolveInteropClasspathEntries(properties);
+            try {
+                if (host != null && classpathEntries.equals(hostClasspathEntries)) {
+                    host.reload(nextExecutable);
+                } else {
+                    closeHost();
+                    host = new JvmProgramHost(
+                            nextExecutable,
+                            classpathEntries,
+                            runOptions.classloaderIsolationMode()
+                    );
+                    hostClasspathEntries = classpathEntries;
+                }
+            } catch (final JvmCompilationException compilationException) {
+                throw CliFailure.runtime(
+                        compilationException.code(),
+                        compilationException.getMessage(),
+                        backendFailureContext(entryPath, compilationException)
+                );
+            }
+            sourceFingerprint = fingerprint;
+            artifactPath = artifact.artifactPath;
+            executable = nextExecutable;
+            return true;
+        }
+
+        private void run(final PrintStream output) {
+            final boolean recompiled = refresh();
+            final TsjRealm realm = TsjRealm.create(executable.className() + "#" + runCount);
+            if (runOptions.showTsStackTrace()) {
+                final JvmCompiledArtifact currentExecutable = executable;
+                realm.setUnhandledRejectionReporter(
+                        reason -> emitUnhandledRejectionWithTsStackTrace(output, currentExecutable, reason)
+                );
+            }
+            final boolean originalInteropTrace = TsjJavaInterop.traceEnabled();
+            if (runOptions.interopTraceEnabled()) {
+                TsjJavaInterop.setTraceEnabled(true);
+            }
+            runCount++;
+            try {
+                host.run(realm, output, output);
+            } catch (final JvmCompilationException compilationException) {
+                if (runOptions.showTsStackTrace()) {
+                    emitTsStackTrace(output, executable, compilationException.getCause());
+                }
+                throw CliFailure.runtime(
+                        compilationException.code(),
+                        compilationException.getMessage(),
+                        backendFailureContext(entryPath, compilationException)
+                );
+            } finally {
+                if (runOptions.interopTraceEnabled()) {
+                    TsjJavaInterop.setTraceEnabled(originalInteropTrace);
+                }
+            }
+            emitDiagnostic(
+                    output,
+                    "INFO",
+                    "TSJ-RUN-SUCCESS",
+                    "Artifact executed.",
+                    Map.of(
+                            "entry", executable.entryFile().toString(),
+                            "artifact", artifactPath.toString(),
+                            "moduleFingerprint", moduleFingerprint(),
+                            "serveRecompiled", Boolean.toString(recompiled),
+                            "serveReloadedClasses", Integer.toString(recompiled ? host.lastReloadedClassCount() : 0),
+                            "serveRunCount", Integer.toString(runCount)
+                    )
+            );
+        }
+
+        private void closeHost() {
+            if (host == null) {
+                return;
+            }
+            try {
+                host.close();
+            } catch (final IOException ignored) {
+                // Dependency jars are reopened by the replacement host.
+            }
+            host = null;
+        }
+
+        @Override
+        public void close() {
+            closeHost();
+        }
+    }
+
+    private static String computeServeSourceFingerprint(final Path entryPath) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException noSuchAlgorithmException) {
+            throw new IllegalStateException("Missing SHA-256 digest algorithm.", noSuchAlgorithmException);
+        }
+        digestServeSourceGraph(entryPath, new LinkedHashSet<>(), digest);
+        final byte[] bytes = digest.digest();
+        final StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (byte value : bytes) {
+            builder.append(String.format("%02x", value));
+        }
+        return builder.toString();
+    }
+
+    private static void digestServeSourceGraph(
+            final Path sourceFile,
+            final Set<Path> visited,
+            final MessageDigest digest
+    ) {
+        final Path normalizedSource = sourceFile.toAbsolutePath().normalize();
+        if (!visited.add(normalizedSource)) {
+            return;
+        }
+        digest.update(normalizedSource.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        final byte[] sourceBytes;
+        try {
+            sourceBytes = Files.readAllBytes(normalizedSource);
+        } catch (final IOException ioException) {
+            // A missing module still changes the fingerprint, so the next compile reports it.
+            digest.update((byte) 0);
+            return;
+        }
+        digest.update(sourceBytes);
+        final String sourceText = new String(sourceBytes, java.nio.charset.StandardCharsets.UTF_8);
+        for (StaticImportStatement importStatement : parseImportStatements(sourceText)) {
+            final String importPath = importStatement.moduleSpecifier();
+            if (!importPath.startsWith(".")) {
+                continue;
+            }
+            final Path dependency = resolveRelativeModule(normalizedSource, importPath);
+            if (dependency != null) {
+                digestServeSourceGraph(dependency, visited, digest);
+            }
+        }
+    }
+
     private static final class CliFailure extends RuntimeException {
         private final int exitCode;
         private final String code;
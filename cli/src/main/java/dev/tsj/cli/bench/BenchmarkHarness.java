@@ -136,7 +136,12 @@ public final class BenchmarkHarness {
             final long beforeMemory = usedMemoryBytes();
 
             final long compileStart = System.nanoTime();
-            final JvmCompiledArtifact artifact = compiler.compile(entryFile, outDir, options.optimizationOptions());
+            final JvmCompiledArtifact artifact = compiler.compile(
+                    entryFile,
+                    outDir,
+                    options.optimizationOptions(),
+                    workload.backendMode()
+            );
             final long compileNanos = System.nanoTime() - compileStart;
 
             final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
@@ -278,7 +283,8 @@ public final class BenchmarkHarness {
                 1L,
                 "main.ts",
                 Map.of("main.ts", "console.log(\"hello\");\n"),
-                "hello\n"
+                "hello\n",
+                JvmBytecodeCompiler.BackendMode.DEFAULT
         );
 
         final BenchmarkWorkload microArithmetic = new BenchmarkWorkload(
@@ -299,7 +305,8 @@ public final class BenchmarkHarness {
                         console.log("acc=" + acc);
                         """
                 ),
-                "acc=1249975000\n"
+                "acc=1249975000\n",
+                JvmBytecodeCompiler.BackendMode.DEFAULT
         );
 
         final BenchmarkWorkload macroClosureClass = new BenchmarkWorkload(
@@ -339,7 +346,8 @@ public final class BenchmarkHarness {
                         console.log("macro=" + acc.value);
                         """
                 ),
-                "macro=6003000\n"
+                "macro=6003000\n",
+                JvmBytecodeCompiler.BackendMode.DEFAULT
         );
 
         final Map<String, String> moduleSources = new LinkedHashMap<>();
@@ -388,13 +396,90 @@ public final class BenchmarkHarness {
                 1_000L,
                 "main.ts",
                 moduleSources,
-                "sync\ntotal=500500\n"
+                "sync\ntotal=500500\n",
+                JvmBytecodeCompiler.BackendMode.DEFAULT
+        );
+
+        final BenchmarkWorkload microStrictTypedDispatch = new BenchmarkWorkload(
+                "micro-strict-typed-dispatch",
+                BenchmarkCategory.MICRO,
+                "Strict-native controller/service/repository calls bound to typed Java methods.",
+                40_000L,
+                "main.ts",
+                Map.of("main.ts", strictDispatchChainSource("Repository", "Service")),
+                "total=200010000\n",
+                JvmBytecodeCompiler.BackendMode.JVM_STRICT
+        );
+        final BenchmarkWorkload microStrictRuntimeDispatch = new BenchmarkWorkload(
+                "micro-strict-runtime-dispatch",
+                BenchmarkCategory.MICRO,
+                "The same strict-native call chain through untyped fields and runtime member dispatch.",
+                40_000L,
+                "main.ts",
+                Map.of("main.ts", strictDispatchChainSource("any", "any")),
+                "total=200010000\n",
+                JvmBytecodeCompiler.BackendMode.JVM_STRICT
         );
 
         if (profile == BenchmarkProfile.SMOKE) {
             return List.of(microStartup, macroClosureClass);
         }
-        return List.of(microStartup, microArithmetic, macroClosureClass, macroModulesAsync);
+        return List.of(
+                microStartup,
+                microArithmetic,
+                microStrictTypedDispatch,
+                microStrictRuntimeDispatch,
+                macroClosureClass,
+                macroModulesAsync
+        );
+    }
+
+    /**
+     * A controller/service/repository chain making two component calls per iteration. Declaring the fields
+     * with the component classes lets strict-native lowering call the typed methods; {@code any} fields keep
+     * {@code invokeMemberPreservingJava} dispatch, so the pair measures what typed dispatch saves.
+     */
+    private static String strictDispatchChainSource(final String repositoryFieldType, final String serviceFieldType) {
+        return """
+                class Repository {
+                  find(id: number) {
+                    return id + 1;
+                  }
+                }
+
+                class Service {
+                  repository: %s;
+
+                  constructor(repository: Repository) {
+                    this.repository = repository;
+                  }
+
+                  lookup(id: number) {
+                    return this.repository.find(id);
+                  }
+                }
+
+                class Controller {
+                  service: %s;
+
+                  constructor(service: Service) {
+                    this.service = service;
+                  }
+
+                  handleAll(limit: number) {
+                    let i = 0;
+                    let total = 0;
+                    while (i < limit) {
+                      total = total + this.service.lookup(i);
+                      i = i + 1;
+                    }
+                    return total;
+                  }
+                }
+
+                const controller = new Controller(new Service(new Repository()));
+                console.log("total=" + controller.handleAll(20000));
+                """.formatted(repositoryFieldType, serviceFieldType);
     }
 
     private record BenchmarkWorkload(
@@ -404,7 +489,8 @@ public final class BenchmarkHarness {
             long operationCount,
             String entryFile,
             Map<String, String> sources,
-            String expectedStdout
+            String expectedStdout,
+            JvmBytecodeCompiler.BackendMode backendMode
     ) {
     }
 
@@ -524,7 +610,11 @@ public final class BenchmarkHarness {
             builder.append("\"constantFoldingEnabled\":")
                     .append(options.optimizationOptions().constantFoldingEnabled()).append(",");
             builder.append("\"deadCodeEliminationEnabled\":")
-                    .append(options.optimizationOptions().deadCodeEliminationEnabled());
+                    .append(options.optimizationOptions().deadCodeEliminationEnabled()).append(",");
+            builder.append("\"inliningEnabled\":")
+                    .append(options.optimizationOptions().inliningEnabled()).append(",");
+            builder.append("\"loopOptimizationEnabled\":")
+                    .append(options.optimizationOptions().loopOptimizationEnabled());
             builder.append("},");
 
             builder.append("\"environment\":{");
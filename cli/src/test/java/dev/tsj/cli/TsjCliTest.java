@@ -1,5 +1,7 @@
 package dev.tsj.cli;
 
+import dev.tsj.compiler.backend.jvm.JvmBytecodeRunner;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -13,6 +15,7 @@ import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.List;
 import java.util.Properties;
 import java.util.jar.JarFile;
@@ -352,6 +355,177 @@ class TsjCliTest {
         assertTrue(stderrText.contains("--mode"));
     }
 
+    @Test
+    void serveRunsProgramPerRequestAndRecompilesOnlyChangedSources() throws Exception {
+        final Path entryFile = tempDir.resolve("serve-main.ts");
+        final Path helperFile = tempDir.resolve("serve-helper.ts");
+        Files.writeString(helperFile, "export const greeting = \"warm-1\";\n", UTF_8);
+        Files.writeString(
+                entryFile,
+                "import { greeting } from \"./serve-helper.ts\";\nconsole.log(greeting);\n",
+                UTF_8
+        );
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        final PrintStream serveStdout = new PrintStream(stdout, true, UTF_8);
+        final int[] exitCode = new int[]{-1};
+        final Thread serveThread = new Thread(() -> exitCode[0] = TsjCli.execute(
+                new String[]{
+                        "serve",
+                        entryFile.toString(),
+                        "--out",
+                        tempDir.resolve("serve-out").toString(),
+                        "--port",
+                        "0",
+                        "--max-requests",
+                        "5"
+                },
+                serveStdout,
+                new PrintStream(stderr)
+        ));
+        serveThread.start();
+
+        final java.util.regex.Pattern portPattern = java.util.regex.Pattern.compile("\"port\":\"(\\d+)\"");
+        java.util.regex.Matcher portMatcher = portPattern.matcher("");
+        boolean ready = false;
+        final long deadline = System.currentTimeMillis() + 60_000L;
+        while (!ready && serveThread.isAlive() && System.currentTimeMillis() < deadline) {
+            portMatcher = portPattern.matcher(stdout.toString(UTF_8));
+            ready = portMatcher.find();
+            if (!ready) {
+                Thread.sleep(20L);
+            }
+        }
+        assertTrue(ready, stdout.toString(UTF_8) + stderr.toString(UTF_8));
+        final int port = Integer.parseInt(portMatcher.group(1));
+        final Path tokenFile = tempDir.resolve("serve-out").resolve("serve.token");
+        assertTrue(stdout.toString(UTF_8).contains(
+                "\"tokenFile\":\"" + tokenFile.toAbsolutePath().normalize() + "\""
+        ));
+        if (tokenFile.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            assertEquals("rw-------", java.nio.file.attribute.PosixFilePermissions.toString(
+                    Files.getPosixFilePermissions(tokenFile)
+            ));
+        }
+        final String token = Files.readString(tokenFile, UTF_8).trim();
+
+        final String unauthenticated = sendServeRequest(port, "run");
+        final String first = sendServeRequest(port, token + " run");
+        final String second = sendServeRequest(port, token + " run");
+        Files.writeString(helperFile, "export const greeting = \"warm-2\";\n", UTF_8);
+        final String third = sendServeRequest(port, token + " run");
+        final String stop = sendServeRequest(port, token + " stop");
+        serveThread.join(60_000L);
+
+        assertEquals(0, exitCode[0], stderr.toString(UTF_8));
+        assertTrue(unauthenticated.contains("\"code\":\"TSJ-SERVE-003\""), unauthenticated);
+        assertFalse(unauthenticated.contains("warm-1"), unauthenticated);
+        assertFalse(Files.exists(tokenFile));
+        assertTrue(first.startsWith("warm-1\n"), first);
+        assertTrue(first.contains("\"serveRecompiled\":\"false\""), first);
+        assertTrue(second.startsWith("warm-1\n"), second);
+        assertTrue(second.contains("\"serveRunCount\":\"2\""), second);
+        assertTrue(third.startsWith("warm-2\n"), third);
+        assertTrue(third.contains("\"serveRecompiled\":\"true\""), third);
+        assertTrue(stop.contains("\"code\":\"TSJ-SERVE-STOP\""), stop);
+        assertTrue(stdout.toString(UTF_8).contains("\"code\":\"TSJ-SERVE-READY\""));
+    }
+
+    private static String sendServeRequest(final int port, final String request) throws IOException {
+        try (java.net.Socket socket = new java.net.Socket(java.net.InetAddress.getLoopbackAddress(), port)) {
+            socket.getOutputStream().write((request + "\n").getBytes(UTF_8));
+            socket.getOutputStream().flush();
+            return new String(socket.getInputStream().readAllBytes(), UTF_8);
+        }
+    }
+
+    @Test
+    void compileRejectsCacheDirThatIsNotADirectory() throws Exception {
+        final Path entryFile = tempDir.resolve("cache-dir-file.ts");
+        Files.writeString(entryFile, "console.log('x');\n", UTF_8);
+        final Path cacheFile = tempDir.resolve("not-a-cache-dir.txt");
+        Files.writeString(cacheFile, "x", UTF_8);
+
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+
+        final int exitCode = TsjCli.execute(
+                new String[]{
+                        "compile",
+                        entryFile.toString(),
+                        "--out",
+                        tempDir.resolve("cache-dir-file-out").toString(),
+                        "--cache-dir",
+                        cacheFile.toString()
+                },
+                new PrintStream(stdout),
+                new PrintStream(stderr)
+        );
+
+        assertEquals(2, exitCode);
+        assertEquals("", stdout.toString(UTF_8));
+        assertTrue(stderr.toString(UTF_8).contains("\"code\":\"TSJ-CLI-020\""));
+    }
+
+    @Test
+    void compileRejectsMissingTypeFeedbackProfile() throws Exception {
+        final Path entryFile = tempDir.resolve("missing-profile.ts");
+        Files.writeString(entryFile, "console.log('x');\n", UTF_8);
+
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+
+        final int exitCode = TsjCli.execute(
+                new String[]{
+                        "compile",
+                        entryFile.toString(),
+                        "--out",
+                        tempDir.resolve("missing-profile-out").toString(),
+                        "--profile",
+                        tempDir.resolve("absent.tsjprof").toString()
+                },
+                new PrintStream(stdout),
+                new PrintStream(stderr)
+        );
+
+        assertEquals(2, exitCode);
+        assertEquals("", stdout.toString(UTF_8));
+        assertTrue(stderr.toString(UTF_8).contains("\"code\":\"TSJ-CLI-021\""));
+    }
+
+    @Test
+    void compileWarnsWhenTypeFeedbackProfileIsStale() throws Exception {
+        final Path entryFile = tempDir.resolve("stale-profile.ts");
+        Files.writeString(entryFile, "const a = 1;\nconsole.log(a + 2);\n", UTF_8);
+        final Path profile = tempDir.resolve("stale.tsjprof");
+        Files.writeString(
+                profile,
+                "tsj-type-feedback 1\nunit dev.tsj.generated.StaleProfileProgram@0000000000000000\nadd 0 100 0 0\n",
+                UTF_8
+        );
+
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+
+        final int exitCode = TsjCli.execute(
+                new String[]{
+                        "compile",
+                        entryFile.toString(),
+                        "--out",
+                        tempDir.resolve("stale-profile-out").toString(),
+                        "--profile",
+                        profile.toString()
+                },
+                new PrintStream(stdout),
+                new PrintStream(stderr)
+        );
+
+        assertEquals(0, exitCode, stderr.toString(UTF_8));
+        final String stdoutText = stdout.toString(UTF_8);
+        assertTrue(stdoutText.contains("\"code\":\"TSJ-PROFILE-STALE\""), stdoutText);
+        assertTrue(stdoutText.contains("\"optProfile\":\"stale\""), stdoutText);
+    }
+
     @Test
     void runRejectsUnknownCompilerModeValue() throws Exception {
         final Path entryFile = tempDir.resolve("invalid-mode-run.ts");
@@ -1298,6 +1472,115 @@ class TsjCliTest {
         assertTrue(classIndexJson.contains(secondJar.toAbsolutePath().normalize().toString()), classIndexJson);
     }
 
+    @Test
+    void compileReusesUnchangedJarSectionsFromBinaryClassIndex() throws Exception {
+        final Path entryFile = tempDir.resolve("tsj45-binary-index.ts");
+        Files.writeString(entryFile, "console.log('index');\n", UTF_8);
+        final Path outDir = tempDir.resolve("tsj45-binary-index-out");
+        final Path jar = buildInteropJar(
+                "sample.tsj45.BinaryIndexed",
+                """
+                package sample.tsj45;
+
+                public final class BinaryIndexed {
+                    private BinaryIndexed() {
+                    }
+                }
+                """,
+                List.of(),
+                "tsj45-binary-indexed.jar"
+        );
+        final String[] args = {
+                "compile",
+                entryFile.toString(),
+                "--out",
+                outDir.toString(),
+                "--classpath",
+                jar.toString()
+        };
+
+        assertEquals(0, TsjCli.execute(
+                args,
+                new PrintStream(new ByteArrayOutputStream()),
+                new PrintStream(new ByteArrayOutputStream())
+        ));
+        assertEquals(0, TsjCli.execute(
+                args,
+                new PrintStream(new ByteArrayOutputStream()),
+                new PrintStream(new ByteArrayOutputStream())
+        ));
+
+        final Properties artifact = loadArtifactProperties(outDir.resolve("program.tsj.properties"));
+        assertEquals("1", artifact.getProperty("interopClasspath.classIndex.reusedSections"));
+        final Path binaryIndex = Path.of(artifact.getProperty("interopClasspath.classIndex.binaryPath"));
+        final ClasspathSymbolIndexer.ClasspathSymbolIndex reloaded = ClasspathSymbolIndexer.readBinaryIndexFile(
+                binaryIndex,
+                JvmBytecodeRunner.ClassloaderIsolationMode.SHARED
+        );
+        assertEquals(
+                artifact.getProperty("interopClasspath.classIndex.symbolCount"),
+                Integer.toString(reloaded.symbolCount())
+        );
+        assertTrue(reloaded.symbols().stream()
+                .anyMatch(symbol -> "sample/tsj45/BinaryIndexed".equals(symbol.internalName())
+                        && jar.toAbsolutePath().normalize().toString().equals(symbol.origin().location())));
+    }
+
+    @Test
+    void runReloadsBinaryClassIndexWhenClasspathStampsMatch() throws Exception {
+        final Path entryFile = tempDir.resolve("tsj45-binary-reload.ts");
+        Files.writeString(entryFile, "console.log('reload');\n", UTF_8);
+        final Path outDir = tempDir.resolve("tsj45-binary-reload-out");
+        final Path jar = buildInteropJar(
+                "sample.tsj45.BinaryReloaded",
+                """
+                package sample.tsj45;
+
+                public final class BinaryReloaded {
+                    private BinaryReloaded() {
+                    }
+                }
+                """,
+                List.of(),
+                "tsj45-binary-reloaded.jar"
+        );
+        final String[] args = {
+                "run",
+                entryFile.toString(),
+                "--out",
+                outDir.toString(),
+                "--classpath",
+                jar.toString()
+        };
+        final Path artifactPath = outDir.resolve("program.tsj.properties");
+
+        final ByteArrayOutputStream firstStdout = new ByteArrayOutputStream();
+        assertEquals(0, TsjCli.execute(args, new PrintStream(firstStdout), new PrintStream(new ByteArrayOutputStream())));
+        assertTrue(firstStdout.toString(UTF_8).contains("reload"), firstStdout.toString(UTF_8));
+        assertEquals("false", loadArtifactProperties(artifactPath).getProperty("interopClasspath.classIndex.reloaded"));
+
+        final ByteArrayOutputStream secondStdout = new ByteArrayOutputStream();
+        assertEquals(0, TsjCli.execute(args, new PrintStream(secondStdout), new PrintStream(new ByteArrayOutputStream())));
+        assertTrue(secondStdout.toString(UTF_8).contains("reload"), secondStdout.toString(UTF_8));
+        final Properties reloaded = loadArtifactProperties(artifactPath);
+        assertEquals("true", reloaded.getProperty("interopClasspath.classIndex.reloaded"));
+        assertEquals("1", reloaded.getProperty("interopClasspath.classIndex.reusedSections"));
+        final String classIndexJson = Files.readString(outDir.resolve("class-index.json"), UTF_8);
+        assertTrue(classIndexJson.contains("sample/tsj45/BinaryReloaded"), classIndexJson);
+        assertTrue(classIndexJson.contains("\"owner\":\"app\""), classIndexJson);
+
+        Files.setLastModifiedTime(
+                jar,
+                FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 60_000L)
+        );
+        assertEquals(0, TsjCli.execute(
+                args,
+                new PrintStream(new ByteArrayOutputStream()),
+                new PrintStream(new ByteArrayOutputStream())
+        ));
+        assertEquals("false", loadArtifactProperties(artifactPath).getProperty("interopClasspath.classIndex.reloaded"));
+    }
+
     @Test
     void compileSupportsJrtClasspathEntriesInSymbolIndex() throws Exception {
         final Path entryFile = tempDir.resolve("tsj45-jrt-index.ts");
@@ -2414,6 +2697,96 @@ class TsjCliTest {
         assertMediationDecisionPresent(artifact, "sample.graph:shared-lib", "2.0.0", "1.0.0", "root-order");
     }
 
+    @Test
+    void compileReusesCachedMavenMetadataAndMediationUntilAJarChanges() throws Exception {
+        final String sharedSource = """
+                package sample.cached;
+
+                public final class Shared {
+                    private Shared() {
+                    }
+                }
+                """;
+        final Path sharedOne = buildInteropJarWithMavenMetadata(
+                "sample.cached.Shared",
+                sharedSource,
+                List.of(),
+                "cached-shared-one.jar",
+                new MavenCoordinate("sample.cached", "shared-lib", "1.0.0"),
+                List.of()
+        );
+        final Path sharedTwo = buildInteropJarWithMavenMetadata(
+                "sample.cached.Shared",
+                sharedSource,
+                List.of(),
+                "cached-shared-two.jar",
+                new MavenCoordinate("sample.cached", "shared-lib", "2.0.0"),
+                List.of()
+        );
+        final Path entryFile = tempDir.resolve("cached-mediation.ts");
+        Files.writeString(entryFile, "console.log('cached');\n", UTF_8);
+        final Path cacheDir = tempDir.resolve("cached-mediation-cache");
+        final String classpath = sharedOne + File.pathSeparator + sharedTwo;
+
+        final Properties cold = compileWithCacheDir(entryFile, "cached-mediation-cold", classpath, cacheDir);
+        final Properties warm = compileWithCacheDir(entryFile, "cached-mediation-warm", classpath, cacheDir);
+
+        assertMediationDecisionPresent(cold, "sample.cached:shared-lib", "1.0.0", "2.0.0", "root-order");
+        assertMediationDecisionPresent(warm, "sample.cached:shared-lib", "1.0.0", "2.0.0", "root-order");
+        assertEquals(classpathEntries(cold), classpathEntries(warm));
+        final Path metadataCache = cacheDir.resolve("v1").resolve("maven-metadata");
+        final Path mediationCache = cacheDir.resolve("v1").resolve("classpath-mediation");
+        assertEquals(2L, countCacheFiles(metadataCache));
+        assertEquals(1L, countCacheFiles(mediationCache));
+
+        buildInteropJarWithMavenMetadata(
+                "sample.cached.Shared",
+                sharedSource,
+                List.of(),
+                "cached-shared-one.jar",
+                new MavenCoordinate("sample.cached", "shared-lib", "1.5.0"),
+                List.of()
+        );
+        final Properties rebuilt = compileWithCacheDir(entryFile, "cached-mediation-rebuilt", classpath, cacheDir);
+
+        assertMediationDecisionPresent(rebuilt, "sample.cached:shared-lib", "1.5.0", "2.0.0", "root-order");
+        assertEquals(3L, countCacheFiles(metadataCache));
+        assertEquals(2L, countCacheFiles(mediationCache));
+    }
+
+    private Properties compileWithCacheDir(
+            final Path entryFile,
+            final String outName,
+            final String classpath,
+            final Path cacheDir
+    ) throws Exception {
+        final Path outDir = tempDir.resolve(outName);
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        final int exitCode = TsjCli.execute(
+                new String[]{
+                        "compile",
+                        entryFile.toString(),
+                        "--out",
+                        outDir.toString(),
+                        "--classpath",
+                        classpath,
+                        "--cache-dir",
+                        cacheDir.toString()
+                },
+                new PrintStream(stdout),
+                new PrintStream(stderr)
+        );
+        assertEquals(0, exitCode, "stderr:\n" + stderr.toString(UTF_8));
+        return loadArtifactProperties(outDir.resolve("program.tsj.properties"));
+    }
+
+    private static long countCacheFiles(final Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".bin")).count();
+        }
+    }
+
     @Test
     void compileIncludesProvidedScopeDependenciesForInteropResolution() throws Exception {
         final MavenCoordinate apiCoordinate = new MavenCoordinate("sample.scope", "api-lib", "1.0.0");
@@ -6948,6 +7321,51 @@ class TsjCliTest {
         assertTrue(stderr.toString(UTF_8).contains("\"code\":\"TSJ-RUN-006\""));
     }
 
+    @Test
+    void runTsStackTraceMapsFramesInsideBundledModuleClasses() throws Exception {
+        final Path dependency = tempDir.resolve("runtime-fail-module-dep.ts");
+        Files.writeString(
+                dependency,
+                """
+                export function fail(value: number) {
+                  if (value === 1) {
+                    throw "boom";
+                  }
+                  return value;
+                }
+                """,
+                UTF_8
+        );
+        final Path entryFile = tempDir.resolve("runtime-fail-module.ts");
+        Files.writeString(
+                entryFile,
+                """
+                import { fail } from "./runtime-fail-module-dep.ts";
+                fail(1);
+                """,
+                UTF_8
+        );
+
+        final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        final int exitCode = TsjCli.execute(
+                new String[]{
+                        "run",
+                        entryFile.toString(),
+                        "--out",
+                        tempDir.resolve("runtime-fail-module-out").toString(),
+                        "--ts-stacktrace"
+                },
+                new PrintStream(new ByteArrayOutputStream()),
+                new PrintStream(stderr)
+        );
+
+        assertEquals(1, exitCode);
+        final String stderrText = stderr.toString(UTF_8);
+        assertTrue(stderrText.contains("TSJ stack trace (TypeScript):"), stderrText);
+        assertTrue(stderrText.contains(dependency.toAbsolutePath().normalize() + ":3:"), stderrText);
+        assertTrue(stderrText.contains(entryFile.toAbsolutePath().normalize() + ":2:"), stderrText);
+    }
+
     @Test
     void runTsStackTraceFiltersDuplicateMethodFramesPerCause() throws Exception {
         final Path entryFile = tempDir.resolve("runtime-fail-recursive.ts");
@@ -8708,6 +9126,97 @@ class TsjCliTest {
         assertTrue(jarRun.output().contains("tsj36:boot"));
     }
 
+    @Test
+    void packageTrainsStartupArchiveAndComparesSmokeStartup() throws Exception {
+        final Path entryFile = tempDir.resolve("tsj-cds-main.ts");
+        Files.writeString(entryFile, "console.log('cds:boot');\n", UTF_8);
+        final Path outDir = tempDir.resolve("tsj-cds-out");
+
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+
+        final int exitCode = TsjCli.execute(
+                new String[]{
+                        "package",
+                        entryFile.toString(),
+                        "--out",
+                        outDir.toString(),
+                        "--cds-archive",
+                        "--smoke-run",
+                        "--smoke-timeout-ms",
+                        "60000"
+                },
+                new PrintStream(stdout),
+                new PrintStream(stderr)
+        );
+
+        final String stdoutText = stdout.toString(UTF_8);
+        assertEquals(0, exitCode, stderr.toString(UTF_8));
+        assertTrue(stdoutText.contains("\"code\":\"TSJ-PACKAGE-SUCCESS\""));
+        assertTrue(stdoutText.contains("\"cdsArchive\":"));
+        assertTrue(stdoutText.contains("\"cdsRuntimeMs\":"));
+        final Path cdsArchive = outDir.resolve("tsj-app.jsa");
+        final Path launcherArgs = outDir.resolve("tsj-app.jvm-args");
+        assertTrue(Files.isRegularFile(cdsArchive));
+        assertTrue(Files.isRegularFile(launcherArgs));
+        assertFalse(Files.exists(outDir.resolve("tsj-app.aotconf")));
+        final String launcherOption = Files.readString(launcherArgs, UTF_8).trim();
+        final Path absoluteOutDir = outDir.toAbsolutePath().normalize();
+        if (Runtime.version().feature() >= 24) {
+            assertEquals("\"-XX:AOTCache=" + absoluteOutDir.resolve("tsj-app.aot") + "\"", launcherOption);
+        } else {
+            assertEquals("\"-XX:SharedArchiveFile=" + absoluteOutDir.resolve("tsj-app.jsa") + "\"", launcherOption);
+        }
+        assertTrue(stdoutText.contains("@" + absoluteOutDir.resolve("tsj-app.jvm-args") + " -jar "));
+
+        final Path otherDirectory = Files.createDirectories(tempDir.resolve("tsj-cds-elsewhere"));
+        final Process archiveRun = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Xshare:on",
+                "@" + absoluteOutDir.resolve("tsj-app.jvm-args"),
+                "-jar",
+                absoluteOutDir.resolve("tsj-app.jar").toString()
+        ).directory(otherDirectory.toFile()).redirectErrorStream(true).start();
+        final String archiveRunOutput = new String(archiveRun.getInputStream().readAllBytes(), UTF_8);
+        assertEquals(0, archiveRun.waitFor(), archiveRunOutput);
+        assertTrue(archiveRunOutput.contains("cds:boot"), archiveRunOutput);
+    }
+
+    @Test
+    void packageFailsStartupArchiveTrainingWhenEndpointProbeNeverPasses() throws Exception {
+        final Path entryFile = tempDir.resolve("tsj-cds-unhealthy.ts");
+        Files.writeString(entryFile, "console.log('cds:not-ready');\n", UTF_8);
+        final Path outDir = tempDir.resolve("tsj-cds-unhealthy-out");
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+
+        final int exitCode = TsjCli.execute(
+                new String[]{
+                        "package",
+                        entryFile.toString(),
+                        "--out",
+                        outDir.toString(),
+                        "--cds-archive",
+                        "--smoke-run",
+                        "--smoke-endpoint-url",
+                        "stdout://CDS_READY",
+                        "--smoke-timeout-ms",
+                        "30000",
+                        "--smoke-poll-ms",
+                        "50"
+                },
+                new PrintStream(stdout),
+                new PrintStream(stderr)
+        );
+
+        final String stderrText = stderr.toString(UTF_8);
+        assertEquals(1, exitCode);
+        assertTrue(stderrText.contains("\"code\":\"TSJ-PACKAGE\""), stderrText);
+        assertTrue(stderrText.contains("\"failureKind\":\"cds\""), stderrText);
+        assertTrue(stderrText.contains("never passed the `stdout://CDS_READY` probe"), stderrText);
+        assertFalse(Files.exists(outDir.resolve("tsj-app.jvm-args")));
+    }
+
     @Test
     void packageSupportsCustomJarPathAndExplicitResourceDirectory() throws Exception {
         final Path entryFile = tempDir.resolve("tsj36-custom-main.ts");
@@ -8854,6 +9363,147 @@ class TsjCliTest {
         }
     }
 
+    @Test
+    void packageCopiesCompressedDependencyEntriesWithoutRecompressing() throws Exception {
+        final Path entryFile = tempDir.resolve("tsj-raw-copy-main.ts");
+        Files.writeString(entryFile, "console.log('raw-copy');\n", UTF_8);
+        final Path dependencyJar = tempDir.resolve("tsj-raw-copy-dep.jar");
+        final byte[] storedContent = "stored-bytes".getBytes(UTF_8);
+        final java.util.zip.CRC32 storedCrc = new java.util.zip.CRC32();
+        storedCrc.update(storedContent);
+        try (JarOutputStream jarOutputStream = new JarOutputStream(Files.newOutputStream(dependencyJar))) {
+            jarOutputStream.putNextEntry(new JarEntry("sample/raw/data.txt"));
+            jarOutputStream.write("deflated ".repeat(200).getBytes(UTF_8));
+            jarOutputStream.closeEntry();
+            final JarEntry storedEntry = new JarEntry("sample/raw/stored.bin");
+            storedEntry.setMethod(JarEntry.STORED);
+            storedEntry.setSize(storedContent.length);
+            storedEntry.setCrc(storedCrc.getValue());
+            jarOutputStream.putNextEntry(storedEntry);
+            jarOutputStream.write(storedContent);
+            jarOutputStream.closeEntry();
+        }
+        final Path outDir = tempDir.resolve("tsj-raw-copy-out");
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+
+        final int exitCode = TsjCli.execute(
+                new String[]{
+                        "package",
+                        entryFile.toString(),
+                        "--out",
+                        outDir.toString(),
+                        "--classpath",
+                        dependencyJar.toString()
+                },
+                new PrintStream(stdout),
+                new PrintStream(stderr)
+        );
+
+        assertEquals(0, exitCode, "stderr=" + stderr.toString(UTF_8));
+        assertTrue(stdout.toString(UTF_8).contains("\"jarLayout\":\"fat\""), stdout.toString(UTF_8));
+        try (JarFile source = new JarFile(dependencyJar.toFile());
+             JarFile packaged = new JarFile(outDir.resolve("tsj-app.jar").toFile())) {
+            for (String name : List.of("sample/raw/data.txt", "sample/raw/stored.bin")) {
+                final JarEntry sourceEntry = source.getJarEntry(name);
+                final JarEntry packagedEntry = packaged.getJarEntry(name);
+                assertNotNull(packagedEntry, name);
+                assertEquals(sourceEntry.getMethod(), packagedEntry.getMethod(), name);
+                assertEquals(sourceEntry.getCompressedSize(), packagedEntry.getCompressedSize(), name);
+                assertEquals(sourceEntry.getCrc(), packagedEntry.getCrc(), name);
+                try (InputStream sourceStream = source.getInputStream(sourceEntry);
+                     InputStream packagedStream = packaged.getInputStream(packagedEntry)) {
+                    assertEquals(new String(sourceStream.readAllBytes(), UTF_8),
+                            new String(packagedStream.readAllBytes(), UTF_8), name);
+                }
+            }
+            assertNotNull(packaged.getJarEntry("sample/raw/"));
+        }
+    }
+
+    @Test
+    void packageLayeredLayoutKeepsDependenciesInReusableLibJars() throws Exception {
+        final Path entryFile = tempDir.resolve("tsj-layered-main.ts");
+        Files.writeString(entryFile, "console.log('tsj-layered:boot');\n", UTF_8);
+        final Path dependencyJar = createMetadataJar(
+                "tsj-layered-dep.jar",
+                "META-INF/services/sample.layered.Service",
+                "sample.layered.Impl\n"
+        );
+        final Path outDir = tempDir.resolve("tsj-layered-out");
+        final String[] args = {
+                "package",
+                entryFile.toString(),
+                "--out",
+                outDir.toString(),
+                "--classpath",
+                dependencyJar.toString(),
+                "--jar-layout",
+                "layered"
+        };
+
+        final ByteArrayOutputStream firstStdout = new ByteArrayOutputStream();
+        final ByteArrayOutputStream firstStderr = new ByteArrayOutputStream();
+        final int firstExitCode = TsjCli.execute(args, new PrintStream(firstStdout), new PrintStream(firstStderr));
+
+        assertEquals(0, firstExitCode, "stderr=" + firstStderr.toString(UTF_8));
+        final String firstStdoutText = firstStdout.toString(UTF_8);
+        assertTrue(firstStdoutText.contains("\"jarLayout\":\"layered\""), firstStdoutText);
+        assertTrue(firstStdoutText.contains("\"dependencyLayersReused\":\"0\""), firstStdoutText);
+        final Path jarPath = outDir.resolve("tsj-app.jar");
+        final Path dependencyLayer = outDir.resolve("lib").resolve("tsj-layered-dep.jar");
+        final List<String> classPath;
+        try (JarFile jarFile = new JarFile(jarPath.toFile())) {
+            final java.util.jar.Attributes attributes = jarFile.getManifest().getMainAttributes();
+            assertEquals("layered", attributes.getValue("TSJ-Boot-Layout"));
+            classPath = List.of(attributes.getValue(java.util.jar.Attributes.Name.CLASS_PATH).split(" "));
+            assertTrue(classPath.contains("lib/tsj-layered-dep.jar"), classPath.toString());
+            assertTrue(jarFile.stream().anyMatch(entry -> entry.getName().startsWith("dev/tsj/generated/")));
+            assertEquals(null, jarFile.getJarEntry("dev/tsj/runtime/TsjRuntime.class"));
+            assertEquals(null, jarFile.getJarEntry("META-INF/services/sample.layered.Service"));
+        }
+        assertEquals(-1L, Files.mismatch(dependencyJar, dependencyLayer));
+        final ProcessResult jarRun = runJarAndCaptureOutput(jarPath);
+        assertEquals(0, jarRun.exitCode(), jarRun.output());
+        assertTrue(jarRun.output().contains("tsj-layered:boot"), jarRun.output());
+
+        final java.nio.file.attribute.FileTime layerTimestamp = Files.getLastModifiedTime(dependencyLayer);
+        final ByteArrayOutputStream secondStdout = new ByteArrayOutputStream();
+        final ByteArrayOutputStream secondStderr = new ByteArrayOutputStream();
+        final int secondExitCode = TsjCli.execute(args, new PrintStream(secondStdout), new PrintStream(secondStderr));
+
+        assertEquals(0, secondExitCode, "stderr=" + secondStderr.toString(UTF_8));
+        assertTrue(
+                secondStdout.toString(UTF_8).contains("\"dependencyLayersReused\":\"" + classPath.size() + "\""),
+                secondStdout.toString(UTF_8)
+        );
+        assertEquals(layerTimestamp, Files.getLastModifiedTime(dependencyLayer));
+    }
+
+    @Test
+    void packageRejectsUnknownJarLayout() throws Exception {
+        final Path entryFile = tempDir.resolve("tsj-layout-invalid.ts");
+        Files.writeString(entryFile, "console.log('x');\n", UTF_8);
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+
+        final int exitCode = TsjCli.execute(
+                new String[]{
+                        "package",
+                        entryFile.toString(),
+                        "--out",
+                        tempDir.resolve("tsj-layout-invalid-out").toString(),
+                        "--jar-layout",
+                        "nested"
+                },
+                new PrintStream(stdout),
+                new PrintStream(stderr)
+        );
+
+        assertEquals(2, exitCode);
+        assertTrue(stderr.toString(UTF_8).contains("\"code\":\"TSJ-CLI-022\""), stderr.toString(UTF_8));
+    }
+
     @Test
     void packageRejectsMissingExplicitResourceDirectory() throws Exception {
         final Path entryFile = tempDir.resolve("tsj36-missing-resource-main.ts");
@@ -72,10 +72,12 @@ class BenchmarkHarnessTest {
         final BenchmarkHarness.BenchmarkReport report = new BenchmarkHarness().run(outputFile, options);
 
         assertTrue(Files.exists(outputFile));
-        assertEquals(4, report.results().size());
-        assertEquals(2, report.summary().microWorkloads());
+        assertEquals(6, report.results().size());
+        assertEquals(4, report.summary().microWorkloads());
         assertEquals(2, report.summary().macroWorkloads());
         assertTrue(report.results().stream().anyMatch(result -> "micro-arithmetic-loop".equals(result.id())));
+        assertTrue(report.results().stream().anyMatch(result -> "micro-strict-typed-dispatch".equals(result.id())));
+        assertTrue(report.results().stream().anyMatch(result -> "micro-strict-runtime-dispatch".equals(result.id())));
         assertTrue(report.results().stream().anyMatch(result -> "macro-modules-async".equals(result.id())));
     }
 
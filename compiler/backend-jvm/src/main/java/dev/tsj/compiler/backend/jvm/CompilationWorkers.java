@@ -0,0 +1,151 @@
+package dev.tsj.compiler.backend.jvm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded worker pool for the parallel stages of the compile pipeline.
+ *
+ * <p>Tasks run concurrently but results are always returned in submission order, and when several
+ * tasks fail the failure of the earliest task is rethrown, so parallel compiles produce the same
+ * outputs and diagnostics as sequential ones. Parallelism defaults to the available processors and
+ * can be pinned with {@code tsj.backend.parallelism}; a value of {@code 1} runs every task inline.
+ */
+public final class CompilationWorkers {
+    static final String PARALLELISM_PROPERTY = "tsj.backend.parallelism";
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private CompilationWorkers() {
+    }
+
+    public static int parallelism() {
+        final String configured = System.getProperty(PARALLELISM_PROPERTY, "");
+        if (!configured.isBlank()) {
+            try {
+                final int value = Integer.parseInt(configured.trim());
+                if (value > 0) {
+                    return value;
+                }
+            } catch (final NumberFormatException ignored) {
+                // Fall back to the processor count.
+            }
+        }
+        return Math.max(1, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Runs {@code tasks} on up to {@link #parallelism()} threads and returns their results in order.
+     */
+    public static <T> List<T> invokeAll(final List<? extends Callable<T>> tasks) {
+        Objects.requireNonNull(tasks, "tasks");
+        final int threads = Math.min(parallelism(), tasks.size());
+        if (threads <= 1) {
+            final List<T> results = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                results.add(callInline(task));
+            }
+            return results;
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "tsj-compile-worker-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final List<Future<T>> futures = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            final List<T> results = new ArrayList<>(tasks.size());
+            for (Future<T> future : futures) {
+                results.add(await(future));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Splits {@code items} into at most {@code maxBatches} contiguous batches of roughly equal weight.
+     */
+    public static <T> List<List<T>> partition(
+            final List<T> items,
+            final int maxBatches,
+            final ToLongFunction<T> weight
+    ) {
+        Objects.requireNonNull(items, "items");
+        Objects.requireNonNull(weight, "weight");
+        final int batchCount = Math.max(1, Math.min(maxBatches, items.size()));
+        if (batchCount == 1) {
+            return items.isEmpty() ? List.of() : List.of(List.copyOf(items));
+        }
+        long totalWeight = 0L;
+        for (T item : items) {
+            totalWeight += Math.max(1L, weight.applyAsLong(item));
+        }
+        final List<List<T>> batches = new ArrayList<>();
+        List<T> current = new ArrayList<>();
+        long currentWeight = 0L;
+        long remainingWeight = totalWeight;
+        for (int index = 0; index < items.size(); index++) {
+            final T item = items.get(index);
+            final long itemWeight = Math.max(1L, weight.applyAsLong(item));
+            current.add(item);
+            currentWeight += itemWeight;
+            final int remainingItems = items.size() - index - 1;
+            final int openBatches = batchCount - batches.size();
+            final long targetWeight = (remainingWeight + openBatches - 1) / openBatches;
+            if (openBatches > 1 && remainingItems >= openBatches - 1
+                    && (currentWeight >= targetWeight || remainingItems == openBatches - 1)) {
+                batches.add(List.copyOf(current));
+                remainingWeight -= currentWeight;
+                current = new ArrayList<>();
+                currentWeight = 0L;
+            }
+        }
+        if (!current.isEmpty()) {
+            batches.add(List.copyOf(current));
+        }
+        return List.copyOf(batches);
+    }
+
+    private static <T> T callInline(final Callable<T> task) {
+        try {
+            return task.call();
+        } catch (final RuntimeException | Error exception) {
+            throw exception;
+        } catch (final Exception exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private static <T> T await(final Future<T> future) {
+        try {
+            return future.get();
+        } catch (final InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new JvmCompilationException(
+                    "TSJ-BACKEND-INTERRUPTED",
+                    "Interrupted while waiting for parallel compile workers."
+            );
+        } catch (final ExecutionException executionException) {
+            final Throwable cause = executionException.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -25,6 +25,9 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * Generates opt-in Java interop bridge stubs from allowlisted targets.
+ *
+ * <p>Overload resolutions are memoized for the lifetime of the generator, so callers reuse one instance
+ * for all generations in a compile.
  */
 public final class InteropBridgeGenerator {
     private static final String CODE_INPUT = "TSJ-INTEROP-INPUT";
@@ -48,6 +51,21 @@ public final class InteropBridgeGenerator {
     private static final String BINDING_STATIC_GET_PREFIX = "$static$get$";
     private static final String BINDING_STATIC_SET_PREFIX = "$static$set$";
 
+    private final JavaOverloadResolver overloadResolver = new JavaOverloadResolver();
+
+    /**
+     * Hit statistics of the overload memo table accumulated by this generator.
+     */
+    public OverloadCacheStats overloadCacheStats() {
+        final JavaOverloadResolver.CacheStats stats = overloadResolver.cacheStats();
+        return new OverloadCacheStats(
+                stats.resolutionHits(),
+                stats.resolutionMisses(),
+                stats.conversionHits(),
+                stats.conversionMisses()
+        );
+    }
+
     public InteropBridgeArtifact generate(final Path specFile, final Path outputDir) {
         final Path normalizedSpec = normalizeSpec(specFile);
         final Path normalizedOutput = Objects.requireNonNull(outputDir, "outputDir").toAbsolutePath().normalize();
@@ -91,7 +109,6 @@ public final class InteropBridgeGenerator {
         final List<InteropBridgeArtifact.SelectedTargetIdentity> selectedTargets = new ArrayList<>();
         final List<InteropBridgeArtifact.UnresolvedTarget> unresolvedTargets = new ArrayList<>();
         final List<String> emittedTargets = new ArrayList<>();
-        final JavaOverloadResolver overloadResolver = new JavaOverloadResolver();
         final Map<Class<?>, Map<String, List<JavaNullabilityAnalyzer.NullabilityState>>> nullabilityByClass =
                 new LinkedHashMap<>();
         for (InteropTarget target : requested) {
@@ -947,6 +964,21 @@ public final class InteropBridgeGenerator {
         }
     }
 
+    /**
+     * Overload memo table counters: resolutions per (candidates, argument tuple) shape and conversion scores
+     * per (argument, parameter) pair.
+     */
+    public record OverloadCacheStats(
+            int resolutionHits,
+            int resolutionMisses,
+            int conversionHits,
+            int conversionMisses
+    ) {
+        public static OverloadCacheStats none() {
+            return new OverloadCacheStats(0, 0, 0, 0);
+        }
+    }
+
     private record InteropTarget(String className, String bindingName) {
         private String displayName() {
             return className + "#" + bindingName;
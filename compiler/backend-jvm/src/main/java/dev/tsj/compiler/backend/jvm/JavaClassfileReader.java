@@ -3,13 +3,27 @@ package dev.tsj.compiler.backend.jvm;
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Reads classfile descriptors as lazy views over the raw class bytes.
+ *
+ * <p>{@link #read(byte[], Path)} only walks the classfile once to record where the constant pool entries,
+ * members, and class attributes start, and decodes the header (access flags, name, supertypes). Constant
+ * pool strings, fields, methods, annotations, and the remaining class attributes are decoded the first
+ * time they are requested and then memoized, and methods and fields can be looked up by name through an
+ * index without decoding their siblings. Structural truncation is still reported by {@code read}; a
+ * malformed section that is only decoded later surfaces as an {@link UncheckedIOException}.
+ */
 final class JavaClassfileReader {
     private static final int CLASSFILE_MAGIC = 0xCAFEBABE;
 
@@ -18,104 +32,29 @@ final class JavaClassfileReader {
     }
 
     RawClassInfo read(final byte[] classBytes, final Path sourcePath) throws IOException {
-        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(classBytes))) {
-            final int magic = input.readInt();
+        final ByteBuffer buffer = ByteBuffer.wrap(classBytes);
+        try {
+            final int magic = buffer.getInt();
             if (magic != CLASSFILE_MAGIC) {
                 throw new IOException("Invalid classfile magic: " + Integer.toHexString(magic));
             }
-            final int minorVersion = input.readUnsignedShort();
-            final int majorVersion = input.readUnsignedShort();
-            final ConstantPool constantPool = ConstantPool.read(input);
-            final int accessFlags = input.readUnsignedShort();
-            final int thisClassIndex = input.readUnsignedShort();
-            final int superClassIndex = input.readUnsignedShort();
-            final int interfacesCount = input.readUnsignedShort();
-            final List<String> interfaces = new ArrayList<>();
+            final int minorVersion = unsignedShort(buffer);
+            final int majorVersion = unsignedShort(buffer);
+            final ConstantPool constantPool = ConstantPool.scan(classBytes, buffer);
+            final int accessFlags = unsignedShort(buffer);
+            final int thisClassIndex = unsignedShort(buffer);
+            final int superClassIndex = unsignedShort(buffer);
+            final int interfacesCount = unsignedShort(buffer);
+            final List<String> interfaces = new ArrayList<>(interfacesCount);
             for (int index = 0; index < interfacesCount; index++) {
-                interfaces.add(constantPool.className(input.readUnsignedShort()));
-            }
-
-            final int fieldsCount = input.readUnsignedShort();
-            final List<RawFieldInfo> fields = new ArrayList<>();
-            for (int index = 0; index < fieldsCount; index++) {
-                fields.add(readFieldInfo(input, constantPool));
-            }
-
-            final int methodsCount = input.readUnsignedShort();
-            final List<RawMethodInfo> methods = new ArrayList<>();
-            for (int index = 0; index < methodsCount; index++) {
-                methods.add(readMethodInfo(input, constantPool));
-            }
-
-            String signature = null;
-            final List<RawAnnotationInfo> visibleAnnotations = new ArrayList<>();
-            final List<RawAnnotationInfo> invisibleAnnotations = new ArrayList<>();
-            final List<RawTypeAnnotationInfo> visibleTypeAnnotations = new ArrayList<>();
-            final List<RawTypeAnnotationInfo> invisibleTypeAnnotations = new ArrayList<>();
-            final List<RawInnerClassInfo> innerClasses = new ArrayList<>();
-            RawEnclosingMethodInfo enclosingMethod = null;
-            String nestHost = null;
-            final List<String> nestMembers = new ArrayList<>();
-            final List<RawRecordComponentInfo> recordComponents = new ArrayList<>();
-            final List<String> permittedSubclasses = new ArrayList<>();
-
-            final int attributesCount = input.readUnsignedShort();
-            for (int index = 0; index < attributesCount; index++) {
-                final String attributeName = constantPool.utf8(input.readUnsignedShort());
-                final int attributeLength = input.readInt();
-                if ("Signature".equals(attributeName)) {
-                    signature = constantPool.utf8(input.readUnsignedShort());
-                    continue;
-                }
-                if ("RuntimeVisibleAnnotations".equals(attributeName)) {
-                    visibleAnnotations.addAll(readAnnotations(input, constantPool));
-                    continue;
-                }
-                if ("RuntimeInvisibleAnnotations".equals(attributeName)) {
-                    invisibleAnnotations.addAll(readAnnotations(input, constantPool));
-                    continue;
-                }
-                if ("RuntimeVisibleTypeAnnotations".equals(attributeName)) {
-                    visibleTypeAnnotations.addAll(readTypeAnnotations(input, constantPool));
-                    continue;
-                }
-                if ("RuntimeInvisibleTypeAnnotations".equals(attributeName)) {
-                    invisibleTypeAnnotations.addAll(readTypeAnnotations(input, constantPool));
-                    continue;
-                }
-                if ("InnerClasses".equals(attributeName)) {
-                    innerClasses.addAll(readInnerClasses(input, constantPool));
-                    continue;
-                }
-                if ("EnclosingMethod".equals(attributeName)) {
-                    enclosingMethod = readEnclosingMethod(input, constantPool);
-                    continue;
-                }
-                if ("NestHost".equals(attributeName)) {
-                    nestHost = constantPool.className(input.readUnsignedShort());
-                    continue;
-                }
-                if ("NestMembers".equals(attributeName)) {
-                    final int count = input.readUnsignedShort();
-                    for (int memberIndex = 0; memberIndex < count; memberIndex++) {
-                        nestMembers.add(constantPool.className(input.readUnsignedShort()));
-                    }
-                    continue;
-                }
-                if ("Record".equals(attributeName)) {
-                    recordComponents.addAll(readRecordComponents(input, constantPool));
-                    continue;
-                }
-                if ("PermittedSubclasses".equals(attributeName)) {
-                    final int count = input.readUnsignedShort();
-                    for (int classIndex = 0; classIndex < count; classIndex++) {
-                        permittedSubclasses.add(constantPool.className(input.readUnsignedShort()));
-                    }
-                    continue;
-                }
-                skipFully(input, attributeLength);
+                interfaces.add(constantPool.className(unsignedShort(buffer)));
             }
-
+            final MemberTable<RawFieldInfo> fields =
+                    MemberTable.scan(buffer, constantPool, JavaClassfileReader::readFieldInfo);
+            final MemberTable<RawMethodInfo> methods =
+                    MemberTable.scan(buffer, constantPool, JavaClassfileReader::readMethodInfo);
+            final int attributesOffset = buffer.position();
+            skipAttributes(buffer);
             return new RawClassInfo(
                     sourcePath.toAbsolutePath().normalize(),
                     minorVersion,
@@ -124,21 +63,115 @@ final class JavaClassfileReader {
                     constantPool.className(thisClassIndex),
                     superClassIndex == 0 ? null : constantPool.className(superClassIndex),
                     List.copyOf(interfaces),
-                    signature,
-                    List.copyOf(visibleAnnotations),
-                    List.copyOf(invisibleAnnotations),
-                    List.copyOf(visibleTypeAnnotations),
-                    List.copyOf(invisibleTypeAnnotations),
-                    List.copyOf(fields),
-                    List.copyOf(methods),
-                    List.copyOf(innerClasses),
-                    enclosingMethod,
-                    nestHost,
-                    List.copyOf(nestMembers),
-                    List.copyOf(recordComponents),
-                    List.copyOf(permittedSubclasses)
+                    new ClassfileView(constantPool, fields, methods, attributesOffset)
             );
+        } catch (final BufferUnderflowException | IllegalArgumentException | UncheckedIOException exception) {
+            throw new IOException("Truncated or malformed classfile: " + sourcePath, exception);
+        }
+    }
+
+    private static int unsignedShort(final ByteBuffer buffer) {
+        return Short.toUnsignedInt(buffer.getShort());
+    }
+
+    private static void skipAttributes(final ByteBuffer buffer) {
+        final int attributesCount = unsignedShort(buffer);
+        for (int index = 0; index < attributesCount; index++) {
+            buffer.position(buffer.position() + 2);
+            final int attributeLength = buffer.getInt();
+            if (attributeLength < 0) {
+                throw new IllegalArgumentException("Negative attribute length: " + attributeLength);
+            }
+            buffer.position(buffer.position() + attributeLength);
+        }
+    }
+
+    private static ClassAttributes readClassAttributes(
+            final DataInputStream input,
+            final ConstantPool constantPool
+    ) throws IOException {
+        String signature = null;
+        final List<RawAnnotationInfo> visibleAnnotations = new ArrayList<>();
+        final List<RawAnnotationInfo> invisibleAnnotations = new ArrayList<>();
+        final List<RawTypeAnnotationInfo> visibleTypeAnnotations = new ArrayList<>();
+        final List<RawTypeAnnotationInfo> invisibleTypeAnnotations = new ArrayList<>();
+        final List<RawInnerClassInfo> innerClasses = new ArrayList<>();
+        RawEnclosingMethodInfo enclosingMethod = null;
+        String nestHost = null;
+        final List<String> nestMembers = new ArrayList<>();
+        final List<RawRecordComponentInfo> recordComponents = new ArrayList<>();
+        final List<String> permittedSubclasses = new ArrayList<>();
+
+        final int attributesCount = input.readUnsignedShort();
+        for (int index = 0; index < attributesCount; index++) {
+            final String attributeName = constantPool.utf8(input.readUnsignedShort());
+            final int attributeLength = input.readInt();
+            if ("Signature".equals(attributeName)) {
+                signature = constantPool.utf8(input.readUnsignedShort());
+                continue;
+            }
+            if ("RuntimeVisibleAnnotations".equals(attributeName)) {
+                visibleAnnotations.addAll(readAnnotations(input, constantPool));
+                continue;
+            }
+            if ("RuntimeInvisibleAnnotations".equals(attributeName)) {
+                invisibleAnnotations.addAll(readAnnotations(input, constantPool));
+                continue;
+            }
+            if ("RuntimeVisibleTypeAnnotations".equals(attributeName)) {
+                visibleTypeAnnotations.addAll(readTypeAnnotations(input, constantPool));
+                continue;
+            }
+            if ("RuntimeInvisibleTypeAnnotations".equals(attributeName)) {
+                invisibleTypeAnnotations.addAll(readTypeAnnotations(input, constantPool));
+                continue;
+            }
+            if ("InnerClasses".equals(attributeName)) {
+                innerClasses.addAll(readInnerClasses(input, constantPool));
+                continue;
+            }
+            if ("EnclosingMethod".equals(attributeName)) {
+                enclosingMethod = readEnclosingMethod(input, constantPool);
+                continue;
+            }
+            if ("NestHost".equals(attributeName)) {
+                nestHost = constantPool.className(input.readUnsignedShort());
+                continue;
+            }
+            if ("NestMembers".equals(attributeName)) {
+                final int count = input.readUnsignedShort();
+                for (int memberIndex = 0; memberIndex < count; memberIndex++) {
+                    nestMembers.add(constantPool.className(input.readUnsignedShort()));
+                }
+                continue;
+            }
+            if ("Record".equals(attributeName)) {
+                recordComponents.addAll(readRecordComponents(input, constantPool));
+                continue;
+            }
+            if ("PermittedSubclasses".equals(attributeName)) {
+                final int count = input.readUnsignedShort();
+                for (int classIndex = 0; classIndex < count; classIndex++) {
+                    permittedSubclasses.add(constantPool.className(input.readUnsignedShort()));
+                }
+                continue;
+            }
+            skipFully(input, attributeLength);
         }
+
+        return new ClassAttributes(
+                signature,
+                List.copyOf(visibleAnnotations),
+                List.copyOf(invisibleAnnotations),
+                List.copyOf(visibleTypeAnnotations),
+                List.copyOf(invisibleTypeAnnotations),
+                List.copyOf(innerClasses),
+                enclosingMethod,
+                nestHost,
+                List.copyOf(nestMembers),
+                List.copyOf(recordComponents),
+                List.copyOf(permittedSubclasses)
+        );
     }
 
     private static RawFieldInfo readFieldInfo(final DataInputStream input, final ConstantPool constantPool)
@@ -518,28 +551,209 @@ final class JavaClassfileReader {
         }
     }
 
-    record RawClassInfo(
-            Path sourcePath,
-            int minorVersion,
-            int majorVersion,
-            int accessFlags,
-            String internalName,
-            String superInternalName,
-            List<String> interfaces,
-            String signature,
-            List<RawAnnotationInfo> runtimeVisibleAnnotations,
-            List<RawAnnotationInfo> runtimeInvisibleAnnotations,
-            List<RawTypeAnnotationInfo> runtimeVisibleTypeAnnotations,
-            List<RawTypeAnnotationInfo> runtimeInvisibleTypeAnnotations,
-            List<RawFieldInfo> fields,
-            List<RawMethodInfo> methods,
-            List<RawInnerClassInfo> innerClasses,
-            RawEnclosingMethodInfo enclosingMethod,
-            String nestHost,
-            List<String> nestMembers,
-            List<RawRecordComponentInfo> recordComponents,
-            List<String> permittedSubclasses
-    ) {
+    /**
+     * Class descriptor. The header is decoded eagerly; members and class attributes are decoded from the
+     * backing class bytes on first access. Instances built through the public constructor carry fully
+     * decoded values and no backing bytes.
+     */
+    static final class RawClassInfo {
+        private final Path sourcePath;
+        private final int minorVersion;
+        private final int majorVersion;
+        private final int accessFlags;
+        private final String internalName;
+        private final String superInternalName;
+        private final List<String> interfaces;
+        private final ClassfileView view;
+        private volatile ClassAttributes attributes;
+        private volatile List<RawFieldInfo> fields;
+        private volatile List<RawMethodInfo> methods;
+
+        RawClassInfo(
+                final Path sourcePath,
+                final int minorVersion,
+                final int majorVersion,
+                final int accessFlags,
+                final String internalName,
+                final String superInternalName,
+                final List<String> interfaces,
+                final String signature,
+                final List<RawAnnotationInfo> runtimeVisibleAnnotations,
+                final List<RawAnnotationInfo> runtimeInvisibleAnnotations,
+                final List<RawTypeAnnotationInfo> runtimeVisibleTypeAnnotations,
+                final List<RawTypeAnnotationInfo> runtimeInvisibleTypeAnnotations,
+                final List<RawFieldInfo> fields,
+                final List<RawMethodInfo> methods,
+                final List<RawInnerClassInfo> innerClasses,
+                final RawEnclosingMethodInfo enclosingMethod,
+                final String nestHost,
+                final List<String> nestMembers,
+                final List<RawRecordComponentInfo> recordComponents,
+                final List<String> permittedSubclasses
+        ) {
+            this(sourcePath, minorVersion, majorVersion, accessFlags, internalName, superInternalName, interfaces, null);
+            this.attributes = new ClassAttributes(
+                    signature,
+                    runtimeVisibleAnnotations,
+                    runtimeInvisibleAnnotations,
+                    runtimeVisibleTypeAnnotations,
+                    runtimeInvisibleTypeAnnotations,
+                    innerClasses,
+                    enclosingMethod,
+                    nestHost,
+                    nestMembers,
+                    recordComponents,
+                    permittedSubclasses
+            );
+            this.fields = fields;
+            this.methods = methods;
+        }
+
+        private RawClassInfo(
+                final Path sourcePath,
+                final int minorVersion,
+                final int majorVersion,
+                final int accessFlags,
+                final String internalName,
+                final String superInternalName,
+                final List<String> interfaces,
+                final ClassfileView view
+        ) {
+            this.sourcePath = sourcePath;
+            this.minorVersion = minorVersion;
+            this.majorVersion = majorVersion;
+            this.accessFlags = accessFlags;
+            this.internalName = internalName;
+            this.superInternalName = superInternalName;
+            this.interfaces = interfaces;
+            this.view = view;
+        }
+
+        Path sourcePath() {
+            return sourcePath;
+        }
+
+        int minorVersion() {
+            return minorVersion;
+        }
+
+        int majorVersion() {
+            return majorVersion;
+        }
+
+        int accessFlags() {
+            return accessFlags;
+        }
+
+        String internalName() {
+            return internalName;
+        }
+
+        String superInternalName() {
+            return superInternalName;
+        }
+
+        List<String> interfaces() {
+            return interfaces;
+        }
+
+        String signature() {
+            return attributes().signature();
+        }
+
+        List<RawAnnotationInfo> runtimeVisibleAnnotations() {
+            return attributes().runtimeVisibleAnnotations();
+        }
+
+        List<RawAnnotationInfo> runtimeInvisibleAnnotations() {
+            return attributes().runtimeInvisibleAnnotations();
+        }
+
+        List<RawTypeAnnotationInfo> runtimeVisibleTypeAnnotations() {
+            return attributes().runtimeVisibleTypeAnnotations();
+        }
+
+        List<RawTypeAnnotationInfo> runtimeInvisibleTypeAnnotations() {
+            return attributes().runtimeInvisibleTypeAnnotations();
+        }
+
+        List<RawInnerClassInfo> innerClasses() {
+            return attributes().innerClasses();
+        }
+
+        RawEnclosingMethodInfo enclosingMethod() {
+            return attributes().enclosingMethod();
+        }
+
+        String nestHost() {
+            return attributes().nestHost();
+        }
+
+        List<String> nestMembers() {
+            return attributes().nestMembers();
+        }
+
+        List<RawRecordComponentInfo> recordComponents() {
+            return attributes().recordComponents();
+        }
+
+        List<String> permittedSubclasses() {
+            return attributes().permittedSubclasses();
+        }
+
+        List<RawFieldInfo> fields() {
+            List<RawFieldInfo> current = fields;
+            if (current == null) {
+                current = view.fields().all();
+                fields = current;
+            }
+            return current;
+        }
+
+        List<RawMethodInfo> methods() {
+            List<RawMethodInfo> current = methods;
+            if (current == null) {
+                current = view.methods().all();
+                methods = current;
+            }
+            return current;
+        }
+
+        /**
+         * Fields declared with {@code name}, in declaration order, decoding only those fields.
+         */
+        List<RawFieldInfo> fieldsNamed(final String name) {
+            final List<RawFieldInfo> decoded = fields;
+            if (decoded != null) {
+                return decoded.stream().filter(field -> name.equals(field.name())).toList();
+            }
+            return view.fields().named(name);
+        }
+
+        /**
+         * Methods declared with {@code name}, in declaration order, decoding only those methods.
+         */
+        List<RawMethodInfo> methodsNamed(final String name) {
+            final List<RawMethodInfo> decoded = methods;
+            if (decoded != null) {
+                return decoded.stream().filter(method -> name.equals(method.name())).toList();
+            }
+            return view.methods().named(name);
+        }
+
+        private ClassAttributes attributes() {
+            ClassAttributes current = attributes;
+            if (current == null) {
+                current = view.classAttributes();
+                attributes = current;
+            }
+            return current;
+        }
+
+        @Override
+        public String toString() {
+            return "RawClassInfo[" + internalName + " from " + sourcePath + "]";
+        }
     }
 
     record RawFieldInfo(
@@ -605,88 +819,250 @@ final class JavaClassfileReader {
     private record NameAndType(String name, String descriptor) {
     }
 
+    private record ClassAttributes(
+            String signature,
+            List<RawAnnotationInfo> runtimeVisibleAnnotations,
+            List<RawAnnotationInfo> runtimeInvisibleAnnotations,
+            List<RawTypeAnnotationInfo> runtimeVisibleTypeAnnotations,
+            List<RawTypeAnnotationInfo> runtimeInvisibleTypeAnnotations,
+            List<RawInnerClassInfo> innerClasses,
+            RawEnclosingMethodInfo enclosingMethod,
+            String nestHost,
+            List<String> nestMembers,
+            List<RawRecordComponentInfo> recordComponents,
+            List<String> permittedSubclasses
+    ) {
+    }
+
+    @FunctionalInterface
+    private interface MemberDecoder<T> {
+        T decode(DataInputStream input, ConstantPool constantPool) throws IOException;
+    }
+
+    private record ClassfileView(
+            ConstantPool constantPool,
+            MemberTable<RawFieldInfo> fields,
+            MemberTable<RawMethodInfo> methods,
+            int attributesOffset
+    ) {
+        private ClassAttributes classAttributes() {
+            try (DataInputStream input = constantPool.inputAt(attributesOffset)) {
+                return readClassAttributes(input, constantPool);
+            } catch (final IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+    }
+
+    /**
+     * Offsets of a {@code fields} or {@code methods} table. Entries are decoded individually and memoized;
+     * the name index is built on the first by-name lookup from the constant pool name of each entry.
+     */
+    private static final class MemberTable<T> {
+        private final ConstantPool constantPool;
+        private final MemberDecoder<T> decoder;
+        private final int[] offsets;
+        private final int[] nameIndexes;
+        private final Object[] decoded;
+        private volatile Map<String, int[]> positionsByName;
+
+        private MemberTable(
+                final ConstantPool constantPool,
+                final MemberDecoder<T> decoder,
+                final int[] offsets,
+                final int[] nameIndexes
+        ) {
+            this.constantPool = constantPool;
+            this.decoder = decoder;
+            this.offsets = offsets;
+            this.nameIndexes = nameIndexes;
+            this.decoded = new Object[offsets.length];
+        }
+
+        private static <T> MemberTable<T> scan(
+                final ByteBuffer buffer,
+                final ConstantPool constantPool,
+                final MemberDecoder<T> decoder
+        ) {
+            final int count = unsignedShort(buffer);
+            final int[] offsets = new int[count];
+            final int[] nameIndexes = new int[count];
+            for (int index = 0; index < count; index++) {
+                offsets[index] = buffer.position();
+                buffer.position(buffer.position() + 2);
+                nameIndexes[index] = unsignedShort(buffer);
+                buffer.position(buffer.position() + 2);
+                skipAttributes(buffer);
+            }
+            return new MemberTable<>(constantPool, decoder, offsets, nameIndexes);
+        }
+
+        private List<T> all() {
+            final List<T> members = new ArrayList<>(offsets.length);
+            for (int position = 0; position < offsets.length; position++) {
+                members.add(member(position));
+            }
+            return List.copyOf(members);
+        }
+
+        private List<T> named(final String name) {
+            final int[] positions = positionsByName().get(name);
+            if (positions == null) {
+                return List.of();
+            }
+            final List<T> members = new ArrayList<>(positions.length);
+            for (int position : positions) {
+                members.add(member(position));
+            }
+            return List.copyOf(members);
+        }
+
+        @SuppressWarnings("unchecked")
+        private T member(final int position) {
+            final Object cached = decoded[position];
+            if (cached != null) {
+                return (T) cached;
+            }
+            try (DataInputStream input = constantPool.inputAt(offsets[position])) {
+                final T member = decoder.decode(input, constantPool);
+                decoded[position] = member;
+                return member;
+            } catch (final IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+
+        private Map<String, int[]> positionsByName() {
+            Map<String, int[]> current = positionsByName;
+            if (current != null) {
+                return current;
+            }
+            final Map<String, List<Integer>> grouped = new HashMap<>();
+            for (int position = 0; position < nameIndexes.length; position++) {
+                final String name = constantPool.utf8(nameIndexes[position]);
+                if (name != null) {
+                    grouped.computeIfAbsent(name, ignored -> new ArrayList<>()).add(position);
+                }
+            }
+            current = new HashMap<>(grouped.size() * 2);
+            for (Map.Entry<String, List<Integer>> entry : grouped.entrySet()) {
+                current.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+            }
+            positionsByName = current;
+            return current;
+        }
+    }
+
+    /**
+     * Constant pool over the raw class bytes. Scanning records the tag and offset of every entry; UTF-8
+     * entries are decoded on first use.
+     */
     private static final class ConstantPool {
+        private final byte[] bytes;
         private final int[] tags;
-        private final Object[] values;
+        private final int[] offsets;
+        private final String[] strings;
 
-        private ConstantPool(final int[] tags, final Object[] values) {
+        private ConstantPool(final byte[] bytes, final int[] tags, final int[] offsets) {
+            this.bytes = bytes;
             this.tags = tags;
-            this.values = values;
+            this.offsets = offsets;
+            this.strings = new String[tags.length];
         }
 
-        private static ConstantPool read(final DataInputStream input) throws IOException {
-            final int count = input.readUnsignedShort();
+        private static ConstantPool scan(final byte[] bytes, final ByteBuffer buffer) throws IOException {
+            final int count = unsignedShort(buffer);
             final int[] tags = new int[count];
-            final Object[] values = new Object[count];
+            final int[] offsets = new int[count];
             for (int index = 1; index < count; index++) {
-                final int tag = input.readUnsignedByte();
+                final int tag = Byte.toUnsignedInt(buffer.get());
                 tags[index] = tag;
+                offsets[index] = buffer.position();
                 switch (tag) {
-                    case 1 -> values[index] = input.readUTF();
-                    case 3, 4 -> values[index] = input.readInt();
+                    case 1 -> {
+                        final int length = unsignedShort(buffer);
+                        buffer.position(buffer.position() + length);
+                    }
+                    case 3, 4 -> buffer.position(buffer.position() + 4);
                     case 5, 6 -> {
-                        values[index] = input.readLong();
+                        buffer.position(buffer.position() + 8);
                         index++;
                     }
-                    case 7, 8, 16, 19, 20 -> values[index] = input.readUnsignedShort();
-                    case 9, 10, 11, 12, 18 -> {
-                        final int left = input.readUnsignedShort();
-                        final int right = input.readUnsignedShort();
-                        values[index] = new int[]{left, right};
-                    }
-                    case 15 -> {
-                        final int kind = input.readUnsignedByte();
-                        final int reference = input.readUnsignedShort();
-                        values[index] = new int[]{kind, reference};
-                    }
+                    case 7, 8, 16, 19, 20 -> buffer.position(buffer.position() + 2);
+                    case 9, 10, 11, 12, 18 -> buffer.position(buffer.position() + 4);
+                    case 15 -> buffer.position(buffer.position() + 3);
                     default -> throw new IOException("Unsupported constant pool tag: " + tag);
                 }
             }
-            return new ConstantPool(tags, values);
+            return new ConstantPool(bytes, tags, offsets);
+        }
+
+        private DataInputStream inputAt(final int offset) {
+            return new DataInputStream(new ByteArrayInputStream(bytes, offset, bytes.length - offset));
+        }
+
+        private int u2(final int offset) {
+            return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+        }
+
+        private int u4(final int offset) {
+            return (u2(offset) << 16) | u2(offset + 2);
         }
 
         private String utf8(final int index) {
-            if (index <= 0 || index >= values.length) {
+            if (index <= 0 || index >= tags.length) {
                 return null;
             }
             if (tags[index] != 1) {
                 return null;
             }
-            return (String) values[index];
+            final String cached = strings[index];
+            if (cached != null) {
+                return cached;
+            }
+            try (DataInputStream input = inputAt(offsets[index])) {
+                final String value = input.readUTF();
+                strings[index] = value;
+                return value;
+            } catch (final IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
         }
 
         private String className(final int classIndex) {
-            if (classIndex <= 0 || classIndex >= values.length) {
+            if (classIndex <= 0 || classIndex >= tags.length) {
                 return null;
             }
             if (tags[classIndex] != 7) {
                 return null;
             }
-            final int nameIndex = (Integer) values[classIndex];
-            return utf8(nameIndex);
+            return utf8(u2(offsets[classIndex]));
         }
 
         private NameAndType nameAndType(final int index) {
-            if (index <= 0 || index >= values.length) {
+            if (index <= 0 || index >= tags.length) {
                 return new NameAndType(null, null);
             }
             if (tags[index] != 12) {
                 return new NameAndType(null, null);
             }
-            final int[] pair = (int[]) values[index];
-            return new NameAndType(utf8(pair[0]), utf8(pair[1]));
+            final int offset = offsets[index];
+            return new NameAndType(utf8(u2(offset)), utf8(u2(offset + 2)));
         }
 
         private String constantToString(final int index) {
-            if (index <= 0 || index >= values.length) {
+            if (index <= 0 || index >= tags.length) {
                 return null;
             }
+            final int offset = offsets[index];
             return switch (tags[index]) {
-                case 1 -> (String) values[index];
-                case 3, 4, 5, 6 -> String.valueOf(values[index]);
+                case 1 -> utf8(index);
+                case 3, 4 -> String.valueOf(u4(offset));
+                case 5, 6 -> String.valueOf(((long) u4(offset) << 32) | (u4(offset + 4) & 0xFFFFFFFFL));
                 case 7 -> className(index);
-                case 8 -> utf8((Integer) values[index]);
-                default -> String.valueOf(values[index]);
+                case 8 -> utf8(u2(offset));
+                case 16, 19, 20 -> String.valueOf(u2(offset));
+                default -> null;
             };
         }
     }
@@ -146,27 +146,23 @@ final class JavaInheritanceResolver {
             return List.of();
         }
         final List<RawMemberDescriptor> members = new ArrayList<>();
-        for (JavaClassfileReader.RawFieldInfo field : descriptor.get().fields()) {
-            if (field.name().equals(memberName)) {
-                members.add(new RawMemberDescriptor(
-                        ownerInternalName,
-                        field.name(),
-                        field.descriptor(),
-                        field.accessFlags(),
-                        MemberKind.FIELD
-                ));
-            }
+        for (JavaClassfileReader.RawFieldInfo field : descriptor.get().fieldsNamed(memberName)) {
+            members.add(new RawMemberDescriptor(
+                    ownerInternalName,
+                    field.name(),
+                    field.descriptor(),
+                    field.accessFlags(),
+                    MemberKind.FIELD
+            ));
         }
-        for (JavaClassfileReader.RawMethodInfo method : descriptor.get().methods()) {
-            if (method.name().equals(memberName)) {
-                members.add(new RawMemberDescriptor(
-                        ownerInternalName,
-                        method.name(),
-                        method.descriptor(),
-                        method.accessFlags(),
-                        MemberKind.METHOD
-                ));
-            }
+        for (JavaClassfileReader.RawMethodInfo method : descriptor.get().methodsNamed(memberName)) {
+            members.add(new RawMemberDescriptor(
+                    ownerInternalName,
+                    method.name(),
+                    method.descriptor(),
+                    method.accessFlags(),
+                    MemberKind.METHOD
+            ));
         }
         final List<RawMemberDescriptor> stored = List.copyOf(members);
         memberCache.put(cacheKey, stored);
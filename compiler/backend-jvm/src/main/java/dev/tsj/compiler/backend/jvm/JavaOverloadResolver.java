@@ -6,16 +6,56 @@ import java.lang.reflect.Modifier;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
+/**
+ * Ranks overload candidates for interop call shapes.
+ *
+ * <p>A resolver instance memoizes resolutions per (candidates, argument tuple) shape, including
+ * no-applicable and ambiguous results with their diagnostics, and conversion scores per (argument,
+ * parameter descriptor, nullability). Share one instance across a compile so recurring shapes are ranked once.
+ */
 final class JavaOverloadResolver {
+    private final Map<ResolutionKey, Resolution> resolutionCache;
+    private final Map<ConversionKey, Conversion> conversionCache;
+    private int resolutionHits;
+    private int resolutionMisses;
+    private int conversionHits;
+    private int conversionMisses;
+
+    JavaOverloadResolver() {
+        this.resolutionCache = new HashMap<>();
+        this.conversionCache = new HashMap<>();
+    }
+
     Resolution resolve(
             final List<Candidate> candidates,
             final List<Argument> arguments
+    ) {
+        final ResolutionKey key = new ResolutionKey(List.copyOf(candidates), List.copyOf(arguments));
+        final Resolution cached = resolutionCache.get(key);
+        if (cached != null) {
+            resolutionHits++;
+            return cached;
+        }
+        resolutionMisses++;
+        final Resolution resolution = rank(candidates, arguments);
+        resolutionCache.put(key, resolution);
+        return resolution;
+    }
+
+    CacheStats cacheStats() {
+        return new CacheStats(resolutionHits, resolutionMisses, conversionHits, conversionMisses);
+    }
+
+    private Resolution rank(
+            final List<Candidate> candidates,
+            final List<Argument> arguments
     ) {
         final List<CandidateOutcome> outcomes = new ArrayList<>();
         for (Candidate candidate : candidates) {
@@ -183,7 +223,7 @@ final class JavaOverloadResolver {
         return List.copyOf(resolved);
     }
 
-    private static CandidateOutcome evaluate(
+    private CandidateOutcome evaluate(
             final Candidate candidate,
             final List<Argument> arguments
     ) {
@@ -199,7 +239,7 @@ final class JavaOverloadResolver {
         final int fixedCount = candidate.varArgs() ? parameterDescriptors.size() - 1 : parameterDescriptors.size();
         for (int index = 0; index < fixedCount; index++) {
             final JavaNullabilityAnalyzer.NullabilityState nullability = candidate.parameterNullability().get(index);
-            final Conversion conversion = conversionCost(arguments.get(index), parameterDescriptors.get(index), nullability);
+            final Conversion conversion = conversion(arguments.get(index), parameterDescriptors.get(index), nullability);
             if (!conversion.applicable()) {
                 return CandidateOutcome.inapplicable(
                         candidate,
@@ -219,7 +259,7 @@ final class JavaOverloadResolver {
             final JavaNullabilityAnalyzer.NullabilityState nullability =
                     candidate.parameterNullability().get(parameterDescriptors.size() - 1);
             for (int argIndex = fixedCount; argIndex < arguments.size(); argIndex++) {
-                final Conversion conversion = conversionCost(arguments.get(argIndex), componentDescriptor, nullability);
+                final Conversion conversion = conversion(arguments.get(argIndex), componentDescriptor, nullability);
                 if (!conversion.applicable()) {
                     return CandidateOutcome.inapplicable(
                             candidate,
@@ -234,6 +274,23 @@ final class JavaOverloadResolver {
         return CandidateOutcome.applicable(candidate, score);
     }
 
+    private Conversion conversion(
+            final Argument argument,
+            final String parameterDescriptor,
+            final JavaNullabilityAnalyzer.NullabilityState nullability
+    ) {
+        final ConversionKey key = new ConversionKey(argument, parameterDescriptor, nullability);
+        final Conversion cached = conversionCache.get(key);
+        if (cached != null) {
+            conversionHits++;
+            return cached;
+        }
+        conversionMisses++;
+        final Conversion conversion = conversionCost(argument, parameterDescriptor, nullability);
+        conversionCache.put(key, conversion);
+        return conversion;
+    }
+
     private static Conversion conversionCost(
             final Argument argument,
             final String parameterDescriptor,
@@ -805,6 +862,19 @@ final class JavaOverloadResolver {
     ) {
     }
 
+    record CacheStats(int resolutionHits, int resolutionMisses, int conversionHits, int conversionMisses) {
+    }
+
+    private record ResolutionKey(List<Candidate> candidates, List<Argument> arguments) {
+    }
+
+    private record ConversionKey(
+            Argument argument,
+            String parameterDescriptor,
+            JavaNullabilityAnalyzer.NullabilityState nullability
+    ) {
+    }
+
     private record Conversion(boolean applicable, int cost, String reason) {
         private static Conversion applicable(final int cost) {
             return new Conversion(true, cost, "");
@@ -1,26 +1,51 @@
 package dev.tsj.compiler.backend.jvm;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Enumeration;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
-
+import java.util.zip.CRC32;
+
+/**
+ * Resolves Java class descriptors from a classpath and caches the results per classpath fingerprint.
+ *
+ * <p>With a persistent cache file the table keeps an append-only log of descriptor records behind a
+ * header that pins schema, tool version, classpath fingerprint, and target JDK. Opening the file only
+ * indexes record keys; a record is decoded and checksum-verified the first time its class is requested.
+ * Newly resolved descriptors are buffered until {@link #flush()}, and a damaged tail is dropped instead
+ * of discarding the whole cache. Readers map the file under a shared lock and writers append under an
+ * exclusive one, so a reader never sees another compile's half-written record.
+ */
 final class JavaSymbolTable {
     private static final String DEFAULT_SCHEMA_VERSION = "1";
     private static final String DEFAULT_TOOL_VERSION = "tsj-local";
+    private static final int CACHE_FILE_MAGIC = 0x54534A44;
+    private static final int CACHE_FILE_FORMAT = 2;
+    private static final int MAX_HEADER_BYTES = 4 * Integer.BYTES + 3 * (Short.BYTES + 0xFFFF);
+    private static final int RECORD_HEADER_BYTES = 2 * Integer.BYTES;
 
     private final JavaClassfileReader classfileReader;
     private final Map<String, ClassResolution> resolutionsByCacheKey;
@@ -29,6 +54,15 @@ final class JavaSymbolTable {
     private final String toolVersion;
     private final String schemaVersion;
     private final List<String> cacheDiagnostics;
+    private final Map<String, Integer> persistentIndex;
+    private final Set<String> pendingCacheKeys;
+    private ByteBuffer persistentMapping;
+    private int persistentRecordsStart;
+    private boolean persistentRewriteRequired;
+    private boolean persistentTailDamaged;
+    private int persistentIndexedEntries;
+    private int persistentLoadedEntries;
+    private int persistentAppendedEntries;
     private long cacheHits;
     private long cacheMisses;
     private long cacheInvalidations;
@@ -84,6 +118,8 @@ final class JavaSymbolTable {
         this.toolVersion = normalizeVersion(toolVersion, DEFAULT_TOOL_VERSION);
         this.schemaVersion = normalizeVersion(schemaVersion, DEFAULT_SCHEMA_VERSION);
         this.cacheDiagnostics = new ArrayList<>();
+        this.persistentIndex = new LinkedHashMap<>();
+        this.pendingCacheKeys = new LinkedHashSet<>();
         loadPersistentCache();
     }
 
@@ -99,13 +135,21 @@ final class JavaSymbolTable {
             cacheHits++;
             return cached;
         }
+        final ClassResolution persisted = persistentIndex.isEmpty() ? null : loadPersistentEntry(cacheKey);
+        if (persisted != null) {
+            resolutionsByCacheKey.put(cacheKey, persisted);
+            cacheHits++;
+            return persisted;
+        }
         cacheMisses++;
         final ClassResolution parsed = parseClassDescriptor(internalName);
         resolutionsByCacheKey.put(cacheKey, parsed);
         if (parsed.classInfo().isPresent()) {
             parseCountByInternalName.merge(internalName, 1, Integer::sum);
         }
-        persistCacheSnapshot();
+        if (persistentCacheFile != null) {
+            pendingCacheKeys.add(cacheKey);
+        }
         return parsed;
     }
 
@@ -114,20 +158,20 @@ final class JavaSymbolTable {
         this.classpathEntries = normalizeEntries(classpathEntries);
         if (!this.classpathFingerprint.equals(normalizedFingerprint)) {
             resolutionsByCacheKey.clear();
+            discardPersistentEntries();
             cacheInvalidations++;
         }
         this.classpathFingerprint = normalizedFingerprint;
-        persistCacheSnapshot();
     }
 
     void setTargetJdkRelease(final int targetJdkRelease) {
         final int normalized = normalizeTargetJdk(targetJdkRelease);
         if (this.targetJdkRelease != normalized) {
             resolutionsByCacheKey.clear();
+            discardPersistentEntries();
             cacheInvalidations++;
         }
         this.targetJdkRelease = normalized;
-        persistCacheSnapshot();
     }
 
     int parsedCount(final String fqcn) {
@@ -136,11 +180,18 @@ final class JavaSymbolTable {
     }
 
     int cacheSize() {
-        return resolutionsByCacheKey.size();
+        return resolutionsByCacheKey.size() + persistentIndex.size();
     }
 
     CacheStats cacheStats() {
-        return new CacheStats(cacheHits, cacheMisses, cacheInvalidations);
+        return new CacheStats(
+                cacheHits,
+                cacheMisses,
+                cacheInvalidations,
+                persistentIndexedEntries,
+                persistentLoadedEntries,
+                persistentAppendedEntries
+        );
     }
 
     List<String> cacheDiagnostics() {
@@ -263,107 +314,320 @@ final class JavaSymbolTable {
     }
 
     private void loadPersistentCache() {
-        if (persistentCacheFile == null || !Files.exists(persistentCacheFile) || !Files.isRegularFile(persistentCacheFile)) {
+        if (persistentCacheFile == null) {
             return;
         }
-        try (ObjectInputStream inputStream = new ObjectInputStream(Files.newInputStream(persistentCacheFile))) {
-            final Object value = inputStream.readObject();
-            if (!(value instanceof CacheEnvelope envelope)) {
-                cacheInvalidations++;
-                cacheDiagnostics.add("Persistent descriptor cache ignored: unexpected payload type.");
-                return;
+        persistentRewriteRequired = true;
+        if (!Files.isRegularFile(persistentCacheFile)) {
+            return;
+        }
+        final ByteBuffer mapping;
+        try (FileChannel channel = FileChannel.open(persistentCacheFile, StandardOpenOption.READ);
+             FileLock ignored = channel.lock(0L, Long.MAX_VALUE, true)) {
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (final IOException ioException) {
+            cacheInvalidations++;
+            cacheDiagnostics.add("Persistent descriptor cache could not be loaded: " + ioException.getMessage());
+            return;
+        }
+        final int recordsStart;
+        try {
+            final byte[] headerBytes = headerBytes(mapping);
+            final int headerLength = headerBytes.length;
+            final DataInputStream header = new DataInputStream(new ByteArrayInputStream(headerBytes));
+            if (header.readInt() != CACHE_FILE_MAGIC || header.readInt() != CACHE_FILE_FORMAT) {
+                throw new IOException("unexpected file header");
             }
-            if (!schemaVersion.equals(envelope.schemaVersion())
-                    || !toolVersion.equals(envelope.toolVersion())
-                    || !classpathFingerprint.equals(envelope.classpathFingerprint())
-                    || targetJdkRelease != envelope.targetJdkRelease()) {
+            final String cachedSchemaVersion = header.readUTF();
+            final String cachedToolVersion = header.readUTF();
+            final String cachedFingerprint = header.readUTF();
+            final int cachedTargetJdkRelease = header.readInt();
+            recordsStart = headerLength - header.available();
+            if (!schemaVersion.equals(cachedSchemaVersion)
+                    || !toolVersion.equals(cachedToolVersion)
+                    || !classpathFingerprint.equals(cachedFingerprint)
+                    || targetJdkRelease != cachedTargetJdkRelease) {
                 cacheInvalidations++;
                 cacheDiagnostics.add("Persistent descriptor cache invalidated: schema/tool/fingerprint mismatch.");
                 return;
             }
-            for (Map.Entry<String, CachedClassResolution> entry : envelope.entries().entrySet()) {
-                final ClassResolution resolution = fromCachedResolution(entry.getValue());
-                if (resolution != null) {
-                    resolutionsByCacheKey.put(entry.getKey(), resolution);
-                }
-            }
-        } catch (final IOException | ClassNotFoundException exception) {
+        } catch (final IOException ioException) {
             cacheInvalidations++;
-            cacheDiagnostics.add("Persistent descriptor cache could not be loaded: " + exception.getMessage());
+            cacheDiagnostics.add("Persistent descriptor cache could not be loaded: " + ioException.getMessage());
+            return;
         }
+        final int validLength = indexRecords(mapping, recordsStart, persistentIndex);
+        if (validLength != mapping.limit()) {
+            cacheDiagnostics.add(
+                    "Persistent descriptor cache truncated: dropped "
+                            + (mapping.limit() - validLength)
+                            + " trailing bytes after "
+                            + persistentIndex.size()
+                            + " entries."
+            );
+        }
+        persistentMapping = mapping;
+        persistentRecordsStart = recordsStart;
+        persistentIndexedEntries = persistentIndex.size();
+        persistentRewriteRequired = false;
+        persistentTailDamaged = validLength != mapping.limit();
+    }
+
+    private static int indexRecords(final ByteBuffer mapping, final int recordsStart, final Map<String, Integer> index) {
+        int position = recordsStart;
+        while (position < mapping.limit()) {
+            final String key = recordKey(mapping, position);
+            if (key == null) {
+                break;
+            }
+            if (index != null) {
+                index.put(key, position);
+            }
+            position += RECORD_HEADER_BYTES + mapping.getInt(position);
+        }
+        return position;
     }
 
-    private void persistCacheSnapshot() {
+    private ClassResolution loadPersistentEntry(final String cacheKey) {
+        final Integer position = persistentIndex.remove(cacheKey);
+        if (position == null) {
+            return null;
+        }
+        final int length = persistentMapping.getInt(position);
+        final byte[] payload = new byte[length];
+        persistentMapping.get(position + RECORD_HEADER_BYTES, payload);
+        final CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != persistentMapping.getInt(position + Integer.BYTES)) {
+            cacheDiagnostics.add("Persistent descriptor cache entry `" + cacheKey + "` failed its checksum.");
+            return null;
+        }
+        try {
+            final ClassResolution resolution = decodeResolution(payload);
+            persistentLoadedEntries++;
+            return resolution;
+        } catch (final IOException ioException) {
+            cacheDiagnostics.add("Persistent descriptor cache entry parse failed: " + ioException.getMessage());
+            return null;
+        }
+    }
+
+    private void discardPersistentEntries() {
         if (persistentCacheFile == null) {
             return;
         }
-        final Map<String, CachedClassResolution> cachedEntries = new LinkedHashMap<>();
-        for (Map.Entry<String, ClassResolution> entry : resolutionsByCacheKey.entrySet()) {
-            cachedEntries.put(entry.getKey(), toCachedResolution(entry.getValue()));
+        persistentIndex.clear();
+        persistentMapping = null;
+        persistentRecordsStart = 0;
+        pendingCacheKeys.clear();
+        persistentRewriteRequired = true;
+        persistentTailDamaged = false;
+    }
+
+    /**
+     * Writes descriptors resolved since the last flush to the persistent cache file.
+     *
+     * <p>New entries are appended behind the records already on disk under an exclusive file lock, so
+     * concurrent compiles sharing a cache directory only add to each other's work. A damaged tail is cut
+     * back to the last complete record under that lock before appending, which keeps records another
+     * compile added since this table was opened. The file is rewritten through a temporary file only when
+     * it was missing or invalidated.
+     */
+    void flush() {
+        if (persistentCacheFile == null
+                || (!persistentRewriteRequired && !persistentTailDamaged && pendingCacheKeys.isEmpty())) {
+            return;
         }
-        final CacheEnvelope envelope = new CacheEnvelope(
-                schemaVersion,
-                toolVersion,
-                classpathFingerprint,
-                targetJdkRelease,
-                cachedEntries
-        );
         try {
             if (persistentCacheFile.getParent() != null) {
                 Files.createDirectories(persistentCacheFile.getParent());
             }
-            try (ObjectOutputStream outputStream = new ObjectOutputStream(Files.newOutputStream(persistentCacheFile))) {
-                outputStream.writeObject(envelope);
+            final ByteArrayOutputStream records = new ByteArrayOutputStream();
+            final Collection<String> keys = persistentRewriteRequired
+                    ? resolutionsByCacheKey.keySet()
+                    : pendingCacheKeys;
+            for (String key : keys) {
+                writeRecord(records, key, resolutionsByCacheKey.get(key));
+            }
+            if (persistentRewriteRequired) {
+                rewritePersistentCache(records.toByteArray());
+            } else {
+                appendPersistentRecords(records.toByteArray());
             }
+            persistentAppendedEntries += keys.size();
+            pendingCacheKeys.clear();
         } catch (final IOException ioException) {
             cacheDiagnostics.add("Persistent descriptor cache write failed: " + ioException.getMessage());
         }
     }
 
-    private ClassResolution fromCachedResolution(final CachedClassResolution cached) {
-        final ResolutionStatus status = ResolutionStatus.valueOf(cached.status());
-        final ClassOrigin origin = cached.origin() == null
-                ? null
-                : new ClassOrigin(
-                Path.of(cached.origin().classpathEntry()),
-                cached.origin().entryName(),
-                cached.origin().versionedEntry(),
-                cached.origin().selectedVersion(),
-                cached.origin().moduleName()
+    private void appendPersistentRecords(final byte[] records) throws IOException {
+        try (FileChannel channel = FileChannel.open(
+                persistentCacheFile,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+        ); FileLock ignored = channel.lock()) {
+            if (persistentTailDamaged) {
+                // Re-scan under the lock: another compile may already have cut the tail and appended.
+                final ByteBuffer current = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                final int validLength = indexRecords(current, persistentRecordsStart, null);
+                if (validLength < current.limit()) {
+                    channel.truncate(validLength);
+                }
+                persistentTailDamaged = false;
+            }
+            channel.position(channel.size());
+            writeFully(channel, records);
+        }
+    }
+
+    private void rewritePersistentCache(final byte[] records) throws IOException {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        final DataOutputStream header = new DataOutputStream(content);
+        header.writeInt(CACHE_FILE_MAGIC);
+        header.writeInt(CACHE_FILE_FORMAT);
+        header.writeUTF(schemaVersion);
+        header.writeUTF(toolVersion);
+        header.writeUTF(classpathFingerprint);
+        header.writeInt(targetJdkRelease);
+        header.flush();
+        content.write(records);
+        final Path temporary = Files.createTempFile(
+                persistentCacheFile.getParent(),
+                persistentCacheFile.getFileName().toString(),
+                ".tmp"
         );
-        if (status != ResolutionStatus.FOUND || cached.classBytes() == null) {
-            return new ClassResolution(Optional.empty(), status, origin, cached.diagnostic(), null);
+        try {
+            Files.write(temporary, content.toByteArray());
+            try {
+                Files.move(
+                        temporary,
+                        persistentCacheFile,
+                        StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING
+                );
+            } catch (final AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+                Files.move(temporary, persistentCacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
         }
+        persistentRewriteRequired = false;
+    }
+
+    private static byte[] headerBytes(final ByteBuffer mapping) {
+        final byte[] bytes = new byte[Math.min(mapping.limit(), MAX_HEADER_BYTES)];
+        mapping.get(0, bytes);
+        return bytes;
+    }
+
+    private static String recordKey(final ByteBuffer mapping, final int position) {
+        if (mapping.limit() - position < RECORD_HEADER_BYTES + Short.BYTES) {
+            return null;
+        }
+        final int length = mapping.getInt(position);
+        final int keyLength = Short.toUnsignedInt(mapping.getShort(position + RECORD_HEADER_BYTES));
+        if (length < Short.BYTES + keyLength || length > mapping.limit() - position - RECORD_HEADER_BYTES) {
+            return null;
+        }
+        final byte[] keyBytes = new byte[Short.BYTES + keyLength];
+        mapping.get(position + RECORD_HEADER_BYTES, keyBytes);
         try {
-            final Path sourcePath = origin == null
-                    ? Path.of(cached.classPathHint() == null ? "cached.class" : cached.classPathHint())
-                    : origin.classpathEntry().resolve(origin.entryName());
-            final JavaClassfileReader.RawClassInfo classInfo = classfileReader.read(cached.classBytes(), sourcePath);
-            return new ClassResolution(Optional.of(classInfo), status, origin, cached.diagnostic(), cached.classBytes());
-        } catch (final IOException ioException) {
-            cacheDiagnostics.add("Persistent descriptor cache entry parse failed: " + ioException.getMessage());
+            return new DataInputStream(new ByteArrayInputStream(keyBytes)).readUTF();
+        } catch (final IOException ignored) {
             return null;
         }
     }
 
-    private static CachedClassResolution toCachedResolution(final ClassResolution resolution) {
-        final CachedClassOrigin cachedOrigin = resolution.origin() == null
-                ? null
-                : new CachedClassOrigin(
-                resolution.origin().classpathEntry().toString(),
-                resolution.origin().entryName(),
-                resolution.origin().versionedEntry(),
-                resolution.origin().selectedVersion(),
-                resolution.origin().moduleName()
-        );
-        final String pathHint = resolution.classInfo().map(info -> info.sourcePath().toString()).orElse(null);
-        return new CachedClassResolution(
-                resolution.status().name(),
-                resolution.diagnostic(),
-                cachedOrigin,
-                resolution.classBytes(),
-                pathHint
-        );
+    private static void writeRecord(
+            final ByteArrayOutputStream records,
+            final String key,
+            final ClassResolution resolution
+    ) throws IOException {
+        final ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+        final DataOutputStream payload = new DataOutputStream(payloadBytes);
+        payload.writeUTF(key);
+        payload.writeByte(resolution.status().ordinal());
+        writeOptionalString(payload, resolution.diagnostic());
+        final ClassOrigin origin = resolution.origin();
+        payload.writeBoolean(origin != null);
+        if (origin != null) {
+            payload.writeUTF(origin.classpathEntry().toString());
+            payload.writeUTF(origin.entryName());
+            payload.writeBoolean(origin.versionedEntry());
+            payload.writeInt(origin.selectedVersion() == null ? -1 : origin.selectedVersion());
+            writeOptionalString(payload, origin.moduleName());
+        }
+        final byte[] classBytes = resolution.classBytes();
+        payload.writeInt(classBytes == null ? -1 : classBytes.length);
+        if (classBytes != null) {
+            payload.write(classBytes);
+        }
+        writeOptionalString(payload, resolution.classInfo().map(info -> info.sourcePath().toString()).orElse(null));
+        payload.flush();
+
+        final byte[] encoded = payloadBytes.toByteArray();
+        final CRC32 crc = new CRC32();
+        crc.update(encoded);
+        final DataOutputStream record = new DataOutputStream(records);
+        record.writeInt(encoded.length);
+        record.writeInt((int) crc.getValue());
+        record.write(encoded);
+        record.flush();
+    }
+
+    private ClassResolution decodeResolution(final byte[] payloadBytes) throws IOException {
+        final DataInputStream payload = new DataInputStream(new ByteArrayInputStream(payloadBytes));
+        payload.readUTF();
+        final int statusOrdinal = payload.readUnsignedByte();
+        if (statusOrdinal >= ResolutionStatus.values().length) {
+            throw new IOException("unknown resolution status " + statusOrdinal);
+        }
+        final ResolutionStatus status = ResolutionStatus.values()[statusOrdinal];
+        final String diagnostic = readOptionalString(payload);
+        ClassOrigin origin = null;
+        if (payload.readBoolean()) {
+            final Path classpathEntry = Path.of(payload.readUTF());
+            final String entryName = payload.readUTF();
+            final boolean versionedEntry = payload.readBoolean();
+            final int selectedVersion = payload.readInt();
+            origin = new ClassOrigin(
+                    classpathEntry,
+                    entryName,
+                    versionedEntry,
+                    selectedVersion < 0 ? null : selectedVersion,
+                    readOptionalString(payload)
+            );
+        }
+        final int classBytesLength = payload.readInt();
+        final byte[] classBytes = classBytesLength < 0 ? null : payload.readNBytes(classBytesLength);
+        final String classPathHint = readOptionalString(payload);
+        if (status != ResolutionStatus.FOUND || classBytes == null) {
+            return new ClassResolution(Optional.empty(), status, origin, diagnostic, null);
+        }
+        final Path sourcePath = origin == null
+                ? Path.of(classPathHint == null ? "cached.class" : classPathHint)
+                : origin.classpathEntry().resolve(origin.entryName());
+        final JavaClassfileReader.RawClassInfo classInfo = classfileReader.read(classBytes, sourcePath);
+        return new ClassResolution(Optional.of(classInfo), status, origin, diagnostic, classBytes);
+    }
+
+    private static void writeOptionalString(final DataOutputStream output, final String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static String readOptionalString(final DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    private static void writeFully(final FileChannel channel, final byte[] bytes) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
     }
 
     private static JarSelection selectJarEntry(
@@ -507,37 +771,24 @@ final class JavaSymbolTable {
         }
     }
 
-    record CacheStats(long hits, long misses, long invalidations) {
-    }
-
-    private record CacheEnvelope(
-            String schemaVersion,
-            String toolVersion,
-            String classpathFingerprint,
-            int targetJdkRelease,
-            Map<String, CachedClassResolution> entries
-    ) implements Serializable {
-        private static final long serialVersionUID = 1L;
-    }
-
-    private record CachedClassResolution(
-            String status,
-            String diagnostic,
-            CachedClassOrigin origin,
-            byte[] classBytes,
-            String classPathHint
-    ) implements Serializable {
-        private static final long serialVersionUID = 1L;
-    }
-
-    private record CachedClassOrigin(
-            String classpathEntry,
-            String entryName,
-            boolean versionedEntry,
-            Integer selectedVersion,
-            String moduleName
-    ) implements Serializable {
-        private static final long serialVersionUID = 1L;
+    /**
+     * Descriptor cache counters.
+     *
+     * @param hits lookups answered from memory or from the persistent cache file
+     * @param misses lookups that scanned the classpath
+     * @param invalidations cache generations dropped because of a fingerprint, JDK, or file mismatch
+     * @param persistedEntries records indexed when the persistent cache file was opened
+     * @param loadedEntries persisted records decoded on demand
+     * @param appendedEntries records written by {@link JavaSymbolTable#flush()}
+     */
+    record CacheStats(
+            long hits,
+            long misses,
+            long invalidations,
+            int persistedEntries,
+            int loadedEntries,
+            int appendedEntries
+    ) {
     }
 
     private enum JarSelectionStatus {
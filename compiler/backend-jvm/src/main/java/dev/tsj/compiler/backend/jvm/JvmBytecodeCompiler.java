@@ -1,6 +1,15 @@
 package dev.tsj.compiler.backend.jvm;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import dev.tsj.compiler.ir.ssa.SsaBlock;
+import dev.tsj.compiler.ir.ssa.SsaBuilder;
+import dev.tsj.compiler.ir.ssa.SsaFunction;
+import dev.tsj.compiler.ir.ssa.SsaOpcode;
+import dev.tsj.compiler.ir.ssa.SsaPassManager;
+import dev.tsj.compiler.ir.ssa.SsaTerminator;
+import dev.tsj.compiler.ir.ssa.SsaType;
+import dev.tsj.compiler.ir.ssa.SsaValue;
+import dev.tsj.runtime.TsjTypeFeedback;
 
 import javax.tools.Diagnostic;
 import javax.tools.DiagnosticCollector;
@@ -17,8 +26,12 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -28,6 +41,8 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -64,6 +79,7 @@ public final class JvmBytecodeCompiler {
     private static final Pattern INTEROP_MODULE_PATTERN = Pattern.compile(
             "^java:([A-Za-z_$][A-Za-z0-9_$]*(?:\\.[A-Za-z_$][A-Za-z0-9_$]*)*)$"
     );
+    private static final Pattern JAVA_IDENTIFIER_PATTERN = Pattern.compile("[A-Za-z_$][A-Za-z0-9_$]*");
     private static final Set<String> KEYWORDS = Set.of(
             "function", "const", "let", "var", "if", "else", "while", "return",
             "true", "false", "null", "for", "export", "import", "from",
@@ -107,8 +123,11 @@ public final class JvmBytecodeCompiler {
     private static final String ASYNC_BREAK_SIGNAL_FIELD = "__TSJ_ASYNC_BREAK_SIGNAL";
     private static final String ASYNC_CONTINUE_SIGNAL_FIELD = "__TSJ_ASYNC_CONTINUE_SIGNAL";
     private static final String TOP_LEVEL_CLASS_MAP_FIELD = "__TSJ_TOP_LEVEL_CLASSES";
-    private static final String BOOTSTRAP_GUARD_FIELD = "__TSJ_BOOTSTRAPPED";
-    private static final String BOOTSTRAP_IN_PROGRESS_FIELD = "__TSJ_BOOTSTRAPPING";
+    private static final String REALM_STATE_CLASS = "__TsjRealmState";
+    private static final String REALM_STATE_ACCESSOR = "__tsjRealmState()";
+    private static final String PROGRAM_MODULE_ID_FIELD = "__TSJ_PROGRAM_MODULE_ID";
+    private static final String TYPE_FEEDBACK_UNIT_FIELD = "__TSJ_FEEDBACK_UNIT";
+    private static final String MODULE_CLASS_PREFIX = "__TsjModule_";
     private static final String ERROR_BUILTIN_CELL_FIELD = "ERROR_BUILTIN_CELL";
     private static final String STRING_BUILTIN_CELL_FIELD = "STRING_BUILTIN_CELL";
     private static final String JSON_BUILTIN_CELL_FIELD = "JSON_BUILTIN_CELL";
@@ -134,7 +153,9 @@ public final class JvmBytecodeCompiler {
     private static final String PARSE_FLOAT_BUILTIN_CELL_FIELD = "PARSE_FLOAT_BUILTIN_CELL";
     private static final String INFINITY_BUILTIN_CELL_FIELD = "INFINITY_BUILTIN_CELL";
     private static final String NAN_BUILTIN_CELL_FIELD = "NAN_BUILTIN_CELL";
+    private static final String PROMISE_BUILTIN_CELL_FIELD = "PROMISE_BUILTIN_CELL";
     private static final String UNDEFINED_BUILTIN_CELL_FIELD = "UNDEFINED_BUILTIN_CELL";
+    private static final Map<String, String> BUILTIN_CELL_INITIALIZERS = builtinCellInitializers();
     private static final String GUIDANCE_DYNAMIC_IMPORT =
             "Use static relative imports (`import { x } from \"./m.ts\"`) in TSJ MVP.";
     private static final String GUIDANCE_EVAL =
@@ -157,6 +178,12 @@ public final class JvmBytecodeCompiler {
     private static final String INCREMENTAL_CACHE_PROPERTY = "tsj.backend.incrementalCache";
     private static final String INCREMENTAL_CACHE_VERSION = "tsj69-v1";
     private static final int INCREMENTAL_PARSE_CACHE_MAX_ENTRIES = 256;
+    private static final int INCREMENTAL_MODULE_PARSE_CACHE_MAX_ENTRIES = 4096;
+    private static final long PARALLEL_PARSE_MIN_BATCH_CHARS = 32L * 1024L;
+    private static final long PARALLEL_JAVAC_MIN_BATCH_CHARS = 64L * 1024L;
+    private static final String INCREMENTAL_OUTPUT_MANIFEST_FILE = ".tsj-incremental";
+    private static final String INCREMENTAL_OUTPUT_MANIFEST_HEADER = "TSJ-INCREMENTAL-OUTPUTS\t";
+    private static final String MODULE_CLASS_VERSION_MARKER = "TSJ-MODULE-CLASS ";
     private static final int INCREMENTAL_FINGERPRINT_HISTORY_MAX_ENTRIES = 1024;
     private static final Set<String> STRICT_NATIVE_SUPPORTED_UNARY_OPERATORS = Set.of("+", "-", "!", "~");
     private static final Set<String> STRICT_NATIVE_SUPPORTED_BINARY_OPERATORS = Set.of(
@@ -189,12 +216,28 @@ public final class JvmBytecodeCompiler {
     private static final String OUTPUT_PACKAGE = "dev.tsj.generated";
     private static final String METADATA_CARRIER_PACKAGE = OUTPUT_PACKAGE + ".metadata";
     private static final String METADATA_CARRIER_SUFFIX = "TsjCarrier";
+    private static final String ARRAY_CALLBACK_HELPER = "__tsj_array_callback";
+    private static final String REGEXP_LITERAL_HELPER = "__tsj_regexp_literal";
+    private static final Set<String> SPECIALIZED_ARRAY_CALLBACK_METHODS = Set.of(
+            "map",
+            "filter",
+            "forEach",
+            "find",
+            "findIndex",
+            "some",
+            "every"
+    );
     private static final Map<IncrementalParseCacheKey, ParseResult> INCREMENTAL_PARSE_CACHE =
             newLruMap(INCREMENTAL_PARSE_CACHE_MAX_ENTRIES);
+    private static final Map<String, ModuleParseResult> INCREMENTAL_MODULE_PARSE_CACHE =
+            newLruMap(INCREMENTAL_MODULE_PARSE_CACHE_MAX_ENTRIES);
     private static final Map<Path, String> LAST_SOURCE_GRAPH_FINGERPRINT =
             newLruMap(INCREMENTAL_FINGERPRINT_HISTORY_MAX_ENTRIES);
     private IncrementalCompilationReport lastIncrementalCompilationReport = IncrementalCompilationReport.disabled();
     private StrictLoweringPath lastStrictLoweringPath = StrictLoweringPath.RUNTIME_CARRIER;
+    private OptimizationReport lastOptimizationReport = OptimizationReport.none();
+    private ProfileReport lastProfileReport = ProfileReport.none();
+    private DescriptorCacheReport lastDescriptorCacheReport = DescriptorCacheReport.none();
 
     public enum BackendMode {
         DEFAULT,
@@ -229,8 +272,14 @@ public final class JvmBytecodeCompiler {
             String sourceGraphFingerprint,
             IncrementalStageState frontend,
             IncrementalStageState lowering,
-            IncrementalStageState backend
+            IncrementalStageState backend,
+            List<Path> rebuiltModules,
+            int moduleCount
     ) {
+        public IncrementalCompilationReport {
+            rebuiltModules = List.copyOf(rebuiltModules);
+        }
+
         public static IncrementalCompilationReport disabled() {
             return new IncrementalCompilationReport(
                     false,
@@ -238,14 +287,125 @@ public final class JvmBytecodeCompiler {
                     "",
                     IncrementalStageState.DISABLED,
                     IncrementalStageState.DISABLED,
-                    IncrementalStageState.DISABLED
+                    IncrementalStageState.DISABLED,
+                    List.of(),
+                    0
+            );
+        }
+    }
+
+    /**
+     * Counts of TSJ-17 inlining and tree-shaking rewrites applied by the last compile.
+     *
+     * @param inlinedCallSites calls replaced by the body of a small non-escaping function
+     * @param specializedCallSites builtin array callback calls routed to the specialized runtime loop
+     * @param removedFunctions function declarations dropped because every call to them was inlined
+     * @param shakenDeclarations imported-module functions, import bindings, and exports dropped because no
+     *                           retained statement reaches them
+     * @param shakenModules imported modules whose initialization was dropped because nothing in them survived
+     */
+    public record OptimizationReport(
+            int inlinedCallSites,
+            int specializedCallSites,
+            int removedFunctions,
+            int shakenDeclarations,
+            int shakenModules
+    ) {
+        public static OptimizationReport none() {
+            return new OptimizationReport(0, 0, 0, 0, 0);
+        }
+    }
+
+    /**
+     * Profile-guided compilation outcome of the last compile.
+     *
+     * @param status {@code off}, {@code instrumented}, {@code applied}, or {@code stale} when the profile has no
+     *               feedback for this program
+     * @param unit type feedback unit of the compiled program, or an empty string when profiling is off
+     * @param instrumentedSites sites that record type feedback
+     * @param numericAddSites {@code +} operators emitted with the numeric fast path
+     * @param reorderedBranchSites {@code if} statements emitted with the profiled-hot branch first
+     * @param devirtualizedCallSites member calls routed through a monomorphic call cache
+     */
+    public record ProfileReport(
+            String status,
+            String unit,
+            int instrumentedSites,
+            int numericAddSites,
+            int reorderedBranchSites,
+            int devirtualizedCallSites
+    ) {
+        public static ProfileReport none() {
+            return new ProfileReport("off", "", 0, 0, 0, 0);
+        }
+    }
+
+    /**
+     * Java descriptor lookups made while rendering annotations and strict-native classes in the last compile.
+     *
+     * @param persistent whether descriptors were read from and appended to the persistent compilation cache
+     * @param hits lookups answered without scanning the classpath
+     * @param misses lookups that scanned the classpath
+     * @param persistedEntries descriptor records present in the cache file when the compile started
+     * @param appendedEntries descriptor records the compile added to the cache file
+     */
+    public record DescriptorCacheReport(
+            boolean persistent,
+            long hits,
+            long misses,
+            int persistedEntries,
+            int appendedEntries
+    ) {
+        public static DescriptorCacheReport none() {
+            return new DescriptorCacheReport(false, 0L, 0L, 0, 0);
+        }
+
+        private static DescriptorCacheReport of(final boolean persistent, final JavaSymbolTable.CacheStats stats) {
+            return new DescriptorCacheReport(
+                    persistent,
+                    stats.hits(),
+                    stats.misses(),
+                    stats.persistedEntries(),
+                    stats.appendedEntries()
             );
         }
     }
 
+    /**
+     * Type feedback settings handed to the source generator.
+     *
+     * @param unit feedback unit name, or {@code null} when profiling is off
+     * @param output profile file baked into an instrumented build, or {@code null}
+     * @param sites profiled sites of this unit, empty for instrumented builds, or {@code null} when the
+     *              profile has no feedback for this unit
+     */
+    private record TypeFeedbackPlan(String unit, String output, Map<Integer, TsjTypeFeedback.SiteProfile> sites) {
+        private static TypeFeedbackPlan off() {
+            return new TypeFeedbackPlan(null, null, Map.of());
+        }
+
+        private boolean active() {
+            return unit != null;
+        }
+
+        private boolean instrumented() {
+            return output != null;
+        }
+
+        private TsjTypeFeedback.SiteProfile site(final int id) {
+            return sites == null ? null : sites.get(id);
+        }
+    }
+
     private record ParseWithIncrementalResult(ParseResult parseResult, IncrementalCompilationReport report) {
     }
 
+    private record ModuleParseResult(
+            List<Statement> statements,
+            Map<Statement, SourceLocation> statementLocations
+    ) {
+    }
+
     private record IncrementalParseCacheKey(
             String sourceGraphFingerprint,
             String compilerVersion
@@ -260,6 +420,18 @@ public final class JvmBytecodeCompiler {
         return lastIncrementalCompilationReport;
     }
 
+    public OptimizationReport lastOptimizationReport() {
+        return lastOptimizationReport;
+    }
+
+    public ProfileReport lastProfileReport() {
+        return lastProfileReport;
+    }
+
+    public DescriptorCacheReport lastDescriptorCacheReport() {
+        return lastDescriptorCacheReport;
+    }
+
     public StrictLoweringPath lastStrictLoweringPath() {
         return lastStrictLoweringPath;
     }
@@ -287,6 +459,9 @@ public final class JvmBytecodeCompiler {
         final String fileName = normalizedSource.getFileName().toString();
         lastIncrementalCompilationReport = IncrementalCompilationReport.disabled();
         lastStrictLoweringPath = StrictLoweringPath.RUNTIME_CARRIER;
+        lastOptimizationReport = OptimizationReport.none();
+        lastProfileReport = ProfileReport.none();
+        lastDescriptorCacheReport = DescriptorCacheReport.none();
         if (!fileName.endsWith(".ts") && !fileName.endsWith(".tsx")) {
             throw new JvmCompilationException(
                     "TSJ-BACKEND-INPUT",
@@ -313,10 +488,14 @@ public final class JvmBytecodeCompiler {
         }
 
         final ParseResult parseResult;
+        List<BundledModule> bundledModules = List.of();
+        String programSourceText = "";
         if (fileName.endsWith(".d.ts")) {
             parseResult = new ParseResult(new Program(List.of()), Map.of());
         } else {
             final BundleResult bundleResult = bundleModules(normalizedSource);
+            bundledModules = bundleResult.modules();
+            programSourceText = bundleResult.sourceText();
             final ParseWithIncrementalResult parseWithIncrementalResult = parseProgramWithIncrementalCache(
                     bundleResult.sourceText(),
                     normalizedSource,
@@ -329,9 +508,11 @@ public final class JvmBytecodeCompiler {
         final Map<Statement, SourceLocation> parsedStatementLocations = parseResult.statementLocations();
         final ProgramOptimizationResult optimizationResult = new ProgramOptimizer(
                 optimizationOptions,
-                parsedStatementLocations
+                parsedStatementLocations,
+                backendMode != BackendMode.JVM_STRICT
         ).optimize(parsedProgram);
         final Program program = optimizationResult.program();
+        lastOptimizationReport = optimizationResult.report();
         final StrictNativeClassLoweringPlan strictLoweringPlan = resolveStrictNativeClassLoweringPlan(
                 parsedProgram,
                 parsedStatementLocations,
@@ -341,14 +522,24 @@ public final class JvmBytecodeCompiler {
         lastStrictLoweringPath = strictLoweringPlan.loweringPath();
         final String classSimpleName = toPascalCase(stripExtension(fileName)) + "Program";
         final String className = OUTPUT_PACKAGE + "." + classSimpleName;
+        final TypeFeedbackPlan typeFeedbackPlan = resolveTypeFeedbackPlan(
+                optimizationOptions,
+                className,
+                programSourceText,
+                backendMode
+        );
         final JavaSourceGenerator javaSourceGenerator = new JavaSourceGenerator(
                 OUTPUT_PACKAGE,
                 classSimpleName,
                 program,
                 optimizationResult.statementLocations(),
-                strictLoweringPlan
+                strictLoweringPlan,
+                optimizationOptions.loopOptimizationEnabled(),
+                optimizationOptions.constantFoldingEnabled(),
+                typeFeedbackPlan
         );
         final String javaSource = javaSourceGenerator.generate();
+        lastProfileReport = javaSourceGenerator.profileReport();
         final List<TopLevelClassDeclaration> topLevelClassDeclarations = collectTopLevelClassDeclarations(
                 parsedProgram,
                 parsedStatementLocations
@@ -370,36 +561,109 @@ public final class JvmBytecodeCompiler {
                 .resolve(classSimpleName + ".java");
         final Path sourceMapFile = classesDir.resolve(OUTPUT_PACKAGE.replace('.', '/'))
                 .resolve(classSimpleName + ".tsj.map");
-        final AnnotationRenderContext annotationRenderContext = createAnnotationRenderContext();
+        final PersistentCompilationCache persistentCache = isRuntimeAvailableOnClasspath()
+                ? PersistentCompilationCache.configured()
+                : null;
+        final String classpathFingerprint = persistentCache != null ? javacClasspathFingerprint() : "";
+        final JavaSymbolTable descriptorTable = createAnnotationSymbolTable(persistentCache, classpathFingerprint);
+        final AnnotationRenderContext annotationRenderContext = new AnnotationRenderContext(descriptorTable);
         final List<Path> generatedSources = new ArrayList<>();
+        final Path incrementalManifest = generatedSourceRoot.resolve(INCREMENTAL_OUTPUT_MANIFEST_FILE);
+        final boolean reuseOutputs = lastIncrementalCompilationReport.cacheEnabled();
+        final Map<String, String> sourceDigests = new LinkedHashMap<>();
+        final List<Path> compiledSources;
         try {
-            Files.createDirectories(classesDir);
-            Files.createDirectories(generatedSource.getParent());
-            Files.writeString(generatedSource, javaSource, UTF_8);
-            Files.createDirectories(sourceMapFile.getParent());
-            writeSourceMapFile(sourceMapFile, parseSourceMapEntries(javaSource));
-            generatedSources.add(generatedSource);
-            generatedSources.addAll(javaSourceGenerator.writeStrictNativeSources(
-                    generatedSourceRoot,
-                    metadataCarrierDeclarations,
-                    annotationRenderContext
-            ));
-            generatedSources.addAll(writeMetadataCarrierSources(
+            final Map<String, String> previousSourceDigests;
+            try {
+                previousSourceDigests = reuseOutputs
+                        ? readIncrementalOutputManifest(incrementalManifest)
+                        : Map.of();
+                Files.deleteIfExists(incrementalManifest);
+                Files.createDirectories(classesDir);
+                Files.createDirectories(generatedSource.getParent());
+                Files.writeString(generatedSource, javaSource, UTF_8);
+                Files.createDirectories(sourceMapFile.getParent());
+                writeSourceMapFile(sourceMapFile, parseSourceMapEntries(javaSource));
+                generatedSources.add(generatedSource);
+                generatedSources.addAll(javaSourceGenerator.writeModuleClassSources(generatedSourceRoot, classesDir));
+                generatedSources.addAll(javaSourceGenerator.writeStrictNativeSources(
+                        generatedSourceRoot,
+                        metadataCarrierDeclarations,
+                        annotationRenderContext
+                ));
+                generatedSources.addAll(writeMetadataCarrierSources(
+                        generatedSourceRoot,
+                        runtimeCarrierMetadataDeclarations,
+                        annotationRenderContext
+                ));
+            } catch (final IOException ioException) {
+                throw new JvmCompilationException(
+                        "TSJ-BACKEND-IO",
+                        "Failed to write generated Java source: " + ioException.getMessage(),
+                        null,
+                        null,
+                        ioException
+                );
+            }
+
+            final List<Path> changedSources = new ArrayList<>();
+            for (Path source : generatedSources) {
+                final String relativeSource = generatedSourceRoot.relativize(source).toString().replace('\\', '/');
+                final String sourceDigest = fileDigest(source);
+                sourceDigests.put(relativeSource, sourceDigest);
+                final Path previousClassFile = classesDir.resolve(
+                        relativeSource.substring(0, relativeSource.length() - ".java".length()) + ".class"
+                );
+                if (!sourceDigest.equals(previousSourceDigests.get(relativeSource)) || !Files.exists(previousClassFile)) {
+                    changedSources.add(source);
+                }
+            }
+            compiledSources = restorePersistentClassOutputs(
+                    persistentCache,
+                    classpathFingerprint,
+                    changedSources,
                     generatedSourceRoot,
-                    runtimeCarrierMetadataDeclarations,
-                    annotationRenderContext
-            ));
-        } catch (final IOException ioException) {
-            throw new JvmCompilationException(
-                    "TSJ-BACKEND-IO",
-                    "Failed to write generated Java source: " + ioException.getMessage(),
-                    null,
-                    null,
-                    ioException
+                    classesDir,
+                    sourceDigests
+            );
+            if (!compiledSources.isEmpty()) {
+                if (persistentCache != null) {
+                    deleteClassOutputs(compiledSources, generatedSourceRoot, classesDir);
+                }
+                compileJava(
+                        compiledSources,
+                        classesDir,
+                        compiledSources.size() < generatedSources.size()
+                );
+                storePersistentClassOutputs(
+                        persistentCache,
+                        classpathFingerprint,
+                        compiledSources,
+                        generatedSourceRoot,
+                        classesDir,
+                        sourceDigests
+                );
+            }
+        } finally {
+            // Descriptors resolved before a javac or I/O failure are still worth keeping for the next run.
+            descriptorTable.flush();
+        }
+        lastDescriptorCacheReport = DescriptorCacheReport.of(persistentCache != null, descriptorTable.cacheStats());
+        if (persistentCache != null) {
+            persistentCache.evictIfOverLimit();
+        }
+        if (reuseOutputs) {
+            writeIncrementalOutputManifest(incrementalManifest, sourceDigests);
+            lastIncrementalCompilationReport = withBackendOutcome(
+                    lastIncrementalCompilationReport,
+                    normalizedSource,
+                    bundledModules,
+                    generatedSource,
+                    javaSourceGenerator.moduleClassSourceFiles(generatedSourceRoot),
+                    compiledSources,
+                    generatedSources.size()
             );
         }
-
-        compileJava(generatedSources, classesDir);
 
         final Path classFile = classesDir.resolve(OUTPUT_PACKAGE.replace('.', '/'))
                 .resolve(classSimpleName + ".class")
@@ -421,6 +685,53 @@ public final class JvmBytecodeCompiler {
         );
     }
 
+    /**
+     * Names the type feedback unit of a compile and loads its profiled sites.
+     *
+     * <p>The unit name fingerprints the bundled source and every option that changes the optimized AST, so
+     * feedback recorded by a different program revision is reported as stale instead of being applied to
+     * unrelated sites. An instrumented build ignores the input profile: its sites record generic behavior.
+     */
+    private static TypeFeedbackPlan resolveTypeFeedbackPlan(
+            final JvmOptimizationOptions optimizationOptions,
+            final String className,
+            final String programSourceText,
+            final BackendMode backendMode
+    ) {
+        if (optimizationOptions.profileInput() == null && optimizationOptions.profileOutput() == null) {
+            return TypeFeedbackPlan.off();
+        }
+        final String unit = className + "@" + PersistentCompilationCache.key(
+                programSourceText,
+                Boolean.toString(optimizationOptions.constantFoldingEnabled()),
+                Boolean.toString(optimizationOptions.deadCodeEliminationEnabled()),
+                Boolean.toString(optimizationOptions.inliningEnabled()),
+                Boolean.toString(optimizationOptions.loopOptimizationEnabled()),
+                backendMode.name()
+        ).substring(0, 16);
+        if (optimizationOptions.profileOutput() != null) {
+            return new TypeFeedbackPlan(
+                    unit,
+                    optimizationOptions.profileOutput().toAbsolutePath().normalize().toString(),
+                    Map.of()
+            );
+        }
+        final Path profileInput = optimizationOptions.profileInput();
+        final TsjTypeFeedback.Profile profile;
+        try {
+            profile = TsjTypeFeedback.read(profileInput);
+        } catch (final IOException | IllegalArgumentException exception) {
+            throw new JvmCompilationException(
+                    "TSJ-BACKEND-PROFILE",
+                    "Failed to read type feedback profile " + profileInput + ": " + exception.getMessage(),
+                    null,
+                    null,
+                    exception
+            );
+        }
+        return new TypeFeedbackPlan(unit, null, profile.unit(unit));
+    }
+
     private static List<TopLevelClassDeclaration> collectTopLevelClassDeclarations(
             final Program program,
             final Map<Statement, SourceLocation> statementLocations
@@ -1818,6 +2129,9 @@ public final class JvmBytecodeCompiler {
                 return;
             }
             if (callExpression.callee() instanceof VariableExpression variableExpression) {
+                if (REGEXP_LITERAL_HELPER.equals(variableExpression.name())) {
+                    return;
+                }
                 if ("__tsj_for_of_values".equals(variableExpression.name())
                         || "__tsj_for_in_keys".equals(variableExpression.name())) {
                     if (callExpression.arguments().size() != 1) {
@@ -3223,7 +3537,7 @@ public final class JvmBytecodeCompiler {
                 );
             }
             appendBundledLine(passthroughBuilder, passthroughOrigins, "", null, -1);
-            return new BundleResult(passthroughBuilder.toString(), List.copyOf(passthroughOrigins));
+            return new BundleResult(passthroughBuilder.toString(), List.copyOf(passthroughOrigins), List.of());
         }
         final Map<Path, String> initFunctionByModule = new LinkedHashMap<>();
         final Map<Path, Integer> moduleIndexBySource = new LinkedHashMap<>();
@@ -3270,6 +3584,7 @@ public final class JvmBytecodeCompiler {
             }
         }
 
+        final Set<Path> lazyModules = resolveLazyModules(modules);
         final StringBuilder builder = new StringBuilder();
         final List<SourceLineOrigin> lineOrigins = new ArrayList<>();
 
@@ -3278,6 +3593,15 @@ public final class JvmBytecodeCompiler {
             for (String exportSymbol : moduleExports.values()) {
                 appendBundledLine(builder, lineOrigins, "let " + exportSymbol + " = undefined;", null, -1);
             }
+            if (lazyModules.contains(module.sourceFile())) {
+                appendBundledLine(
+                        builder,
+                        lineOrigins,
+                        "let " + lazyModuleLoadedSymbol(moduleIndexBySource.get(module.sourceFile())) + " = false;",
+                        null,
+                        -1
+                );
+            }
         }
         if (!modules.isEmpty()) {
             appendBundledLine(builder, lineOrigins, "", null, -1);
@@ -3300,6 +3624,31 @@ public final class JvmBytecodeCompiler {
                         null,
                         -1
                 );
+                if (lazyModules.contains(target)) {
+                    appendBundledLine(
+                            builder,
+                            lineOrigins,
+                            "      return Promise.resolve(undefined).then(() => {",
+                            null,
+                            -1
+                    );
+                    appendBundledLine(
+                            builder,
+                            lineOrigins,
+                            "        " + lazyModuleLoaderName(moduleIndexBySource.get(target)) + "();",
+                            null,
+                            -1
+                    );
+                    appendBundledLine(
+                            builder,
+                            lineOrigins,
+                            "        return " + buildNamespaceImportObjectLiteral(dependencyExports) + ";",
+                            null,
+                            -1
+                    );
+                    appendBundledLine(builder, lineOrigins, "      });", null, -1);
+                    continue;
+                }
                 appendBundledLine(
                         builder,
                         lineOrigins,
@@ -3320,7 +3669,10 @@ public final class JvmBytecodeCompiler {
             appendBundledLine(builder, lineOrigins, "", null, -1);
         }
 
+        final List<BundledModule> bundledModules = new ArrayList<>();
         for (ModuleSource module : modules) {
+            final int segmentFirstLine = lineOrigins.size();
+            final int segmentStartOffset = builder.length();
             final String initFunctionName = initFunctionByModule.get(module.sourceFile());
             final boolean asyncInit = module.requiresAsyncInit();
             final List<ImportRefreshBinding> importRefreshBindings = new ArrayList<>();
@@ -3563,14 +3915,145 @@ public final class JvmBytecodeCompiler {
                 }
             }
             appendBundledLine(builder, lineOrigins, "}", null, -1);
-            if (asyncInit) {
+            if (lazyModules.contains(module.sourceFile())) {
+                appendLazyModuleLoader(builder, lineOrigins, module, initFunctionName, lazyModules, moduleIndexBySource);
+            } else if (asyncInit) {
                 appendBundledLine(builder, lineOrigins, "await " + initFunctionName + "();", null, -1);
             } else {
                 appendBundledLine(builder, lineOrigins, initFunctionName + "();", null, -1);
             }
             appendBundledLine(builder, lineOrigins, "", null, -1);
+            bundledModules.add(new BundledModule(
+                    module.sourceFile(),
+                    moduleIndexBySource.get(module.sourceFile()),
+                    segmentFirstLine,
+                    lineOrigins.size() - segmentFirstLine,
+                    segmentStartOffset,
+                    builder.length(),
+                    moduleContentFingerprint(
+                            builder.substring(segmentStartOffset),
+                            lineOrigins.subList(segmentFirstLine, lineOrigins.size())
+                    ),
+                    moduleExportsFingerprint(exportSymbolsByModule.get(module.sourceFile()), asyncInit),
+                    moduleDependencies(module)
+            ));
+        }
+        return new BundleResult(builder.toString(), List.copyOf(lineOrigins), List.copyOf(bundledModules));
+    }
+
+    private static String moduleContentFingerprint(
+            final String segmentText,
+            final List<SourceLineOrigin> segmentOrigins
+    ) {
+        final MessageDigest digest = messageDigestSha256();
+        updateDigest(digest, segmentText);
+        for (SourceLineOrigin origin : segmentOrigins) {
+            updateDigest(digest, origin.sourceFile() == null ? "" : origin.sourceFile() + ":" + origin.sourceLine());
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Hashes what dependents can observe of a module: its export names, their bundle symbols, and whether
+     * it initializes asynchronously. Body-only edits keep this fingerprint stable.
+     */
+    private static String moduleExportsFingerprint(final Map<String, String> exportSymbols, final boolean asyncInit) {
+        final MessageDigest digest = messageDigestSha256();
+        for (Map.Entry<String, String> exportSymbol : exportSymbols.entrySet()) {
+            updateDigest(digest, exportSymbol.getKey());
+            updateDigest(digest, exportSymbol.getValue());
+        }
+        updateDigest(digest, Boolean.toString(asyncInit));
+        return toHex(digest.digest());
+    }
+
+    private static List<Path> moduleDependencies(final ModuleSource module) {
+        final LinkedHashSet<Path> dependencies = new LinkedHashSet<>(staticModuleDependencies(module));
+        dependencies.addAll(module.dynamicImportDependencies());
+        return List.copyOf(dependencies);
+    }
+
+    /**
+     * Modules reached only through dynamic `import()` are initialized on first import instead of at
+     * startup. Laziness is skipped when any such module needs top-level await, which keeps eager ordering.
+     */
+    private static Set<Path> resolveLazyModules(final List<ModuleSource> modules) {
+        if (modules.isEmpty()) {
+            return Set.of();
+        }
+        final Map<Path, ModuleSource> modulesBySource = new LinkedHashMap<>();
+        for (ModuleSource module : modules) {
+            modulesBySource.put(module.sourceFile(), module);
+        }
+        final Set<Path> eagerModules = new LinkedHashSet<>();
+        final ArrayDeque<Path> pending = new ArrayDeque<>();
+        pending.add(modules.get(modules.size() - 1).sourceFile());
+        while (!pending.isEmpty()) {
+            final Path current = pending.removeFirst();
+            final ModuleSource module = modulesBySource.get(current);
+            if (module == null || !eagerModules.add(current)) {
+                continue;
+            }
+            pending.addAll(staticModuleDependencies(module));
+        }
+        final Set<Path> lazyModules = new LinkedHashSet<>(modulesBySource.keySet());
+        lazyModules.removeAll(eagerModules);
+        for (Path lazyModule : lazyModules) {
+            if (modulesBySource.get(lazyModule).requiresAsyncInit()) {
+                return Set.of();
+            }
+        }
+        return Set.copyOf(lazyModules);
+    }
+
+    private static List<Path> staticModuleDependencies(final ModuleSource module) {
+        final List<Path> dependencies = new ArrayList<>();
+        for (ModuleImport moduleImport : module.imports()) {
+            if (moduleImport.kind() != ModuleImportKind.INTEROP && moduleImport.dependency() != null) {
+                dependencies.add(moduleImport.dependency());
+            }
+        }
+        for (ModuleReExport reExport : module.reExports()) {
+            dependencies.add(reExport.dependency());
+        }
+        return dependencies;
+    }
+
+    private static void appendLazyModuleLoader(
+            final StringBuilder builder,
+            final List<SourceLineOrigin> lineOrigins,
+            final ModuleSource module,
+            final String initFunctionName,
+            final Set<Path> lazyModules,
+            final Map<Path, Integer> moduleIndexBySource
+    ) {
+        final int moduleIndex = moduleIndexBySource.get(module.sourceFile());
+        final String loadedSymbol = lazyModuleLoadedSymbol(moduleIndex);
+        appendBundledLine(builder, lineOrigins, "function " + lazyModuleLoaderName(moduleIndex) + "() {", null, -1);
+        appendBundledLine(builder, lineOrigins, "  if (!" + loadedSymbol + ") {", null, -1);
+        appendBundledLine(builder, lineOrigins, "    " + loadedSymbol + " = true;", null, -1);
+        for (Path dependency : new LinkedHashSet<>(staticModuleDependencies(module))) {
+            if (lazyModules.contains(dependency)) {
+                appendBundledLine(
+                        builder,
+                        lineOrigins,
+                        "    " + lazyModuleLoaderName(moduleIndexBySource.get(dependency)) + "();",
+                        null,
+                        -1
+                );
+            }
         }
-        return new BundleResult(builder.toString(), List.copyOf(lineOrigins));
+        appendBundledLine(builder, lineOrigins, "    " + initFunctionName + "();", null, -1);
+        appendBundledLine(builder, lineOrigins, "  }", null, -1);
+        appendBundledLine(builder, lineOrigins, "}", null, -1);
+    }
+
+    private static String lazyModuleLoaderName(final int moduleIndex) {
+        return "__tsj_load_module_" + moduleIndex;
+    }
+
+    private static String lazyModuleLoadedSymbol(final int moduleIndex) {
+        return "__tsj_module_loaded_" + moduleIndex;
     }
 
     private static int countDelimiterBalance(final String line) {
@@ -4369,6 +4852,22 @@ public final class JvmBytecodeCompiler {
         return value.replace("\\", "\\\\").replace("\"", "\\\"");
     }
 
+    private static String renderRegexpLiteralRuntimeCall(final CallExpression callExpression) {
+        if (callExpression.arguments().size() != 2
+                || !(callExpression.arguments().get(0) instanceof StringLiteral pattern)
+                || !(callExpression.arguments().get(1) instanceof StringLiteral flags)) {
+            throw new JvmCompilationException(
+                    "TSJ-BACKEND-UNSUPPORTED",
+                    REGEXP_LITERAL_HELPER + " requires pattern and flags string arguments."
+            );
+        }
+        return "dev.tsj.runtime.TsjRuntime.regexpLiteral(\""
+                + escapeJavaLiteral(pattern.value())
+                + "\", \""
+                + escapeJavaLiteral(flags.value())
+                + "\")";
+    }
+
     private static String buildNamespaceImportObjectLiteral(final Map<String, String> dependencyExports) {
         if (dependencyExports == null || dependencyExports.isEmpty()) {
             return "{}";
@@ -4573,48 +5072,39 @@ public final class JvmBytecodeCompiler {
         );
     }
 
-    private static void compileJava(final List<Path> javaSourcePaths, final Path classesDir) {
-        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-        if (compiler == null) {
-            throw new JvmCompilationException(
-                    "TSJ-BACKEND-JDK",
-                    "JDK compiler is unavailable. Use a JDK runtime for TSJ backend compile."
-            );
+    private static Map<String, String> readIncrementalOutputManifest(final Path manifest) throws IOException {
+        if (!Files.isRegularFile(manifest)) {
+            return Map.of();
         }
-
-        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
-        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT, UTF_8)) {
-            final List<Path> compilationSources = new ArrayList<>(javaSourcePaths);
-            if (!isRuntimeAvailableOnClasspath()) {
-                compilationSources.addAll(discoverRuntimeSourceFiles());
-            }
-            final Iterable<? extends JavaFileObject> compilationUnits =
-                    fileManager.getJavaFileObjectsFromPaths(compilationSources);
-            final String classPath = buildJavacClasspath();
-            final List<String> options = List.of(
-                    "--release",
-                    "21",
-                    "-parameters",
-                    "-classpath",
-                    classPath,
-                    "-d",
-                    classesDir.toString()
-            );
-            final Boolean success = compiler.getTask(
-                    null,
-                    fileManager,
-                    diagnostics,
-                    options,
-                    null,
-                    compilationUnits
-            ).call();
-            if (!Boolean.TRUE.equals(success)) {
-                throw toCompilationException(diagnostics);
+        final List<String> lines = Files.readAllLines(manifest, UTF_8);
+        if (lines.isEmpty() || !lines.getFirst().equals(INCREMENTAL_OUTPUT_MANIFEST_HEADER + incrementalCompilerVersion())) {
+            return Map.of();
+        }
+        final Map<String, String> digests = new LinkedHashMap<>();
+        for (String line : lines.subList(1, lines.size())) {
+            final int separator = line.indexOf('\t');
+            if (separator > 0) {
+                digests.put(line.substring(separator + 1), line.substring(0, separator));
             }
+        }
+        return digests;
+    }
+
+    private static void writeIncrementalOutputManifest(
+            final Path manifest,
+            final Map<String, String> sourceDigests
+    ) {
+        final StringBuilder builder = new StringBuilder();
+        builder.append(INCREMENTAL_OUTPUT_MANIFEST_HEADER).append(incrementalCompilerVersion()).append("\n");
+        for (Map.Entry<String, String> entry : sourceDigests.entrySet()) {
+            builder.append(entry.getValue()).append("\t").append(entry.getKey()).append("\n");
+        }
+        try {
+            Files.writeString(manifest, builder.toString(), UTF_8);
         } catch (final IOException ioException) {
             throw new JvmCompilationException(
                     "TSJ-BACKEND-IO",
-                    "Failed to run javac: " + ioException.getMessage(),
+                    "Failed to write incremental output manifest: " + ioException.getMessage(),
                     null,
                     null,
                     ioException
@@ -4622,30 +5112,507 @@ public final class JvmBytecodeCompiler {
         }
     }
 
-    private static boolean isRuntimeAvailableOnClasspath() {
-        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
-        if (contextClassLoader != null
-                && contextClassLoader.getResource("dev/tsj/runtime/TsjRuntime.class") != null) {
-            return true;
+    /**
+     * Copies class files for {@code changedSources} out of the persistent cache and returns the sources that
+     * still need javac. Entries are keyed by the generated source digest, the JDK version, and the javac
+     * classpath, so a hit is exactly what javac would have produced.
+     */
+    private static List<Path> restorePersistentClassOutputs(
+            final PersistentCompilationCache persistentCache,
+            final String classpathFingerprint,
+            final List<Path> changedSources,
+            final Path generatedSourceRoot,
+            final Path classesDir,
+            final Map<String, String> sourceDigests
+    ) {
+        if (persistentCache == null || changedSources.isEmpty()) {
+            return changedSources;
+        }
+        final List<Path> uncachedSources = new ArrayList<>();
+        for (Path source : changedSources) {
+            final String relativeSource = generatedSourceRoot.relativize(source).toString().replace('\\', '/');
+            final Map<String, byte[]> classOutputs = persistentCache.readEntries(
+                    PersistentCompilationCache.KIND_CLASSES,
+                    persistentClassOutputKey(classpathFingerprint, relativeSource, sourceDigests.get(relativeSource))
+            );
+            if (classOutputs == null || classOutputs.isEmpty()) {
+                uncachedSources.add(source);
+                continue;
+            }
+            final Path packageDir = classOutputDirectory(classesDir, relativeSource);
+            try {
+                for (Path staleOutput : classOutputFiles(packageDir, relativeSource)) {
+                    Files.deleteIfExists(staleOutput);
+                }
+                Files.createDirectories(packageDir);
+                for (Map.Entry<String, byte[]> classOutput : classOutputs.entrySet()) {
+                    Files.write(packageDir.resolve(classOutput.getKey()), classOutput.getValue());
+                }
+            } catch (final IOException ioException) {
+                uncachedSources.add(source);
+            }
         }
-        final ClassLoader compilerClassLoader = JvmBytecodeCompiler.class.getClassLoader();
-        return compilerClassLoader != null
-                && compilerClassLoader.getResource("dev/tsj/runtime/TsjRuntime.class") != null;
+        return List.copyOf(uncachedSources);
     }
 
-    private static List<Path> discoverRuntimeSourceFiles() {
-        final Path runtimeSourceRoot = discoverRuntimeSourceRoot();
-        if (runtimeSourceRoot == null) {
-            return List.of();
+    private static void storePersistentClassOutputs(
+            final PersistentCompilationCache persistentCache,
+            final String classpathFingerprint,
+            final List<Path> compiledSources,
+            final Path generatedSourceRoot,
+            final Path classesDir,
+            final Map<String, String> sourceDigests
+    ) {
+        if (persistentCache == null) {
+            return;
         }
-        final List<Path> sourceFiles = new ArrayList<>();
-        try (Stream<Path> stream = Files.walk(runtimeSourceRoot)) {
-            stream.filter(path -> Files.isRegularFile(path) && path.toString().endsWith(".java"))
-                    .forEach(sourceFiles::add);
-        } catch (final IOException ignored) {
-            return List.of();
+        for (Path source : compiledSources) {
+            final String relativeSource = generatedSourceRoot.relativize(source).toString().replace('\\', '/');
+            final Path packageDir = classOutputDirectory(classesDir, relativeSource);
+            final Map<String, byte[]> classOutputs = new LinkedHashMap<>();
+            try {
+                for (Path classOutput : classOutputFiles(packageDir, relativeSource)) {
+                    classOutputs.put(classOutput.getFileName().toString(), Files.readAllBytes(classOutput));
+                }
+            } catch (final IOException ioException) {
+                continue;
+            }
+            if (!classOutputs.isEmpty()) {
+                persistentCache.writeEntries(
+                        PersistentCompilationCache.KIND_CLASSES,
+                        persistentClassOutputKey(classpathFingerprint, relativeSource, sourceDigests.get(relativeSource)),
+                        classOutputs
+                );
+            }
         }
-        return List.copyOf(sourceFiles);
+    }
+
+    private static void deleteClassOutputs(
+            final List<Path> sources,
+            final Path generatedSourceRoot,
+            final Path classesDir
+    ) {
+        for (Path source : sources) {
+            final String relativeSource = generatedSourceRoot.relativize(source).toString().replace('\\', '/');
+            final Path packageDir = classOutputDirectory(classesDir, relativeSource);
+            try {
+                for (Path classOutput : classOutputFiles(packageDir, relativeSource)) {
+                    Files.deleteIfExists(classOutput);
+                }
+            } catch (final IOException ioException) {
+                throw new JvmCompilationException(
+                        "TSJ-BACKEND-IO",
+                        "Failed to remove stale class output: " + ioException.getMessage(),
+                        null,
+                        null,
+                        ioException
+                );
+            }
+        }
+    }
+
+    private static String persistentClassOutputKey(
+            final String classpathFingerprint,
+            final String relativeSource,
+            final String sourceDigest
+    ) {
+        return PersistentCompilationCache.key(
+                INCREMENTAL_CACHE_VERSION,
+                System.getProperty("java.version", ""),
+                classpathFingerprint,
+                relativeSource,
+                sourceDigest
+        );
+    }
+
+    private static Path classOutputDirectory(final Path classesDir, final String relativeSource) {
+        final int slash = relativeSource.lastIndexOf('/');
+        return slash < 0 ? classesDir : classesDir.resolve(relativeSource.substring(0, slash));
+    }
+
+    /**
+     * Lists the top-level class file of a generated source and its nested/anonymous class files.
+     */
+    private static List<Path> classOutputFiles(final Path packageDir, final String relativeSource) throws IOException {
+        if (!Files.isDirectory(packageDir)) {
+            return List.of();
+        }
+        final int slash = relativeSource.lastIndexOf('/');
+        final String simpleName = relativeSource.substring(slash + 1, relativeSource.length() - ".java".length());
+        try (Stream<Path> files = Files.list(packageDir)) {
+            return files
+                    .filter(file -> {
+                        final String fileName = file.getFileName().toString();
+                        return fileName.equals(simpleName + ".class")
+                                || (fileName.startsWith(simpleName + "$") && fileName.endsWith(".class"));
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Fingerprints the javac classpath by entry path, size, and timestamp; directories contribute their
+     * class files so rebuilt dependency class trees invalidate cached outputs.
+     */
+    private static String javacClasspathFingerprint() {
+        final List<String> parts = new ArrayList<>();
+        for (Path entry : parseClasspathEntries(buildJavacClasspath())) {
+            final Path normalized = entry.toAbsolutePath().normalize();
+            parts.add(normalized.toString());
+            try {
+                if (Files.isRegularFile(normalized)) {
+                    parts.add(Files.size(normalized) + ":" + Files.getLastModifiedTime(normalized).toMillis());
+                } else if (Files.isDirectory(normalized)) {
+                    try (Stream<Path> files = Files.walk(normalized)) {
+                        for (Path file : files.filter(path -> path.toString().endsWith(".class")).sorted().toList()) {
+                            parts.add(normalized.relativize(file) + ":" + Files.size(file)
+                                    + ":" + Files.getLastModifiedTime(file).toMillis());
+                        }
+                    }
+                }
+            } catch (final IOException ioException) {
+                parts.add("unreadable");
+            }
+        }
+        return PersistentCompilationCache.key(parts.toArray(String[]::new));
+    }
+
+    private static String fileDigest(final Path file) {
+        try {
+            return toHex(messageDigestSha256().digest(Files.readAllBytes(file)));
+        } catch (final IOException ioException) {
+            throw new JvmCompilationException(
+                    "TSJ-BACKEND-IO",
+                    "Failed to read generated Java source: " + ioException.getMessage(),
+                    null,
+                    null,
+                    ioException
+            );
+        }
+    }
+
+    /**
+     * Completes the incremental report once javac has run. Modules are rebuilt when they were re-parsed or
+     * their class was recompiled; modules initialized inside the program class follow that class.
+     */
+    private static IncrementalCompilationReport withBackendOutcome(
+            final IncrementalCompilationReport report,
+            final Path entrySource,
+            final List<BundledModule> bundledModules,
+            final Path programSource,
+            final Map<Integer, Path> moduleClassSources,
+            final List<Path> changedSources,
+            final int generatedSourceCount
+    ) {
+        final IncrementalStageState backend;
+        if (changedSources.isEmpty()) {
+            backend = IncrementalStageState.HIT;
+        } else if (changedSources.size() < generatedSourceCount) {
+            backend = IncrementalStageState.INVALIDATED;
+        } else {
+            backend = IncrementalStageState.MISS;
+        }
+        final Set<Path> changed = Set.copyOf(changedSources);
+        final LinkedHashSet<Path> rebuiltModules = new LinkedHashSet<>();
+        if (bundledModules.isEmpty()) {
+            rebuiltModules.addAll(report.rebuiltModules());
+            if (changed.contains(programSource)) {
+                rebuiltModules.add(entrySource);
+            }
+        }
+        for (BundledModule module : bundledModules) {
+            final Path moduleClassSource = moduleClassSources.get(module.moduleIndex());
+            final boolean recompiled = moduleClassSource != null
+                    ? changed.contains(moduleClassSource)
+                    : changed.contains(programSource);
+            if (recompiled || report.rebuiltModules().contains(module.sourceFile())) {
+                rebuiltModules.add(module.sourceFile());
+            }
+        }
+        return new IncrementalCompilationReport(
+                report.cacheEnabled(),
+                report.compilerVersion(),
+                report.sourceGraphFingerprint(),
+                report.frontend(),
+                report.lowering(),
+                backend,
+                List.copyOf(rebuiltModules),
+                report.moduleCount()
+        );
+    }
+
+    /**
+     * Compiles generated sources with javac in dependency order (see {@link #javacCompileLevels}). Each
+     * level starts once the previous levels have written their classes and reads them from the output
+     * directory, so no generated source is parsed by more than one javac task; independent units within a
+     * level are split into weight-balanced batches compiled concurrently.
+     */
+    private static void compileJava(
+            final List<Path> javaSourcePaths,
+            final Path classesDir,
+            final boolean reuseOutputClasses
+    ) {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new JvmCompilationException(
+                    "TSJ-BACKEND-JDK",
+                    "JDK compiler is unavailable. Use a JDK runtime for TSJ backend compile."
+            );
+        }
+        if (!isRuntimeAvailableOnClasspath()) {
+            compileJavaBatch(compiler, javaSourcePaths, classesDir, reuseOutputClasses, true);
+            return;
+        }
+        boolean outputsOnClasspath = reuseOutputClasses;
+        for (List<List<Path>> level : javacCompileLevels(javaSourcePaths)) {
+            compileJavaLevel(compiler, level, classesDir, outputsOnClasspath);
+            outputsOnClasspath = true;
+        }
+    }
+
+    private static void compileJavaLevel(
+            final JavaCompiler compiler,
+            final List<List<Path>> units,
+            final Path classesDir,
+            final boolean outputsOnClasspath
+    ) {
+        long totalChars = 0L;
+        for (List<Path> unit : units) {
+            totalChars += unitSize(unit);
+        }
+        final List<List<List<Path>>> batches = CompilationWorkers.partition(
+                units,
+                (int) Math.min(
+                        CompilationWorkers.parallelism(),
+                        Math.max(1L, totalChars / PARALLEL_JAVAC_MIN_BATCH_CHARS)
+                ),
+                JvmBytecodeCompiler::unitSize
+        );
+        final List<Callable<Void>> batchCompiles = new ArrayList<>();
+        for (List<List<Path>> batch : batches) {
+            final List<Path> batchSources = new ArrayList<>();
+            for (List<Path> unit : batch) {
+                batchSources.addAll(unit);
+            }
+            batchCompiles.add(() -> {
+                compileJavaBatch(compiler, batchSources, classesDir, outputsOnClasspath, false);
+                return null;
+            });
+        }
+        CompilationWorkers.invokeAll(batchCompiles);
+    }
+
+    /**
+     * Splits generated sources into javac units ordered by the generated classes they mention.
+     *
+     * <p>Sources that reach each other through such references, like the program class and its module
+     * classes, form one unit. Each returned level lists units whose referenced units all sit in earlier
+     * levels. References are found by matching identifiers against generated class names, which can only
+     * over-approximate and therefore never orders a unit before a class it needs.
+     */
+    static List<List<List<Path>>> javacCompileLevels(final List<Path> javaSourcePaths) {
+        final int count = javaSourcePaths.size();
+        final Map<String, List<Integer>> indexesByClassName = new LinkedHashMap<>();
+        for (int index = 0; index < count; index++) {
+            final String fileName = javaSourcePaths.get(index).getFileName().toString();
+            final String className = fileName.endsWith(".java")
+                    ? fileName.substring(0, fileName.length() - ".java".length())
+                    : fileName;
+            indexesByClassName.computeIfAbsent(className, ignored -> new ArrayList<>()).add(index);
+        }
+        final List<BitSet> references = new ArrayList<>(count);
+        for (Path javaSourcePath : javaSourcePaths) {
+            final BitSet referenced = new BitSet(count);
+            final String javaSource;
+            try {
+                javaSource = Files.readString(javaSourcePath, UTF_8);
+            } catch (final IOException ioException) {
+                throw new JvmCompilationException(
+                        "TSJ-BACKEND-IO",
+                        "Failed to read generated Java source: " + ioException.getMessage(),
+                        null,
+                        null,
+                        ioException
+                );
+            }
+            final Matcher identifiers = JAVA_IDENTIFIER_PATTERN.matcher(javaSource);
+            while (identifiers.find()) {
+                final List<Integer> targets = indexesByClassName.get(identifiers.group());
+                if (targets != null) {
+                    for (int target : targets) {
+                        referenced.set(target);
+                    }
+                }
+            }
+            references.add(referenced);
+        }
+
+        final List<BitSet> reachable = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            final BitSet visited = new BitSet(count);
+            final ArrayDeque<Integer> pending = new ArrayDeque<>();
+            visited.set(index);
+            pending.push(index);
+            while (!pending.isEmpty()) {
+                final BitSet next = references.get(pending.pop());
+                for (int target = next.nextSetBit(0); target >= 0; target = next.nextSetBit(target + 1)) {
+                    if (!visited.get(target)) {
+                        visited.set(target);
+                        pending.push(target);
+                    }
+                }
+            }
+            reachable.add(visited);
+        }
+
+        final int[] unitOf = new int[count];
+        Arrays.fill(unitOf, -1);
+        final List<List<Integer>> units = new ArrayList<>();
+        for (int index = 0; index < count; index++) {
+            if (unitOf[index] >= 0) {
+                continue;
+            }
+            final List<Integer> members = new ArrayList<>();
+            final BitSet fromIndex = reachable.get(index);
+            for (int other = fromIndex.nextSetBit(0); other >= 0; other = fromIndex.nextSetBit(other + 1)) {
+                if (reachable.get(other).get(index)) {
+                    unitOf[other] = units.size();
+                    members.add(other);
+                }
+            }
+            units.add(members);
+        }
+
+        // A referenced unit reaches strictly fewer sources, so visiting by reach size settles it first.
+        final List<Integer> unitOrder = new ArrayList<>();
+        for (int unit = 0; unit < units.size(); unit++) {
+            unitOrder.add(unit);
+        }
+        unitOrder.sort(Comparator.comparingInt(unit -> reachable.get(units.get(unit).getFirst()).cardinality()));
+        final int[] levelOf = new int[units.size()];
+        int levelCount = 0;
+        for (int unit : unitOrder) {
+            int level = 0;
+            for (int member : units.get(unit)) {
+                final BitSet next = references.get(member);
+                for (int target = next.nextSetBit(0); target >= 0; target = next.nextSetBit(target + 1)) {
+                    if (unitOf[target] != unit) {
+                        level = Math.max(level, levelOf[unitOf[target]] + 1);
+                    }
+                }
+            }
+            levelOf[unit] = level;
+            levelCount = Math.max(levelCount, level + 1);
+        }
+
+        final List<List<List<Path>>> levels = new ArrayList<>();
+        for (int level = 0; level < levelCount; level++) {
+            levels.add(new ArrayList<>());
+        }
+        for (int unit = 0; unit < units.size(); unit++) {
+            final List<Path> unitSources = new ArrayList<>();
+            for (int member : units.get(unit)) {
+                unitSources.add(javaSourcePaths.get(member));
+            }
+            levels.get(levelOf[unit]).add(List.copyOf(unitSources));
+        }
+        final List<List<List<Path>>> result = new ArrayList<>();
+        for (List<List<Path>> level : levels) {
+            result.add(List.copyOf(level));
+        }
+        return List.copyOf(result);
+    }
+
+    private static long unitSize(final List<Path> unit) {
+        long size = 0L;
+        for (Path javaSourcePath : unit) {
+            size += sourceSize(javaSourcePath);
+        }
+        return size;
+    }
+
+    private static void compileJavaBatch(
+            final JavaCompiler compiler,
+            final List<Path> javaSourcePaths,
+            final Path classesDir,
+            final boolean outputsOnClasspath,
+            final boolean includeRuntimeSources
+    ) {
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT, UTF_8)) {
+            final List<Path> compilationSources = new ArrayList<>(javaSourcePaths);
+            if (includeRuntimeSources) {
+                compilationSources.addAll(discoverRuntimeSourceFiles());
+            }
+            final Iterable<? extends JavaFileObject> compilationUnits =
+                    fileManager.getJavaFileObjectsFromPaths(compilationSources);
+            final String classPath = outputsOnClasspath
+                    ? classesDir + File.pathSeparator + buildJavacClasspath()
+                    : buildJavacClasspath();
+            final List<String> options = List.of(
+                    "--release",
+                    "21",
+                    "-parameters",
+                    "-classpath",
+                    classPath,
+                    "-d",
+                    classesDir.toString()
+            );
+            final Boolean success = compiler.getTask(
+                    null,
+                    fileManager,
+                    diagnostics,
+                    options,
+                    null,
+                    compilationUnits
+            ).call();
+            if (!Boolean.TRUE.equals(success)) {
+                throw toCompilationException(diagnostics);
+            }
+        } catch (final IOException ioException) {
+            throw new JvmCompilationException(
+                    "TSJ-BACKEND-IO",
+                    "Failed to run javac: " + ioException.getMessage(),
+                    null,
+                    null,
+                    ioException
+            );
+        }
+    }
+
+    private static long sourceSize(final Path javaSourcePath) {
+        try {
+            return Files.size(javaSourcePath);
+        } catch (final IOException ioException) {
+            return 0L;
+        }
+    }
+
+    private static boolean isRuntimeAvailableOnClasspath() {
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        if (contextClassLoader != null
+                && contextClassLoader.getResource("dev/tsj/runtime/TsjRuntime.class") != null) {
+            return true;
+        }
+        final ClassLoader compilerClassLoader = JvmBytecodeCompiler.class.getClassLoader();
+        return compilerClassLoader != null
+                && compilerClassLoader.getResource("dev/tsj/runtime/TsjRuntime.class") != null;
+    }
+
+    private static List<Path> discoverRuntimeSourceFiles() {
+        final Path runtimeSourceRoot = discoverRuntimeSourceRoot();
+        if (runtimeSourceRoot == null) {
+            return List.of();
+        }
+        final List<Path> sourceFiles = new ArrayList<>();
+        try (Stream<Path> stream = Files.walk(runtimeSourceRoot)) {
+            stream.filter(path -> Files.isRegularFile(path) && path.toString().endsWith(".java"))
+                    .forEach(sourceFiles::add);
+        } catch (final IOException ignored) {
+            return List.of();
+        }
+        return List.copyOf(sourceFiles);
     }
 
     private static Path discoverRuntimeSourceRoot() {
@@ -4694,11 +5661,32 @@ public final class JvmBytecodeCompiler {
         return String.join(File.pathSeparator, entries);
     }
 
-    private static AnnotationRenderContext createAnnotationRenderContext() {
-        return new AnnotationRenderContext(new JavaSymbolTable(
-                parseClasspathEntries(buildJavacClasspath()),
-                "tsj-jvm-bytecode-annotation-render"
-        ));
+    /**
+     * Creates the descriptor table used for annotation rendering. With a persistent compilation cache the
+     * table keeps its descriptors in one append-only file per javac classpath, keyed in the file header by
+     * the classpath fingerprint so rebuilt dependencies invalidate it.
+     */
+    private static JavaSymbolTable createAnnotationSymbolTable(
+            final PersistentCompilationCache persistentCache,
+            final String classpathFingerprint
+    ) {
+        final String classpath = buildJavacClasspath();
+        if (persistentCache == null) {
+            return new JavaSymbolTable(parseClasspathEntries(classpath), "tsj-jvm-bytecode-annotation-render");
+        }
+        final int targetJdkRelease = Runtime.version().feature();
+        return new JavaSymbolTable(
+                parseClasspathEntries(classpath),
+                classpathFingerprint,
+                targetJdkRelease,
+                new JavaClassfileReader(),
+                persistentCache.entryFile(
+                        PersistentCompilationCache.KIND_DESCRIPTORS,
+                        PersistentCompilationCache.key(classpath, Integer.toString(targetJdkRelease))
+                ),
+                incrementalCompilerVersion(),
+                null
+        );
     }
 
     private static List<Path> parseClasspathEntries(final String classpath) {
@@ -4888,6 +5876,7 @@ public final class JvmBytecodeCompiler {
                 bundleResult,
                 compilerVersion
         );
+        final List<Path> allModules = bundledModuleFiles(sourceFile, bundleResult);
         if (!cacheEnabled) {
             return new ParseWithIncrementalResult(
                     parseProgram(sourceText, sourceFile, bundleResult),
@@ -4897,16 +5886,35 @@ public final class JvmBytecodeCompiler {
                             sourceGraphFingerprint,
                             IncrementalStageState.DISABLED,
                             IncrementalStageState.DISABLED,
-                            IncrementalStageState.MISS
+                            IncrementalStageState.MISS,
+                            allModules,
+                            allModules.size()
                     )
             );
         }
 
         final Path normalizedSource = sourceFile.toAbsolutePath().normalize();
-        final String previousFingerprint;
+        String previousFingerprint;
         synchronized (LAST_SOURCE_GRAPH_FINGERPRINT) {
             previousFingerprint = LAST_SOURCE_GRAPH_FINGERPRINT.put(normalizedSource, sourceGraphFingerprint);
         }
+        final PersistentCompilationCache persistentCache = PersistentCompilationCache.configured();
+        if (persistentCache != null) {
+            final String sourceGraphKey = PersistentCompilationCache.key(compilerVersion, normalizedSource.toString());
+            if (previousFingerprint == null) {
+                previousFingerprint = persistentCache.readText(
+                        PersistentCompilationCache.KIND_SOURCE_GRAPH,
+                        sourceGraphKey
+                );
+            }
+            if (!sourceGraphFingerprint.equals(previousFingerprint)) {
+                persistentCache.writeText(
+                        PersistentCompilationCache.KIND_SOURCE_GRAPH,
+                        sourceGraphKey,
+                        sourceGraphFingerprint
+                );
+            }
+        }
         final boolean invalidated = previousFingerprint != null && !previousFingerprint.equals(sourceGraphFingerprint);
         final IncrementalParseCacheKey cacheKey = new IncrementalParseCacheKey(sourceGraphFingerprint, compilerVersion);
         final ParseResult cached;
@@ -4922,12 +5930,20 @@ public final class JvmBytecodeCompiler {
                             sourceGraphFingerprint,
                             IncrementalStageState.HIT,
                             IncrementalStageState.HIT,
-                            IncrementalStageState.MISS
+                            IncrementalStageState.MISS,
+                            List.of(),
+                            allModules.size()
                     )
             );
         }
 
-        final ParseResult parsed = parseProgram(sourceText, sourceFile, bundleResult);
+        final List<Path> reparsedModules = new ArrayList<>();
+        final ParseResult parsed = bundleResult.modules().isEmpty()
+                ? parseProgram(sourceText, sourceFile, bundleResult)
+                : parseBundledModulesIncrementally(sourceFile, bundleResult, compilerVersion, reparsedModules);
+        if (bundleResult.modules().isEmpty()) {
+            reparsedModules.addAll(allModules);
+        }
         synchronized (INCREMENTAL_PARSE_CACHE) {
             INCREMENTAL_PARSE_CACHE.put(cacheKey, parsed);
         }
@@ -4942,11 +5958,204 @@ public final class JvmBytecodeCompiler {
                         sourceGraphFingerprint,
                         missState,
                         missState,
-                        IncrementalStageState.MISS
+                        IncrementalStageState.MISS,
+                        List.copyOf(reparsedModules),
+                        allModules.size()
                 )
         );
     }
 
+    private static List<Path> bundledModuleFiles(final Path sourceFile, final BundleResult bundleResult) {
+        if (bundleResult.modules().isEmpty()) {
+            return List.of(sourceFile.toAbsolutePath().normalize());
+        }
+        final List<Path> moduleFiles = new ArrayList<>();
+        for (BundledModule module : bundleResult.modules()) {
+            moduleFiles.add(module.sourceFile());
+        }
+        return List.copyOf(moduleFiles);
+    }
+
+    /**
+     * Parses only the bundled modules whose cache key changed and splices cached statements for the rest.
+     * A module key covers its own bundled text and the exports fingerprints of its dependencies, so a
+     * body-only edit re-parses just the edited module. Changed segments are parsed in contiguous batches
+     * on the compile worker pool; large graphs fan out across cores while small ones stay in one pass.
+     */
+    private static ParseResult parseBundledModulesIncrementally(
+            final Path sourceFile,
+            final BundleResult bundleResult,
+            final String compilerVersion,
+            final List<Path> reparsedModules
+    ) {
+        final String sourceText = bundleResult.sourceText();
+        final List<BundledModule> modules = bundleResult.modules();
+        final Map<Path, String> exportsFingerprints = new LinkedHashMap<>();
+        for (BundledModule module : modules) {
+            exportsFingerprints.put(module.sourceFile(), module.exportsFingerprint());
+        }
+        final String parserMode = System.getProperty(LEGACY_TOKENIZER_PROPERTY, "false")
+                + "|"
+                + System.getProperty(AST_NO_FALLBACK_PROPERTY, "true");
+        final BundledModule firstModule = modules.getFirst();
+        final String preambleText = sourceText.substring(0, firstModule.startOffset());
+        final String preambleKey = moduleParseCacheKey(compilerVersion, parserMode, preambleText, List.of());
+        final Map<String, String> moduleKeys = new LinkedHashMap<>();
+        final Map<String, ModuleParseResult> cachedParses = new LinkedHashMap<>();
+        synchronized (INCREMENTAL_MODULE_PARSE_CACHE) {
+            final ModuleParseResult cachedPreamble = INCREMENTAL_MODULE_PARSE_CACHE.get(preambleKey);
+            if (cachedPreamble != null) {
+                cachedParses.put(preambleKey, cachedPreamble);
+            }
+            for (BundledModule module : modules) {
+                final List<String> dependencyFingerprints = new ArrayList<>();
+                for (Path dependency : module.dependencies()) {
+                    dependencyFingerprints.add(exportsFingerprints.getOrDefault(dependency, ""));
+                }
+                final String moduleKey = moduleParseCacheKey(
+                        compilerVersion,
+                        parserMode,
+                        module.contentFingerprint(),
+                        dependencyFingerprints
+                );
+                moduleKeys.put(module.sourceFile().toString(), moduleKey);
+                final ModuleParseResult cachedModule = INCREMENTAL_MODULE_PARSE_CACHE.get(moduleKey);
+                if (cachedModule != null) {
+                    cachedParses.put(moduleKey, cachedModule);
+                }
+            }
+        }
+
+        final boolean parsePreamble = !cachedParses.containsKey(preambleKey);
+        final List<BundledModule> pendingModules = new ArrayList<>();
+        long pendingChars = 0L;
+        for (BundledModule module : modules) {
+            if (cachedParses.containsKey(moduleKeys.get(module.sourceFile().toString()))) {
+                continue;
+            }
+            pendingModules.add(module);
+            pendingChars += module.endOffset() - module.startOffset();
+        }
+
+        final Map<String, ModuleParseResult> freshParses = new LinkedHashMap<>();
+        if (parsePreamble || !pendingModules.isEmpty()) {
+            final int batchCount = (int) Math.min(
+                    CompilationWorkers.parallelism(),
+                    Math.max(1L, pendingChars / PARALLEL_PARSE_MIN_BATCH_CHARS)
+            );
+            final List<List<BundledModule>> batches = pendingModules.isEmpty()
+                    ? List.of(List.of())
+                    : CompilationWorkers.partition(
+                            pendingModules,
+                            batchCount,
+                            module -> module.endOffset() - module.startOffset()
+                    );
+            final List<Callable<ParseResult>> batchParses = new ArrayList<>();
+            for (int batchIndex = 0; batchIndex < batches.size(); batchIndex++) {
+                final StringBuilder partialText = new StringBuilder();
+                final List<SourceLineOrigin> partialOrigins = new ArrayList<>();
+                if (parsePreamble && batchIndex == 0) {
+                    partialText.append(preambleText);
+                    partialOrigins.addAll(bundleResult.lineOrigins().subList(0, firstModule.firstLine()));
+                }
+                for (BundledModule module : batches.get(batchIndex)) {
+                    partialText.append(sourceText, module.startOffset(), module.endOffset());
+                    partialOrigins.addAll(bundleResult.lineOrigins().subList(
+                            module.firstLine(),
+                            module.firstLine() + module.lineCount()
+                    ));
+                }
+                final BundleResult partialBundle = new BundleResult(
+                        partialText.toString(),
+                        List.copyOf(partialOrigins),
+                        List.of()
+                );
+                batchParses.add(() -> parseProgram(partialBundle.sourceText(), sourceFile, partialBundle));
+            }
+            final List<ParseResult> partialParses = CompilationWorkers.invokeAll(batchParses);
+            for (int batchIndex = 0; batchIndex < batches.size(); batchIndex++) {
+                final ParseResult partialParse = partialParses.get(batchIndex);
+                final Map<Integer, List<Statement>> statementsByModule = new LinkedHashMap<>();
+                final List<Statement> preambleStatements = new ArrayList<>();
+                List<Statement> currentGroup = preambleStatements;
+                for (Statement statement : partialParse.program().statements()) {
+                    final Integer moduleIndex = bundledModuleInitializerIndex(statement);
+                    if (moduleIndex != null) {
+                        currentGroup = statementsByModule.computeIfAbsent(moduleIndex, ignored -> new ArrayList<>());
+                    }
+                    currentGroup.add(statement);
+                }
+                if (parsePreamble && batchIndex == 0) {
+                    freshParses.put(preambleKey, new ModuleParseResult(List.copyOf(preambleStatements), Map.of()));
+                }
+                for (BundledModule module : batches.get(batchIndex)) {
+                    final IdentityHashMap<Statement, SourceLocation> moduleLocations = new IdentityHashMap<>();
+                    for (Map.Entry<Statement, SourceLocation> entry : partialParse.statementLocations().entrySet()) {
+                        if (module.sourceFile().equals(entry.getValue().sourceFile())) {
+                            moduleLocations.put(entry.getKey(), entry.getValue());
+                        }
+                    }
+                    freshParses.put(
+                            moduleKeys.get(module.sourceFile().toString()),
+                            new ModuleParseResult(
+                                    List.copyOf(statementsByModule.getOrDefault(module.moduleIndex(), List.of())),
+                                    moduleLocations
+                            )
+                    );
+                    reparsedModules.add(module.sourceFile());
+                }
+            }
+            synchronized (INCREMENTAL_MODULE_PARSE_CACHE) {
+                INCREMENTAL_MODULE_PARSE_CACHE.putAll(freshParses);
+            }
+        }
+
+        final List<Statement> statements = new ArrayList<>();
+        final IdentityHashMap<Statement, SourceLocation> statementLocations = new IdentityHashMap<>();
+        final List<String> orderedKeys = new ArrayList<>();
+        orderedKeys.add(preambleKey);
+        orderedKeys.addAll(moduleKeys.values());
+        for (String key : orderedKeys) {
+            final ModuleParseResult moduleParse = freshParses.containsKey(key)
+                    ? freshParses.get(key)
+                    : cachedParses.get(key);
+            statements.addAll(moduleParse.statements());
+            statementLocations.putAll(moduleParse.statementLocations());
+        }
+        return new ParseResult(new Program(List.copyOf(statements)), statementLocations);
+    }
+
+    private static String moduleParseCacheKey(
+            final String compilerVersion,
+            final String parserMode,
+            final String content,
+            final List<String> dependencyFingerprints
+    ) {
+        final MessageDigest digest = messageDigestSha256();
+        updateDigest(digest, compilerVersion);
+        updateDigest(digest, parserMode);
+        updateDigest(digest, content);
+        for (String dependencyFingerprint : dependencyFingerprints) {
+            updateDigest(digest, dependencyFingerprint);
+        }
+        return toHex(digest.digest());
+    }
+
+    private static Integer bundledModuleInitializerIndex(final Statement statement) {
+        if (!(statement instanceof FunctionDeclarationStatement functionDeclarationStatement)) {
+            return null;
+        }
+        final String name = functionDeclarationStatement.declaration().name();
+        if (!name.startsWith("__tsj_init_module_")) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(name.substring("__tsj_init_module_".length()));
+        } catch (final NumberFormatException numberFormatException) {
+            return null;
+        }
+    }
+
     private static String incrementalCompilerVersion() {
         return INCREMENTAL_CACHE_VERSION
                 + "|"
@@ -5389,7 +6598,7 @@ public final class JvmBytecodeCompiler {
     private static List<Statement> lowerStatementListWithoutLocations(final JsonNode arrayNode) {
         final List<Statement> statements = new ArrayList<>();
         final IdentityHashMap<Statement, SourceLocation> ignoredLocations = new IdentityHashMap<>();
-        final BundleResult syntheticBundle = new BundleResult("", List.of());
+        final BundleResult syntheticBundle = new BundleResult("", List.of(), List.of());
         for (JsonNode statementNode : arrayNode) {
             statements.add(lowerStatementFromAst(statementNode, syntheticBundle, ignoredLocations));
         }
@@ -6430,9 +7639,23 @@ public final class JvmBytecodeCompiler {
     private record ImportStatement(String canonicalStatement, int endLineIndex) {
     }
 
+    private record BundledModule(
+            Path sourceFile,
+            int moduleIndex,
+            int firstLine,
+            int lineCount,
+            int startOffset,
+            int endOffset,
+            String contentFingerprint,
+            String exportsFingerprint,
+            List<Path> dependencies
+    ) {
+    }
+
     private record BundleResult(
             String sourceText,
-            List<SourceLineOrigin> lineOrigins
+            List<SourceLineOrigin> lineOrigins,
+            List<BundledModule> modules
     ) {
         private SourceLocation sourceLocationFor(final int bundledLine, final int bundledColumn) {
             if (bundledLine <= 0 || bundledLine > lineOrigins.size()) {
@@ -7975,51 +9198,993 @@ public final class JvmBytecodeCompiler {
 
     private record ProgramOptimizationResult(
             Program program,
-            Map<Statement, SourceLocation> statementLocations
+            Map<Statement, SourceLocation> statementLocations,
+            OptimizationReport report
     ) {
     }
 
-    private static final class ProgramOptimizer {
-        private final JvmOptimizationOptions options;
-        private final IdentityHashMap<Statement, SourceLocation> sourceLocations;
-        private final IdentityHashMap<Statement, SourceLocation> rewrittenSourceLocations;
-
-        private ProgramOptimizer(
-                final JvmOptimizationOptions options,
-                final Map<Statement, SourceLocation> sourceLocations
-        ) {
-            this.options = options;
-            this.sourceLocations = new IdentityHashMap<>(sourceLocations);
+    /**
+     * Reachability-based tree shaking of a bundled program.
+     *
+     * <p>Function definitions in imported modules, module import bindings, and bundled exports that no
+     * retained statement can reach are dropped, and an imported module whose initializer becomes empty is
+     * no longer initialized. Every other statement is a root, so module side effects always run, and the
+     * entry module keeps all of its own declarations and exports. Names are resolved without regard to
+     * shadowing, which can only keep a binding that a scope-aware analysis would drop.
+     */
+    private static final class BundleTreeShaker {
+        private final Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+        private final Set<String> live = new LinkedHashSet<>();
+        private final ArrayDeque<String> pending = new ArrayDeque<>();
+        private int removedDeclarations;
+        private int removedModules;
+
+        private Program shake(final Program program) {
+            int entryIndex = -1;
+            for (Statement statement : program.statements()) {
+                final Integer moduleIndex = bundledModuleInitializerIndex(statement);
+                if (moduleIndex != null) {
+                    entryIndex = Math.max(entryIndex, moduleIndex);
+                }
+            }
+            if (entryIndex < 0) {
+                return program;
+            }
+            final Map<String, Set<String>> moduleNodes = new LinkedHashMap<>();
+            for (Statement statement : program.statements()) {
+                final Integer moduleIndex = bundledModuleInitializerIndex(statement);
+                if (moduleIndex != null) {
+                    final FunctionDeclaration initializer = ((FunctionDeclarationStatement) statement).declaration();
+                    moduleNodes.put(
+                            initializer.name(),
+                            collectModuleNodes(initializer.body(), moduleIndex == entryIndex)
+                    );
+                }
+            }
+            for (Statement statement : program.statements()) {
+                final Integer moduleIndex = bundledModuleInitializerIndex(statement);
+                if (moduleIndex == null) {
+                    if (!isExportSymbolDeclaration(statement)) {
+                        markReferences(statement, null, Set.of());
+                    }
+                    continue;
+                }
+                final FunctionDeclaration initializer = ((FunctionDeclarationStatement) statement).declaration();
+                final Set<String> nodes = moduleNodes.get(initializer.name());
+                for (Statement moduleStatement : initializer.body()) {
+                    final String node = shakeableNode(moduleStatement, initializer.name(), nodes, moduleIndex == entryIndex);
+                    if (node == null) {
+                        markReferences(moduleStatement, initializer.name(), nodes);
+                    } else {
+                        collectReferences(moduleStatement, initializer.name(), nodes, node);
+                    }
+                }
+            }
+            while (!pending.isEmpty()) {
+                for (String dependency : dependencies.getOrDefault(pending.removeFirst(), Set.of())) {
+                    if (live.add(dependency)) {
+                        pending.add(dependency);
+                    }
+                }
+            }
+            return new Program(rebuild(program.statements(), moduleNodes, entryIndex));
+        }
+
+        private List<Statement> rebuild(
+                final List<Statement> statements,
+                final Map<String, Set<String>> moduleNodes,
+                final int entryIndex
+        ) {
+            final List<Statement> retained = new ArrayList<>(statements.size());
+            final Set<String> emptyInitializers = new LinkedHashSet<>();
+            for (Statement statement : statements) {
+                final Integer moduleIndex = bundledModuleInitializerIndex(statement);
+                if (moduleIndex == null) {
+                    if (isExportSymbolDeclaration(statement)
+                            && !live.contains(((VariableDeclaration) statement).name())) {
+                        removedDeclarations++;
+                        continue;
+                    }
+                    retained.add(statement);
+                    continue;
+                }
+                final FunctionDeclaration initializer = ((FunctionDeclarationStatement) statement).declaration();
+                final Set<String> nodes = moduleNodes.get(initializer.name());
+                final List<Statement> body = new ArrayList<>(initializer.body().size());
+                for (Statement moduleStatement : initializer.body()) {
+                    final String node = shakeableNode(moduleStatement, initializer.name(), nodes, moduleIndex == entryIndex);
+                    if (node != null && !live.contains(node)) {
+                        if (!(moduleStatement instanceof AssignmentStatement)) {
+                            removedDeclarations++;
+                        }
+                        continue;
+                    }
+                    body.add(moduleStatement);
+                }
+                if (body.size() == initializer.body().size()) {
+                    retained.add(statement);
+                    continue;
+                }
+                if (body.isEmpty() && moduleIndex != entryIndex && !initializer.async()) {
+                    emptyInitializers.add(initializer.name());
+                }
+                retained.add(new FunctionDeclarationStatement(new FunctionDeclaration(
+                        initializer.name(),
+                        initializer.parameters(),
+                        List.copyOf(body),
+                        initializer.async(),
+                        initializer.generator()
+                )));
+            }
+            if (emptyInitializers.isEmpty()) {
+                return List.copyOf(retained);
+            }
+            final Map<String, Integer> initializerReferences = new LinkedHashMap<>();
+            for (Statement statement : retained) {
+                if (directInitializerCall(statement) != null) {
+                    continue;
+                }
+                ProgramOptimizer.forEachExpression(statement, expression -> {
+                    if (expression instanceof VariableExpression variableExpression) {
+                        initializerReferences.merge(variableExpression.name(), 1, Integer::sum);
+                    }
+                });
+            }
+            emptyInitializers.removeIf(initializerReferences::containsKey);
+            removedModules += emptyInitializers.size();
+            final List<Statement> pruned = new ArrayList<>(retained.size());
+            for (Statement statement : retained) {
+                final String calledInitializer = directInitializerCall(statement);
+                if (calledInitializer != null && emptyInitializers.contains(calledInitializer)) {
+                    continue;
+                }
+                if (statement instanceof FunctionDeclarationStatement declarationStatement
+                        && emptyInitializers.contains(declarationStatement.declaration().name())) {
+                    continue;
+                }
+                pruned.add(statement);
+            }
+            return List.copyOf(pruned);
+        }
+
+        private static Set<String> collectModuleNodes(final List<Statement> body, final boolean entryModule) {
+            final Set<String> nodes = new LinkedHashSet<>();
+            for (Statement statement : body) {
+                if (statement instanceof VariableDeclaration declaration
+                        && declaration.expression() instanceof VariableExpression source
+                        && isBundledExportSymbolName(source.name())) {
+                    nodes.add(declaration.name());
+                } else if (!entryModule && statement instanceof FunctionDeclarationStatement declarationStatement) {
+                    nodes.add(declarationStatement.declaration().name());
+                } else if (!entryModule
+                        && statement instanceof VariableDeclaration declaration
+                        && declaration.expression() instanceof FunctionExpression) {
+                    nodes.add(declaration.name());
+                }
+            }
+            return nodes;
+        }
+
+        /**
+         * Returns the liveness node a module statement only exists for, or {@code null} for a root statement.
+         */
+        private static String shakeableNode(
+                final Statement statement,
+                final String initializerName,
+                final Set<String> nodes,
+                final boolean entryModule
+        ) {
+            if (statement instanceof FunctionDeclarationStatement declarationStatement
+                    && nodes.contains(declarationStatement.declaration().name())) {
+                return moduleBindingLookupKey(initializerName, declarationStatement.declaration().name());
+            }
+            if (statement instanceof VariableDeclaration declaration
+                    && nodes.contains(declaration.name())
+                    && (declaration.expression() instanceof FunctionExpression
+                    || declaration.expression() instanceof VariableExpression)) {
+                return moduleBindingLookupKey(initializerName, declaration.name());
+            }
+            if (statement instanceof AssignmentStatement assignment
+                    && assignment.target() instanceof VariableExpression target) {
+                if (!entryModule && isBundledExportSymbolName(target.name())) {
+                    return target.name();
+                }
+                if (nodes.contains(target.name())
+                        && assignment.expression() instanceof VariableExpression source
+                        && isBundledExportSymbolName(source.name())) {
+                    return moduleBindingLookupKey(initializerName, target.name());
+                }
+            }
+            return null;
+        }
+
+        private void markReferences(final Statement statement, final String initializerName, final Set<String> nodes) {
+            ProgramOptimizer.forEachExpression(statement, expression -> {
+                if (expression instanceof VariableExpression variableExpression) {
+                    final String node = resolve(variableExpression.name(), initializerName, nodes);
+                    if (node != null && live.add(node)) {
+                        pending.add(node);
+                    }
+                }
+            });
+        }
+
+        private void collectReferences(
+                final Statement statement,
+                final String initializerName,
+                final Set<String> nodes,
+                final String owner
+        ) {
+            final Set<String> ownerDependencies = dependencies.computeIfAbsent(owner, ignored -> new LinkedHashSet<>());
+            final Statement definition = statement instanceof AssignmentStatement assignment
+                    ? new ExpressionStatement(assignment.expression())
+                    : statement;
+            ProgramOptimizer.forEachExpression(definition, expression -> {
+                if (expression instanceof VariableExpression variableExpression) {
+                    final String node = resolve(variableExpression.name(), initializerName, nodes);
+                    if (node != null) {
+                        ownerDependencies.add(node);
+                    }
+                }
+            });
+        }
+
+        private static String resolve(final String name, final String initializerName, final Set<String> nodes) {
+            if (initializerName != null && nodes.contains(name)) {
+                return moduleBindingLookupKey(initializerName, name);
+            }
+            return isBundledExportSymbolName(name) ? name : null;
+        }
+
+        private static boolean isExportSymbolDeclaration(final Statement statement) {
+            return statement instanceof VariableDeclaration declaration
+                    && isBundledExportSymbolName(declaration.name())
+                    && declaration.expression() instanceof UndefinedLiteral;
+        }
+
+        private static String directInitializerCall(final Statement statement) {
+            if (statement instanceof ExpressionStatement expressionStatement
+                    && expressionStatement.expression() instanceof CallExpression callExpression
+                    && callExpression.arguments().isEmpty()
+                    && callExpression.callee() instanceof VariableExpression callee
+                    && callee.name().startsWith("__tsj_init_module_")) {
+                return callee.name();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Baseline AST optimizer: constant folding, dead-code elimination, and (TSJ-17 inlining) expansion of
+     * small non-escaping functions plus specialization of builtin array callbacks with literal functions.
+     * Constant folding is seeded by {@link SsaFunctionLowering}, which substitutes binding reads that the SSA
+     * pass pipeline proves constant before the expression folds run. The optimizer itself rewrites the AST;
+     * function bodies the IR models completely are later generated from their SSA form instead.
+     *
+     * <p>A function is inlined only when its body is a single {@code return} of a side-effect-bounded
+     * expression, every reference to it is a direct call, and each argument is a literal or a binding read
+     * that the body cannot observe changing. Free names of the inlined body must resolve to the same
+     * bindings at the call site as at the declaration, so shadowed call sites keep the call.
+     */
+    private static final class ProgramOptimizer {
+        private static final int MAX_INLINE_CALLBACK_ARITY = 3;
+        private static final Object AMBIGUOUS_SSA_READ = new Object();
+        private final JvmOptimizationOptions options;
+        private final boolean inlineIntoClassBodies;
+        private final IdentityHashMap<Statement, SourceLocation> sourceLocations;
+        private final IdentityHashMap<Statement, SourceLocation> rewrittenSourceLocations;
+        private final ArrayDeque<InlineScope> inlineScopes;
+        private final Set<InlineCandidate> activeInlines;
+        private final IdentityHashMap<VariableExpression, Object> ssaConstantReads;
+        private int suspendedInlining;
+        private int inlinedCallSites;
+        private int specializedCallSites;
+        private int removedFunctions;
+
+        private ProgramOptimizer(
+                final JvmOptimizationOptions options,
+                final Map<Statement, SourceLocation> sourceLocations,
+                final boolean inlineIntoClassBodies
+        ) {
+            this.options = options;
+            this.inlineIntoClassBodies = inlineIntoClassBodies;
+            this.sourceLocations = new IdentityHashMap<>(sourceLocations);
             this.rewrittenSourceLocations = new IdentityHashMap<>();
+            this.inlineScopes = new ArrayDeque<>();
+            this.activeInlines = Collections.newSetFromMap(new IdentityHashMap<>());
+            this.ssaConstantReads = new IdentityHashMap<>();
         }
 
         private ProgramOptimizationResult optimize(final Program program) {
-            final List<Statement> optimizedStatements = optimizeStatementList(program.statements());
+            final BundleTreeShaker treeShaker = new BundleTreeShaker();
+            final Program reachableProgram = options.deadCodeEliminationEnabled()
+                    ? treeShaker.shake(program)
+                    : program;
+            final List<Statement> optimizedStatements = optimizeStatementList(reachableProgram.statements());
             final IdentityHashMap<Statement, SourceLocation> mergedSourceLocations =
                     new IdentityHashMap<>(sourceLocations);
             mergedSourceLocations.putAll(rewrittenSourceLocations);
             return new ProgramOptimizationResult(
                     new Program(List.copyOf(optimizedStatements)),
-                    mergedSourceLocations
+                    mergedSourceLocations,
+                    new OptimizationReport(
+                            inlinedCallSites,
+                            specializedCallSites,
+                            removedFunctions,
+                            treeShaker.removedDeclarations,
+                            treeShaker.removedModules
+                    )
+            );
+        }
+
+        private List<Statement> optimizeStatementList(final List<Statement> statements) {
+            return optimizeStatementList(statements, List.of());
+        }
+
+        /**
+         * Optimizes a function body after recording, from its SSA form, which binding reads are constant.
+         */
+        private List<Statement> optimizeFunctionBody(final List<Statement> body, final List<String> parameters) {
+            if (options.constantFoldingEnabled() && suspendedInlining == 0) {
+                for (Map.Entry<VariableExpression, Object> entry
+                        : SsaFunctionLowering.analyze(parameters, body).entrySet()) {
+                    ssaConstantReads.merge(
+                            entry.getKey(),
+                            entry.getValue(),
+                            (previous, current) -> previous.equals(current) ? previous : AMBIGUOUS_SSA_READ
+                    );
+                }
+            }
+            return optimizeStatementList(body, parameters);
+        }
+
+        private List<Statement> optimizeStatementList(
+                final List<Statement> statements,
+                final List<String> parameters
+        ) {
+            final InlineScope scope = openInlineScope(statements, parameters);
+            try {
+                final List<Statement> optimized = new ArrayList<>();
+                boolean terminated = false;
+                for (Statement statement : statements) {
+                    if (terminated) {
+                        continue;
+                    }
+                    final List<Statement> rewritten = optimizeStatement(statement);
+                    for (Statement candidate : rewritten) {
+                        optimized.add(candidate);
+                        if (isTerminal(candidate)) {
+                            terminated = true;
+                        }
+                    }
+                    if (statement instanceof VariableDeclaration declaration) {
+                        final InlineCandidate pending = scope.pendingBindings().remove(declaration.name());
+                        if (pending != null) {
+                            scope.candidates().put(declaration.name(), pending);
+                        }
+                    }
+                }
+                return List.copyOf(removeInlinedDeclarations(scope, optimized));
+            } finally {
+                inlineScopes.pop();
+            }
+        }
+
+        private InlineScope openInlineScope(final List<Statement> statements, final List<String> parameters) {
+            final Set<String> declaredNames = new LinkedHashSet<>(parameters);
+            collectBlockDeclaredNames(statements, declaredNames);
+            final InlineScope scope = new InlineScope(declaredNames, new LinkedHashMap<>(), new LinkedHashMap<>());
+            inlineScopes.push(scope);
+            if (!options.inliningEnabled() || suspendedInlining > 0) {
+                return scope;
+            }
+            final Map<String, Integer> declarationCounts = new LinkedHashMap<>();
+            for (Statement statement : statements) {
+                final String declaredName = directlyDeclaredName(statement);
+                if (declaredName != null) {
+                    declarationCounts.merge(declaredName, 1, Integer::sum);
+                }
+            }
+            for (Statement statement : statements) {
+                if (statement instanceof FunctionDeclarationStatement declarationStatement) {
+                    final FunctionDeclaration declaration = declarationStatement.declaration();
+                    final InlineCandidate candidate = inlineCandidate(
+                            declaration.name(),
+                            declaration.parameters(),
+                            declaration.body(),
+                            declaration.async(),
+                            declaration.generator()
+                    );
+                    if (candidate != null
+                            && declarationCounts.get(declaration.name()) == 1
+                            && isCallOnlyBinding(declaration.name(), statements)) {
+                        scope.candidates().put(declaration.name(), candidate);
+                    }
+                } else if (statement instanceof VariableDeclaration declaration
+                        && declaration.expression() instanceof FunctionExpression functionExpression) {
+                    final InlineCandidate candidate = inlineCandidate(
+                            declaration.name(),
+                            functionExpression.parameters(),
+                            functionExpression.body(),
+                            functionExpression.async(),
+                            functionExpression.generator()
+                    );
+                    if (candidate != null
+                            && declarationCounts.get(declaration.name()) == 1
+                            && isCallOnlyBinding(declaration.name(), statements)) {
+                        // Bound lambdas become inlinable once their declaration has executed.
+                        scope.pendingBindings().put(declaration.name(), candidate);
+                    }
+                }
+            }
+            return scope;
+        }
+
+        private static String directlyDeclaredName(final Statement statement) {
+            if (statement instanceof VariableDeclaration declaration) {
+                return declaration.name();
+            }
+            if (statement instanceof FunctionDeclarationStatement declarationStatement) {
+                return declarationStatement.declaration().name();
+            }
+            if (statement instanceof ClassDeclarationStatement classDeclarationStatement) {
+                return classDeclarationStatement.declaration().name();
+            }
+            return null;
+        }
+
+        private InlineCandidate inlineCandidate(
+                final String name,
+                final List<String> parameters,
+                final List<Statement> body,
+                final boolean async,
+                final boolean generator
+        ) {
+            if (async || generator || (name != null && name.startsWith("__tsj_")) || body.size() != 1) {
+                return null;
+            }
+            if (!(body.getFirst() instanceof ReturnStatement returnStatement)
+                    || !isInlinableBodyExpression(returnStatement.expression())) {
+                return null;
+            }
+            if (new LinkedHashSet<>(parameters).size() != parameters.size()) {
+                return null;
+            }
+            final Set<String> freeNames = new LinkedHashSet<>();
+            forEachExpression(returnStatement.expression(), expression -> {
+                if (expression instanceof VariableExpression variableExpression
+                        && !parameters.contains(variableExpression.name())) {
+                    freeNames.add(variableExpression.name());
+                }
+            });
+            if (name != null && freeNames.contains(name)) {
+                return null;
+            }
+            return new InlineCandidate(
+                    List.copyOf(parameters),
+                    returnStatement.expression(),
+                    Set.copyOf(freeNames),
+                    !hasCallEffects(returnStatement.expression())
+            );
+        }
+
+        private boolean isInlinableBodyExpression(final Expression expression) {
+            if (expression instanceof NumberLiteral
+                    || expression instanceof StringLiteral
+                    || expression instanceof BooleanLiteral
+                    || expression instanceof NullLiteral
+                    || expression instanceof UndefinedLiteral) {
+                return true;
+            }
+            if (expression instanceof VariableExpression variableExpression) {
+                return !"arguments".equals(variableExpression.name())
+                        && !variableExpression.name().startsWith("__tsj_");
+            }
+            if (expression instanceof UnaryExpression unaryExpression) {
+                return !"delete".equals(unaryExpression.operator())
+                        && isInlinableBodyExpression(unaryExpression.expression());
+            }
+            if (expression instanceof BinaryExpression binaryExpression) {
+                return isInlinableBodyExpression(binaryExpression.left())
+                        && isInlinableBodyExpression(binaryExpression.right());
+            }
+            if (expression instanceof ConditionalExpression conditionalExpression) {
+                return isInlinableBodyExpression(conditionalExpression.condition())
+                        && isInlinableBodyExpression(conditionalExpression.whenTrue())
+                        && isInlinableBodyExpression(conditionalExpression.whenFalse());
+            }
+            if (expression instanceof MemberAccessExpression memberAccessExpression) {
+                return isInlinableBodyExpression(memberAccessExpression.receiver());
+            }
+            if (expression instanceof OptionalMemberAccessExpression optionalMemberAccessExpression) {
+                return isInlinableBodyExpression(optionalMemberAccessExpression.receiver());
+            }
+            if (expression instanceof CallExpression callExpression) {
+                if (callExpression.callee() instanceof VariableExpression variableExpression
+                        && variableExpression.name().startsWith("__tsj_")) {
+                    return isIndexReadHelper(variableExpression.name())
+                            && allInlinable(callExpression.arguments());
+                }
+                return isInlinableBodyExpression(callExpression.callee())
+                        && allInlinable(callExpression.arguments());
+            }
+            if (expression instanceof OptionalCallExpression optionalCallExpression) {
+                return isInlinableBodyExpression(optionalCallExpression.callee())
+                        && allInlinable(optionalCallExpression.arguments());
+            }
+            if (expression instanceof NewExpression newExpression) {
+                return isInlinableBodyExpression(newExpression.constructor())
+                        && allInlinable(newExpression.arguments());
+            }
+            if (expression instanceof ArrayLiteralExpression arrayLiteralExpression) {
+                return allInlinable(arrayLiteralExpression.elements());
+            }
+            if (expression instanceof ObjectLiteralExpression objectLiteralExpression) {
+                for (ObjectLiteralEntry entry : objectLiteralExpression.entries()) {
+                    if (!isInlinableBodyExpression(entry.value())) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            return false;
+        }
+
+        private boolean allInlinable(final List<Expression> expressions) {
+            for (Expression expression : expressions) {
+                if (!isInlinableBodyExpression(expression)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isIndexReadHelper(final String name) {
+            return "__tsj_index_read".equals(name) || "__tsj_optional_index_read".equals(name);
+        }
+
+        private boolean hasCallEffects(final Expression expression) {
+            final boolean[] effects = new boolean[1];
+            forEachExpression(expression, candidate -> {
+                if (candidate instanceof CallExpression callExpression) {
+                    if (!(callExpression.callee() instanceof VariableExpression variableExpression
+                            && isIndexReadHelper(variableExpression.name()))) {
+                        effects[0] = true;
+                    }
+                } else if (candidate instanceof OptionalCallExpression || candidate instanceof NewExpression) {
+                    effects[0] = true;
+                }
+            });
+            return effects[0];
+        }
+
+        private boolean isCallOnlyBinding(final String name, final List<Statement> statements) {
+            final int[] uses = new int[2];
+            for (Statement statement : statements) {
+                forEachExpression(statement, expression -> {
+                    if (expression instanceof VariableExpression variableExpression
+                            && name.equals(variableExpression.name())) {
+                        uses[0]++;
+                    } else if (expression instanceof CallExpression callExpression
+                            && callExpression.callee() instanceof VariableExpression variableExpression
+                            && name.equals(variableExpression.name())) {
+                        uses[1]++;
+                    }
+                });
+            }
+            return uses[0] == uses[1];
+        }
+
+        private boolean isReferenced(final String name, final List<Statement> statements) {
+            final boolean[] referenced = new boolean[1];
+            for (Statement statement : statements) {
+                forEachExpression(statement, expression -> {
+                    if (expression instanceof VariableExpression variableExpression
+                            && name.equals(variableExpression.name())) {
+                        referenced[0] = true;
+                    }
+                });
+            }
+            return referenced[0];
+        }
+
+        private List<Statement> removeInlinedDeclarations(final InlineScope scope, final List<Statement> statements) {
+            if (!options.deadCodeEliminationEnabled() || scope.inlinedNames().isEmpty()) {
+                return statements;
+            }
+            final List<Statement> retained = new ArrayList<>(statements.size());
+            for (Statement statement : statements) {
+                final String declaredName;
+                if (statement instanceof FunctionDeclarationStatement declarationStatement) {
+                    declaredName = declarationStatement.declaration().name();
+                } else if (statement instanceof VariableDeclaration declaration
+                        && declaration.expression() instanceof FunctionExpression) {
+                    declaredName = declaration.name();
+                } else {
+                    declaredName = null;
+                }
+                if (declaredName != null
+                        && scope.inlinedNames().contains(declaredName)
+                        && !isReferenced(declaredName, statements)) {
+                    removedFunctions++;
+                    continue;
+                }
+                retained.add(statement);
+            }
+            return retained;
+        }
+
+        private Expression maybeInlineCall(final CallExpression callExpression) {
+            if (!options.inliningEnabled() || suspendedInlining > 0) {
+                return null;
+            }
+            final InlineCandidate candidate;
+            InlineScope declaringScope = null;
+            if (callExpression.callee() instanceof VariableExpression variableExpression) {
+                candidate = resolveInlineCandidate(variableExpression.name());
+                if (candidate == null) {
+                    return null;
+                }
+                for (InlineScope scope : inlineScopes) {
+                    if (scope.candidates().get(variableExpression.name()) == candidate) {
+                        declaringScope = scope;
+                        break;
+                    }
+                }
+            } else if (callExpression.callee() instanceof FunctionExpression functionExpression) {
+                candidate = inlineCandidate(
+                        null,
+                        functionExpression.parameters(),
+                        functionExpression.body(),
+                        functionExpression.async(),
+                        functionExpression.generator()
+                );
+                if (candidate == null || hasThisReference(functionExpression)) {
+                    return null;
+                }
+            } else {
+                return null;
+            }
+            if (activeInlines.contains(candidate)) {
+                return null;
+            }
+            final List<Expression> arguments = callExpression.arguments();
+            for (Expression argument : arguments) {
+                if (!isInlinableArgument(argument, candidate)) {
+                    return null;
+                }
+            }
+            final Map<String, Expression> substitutions = new LinkedHashMap<>();
+            for (int index = 0; index < candidate.parameters().size(); index++) {
+                substitutions.put(
+                        candidate.parameters().get(index),
+                        index < arguments.size() ? arguments.get(index) : new UndefinedLiteral()
+                );
+            }
+            activeInlines.add(candidate);
+            final Expression inlined;
+            try {
+                inlined = optimizeExpression(substituteParameters(candidate.body(), substitutions));
+            } finally {
+                activeInlines.remove(candidate);
+            }
+            if (declaringScope != null) {
+                declaringScope.inlinedNames().add(((VariableExpression) callExpression.callee()).name());
+            }
+            inlinedCallSites++;
+            return inlined;
+        }
+
+        private InlineCandidate resolveInlineCandidate(final String name) {
+            final List<InlineScope> innerScopes = new ArrayList<>();
+            for (InlineScope scope : inlineScopes) {
+                final InlineCandidate candidate = scope.candidates().get(name);
+                if (candidate != null) {
+                    for (InlineScope innerScope : innerScopes) {
+                        for (String freeName : candidate.freeNames()) {
+                            if (innerScope.declaredNames().contains(freeName)) {
+                                return null;
+                            }
+                        }
+                    }
+                    return candidate;
+                }
+                if (scope.declaredNames().contains(name)) {
+                    return null;
+                }
+                innerScopes.add(scope);
+            }
+            return null;
+        }
+
+        private boolean hasThisReference(final FunctionExpression functionExpression) {
+            final boolean[] found = new boolean[1];
+            for (Statement statement : functionExpression.body()) {
+                forEachExpression(statement, expression -> {
+                    if (expression instanceof ThisExpression) {
+                        found[0] = true;
+                    }
+                });
+            }
+            return found[0];
+        }
+
+        private boolean isInlinableArgument(final Expression argument, final InlineCandidate candidate) {
+            if (argument instanceof NumberLiteral
+                    || argument instanceof StringLiteral
+                    || argument instanceof BooleanLiteral
+                    || argument instanceof NullLiteral
+                    || argument instanceof UndefinedLiteral
+                    || argument instanceof ThisExpression) {
+                return true;
+            }
+            // A binding read may be duplicated or delayed only when nothing in the body can reassign it.
+            return argument instanceof VariableExpression variableExpression
+                    && candidate.effectFree()
+                    && !variableExpression.name().startsWith("__tsj_");
+        }
+
+        private Expression substituteParameters(final Expression expression, final Map<String, Expression> substitutions) {
+            if (expression instanceof VariableExpression variableExpression) {
+                final Expression replacement = substitutions.get(variableExpression.name());
+                return replacement == null ? expression : replacement;
+            }
+            if (expression instanceof UnaryExpression unaryExpression) {
+                return new UnaryExpression(
+                        unaryExpression.operator(),
+                        substituteParameters(unaryExpression.expression(), substitutions)
+                );
+            }
+            if (expression instanceof BinaryExpression binaryExpression) {
+                return new BinaryExpression(
+                        substituteParameters(binaryExpression.left(), substitutions),
+                        binaryExpression.operator(),
+                        substituteParameters(binaryExpression.right(), substitutions)
+                );
+            }
+            if (expression instanceof ConditionalExpression conditionalExpression) {
+                return new ConditionalExpression(
+                        substituteParameters(conditionalExpression.condition(), substitutions),
+                        substituteParameters(conditionalExpression.whenTrue(), substitutions),
+                        substituteParameters(conditionalExpression.whenFalse(), substitutions)
+                );
+            }
+            if (expression instanceof MemberAccessExpression memberAccessExpression) {
+                return new MemberAccessExpression(
+                        substituteParameters(memberAccessExpression.receiver(), substitutions),
+                        memberAccessExpression.member()
+                );
+            }
+            if (expression instanceof OptionalMemberAccessExpression optionalMemberAccessExpression) {
+                return new OptionalMemberAccessExpression(
+                        substituteParameters(optionalMemberAccessExpression.receiver(), substitutions),
+                        optionalMemberAccessExpression.member()
+                );
+            }
+            if (expression instanceof CallExpression callExpression) {
+                return new CallExpression(
+                        substituteParameters(callExpression.callee(), substitutions),
+                        substituteParameterList(callExpression.arguments(), substitutions)
+                );
+            }
+            if (expression instanceof OptionalCallExpression optionalCallExpression) {
+                return new OptionalCallExpression(
+                        substituteParameters(optionalCallExpression.callee(), substitutions),
+                        substituteParameterList(optionalCallExpression.arguments(), substitutions)
+                );
+            }
+            if (expression instanceof NewExpression newExpression) {
+                return new NewExpression(
+                        substituteParameters(newExpression.constructor(), substitutions),
+                        substituteParameterList(newExpression.arguments(), substitutions)
+                );
+            }
+            if (expression instanceof ArrayLiteralExpression arrayLiteralExpression) {
+                return new ArrayLiteralExpression(
+                        substituteParameterList(arrayLiteralExpression.elements(), substitutions)
+                );
+            }
+            if (expression instanceof ObjectLiteralExpression objectLiteralExpression) {
+                final List<ObjectLiteralEntry> entries = new ArrayList<>();
+                for (ObjectLiteralEntry entry : objectLiteralExpression.entries()) {
+                    entries.add(new ObjectLiteralEntry(entry.key(), substituteParameters(entry.value(), substitutions)));
+                }
+                return new ObjectLiteralExpression(List.copyOf(entries));
+            }
+            return expression;
+        }
+
+        private List<Expression> substituteParameterList(
+                final List<Expression> expressions,
+                final Map<String, Expression> substitutions
+        ) {
+            final List<Expression> substituted = new ArrayList<>(expressions.size());
+            for (Expression expression : expressions) {
+                substituted.add(substituteParameters(expression, substitutions));
+            }
+            return List.copyOf(substituted);
+        }
+
+        /**
+         * Rewrites {@code receiver.map(literalFn)} style calls to the array-callback helper, which runs the
+         * builtin loop directly and invokes the callback with only the arguments it declares.
+         */
+        private Expression maybeSpecializeArrayCallback(final CallExpression callExpression) {
+            if (!options.inliningEnabled()
+                    || suspendedInlining > 0
+                    || !(callExpression.callee() instanceof MemberAccessExpression memberAccessExpression)
+                    || !SPECIALIZED_ARRAY_CALLBACK_METHODS.contains(memberAccessExpression.member())
+                    || callExpression.arguments().size() != 1
+                    || !(callExpression.arguments().getFirst() instanceof FunctionExpression callback)
+                    || callback.async()
+                    || callback.generator()
+                    || callback.parameters().size() > MAX_INLINE_CALLBACK_ARITY
+                    || usesArgumentsObject(callback)) {
+                return null;
+            }
+            specializedCallSites++;
+            return new CallExpression(
+                    new VariableExpression(ARRAY_CALLBACK_HELPER),
+                    List.of(
+                            memberAccessExpression.receiver(),
+                            new StringLiteral(memberAccessExpression.member()),
+                            new NumberLiteral(Integer.toString(callback.parameters().size())),
+                            callback
+                    )
             );
         }
 
-        private List<Statement> optimizeStatementList(final List<Statement> statements) {
-            final List<Statement> optimized = new ArrayList<>();
-            boolean terminated = false;
-            for (Statement statement : statements) {
-                if (terminated) {
-                    continue;
+        private boolean usesArgumentsObject(final FunctionExpression functionExpression) {
+            final boolean[] found = new boolean[1];
+            for (Statement statement : functionExpression.body()) {
+                forEachExpression(statement, expression -> {
+                    if (expression instanceof VariableExpression variableExpression
+                            && ("arguments".equals(variableExpression.name())
+                            || "__tsj_rest_args".equals(variableExpression.name()))) {
+                        found[0] = true;
+                    }
+                });
+            }
+            return found[0];
+        }
+
+        private static void collectBlockDeclaredNames(final List<Statement> statements, final Set<String> names) {
+            for (Statement statement : statements) {
+                final String declaredName = directlyDeclaredName(statement);
+                if (declaredName != null) {
+                    names.add(declaredName);
+                }
+                if (statement instanceof IfStatement ifStatement) {
+                    collectBlockDeclaredNames(ifStatement.thenBlock(), names);
+                    collectBlockDeclaredNames(ifStatement.elseBlock(), names);
+                } else if (statement instanceof WhileStatement whileStatement) {
+                    collectBlockDeclaredNames(whileStatement.body(), names);
+                } else if (statement instanceof LabeledStatement labeledStatement) {
+                    collectBlockDeclaredNames(List.of(labeledStatement.statement()), names);
+                } else if (statement instanceof TryStatement tryStatement) {
+                    collectBlockDeclaredNames(tryStatement.tryBlock(), names);
+                    if (tryStatement.catchBinding() != null) {
+                        names.add(tryStatement.catchBinding());
+                    }
+                    collectBlockDeclaredNames(tryStatement.catchBlock(), names);
+                    collectBlockDeclaredNames(tryStatement.finallyBlock(), names);
+                }
+            }
+        }
+
+        private static void forEachExpression(final Statement statement, final Consumer<Expression> visitor) {
+            if (statement instanceof VariableDeclaration declaration) {
+                forEachExpression(declaration.expression(), visitor);
+            } else if (statement instanceof AssignmentStatement assignment) {
+                forEachExpression(assignment.target(), visitor);
+                forEachExpression(assignment.expression(), visitor);
+            } else if (statement instanceof FunctionDeclarationStatement declarationStatement) {
+                forEachStatementExpression(declarationStatement.declaration().body(), visitor);
+            } else if (statement instanceof ClassDeclarationStatement classDeclarationStatement) {
+                final ClassDeclaration declaration = classDeclarationStatement.declaration();
+                if (declaration.superClassName() != null) {
+                    visitor.accept(new VariableExpression(declaration.superClassName()));
+                }
+                if (declaration.constructorMethod() != null) {
+                    forEachStatementExpression(declaration.constructorMethod().body(), visitor);
+                }
+                for (ClassMethod method : declaration.methods()) {
+                    forEachStatementExpression(method.body(), visitor);
+                }
+                for (ClassField field : declaration.staticFields()) {
+                    forEachExpression(field.initializer(), visitor);
+                }
+                for (ClassMethod method : declaration.staticMethods()) {
+                    forEachStatementExpression(method.body(), visitor);
+                }
+            } else if (statement instanceof LabeledStatement labeledStatement) {
+                forEachExpression(labeledStatement.statement(), visitor);
+            } else if (statement instanceof IfStatement ifStatement) {
+                forEachExpression(ifStatement.condition(), visitor);
+                forEachStatementExpression(ifStatement.thenBlock(), visitor);
+                forEachStatementExpression(ifStatement.elseBlock(), visitor);
+            } else if (statement instanceof WhileStatement whileStatement) {
+                forEachExpression(whileStatement.condition(), visitor);
+                forEachStatementExpression(whileStatement.body(), visitor);
+            } else if (statement instanceof TryStatement tryStatement) {
+                forEachStatementExpression(tryStatement.tryBlock(), visitor);
+                forEachStatementExpression(tryStatement.catchBlock(), visitor);
+                forEachStatementExpression(tryStatement.finallyBlock(), visitor);
+            } else if (statement instanceof SuperCallStatement superCallStatement) {
+                for (Expression argument : superCallStatement.arguments()) {
+                    forEachExpression(argument, visitor);
+                }
+            } else if (statement instanceof ReturnStatement returnStatement) {
+                forEachExpression(returnStatement.expression(), visitor);
+            } else if (statement instanceof ThrowStatement throwStatement) {
+                forEachExpression(throwStatement.expression(), visitor);
+            } else if (statement instanceof ConsoleLogStatement logStatement) {
+                forEachExpression(logStatement.expression(), visitor);
+            } else if (statement instanceof ExpressionStatement expressionStatement) {
+                forEachExpression(expressionStatement.expression(), visitor);
+            }
+        }
+
+        private static void forEachStatementExpression(
+                final List<Statement> statements,
+                final Consumer<Expression> visitor
+        ) {
+            for (Statement statement : statements) {
+                forEachExpression(statement, visitor);
+            }
+        }
+
+        private static void forEachExpression(final Expression expression, final Consumer<Expression> visitor) {
+            if (expression == null) {
+                return;
+            }
+            visitor.accept(expression);
+            if (expression instanceof UnaryExpression unaryExpression) {
+                forEachExpression(unaryExpression.expression(), visitor);
+            } else if (expression instanceof YieldExpression yieldExpression) {
+                forEachExpression(yieldExpression.expression(), visitor);
+            } else if (expression instanceof AwaitExpression awaitExpression) {
+                forEachExpression(awaitExpression.expression(), visitor);
+            } else if (expression instanceof FunctionExpression functionExpression) {
+                forEachStatementExpression(functionExpression.body(), visitor);
+            } else if (expression instanceof BinaryExpression binaryExpression) {
+                forEachExpression(binaryExpression.left(), visitor);
+                forEachExpression(binaryExpression.right(), visitor);
+            } else if (expression instanceof AssignmentExpression assignmentExpression) {
+                forEachExpression(assignmentExpression.target(), visitor);
+                forEachExpression(assignmentExpression.expression(), visitor);
+            } else if (expression instanceof ConditionalExpression conditionalExpression) {
+                forEachExpression(conditionalExpression.condition(), visitor);
+                forEachExpression(conditionalExpression.whenTrue(), visitor);
+                forEachExpression(conditionalExpression.whenFalse(), visitor);
+            } else if (expression instanceof CallExpression callExpression) {
+                forEachExpression(callExpression.callee(), visitor);
+                for (Expression argument : callExpression.arguments()) {
+                    forEachExpression(argument, visitor);
                 }
-                final List<Statement> rewritten = optimizeStatement(statement);
-                for (Statement candidate : rewritten) {
-                    optimized.add(candidate);
-                    if (isTerminal(candidate)) {
-                        terminated = true;
-                    }
+            } else if (expression instanceof OptionalCallExpression optionalCallExpression) {
+                forEachExpression(optionalCallExpression.callee(), visitor);
+                for (Expression argument : optionalCallExpression.arguments()) {
+                    forEachExpression(argument, visitor);
+                }
+            } else if (expression instanceof MemberAccessExpression memberAccessExpression) {
+                forEachExpression(memberAccessExpression.receiver(), visitor);
+            } else if (expression instanceof OptionalMemberAccessExpression optionalMemberAccessExpression) {
+                forEachExpression(optionalMemberAccessExpression.receiver(), visitor);
+            } else if (expression instanceof NewExpression newExpression) {
+                forEachExpression(newExpression.constructor(), visitor);
+                for (Expression argument : newExpression.arguments()) {
+                    forEachExpression(argument, visitor);
+                }
+            } else if (expression instanceof ArrayLiteralExpression arrayLiteralExpression) {
+                for (Expression element : arrayLiteralExpression.elements()) {
+                    forEachExpression(element, visitor);
+                }
+            } else if (expression instanceof ObjectLiteralExpression objectLiteralExpression) {
+                for (ObjectLiteralEntry entry : objectLiteralExpression.entries()) {
+                    forEachExpression(entry.value(), visitor);
                 }
             }
-            return List.copyOf(optimized);
         }
 
         private List<Statement> optimizeStatement(final Statement statement) {
@@ -8031,7 +10196,7 @@ public final class JvmBytecodeCompiler {
             }
             if (statement instanceof AssignmentStatement assignment) {
                 final AssignmentStatement rewritten = new AssignmentStatement(
-                        optimizeExpression(assignment.target()),
+                        optimizeAssignmentTarget(assignment.target()),
                         optimizeExpression(assignment.expression())
                 );
                 copySourceLocation(statement, rewritten);
@@ -8042,7 +10207,7 @@ public final class JvmBytecodeCompiler {
                 final FunctionDeclaration rewrittenDeclaration = new FunctionDeclaration(
                         declaration.name(),
                         declaration.parameters(),
-                        optimizeStatementList(declaration.body()),
+                        optimizeFunctionBody(declaration.body(), declaration.parameters()),
                         declaration.async(),
                         declaration.generator()
                 );
@@ -8051,54 +10216,16 @@ public final class JvmBytecodeCompiler {
                 return List.of(rewritten);
             }
             if (statement instanceof ClassDeclarationStatement classDeclarationStatement) {
-                final ClassDeclaration declaration = classDeclarationStatement.declaration();
-                ClassMethod constructorMethod = null;
-                if (declaration.constructorMethod() != null) {
-                    final ClassMethod constructor = declaration.constructorMethod();
-                    constructorMethod = new ClassMethod(
-                            constructor.name(),
-                            constructor.parameters(),
-                            optimizeStatementList(constructor.body()),
-                            constructor.async()
-                    );
-                }
-                final List<ClassMethod> methods = new ArrayList<>();
-                for (ClassMethod method : declaration.methods()) {
-                    methods.add(new ClassMethod(
-                            method.name(),
-                            method.parameters(),
-                            optimizeStatementList(method.body()),
-                            method.async()
-                    ));
-                }
-                final List<ClassField> staticFields = new ArrayList<>();
-                for (ClassField field : declaration.staticFields()) {
-                    staticFields.add(new ClassField(
-                            field.name(),
-                            optimizeExpression(field.initializer())
-                    ));
+                if (inlineIntoClassBodies) {
+                    return List.of(optimizeClassDeclaration(statement, classDeclarationStatement));
                 }
-                final List<ClassMethod> staticMethods = new ArrayList<>();
-                for (ClassMethod method : declaration.staticMethods()) {
-                    staticMethods.add(new ClassMethod(
-                            method.name(),
-                            method.parameters(),
-                            optimizeStatementList(method.body()),
-                            method.async()
-                    ));
+                // Strict-native class lowering validates the parsed class bodies, so keep their call shapes.
+                suspendedInlining++;
+                try {
+                    return List.of(optimizeClassDeclaration(statement, classDeclarationStatement));
+                } finally {
+                    suspendedInlining--;
                 }
-                final ClassDeclaration rewrittenDeclaration = new ClassDeclaration(
-                        declaration.name(),
-                        declaration.superClassName(),
-                        declaration.fieldNames(),
-                        constructorMethod,
-                        List.copyOf(methods),
-                        List.copyOf(staticFields),
-                        List.copyOf(staticMethods)
-                );
-                final ClassDeclarationStatement rewritten = new ClassDeclarationStatement(rewrittenDeclaration);
-                copySourceLocation(statement, rewritten);
-                return List.of(rewritten);
             }
             if (statement instanceof IfStatement ifStatement) {
                 final Expression rewrittenCondition = optimizeExpression(ifStatement.condition());
@@ -8181,6 +10308,60 @@ public final class JvmBytecodeCompiler {
             return List.of(statement);
         }
 
+        private ClassDeclarationStatement optimizeClassDeclaration(
+                final Statement statement,
+                final ClassDeclarationStatement classDeclarationStatement
+        ) {
+            final ClassDeclaration declaration = classDeclarationStatement.declaration();
+            ClassMethod constructorMethod = null;
+            if (declaration.constructorMethod() != null) {
+                final ClassMethod constructor = declaration.constructorMethod();
+                constructorMethod = new ClassMethod(
+                        constructor.name(),
+                        constructor.parameters(),
+                        optimizeFunctionBody(constructor.body(), constructor.parameters()),
+                        constructor.async()
+                );
+            }
+            final List<ClassMethod> methods = new ArrayList<>();
+            for (ClassMethod method : declaration.methods()) {
+                methods.add(new ClassMethod(
+                        method.name(),
+                        method.parameters(),
+                        optimizeFunctionBody(method.body(), method.parameters()),
+                        method.async()
+                ));
+            }
+            final List<ClassField> staticFields = new ArrayList<>();
+            for (ClassField field : declaration.staticFields()) {
+                staticFields.add(new ClassField(
+                        field.name(),
+                        optimizeExpression(field.initializer())
+                ));
+            }
+            final List<ClassMethod> staticMethods = new ArrayList<>();
+            for (ClassMethod method : declaration.staticMethods()) {
+                staticMethods.add(new ClassMethod(
+                        method.name(),
+                        method.parameters(),
+                        optimizeFunctionBody(method.body(), method.parameters()),
+                        method.async()
+                ));
+            }
+            final ClassDeclaration rewrittenDeclaration = new ClassDeclaration(
+                    declaration.name(),
+                    declaration.superClassName(),
+                    declaration.fieldNames(),
+                    constructorMethod,
+                    List.copyOf(methods),
+                    List.copyOf(staticFields),
+                    List.copyOf(staticMethods)
+            );
+            final ClassDeclarationStatement rewritten = new ClassDeclarationStatement(rewrittenDeclaration);
+            copySourceLocation(statement, rewritten);
+            return rewritten;
+        }
+
         private boolean isPureLiteralExpression(final Expression expression) {
             if (expression instanceof NumberLiteral
                     || expression instanceof StringLiteral
@@ -8203,7 +10384,14 @@ public final class JvmBytecodeCompiler {
             return statement instanceof ReturnStatement || statement instanceof ThrowStatement;
         }
 
+        private Expression optimizeAssignmentTarget(final Expression target) {
+            return target instanceof VariableExpression ? target : optimizeExpression(target);
+        }
+
         private Expression optimizeExpression(final Expression expression) {
+            if (expression instanceof VariableExpression variableExpression) {
+                return ssaConstantLiteral(variableExpression);
+            }
             if (expression instanceof UnaryExpression unaryExpression) {
                 final Expression operand = optimizeExpression(unaryExpression.expression());
                 final UnaryExpression rewritten = new UnaryExpression(unaryExpression.operator(), operand);
@@ -8218,7 +10406,7 @@ public final class JvmBytecodeCompiler {
             if (expression instanceof FunctionExpression functionExpression) {
                 return new FunctionExpression(
                         functionExpression.parameters(),
-                        optimizeStatementList(functionExpression.body()),
+                        optimizeFunctionBody(functionExpression.body(), functionExpression.parameters()),
                         functionExpression.async(),
                         functionExpression.generator(),
                         functionExpression.thisMode()
@@ -8231,7 +10419,7 @@ public final class JvmBytecodeCompiler {
                 return maybeFoldExpression(rewritten);
             }
             if (expression instanceof AssignmentExpression assignmentExpression) {
-                final Expression target = optimizeExpression(assignmentExpression.target());
+                final Expression target = optimizeAssignmentTarget(assignmentExpression.target());
                 final Expression value = optimizeExpression(assignmentExpression.expression());
                 return new AssignmentExpression(target, assignmentExpression.operator(), value);
             }
@@ -8241,7 +10429,13 @@ public final class JvmBytecodeCompiler {
                 for (Expression argument : callExpression.arguments()) {
                     arguments.add(optimizeExpression(argument));
                 }
-                return new CallExpression(callee, List.copyOf(arguments));
+                final CallExpression rewritten = new CallExpression(callee, List.copyOf(arguments));
+                final Expression inlined = maybeInlineCall(rewritten);
+                if (inlined != null) {
+                    return inlined;
+                }
+                final Expression specialized = maybeSpecializeArrayCallback(rewritten);
+                return specialized == null ? rewritten : specialized;
             }
             if (expression instanceof OptionalCallExpression optionalCallExpression) {
                 final Expression callee = optimizeExpression(optionalCallExpression.callee());
@@ -8288,6 +10482,25 @@ public final class JvmBytecodeCompiler {
             return expression;
         }
 
+        private Expression ssaConstantLiteral(final VariableExpression expression) {
+            final Object constant = ssaConstantReads.get(expression);
+            final ConstantValue constantValue;
+            if (constant instanceof Double number) {
+                if (Double.doubleToRawLongBits(number) == Double.doubleToRawLongBits(-0.0d)) {
+                    return expression;
+                }
+                constantValue = ConstantValue.number(number);
+            } else if (constant instanceof String string) {
+                constantValue = ConstantValue.string(string);
+            } else if (constant instanceof Boolean bool) {
+                constantValue = ConstantValue.bool(bool);
+            } else {
+                return expression;
+            }
+            final Expression literal = expressionFromConstant(constantValue);
+            return literal == null ? expression : literal;
+        }
+
         private Expression maybeFoldExpression(final Expression expression) {
             if (!options.constantFoldingEnabled()) {
                 return expression;
@@ -8591,6 +10804,29 @@ public final class JvmBytecodeCompiler {
             }
         }
 
+        private record InlineCandidate(
+                List<String> parameters,
+                Expression body,
+                Set<String> freeNames,
+                boolean effectFree
+        ) {
+        }
+
+        private record InlineScope(
+                Set<String> declaredNames,
+                Map<String, InlineCandidate> candidates,
+                Map<String, InlineCandidate> pendingBindings,
+                Set<String> inlinedNames
+        ) {
+            private InlineScope(
+                    final Set<String> declaredNames,
+                    final Map<String, InlineCandidate> candidates,
+                    final Map<String, InlineCandidate> pendingBindings
+            ) {
+                this(declaredNames, candidates, pendingBindings, new LinkedHashSet<>());
+            }
+        }
+
         private enum ConstantTruthiness {
             ALWAYS_TRUE,
             ALWAYS_FALSE,
@@ -8605,47 +10841,747 @@ public final class JvmBytecodeCompiler {
             UNDEFINED
         }
 
-        private record ConstantValue(ConstantKind kind, Double numberValue, String stringValue, Boolean booleanValue) {
-            private static ConstantValue number(final double value) {
-                return new ConstantValue(ConstantKind.NUMBER, value, null, null);
+        private record ConstantValue(ConstantKind kind, Double numberValue, String stringValue, Boolean booleanValue) {
+            private static ConstantValue number(final double value) {
+                return new ConstantValue(ConstantKind.NUMBER, value, null, null);
+            }
+
+            private static ConstantValue string(final String value) {
+                return new ConstantValue(ConstantKind.STRING, null, value, null);
+            }
+
+            private static ConstantValue bool(final boolean value) {
+                return new ConstantValue(ConstantKind.BOOLEAN, null, null, value);
+            }
+
+            private static ConstantValue nullValue() {
+                return new ConstantValue(ConstantKind.NULL, null, null, null);
+            }
+
+            private static ConstantValue undefinedValue() {
+                return new ConstantValue(ConstantKind.UNDEFINED, null, null, null);
+            }
+        }
+    }
+
+    /**
+     * Lowers one function body into the SSA IR, either to report which binding reads hold a known constant
+     * or, for bodies the IR models completely, to hand the optimized SSA function to code generation.
+     *
+     * <p>Only bindings declared once in the body (or as parameters) and never referenced from nested
+     * functions or classes are tracked, so every write to them is visible in the body itself. Bodies with
+     * {@code try} statements or {@code arguments} references are skipped, because the IR does not model
+     * exceptional edges or parameter aliasing.
+     *
+     * <p>The constant analysis tracks top-level bindings only and lowers everything else to opaque values;
+     * writes inside conditionally evaluated subexpressions are treated as unknown values. Exact lowering, used
+     * by {@link #lower}, gives up instead: calls, property access, {@code this}, untracked or out-of-scope
+     * names, {@code ??} and logical assignments make the body fall back to AST emission, {@code &&},
+     * {@code ||} and {@code ?:} become branches that join in a phi, and edges out of unreachable code are
+     * dropped so they do not widen phi types.
+     */
+    private static final class SsaFunctionLowering {
+        private static final Set<String> SSA_UNARY_OPERATORS = Set.of("!", "-", "+", "~", "typeof");
+        private static final Set<String> EXACT_OPAQUE_LABELS = Set.of("undefined", "null", "undef");
+        private final SsaBuilder builder;
+        private final Set<String> tracked;
+        private final boolean exact;
+        private final IdentityHashMap<VariableExpression, SsaValue> reads;
+        private final Set<VariableExpression> ambiguousReads;
+        private final ArrayDeque<SsaJumpTarget> jumpTargets;
+        private final ArrayDeque<Set<String>> scopes;
+        private final Set<SsaBlock> liveBlocks;
+        private int conditionalDepth;
+        private int joinCounter;
+        private boolean unsupported;
+
+        private SsaFunctionLowering(final String name, final Set<String> tracked, final boolean exact) {
+            this.builder = new SsaBuilder(name);
+            this.tracked = tracked;
+            this.exact = exact;
+            this.reads = new IdentityHashMap<>();
+            this.ambiguousReads = Collections.newSetFromMap(new IdentityHashMap<>());
+            this.jumpTargets = new ArrayDeque<>();
+            this.scopes = new ArrayDeque<>();
+            this.liveBlocks = Collections.newSetFromMap(new IdentityHashMap<>());
+            this.scopes.push(new LinkedHashSet<>());
+            this.liveBlocks.add(builder.currentBlock());
+        }
+
+        /**
+         * Lowers a function body exactly and runs the standard pass pipeline over it, or returns {@code null}
+         * when the body uses something the IR does not model.
+         */
+        private static SsaFunction lower(
+                final String name,
+                final List<String> parameters,
+                final List<Statement> body
+        ) {
+            final Set<String> tracked = trackedBindings(parameters, body, true);
+            if (tracked == null || !tracked.containsAll(parameters)) {
+                return null;
+            }
+            final SsaFunctionLowering lowering = new SsaFunctionLowering(name, tracked, true);
+            for (String parameter : parameters) {
+                lowering.builder.parameter(parameter);
+                lowering.scopes.peek().add(parameter);
+            }
+            lowering.lowerStatements(body);
+            if (lowering.unsupported) {
+                return null;
+            }
+            lowering.builder.ret(null);
+            final SsaFunction function = lowering.builder.finish();
+            SsaPassManager.standard().run(function);
+            for (SsaBlock block : reachableBlocks(function)) {
+                if (!block.isTerminated() || block.terminator() == SsaTerminator.THROW) {
+                    return null;
+                }
+                for (SsaValue value : block.phis()) {
+                    if (value.type() == SsaType.NONE) {
+                        return null;
+                    }
+                }
+                for (SsaValue value : block.instructions()) {
+                    if (value.type() == SsaType.NONE
+                            || (value.opcode() == SsaOpcode.OPAQUE && !isExactOpaque(value.operator()))) {
+                        return null;
+                    }
+                }
+            }
+            return function;
+        }
+
+        /**
+         * Blocks reachable from the entry, in block order.
+         */
+        private static List<SsaBlock> reachableBlocks(final SsaFunction function) {
+            final Set<SsaBlock> reached = Collections.newSetFromMap(new IdentityHashMap<>());
+            final ArrayDeque<SsaBlock> worklist = new ArrayDeque<>();
+            worklist.add(function.entry());
+            while (!worklist.isEmpty()) {
+                final SsaBlock block = worklist.removeFirst();
+                if (reached.add(block)) {
+                    worklist.addAll(block.successors());
+                }
+            }
+            final List<SsaBlock> blocks = new ArrayList<>();
+            for (SsaBlock block : function.blocks()) {
+                if (reached.contains(block)) {
+                    blocks.add(block);
+                }
+            }
+            return blocks;
+        }
+
+        private static boolean isExactOpaque(final String label) {
+            return EXACT_OPAQUE_LABELS.contains(label) || label.startsWith("undef ");
+        }
+
+        private static Map<VariableExpression, Object> analyze(
+                final List<String> parameters,
+                final List<Statement> body
+        ) {
+            final Set<String> tracked = trackedBindings(parameters, body, false);
+            if (tracked == null || tracked.isEmpty()) {
+                return Map.of();
+            }
+            final SsaFunctionLowering analysis = new SsaFunctionLowering("function", tracked, false);
+            for (String parameter : parameters) {
+                analysis.builder.parameter(parameter);
+            }
+            analysis.lowerStatements(body);
+            if (analysis.unsupported) {
+                return Map.of();
+            }
+            analysis.builder.ret(null);
+            SsaPassManager.standard().run(analysis.builder.finish());
+            final IdentityHashMap<VariableExpression, Object> constants = new IdentityHashMap<>();
+            for (Map.Entry<VariableExpression, SsaValue> entry : analysis.reads.entrySet()) {
+                final SsaValue value = entry.getValue().resolved();
+                if (value.isConstant() && !analysis.ambiguousReads.contains(entry.getKey())) {
+                    constants.put(entry.getKey(), value.constant());
+                }
+            }
+            return constants;
+        }
+
+        /**
+         * Returns the bindings to track, or {@code null} when the body cannot be lowered. The analysis tracks
+         * top-level declarations; exact lowering tracks declarations at any depth and checks scoping on use.
+         */
+        private static Set<String> trackedBindings(
+                final List<String> parameters,
+                final List<Statement> body,
+                final boolean exact
+        ) {
+            final Map<String, Integer> declarationCounts = new LinkedHashMap<>();
+            for (String parameter : parameters) {
+                declarationCounts.merge(parameter, 1, Integer::sum);
+            }
+            final Set<String> captured = new LinkedHashSet<>();
+            final boolean[] unsupported = new boolean[1];
+            countDeclarations(body, declarationCounts, captured, unsupported);
+            if (unsupported[0] || captured.contains("arguments")) {
+                return null;
+            }
+            final Set<String> candidates = new LinkedHashSet<>(parameters);
+            if (exact) {
+                candidates.addAll(declarationCounts.keySet());
+            } else {
+                for (Statement statement : body) {
+                    if (statement instanceof VariableDeclaration declaration) {
+                        candidates.add(declaration.name());
+                    }
+                }
+            }
+            final Set<String> tracked = new LinkedHashSet<>();
+            for (String candidate : candidates) {
+                if (declarationCounts.getOrDefault(candidate, 0) == 1
+                        && !captured.contains(candidate)
+                        && !candidate.startsWith("__tsj_")) {
+                    tracked.add(candidate);
+                }
+            }
+            return tracked;
+        }
+
+        private static void countDeclarations(
+                final List<Statement> statements,
+                final Map<String, Integer> declarationCounts,
+                final Set<String> captured,
+                final boolean[] unsupported
+        ) {
+            for (Statement statement : statements) {
+                final String declaredName = ProgramOptimizer.directlyDeclaredName(statement);
+                if (declaredName != null) {
+                    declarationCounts.merge(declaredName, 1, Integer::sum);
+                }
+                if (statement instanceof FunctionDeclarationStatement
+                        || statement instanceof ClassDeclarationStatement) {
+                    ProgramOptimizer.forEachExpression(statement, expression -> collectReferencedName(
+                            expression,
+                            captured
+                    ));
+                    continue;
+                }
+                if (statement instanceof TryStatement) {
+                    unsupported[0] = true;
+                    return;
+                }
+                if (statement instanceof LabeledStatement labeledStatement) {
+                    countDeclarations(List.of(labeledStatement.statement()), declarationCounts, captured, unsupported);
+                } else if (statement instanceof IfStatement ifStatement) {
+                    ProgramOptimizer.forEachExpression(ifStatement.condition(), captureVisitor(captured));
+                    countDeclarations(ifStatement.thenBlock(), declarationCounts, captured, unsupported);
+                    countDeclarations(ifStatement.elseBlock(), declarationCounts, captured, unsupported);
+                } else if (statement instanceof WhileStatement whileStatement) {
+                    ProgramOptimizer.forEachExpression(whileStatement.condition(), captureVisitor(captured));
+                    countDeclarations(whileStatement.body(), declarationCounts, captured, unsupported);
+                } else {
+                    ProgramOptimizer.forEachExpression(statement, captureVisitor(captured));
+                }
+            }
+        }
+
+        private static Consumer<Expression> captureVisitor(final Set<String> captured) {
+            return expression -> {
+                if (expression instanceof FunctionExpression functionExpression) {
+                    ProgramOptimizer.forEachStatementExpression(
+                            functionExpression.body(),
+                            nested -> collectReferencedName(nested, captured)
+                    );
+                } else if (expression instanceof VariableExpression variableExpression
+                        && "arguments".equals(variableExpression.name())) {
+                    captured.add("arguments");
+                }
+            };
+        }
+
+        private static void collectReferencedName(final Expression expression, final Set<String> captured) {
+            if (expression instanceof VariableExpression variableExpression) {
+                captured.add(variableExpression.name());
+            }
+        }
+
+        private void lowerStatements(final List<Statement> statements) {
+            for (Statement statement : statements) {
+                if (unsupported) {
+                    return;
+                }
+                lowerStatement(statement);
+            }
+        }
+
+        private void lowerStatement(final Statement statement) {
+            if (exact && (statement instanceof FunctionDeclarationStatement
+                    || statement instanceof ClassDeclarationStatement
+                    || statement instanceof SuperCallStatement
+                    || statement instanceof ThrowStatement
+                    || statement instanceof ConsoleLogStatement
+                    || statement instanceof TryStatement)) {
+                unsupported = true;
+                return;
+            }
+            if (statement instanceof VariableDeclaration declaration) {
+                final SsaValue value = declaration.expression() == null
+                        ? unknown("undefined")
+                        : lowerExpression(declaration.expression());
+                scopes.peek().add(declaration.name());
+                write(declaration.name(), value);
+            } else if (statement instanceof AssignmentStatement assignment) {
+                lowerAssignment(assignment.target(), "=", assignment.expression());
+            } else if (statement instanceof LabeledStatement labeledStatement) {
+                if (labeledStatement.statement() instanceof WhileStatement whileStatement) {
+                    lowerWhile(labeledStatement.label(), whileStatement);
+                } else {
+                    final SsaBlock exit = builder.newBlock();
+                    jumpTargets.push(new SsaJumpTarget(labeledStatement.label(), exit, null));
+                    lowerStatement(labeledStatement.statement());
+                    jumpTargets.pop();
+                    jump(exit);
+                    builder.seal(exit);
+                    builder.currentBlock(exit);
+                }
+            } else if (statement instanceof IfStatement ifStatement) {
+                final SsaValue condition = lowerExpression(ifStatement.condition());
+                final SsaBlock thenBlock = builder.newBlock();
+                final SsaBlock elseBlock = builder.newBlock();
+                final SsaBlock join = builder.newBlock();
+                branch(condition, thenBlock, elseBlock);
+                builder.seal(thenBlock);
+                builder.seal(elseBlock);
+                builder.currentBlock(thenBlock);
+                lowerBlock(ifStatement.thenBlock());
+                jump(join);
+                builder.currentBlock(elseBlock);
+                lowerBlock(ifStatement.elseBlock());
+                jump(join);
+                builder.seal(join);
+                builder.currentBlock(join);
+            } else if (statement instanceof WhileStatement whileStatement) {
+                lowerWhile(null, whileStatement);
+            } else if (statement instanceof BreakStatement breakStatement) {
+                final SsaJumpTarget target = jumpTarget(breakStatement.label(), false);
+                if (target != null) {
+                    jump(target.breakBlock());
+                    builder.startUnreachableBlock();
+                }
+            } else if (statement instanceof ContinueStatement continueStatement) {
+                final SsaJumpTarget target = jumpTarget(continueStatement.label(), true);
+                if (target != null) {
+                    jump(target.continueBlock());
+                    builder.startUnreachableBlock();
+                }
+            } else if (statement instanceof SuperCallStatement superCallStatement) {
+                lowerOpaque("super", SsaType.ANY, superCallStatement.arguments());
+            } else if (statement instanceof ReturnStatement returnStatement) {
+                builder.ret(returnStatement.expression() == null
+                        ? null
+                        : lowerExpression(returnStatement.expression()));
+                builder.startUnreachableBlock();
+            } else if (statement instanceof ThrowStatement throwStatement) {
+                builder.raise(lowerExpression(throwStatement.expression()));
+                builder.startUnreachableBlock();
+            } else if (statement instanceof ConsoleLogStatement logStatement) {
+                lowerExpression(logStatement.expression());
+            } else if (statement instanceof ExpressionStatement expressionStatement) {
+                lowerExpression(expressionStatement.expression());
+            } else if (statement instanceof TryStatement) {
+                unsupported = true;
+            }
+        }
+
+        /**
+         * Lowers a nested block; names it declares go out of scope at its end.
+         */
+        private void lowerBlock(final List<Statement> statements) {
+            scopes.push(new LinkedHashSet<>());
+            lowerStatements(statements);
+            scopes.pop();
+        }
+
+        private void lowerWhile(final String label, final WhileStatement whileStatement) {
+            final SsaBlock header = builder.newBlock();
+            jump(header);
+            builder.currentBlock(header);
+            final SsaValue condition = lowerExpression(whileStatement.condition());
+            final SsaBlock body = builder.newBlock();
+            final SsaBlock exit = builder.newBlock();
+            branch(condition, body, exit);
+            builder.seal(body);
+            builder.currentBlock(body);
+            jumpTargets.push(new SsaJumpTarget(label, exit, header));
+            lowerBlock(whileStatement.body());
+            jumpTargets.pop();
+            jump(header);
+            builder.seal(header);
+            builder.seal(exit);
+            builder.currentBlock(exit);
+        }
+
+        /**
+         * Adds an edge from the current block; exact lowering drops edges out of unreachable code.
+         */
+        private void jump(final SsaBlock target) {
+            if (!exact || liveBlocks.contains(builder.currentBlock())) {
+                builder.jump(target);
+                liveBlocks.add(target);
+            }
+        }
+
+        private void branch(final SsaValue condition, final SsaBlock whenTrue, final SsaBlock whenFalse) {
+            if (!exact || liveBlocks.contains(builder.currentBlock())) {
+                builder.branch(condition, whenTrue, whenFalse);
+                liveBlocks.add(whenTrue);
+                liveBlocks.add(whenFalse);
+            }
+        }
+
+        private SsaJumpTarget jumpTarget(final String label, final boolean continueTarget) {
+            for (SsaJumpTarget target : jumpTargets) {
+                if (label == null ? target.continueBlock() != null : label.equals(target.label())) {
+                    if (continueTarget && target.continueBlock() == null) {
+                        break;
+                    }
+                    return target;
+                }
+            }
+            unsupported = true;
+            return null;
+        }
+
+        private SsaValue lowerExpression(final Expression expression) {
+            if (unsupported) {
+                return unknown("unsupported");
+            }
+            if (expression instanceof NumberLiteral numberLiteral) {
+                try {
+                    return builder.constant(Double.parseDouble(numberLiteral.value()));
+                } catch (final NumberFormatException ignored) {
+                    return unknown("number");
+                }
+            }
+            if (expression instanceof StringLiteral stringLiteral) {
+                return builder.constant(stringLiteral.value());
+            }
+            if (expression instanceof BooleanLiteral booleanLiteral) {
+                return builder.constant(booleanLiteral.value());
+            }
+            if (expression instanceof VariableExpression variableExpression) {
+                return read(variableExpression);
+            }
+            if (expression instanceof UnaryExpression unaryExpression) {
+                if ("delete".equals(unaryExpression.operator())) {
+                    final SsaValue operand = nonBindingOperand(unaryExpression.expression());
+                    return builder.opaque("delete", SsaType.BOOLEAN, List.of(operand));
+                }
+                final SsaValue operand = lowerExpression(unaryExpression.expression());
+                return SSA_UNARY_OPERATORS.contains(unaryExpression.operator())
+                        ? builder.unary(unaryExpression.operator(), operand)
+                        : builder.opaque(unaryExpression.operator(), SsaType.ANY, List.of(operand));
+            }
+            if (expression instanceof YieldExpression yieldExpression) {
+                return lowerOpaque("yield", SsaType.ANY, nullableOperand(yieldExpression.expression()));
+            }
+            if (expression instanceof AwaitExpression awaitExpression) {
+                return lowerOpaque("await", SsaType.ANY, List.of(awaitExpression.expression()));
+            }
+            if (exact && expression instanceof BinaryExpression binaryExpression
+                    && ("&&".equals(binaryExpression.operator()) || "||".equals(binaryExpression.operator()))) {
+                final SsaValue left = lowerExpression(binaryExpression.left());
+                return lowerJoin(left, "&&".equals(binaryExpression.operator()), binaryExpression.right(), null);
+            }
+            if (exact && expression instanceof ConditionalExpression conditionalExpression) {
+                final SsaValue condition = lowerExpression(conditionalExpression.condition());
+                return lowerJoin(
+                        condition,
+                        true,
+                        conditionalExpression.whenTrue(),
+                        conditionalExpression.whenFalse()
+                );
+            }
+            if (expression instanceof BinaryExpression binaryExpression) {
+                if (exact && "??".equals(binaryExpression.operator())) {
+                    unsupported = true;
+                }
+                final SsaValue left = lowerExpression(binaryExpression.left());
+                final boolean shortCircuit = switch (binaryExpression.operator()) {
+                    case "&&", "||", "??" -> true;
+                    default -> false;
+                };
+                if (shortCircuit) {
+                    conditionalDepth++;
+                }
+                final SsaValue right = lowerExpression(binaryExpression.right());
+                if (shortCircuit) {
+                    conditionalDepth--;
+                }
+                return builder.binary(binaryExpression.operator(), left, right);
+            }
+            if (expression instanceof AssignmentExpression assignmentExpression) {
+                return lowerAssignment(
+                        assignmentExpression.target(),
+                        assignmentExpression.operator(),
+                        assignmentExpression.expression()
+                );
+            }
+            if (expression instanceof ConditionalExpression conditionalExpression) {
+                final SsaValue condition = lowerExpression(conditionalExpression.condition());
+                conditionalDepth++;
+                final SsaValue whenTrue = lowerExpression(conditionalExpression.whenTrue());
+                final SsaValue whenFalse = lowerExpression(conditionalExpression.whenFalse());
+                conditionalDepth--;
+                return builder.opaque("?:", SsaType.ANY, List.of(condition, whenTrue, whenFalse));
+            }
+            if (expression instanceof CallExpression callExpression) {
+                final List<SsaValue> operands = new ArrayList<>();
+                operands.add(nonBindingOperand(callExpression.callee()));
+                for (Expression argument : callExpression.arguments()) {
+                    operands.add(lowerExpression(argument));
+                }
+                return builder.opaque("call", SsaType.ANY, operands);
+            }
+            if (expression instanceof OptionalCallExpression optionalCallExpression) {
+                final List<SsaValue> operands = new ArrayList<>();
+                operands.add(nonBindingOperand(optionalCallExpression.callee()));
+                conditionalDepth++;
+                for (Expression argument : optionalCallExpression.arguments()) {
+                    operands.add(lowerExpression(argument));
+                }
+                conditionalDepth--;
+                return builder.opaque("call?.", SsaType.ANY, operands);
+            }
+            if (expression instanceof MemberAccessExpression memberAccessExpression) {
+                return lowerOpaque("get " + memberAccessExpression.member(), SsaType.ANY, List.of(
+                        memberAccessExpression.receiver()
+                ));
+            }
+            if (expression instanceof OptionalMemberAccessExpression optionalMemberAccessExpression) {
+                return lowerOpaque("get?. " + optionalMemberAccessExpression.member(), SsaType.ANY, List.of(
+                        optionalMemberAccessExpression.receiver()
+                ));
+            }
+            if (expression instanceof NewExpression newExpression) {
+                final List<SsaValue> operands = new ArrayList<>();
+                operands.add(nonBindingOperand(newExpression.constructor()));
+                for (Expression argument : newExpression.arguments()) {
+                    operands.add(lowerExpression(argument));
+                }
+                return builder.opaque("new", SsaType.OBJECT, operands);
+            }
+            if (expression instanceof ArrayLiteralExpression arrayLiteralExpression) {
+                return lowerOpaque("array", SsaType.OBJECT, arrayLiteralExpression.elements());
+            }
+            if (expression instanceof ObjectLiteralExpression objectLiteralExpression) {
+                final List<Expression> values = new ArrayList<>();
+                for (ObjectLiteralEntry entry : objectLiteralExpression.entries()) {
+                    values.add(entry.value());
+                }
+                return lowerOpaque("object", SsaType.OBJECT, values);
+            }
+            if (expression instanceof FunctionExpression || expression instanceof ThisExpression) {
+                return unknown(expression instanceof ThisExpression ? "this" : "function");
+            }
+            return unknown(expression instanceof NullLiteral ? "null" : "undefined");
+        }
+
+        private SsaValue lowerAssignment(final Expression target, final String operator, final Expression value) {
+            if (!(target instanceof VariableExpression variableExpression)) {
+                final SsaValue targetValue = target instanceof MemberAccessExpression memberAccessExpression
+                        ? lowerExpression(memberAccessExpression.receiver())
+                        : lowerExpression(target);
+                final SsaValue assigned = lowerExpression(value);
+                return builder.opaque("store " + operator, SsaType.ANY, List.of(targetValue, assigned));
+            }
+            final String name = variableExpression.name();
+            final SsaValue result;
+            if ("=".equals(operator)) {
+                result = lowerExpression(value);
+            } else if ("&&=".equals(operator) || "||=".equals(operator) || "??=".equals(operator)) {
+                unsupported |= exact;
+                conditionalDepth++;
+                lowerExpression(value);
+                conditionalDepth--;
+                result = unknown("logical assignment");
+            } else {
+                final SsaValue current = tracked.contains(name) && inScope(name)
+                        ? builder.readVariable(name)
+                        : unknown(name);
+                final SsaValue right = lowerExpression(value);
+                result = builder.binary(operator.substring(0, operator.length() - 1), current, right);
+            }
+            write(name, result);
+            return result;
+        }
+
+        /**
+         * Branches on {@code condition} and joins both outcomes in a phi. Without {@code whenFalse} this is
+         * {@code &&} (when {@code evaluateWhenTrue}) or {@code ||}, whose skipped side yields the condition
+         * itself; otherwise it is {@code condition ? evaluated : whenFalse}.
+         */
+        private SsaValue lowerJoin(
+                final SsaValue condition,
+                final boolean evaluateWhenTrue,
+                final Expression evaluated,
+                final Expression whenFalse
+        ) {
+            final String temporary = "%join" + joinCounter++;
+            final SsaBlock evaluatedBlock = builder.newBlock();
+            final SsaBlock otherBlock = builder.newBlock();
+            final SsaBlock join = builder.newBlock();
+            if (evaluateWhenTrue) {
+                branch(condition, evaluatedBlock, otherBlock);
+            } else {
+                branch(condition, otherBlock, evaluatedBlock);
+            }
+            builder.seal(evaluatedBlock);
+            builder.seal(otherBlock);
+            builder.currentBlock(evaluatedBlock);
+            builder.writeVariable(temporary, lowerExpression(evaluated));
+            jump(join);
+            builder.currentBlock(otherBlock);
+            builder.writeVariable(temporary, whenFalse == null ? condition : lowerExpression(whenFalse));
+            jump(join);
+            builder.seal(join);
+            builder.currentBlock(join);
+            return builder.readVariable(temporary);
+        }
+
+        private SsaValue lowerOpaque(final String label, final SsaType type, final List<Expression> operands) {
+            final List<SsaValue> values = new ArrayList<>(operands.size());
+            for (Expression operand : operands) {
+                values.add(lowerExpression(operand));
             }
+            return builder.opaque(label, type, values);
+        }
 
-            private static ConstantValue string(final String value) {
-                return new ConstantValue(ConstantKind.STRING, null, value, null);
+        private static List<Expression> nullableOperand(final Expression expression) {
+            return expression == null ? List.of() : List.of(expression);
+        }
+
+        /**
+         * Lowers a callee, constructor or delete operand; a bare binding there is a reference, not a value read.
+         */
+        private SsaValue nonBindingOperand(final Expression expression) {
+            if (expression instanceof VariableExpression variableExpression) {
+                return unknown(variableExpression.name());
             }
+            return lowerExpression(expression);
+        }
 
-            private static ConstantValue bool(final boolean value) {
-                return new ConstantValue(ConstantKind.BOOLEAN, null, null, value);
+        private SsaValue read(final VariableExpression expression) {
+            if (!tracked.contains(expression.name()) || !inScope(expression.name())) {
+                unsupported |= exact;
+                return unknown(expression.name());
             }
+            final SsaValue value = builder.readVariable(expression.name());
+            final SsaValue previous = reads.put(expression, value);
+            if (previous != null && previous.resolved() != value.resolved()) {
+                ambiguousReads.add(expression);
+            }
+            return value;
+        }
 
-            private static ConstantValue nullValue() {
-                return new ConstantValue(ConstantKind.NULL, null, null, null);
+        private void write(final String name, final SsaValue value) {
+            if (tracked.contains(name) && inScope(name)) {
+                builder.writeVariable(name, conditionalDepth > 0 ? unknown(name) : value);
+            } else {
+                unsupported |= exact;
             }
+        }
 
-            private static ConstantValue undefinedValue() {
-                return new ConstantValue(ConstantKind.UNDEFINED, null, null, null);
+        /**
+         * Exact lowering only tracks a name between its declaration and the end of the declaring block.
+         */
+        private boolean inScope(final String name) {
+            if (!exact) {
+                return true;
             }
+            for (Set<String> scope : scopes) {
+                if (scope.contains(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private SsaValue unknown(final String label) {
+            return builder.opaque(label, SsaType.ANY, List.of());
+        }
+
+        private record SsaJumpTarget(String label, SsaBlock breakBlock, SsaBlock continueBlock) {
         }
     }
 
+    /**
+     * Initializer expression of each builtin cell field, in declaration order.
+     */
+    private static Map<String, String> builtinCellInitializers() {
+        final Map<String, String> initializers = new LinkedHashMap<>();
+        initializers.put(PROMISE_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.promiseBuiltin()");
+        initializers.put(ERROR_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.errorBuiltin()");
+        initializers.put(STRING_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.stringBuiltin()");
+        initializers.put(JSON_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.jsonBuiltin()");
+        initializers.put(OBJECT_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.objectBuiltin()");
+        initializers.put(REFLECT_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.reflectBuiltin()");
+        initializers.put(PROXY_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.proxyBuiltin()");
+        initializers.put(ARRAY_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.arrayBuiltin()");
+        initializers.put(MAP_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.mapBuiltin()");
+        initializers.put(SET_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.setBuiltin()");
+        initializers.put(WEAK_MAP_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.weakMapBuiltin()");
+        initializers.put(WEAK_SET_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.weakSetBuiltin()");
+        initializers.put(WEAK_REF_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.weakRefBuiltin()");
+        initializers.put(DATE_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.dateBuiltin()");
+        initializers.put(REGEXP_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.regexpBuiltin()");
+        initializers.put(AGGREGATE_ERROR_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.aggregateErrorBuiltin()");
+        initializers.put(TYPE_ERROR_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.typeErrorBuiltin()");
+        initializers.put(RANGE_ERROR_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.rangeErrorBuiltin()");
+        initializers.put(MATH_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.mathBuiltin()");
+        initializers.put(NUMBER_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.numberBuiltin()");
+        initializers.put(BIGINT_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.bigIntBuiltin()");
+        initializers.put(SYMBOL_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.symbolBuiltin()");
+        initializers.put(PARSE_INT_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.parseIntBuiltin()");
+        initializers.put(PARSE_FLOAT_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.parseFloatBuiltin()");
+        initializers.put(INFINITY_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.infinity()");
+        initializers.put(NAN_BUILTIN_CELL_FIELD, "dev.tsj.runtime.TsjRuntime.nanValue()");
+        initializers.put(UNDEFINED_BUILTIN_CELL_FIELD, "null");
+        return Collections.unmodifiableMap(initializers);
+    }
+
     private static final class JavaSourceGenerator {
         private final String packageName;
         private final String classSimpleName;
         private final Program program;
         private final IdentityHashMap<Statement, SourceLocation> statementLocations;
         private final List<StrictNativeClassModel> strictNativeClassModels;
-        private final List<String> propertyCacheFieldDeclarations;
+        private Map<String, StrictNativeDispatchTable> strictNativeDispatchTables;
+        private final List<GeneratedModuleClassSource> moduleClassSources;
+        private final Set<String> referencedBuiltinCells;
+        private final boolean loopOptimizationEnabled;
+        private final boolean ssaLoweringEnabled;
+        private final TypeFeedbackPlan typeFeedbackPlan;
+        private List<String> propertyCacheFieldDeclarations;
+        private Map<List<String>, HoistedRead> hoistedPropertyReads;
         private Map<String, String> topLevelBindingCells;
         private Set<String> topLevelBindingNames;
         private int propertyCacheCounter;
         private int strictNativeLambdaCounter;
+        private int feedbackSiteCounter;
+        private int instrumentedSites;
+        private int numericAddSites;
+        private int reorderedBranchSites;
+        private int devirtualizedCallSites;
 
         private JavaSourceGenerator(
                 final String packageName,
                 final String classSimpleName,
                 final Program program,
                 final Map<Statement, SourceLocation> statementLocations,
-                final StrictNativeClassLoweringPlan strictLoweringPlan
+                final StrictNativeClassLoweringPlan strictLoweringPlan,
+                final boolean loopOptimizationEnabled,
+                final boolean ssaLoweringEnabled,
+                final TypeFeedbackPlan typeFeedbackPlan
         ) {
             this.packageName = packageName;
             this.classSimpleName = classSimpleName;
@@ -8654,11 +11590,36 @@ public final class JvmBytecodeCompiler {
             this.strictNativeClassModels = createStrictNativeClassModels(
                     Objects.requireNonNull(strictLoweringPlan, "strictLoweringPlan").nativeClasses()
             );
+            this.loopOptimizationEnabled = loopOptimizationEnabled;
+            this.ssaLoweringEnabled = ssaLoweringEnabled;
+            this.typeFeedbackPlan = Objects.requireNonNull(typeFeedbackPlan, "typeFeedbackPlan");
             this.propertyCacheFieldDeclarations = new ArrayList<>();
+            this.hoistedPropertyReads = Map.of();
+            this.strictNativeDispatchTables = Map.of();
+            this.moduleClassSources = new ArrayList<>();
+            this.referencedBuiltinCells = new LinkedHashSet<>();
             this.topLevelBindingCells = Map.of();
             this.topLevelBindingNames = Set.of();
             this.propertyCacheCounter = 0;
             this.strictNativeLambdaCounter = 0;
+            this.feedbackSiteCounter = 0;
+        }
+
+        private ProfileReport profileReport() {
+            if (!typeFeedbackPlan.active()) {
+                return ProfileReport.none();
+            }
+            final String status = typeFeedbackPlan.instrumented()
+                    ? "instrumented"
+                    : typeFeedbackPlan.sites() == null ? "stale" : "applied";
+            return new ProfileReport(
+                    status,
+                    typeFeedbackPlan.unit(),
+                    instrumentedSites,
+                    numericAddSites,
+                    reorderedBranchSites,
+                    devirtualizedCallSites
+            );
         }
 
         private String generate() {
@@ -8672,133 +11633,92 @@ public final class JvmBytecodeCompiler {
             this.topLevelBindingCells = Map.copyOf(new LinkedHashMap<>(mainContext.bindings));
             this.topLevelBindingNames = Set.copyOf(topLevelBindingCells.keySet());
             bootstrapBody.append("        dev.tsj.runtime.TsjRuntime.flushMicrotasks();\n");
-            bootstrapBody.append("        ").append(BOOTSTRAP_GUARD_FIELD).append(" = true;\n");
 
             final StringBuilder builder = new StringBuilder();
             builder.append("package ").append(packageName).append(";\n\n");
             builder.append("public final class ").append(classSimpleName).append(" {\n");
             builder.append("    private ").append(classSimpleName).append("() {\n");
             builder.append("    }\n\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell PROMISE_BUILTIN_CELL = ")
-                    .append("new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.promiseBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(ERROR_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.errorBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(STRING_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.stringBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(JSON_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.jsonBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(OBJECT_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.objectBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(REFLECT_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.reflectBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(PROXY_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.proxyBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(ARRAY_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.arrayBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(MAP_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.mapBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(SET_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.setBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(WEAK_MAP_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.weakMapBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(WEAK_SET_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.weakSetBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(WEAK_REF_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.weakRefBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(DATE_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.dateBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(REGEXP_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.regexpBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(AGGREGATE_ERROR_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.aggregateErrorBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(TYPE_ERROR_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.typeErrorBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(RANGE_ERROR_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.rangeErrorBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(MATH_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.mathBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(NUMBER_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.numberBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(BIGINT_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.bigIntBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(SYMBOL_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.symbolBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(PARSE_INT_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.parseIntBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(PARSE_FLOAT_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.parseFloatBuiltin());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(INFINITY_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.infinity());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(NAN_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(dev.tsj.runtime.TsjRuntime.nanValue());\n");
-            builder.append("    private static final dev.tsj.runtime.TsjCell ")
-                    .append(UNDEFINED_BUILTIN_CELL_FIELD)
-                    .append(" = new dev.tsj.runtime.TsjCell(null);\n");
-            builder.append("    private static final Object ")
+            // Builtin cells are declared only for builtins the program references, so loading the program
+            // class does not initialize the runtime holders of builtins it never uses.
+            for (Map.Entry<String, String> builtinCell : BUILTIN_CELL_INITIALIZERS.entrySet()) {
+                if (referencedBuiltinCells.contains(builtinCell.getKey())) {
+                    builder.append("    static final dev.tsj.runtime.TsjCell ")
+                            .append(builtinCell.getKey())
+                            .append(" = new dev.tsj.runtime.TsjCell(")
+                            .append(builtinCell.getValue())
+                            .append(");\n");
+                }
+            }
+            builder.append("    static final Object ")
                     .append(ASYNC_BREAK_SIGNAL_FIELD)
                     .append(" = new Object();\n");
-            builder.append("    private static final Object ")
+            builder.append("    static final Object ")
                     .append(ASYNC_CONTINUE_SIGNAL_FIELD)
                     .append(" = new Object();\n");
-            builder.append("    private static final java.util.Map<String, Object> ")
-                    .append(TOP_LEVEL_CLASS_MAP_FIELD)
-                    .append(" = new java.util.LinkedHashMap<>();\n");
             builder.append("    public static interface __TsjStrictNativeInstance {\n");
             builder.append("        Object __tsjInvoke(String methodName, Object... args);\n");
             builder.append("        void __tsjSetField(String fieldName, Object value);\n");
             builder.append("    }\n");
-            builder.append("    private static Object __tsjStrictArg(final Object[] args, final int index) {\n");
+            builder.append("    static <T> T __tsjStrictReceiver(final T receiver, final String methodName) {\n");
+            builder.append("        if (receiver == null) {\n");
+            builder.append("            throw dev.tsj.runtime.TsjRuntime.typeError(")
+                    .append("\"Cannot invoke member `\" + methodName + \"` on null\");\n");
+            builder.append("        }\n");
+            builder.append("        return receiver;\n");
+            builder.append("    }\n");
+            builder.append("    static Object __tsjStrictArg(final Object[] args, final int index) {\n");
             builder.append("        return args != null && index < args.length\n");
             builder.append("                ? args[index]\n");
             builder.append("                : dev.tsj.runtime.TsjRuntime.undefined();\n");
             builder.append("    }\n");
-            builder.append("    private interface __TsjStrictNativeFactory {\n");
+            builder.append("    interface __TsjStrictNativeFactory {\n");
             builder.append("        __TsjStrictNativeInstance create(Object[] constructorArgs);\n");
             builder.append("    }\n");
-            builder.append("    private static final java.util.Map<String, __TsjStrictNativeFactory> ")
+            // Top-level bindings live in the realm rather than in statics, so one loaded class can run in
+            // several realms without one realm's initialization overwriting another's bindings.
+            builder.append("    static final class ").append(REALM_STATE_CLASS).append(" {\n");
+            builder.append("        final java.util.Map<String, Object> ")
+                    .append(TOP_LEVEL_CLASS_MAP_FIELD)
+                    .append(" = new java.util.LinkedHashMap<>();\n");
+            builder.append("        final java.util.Map<String, __TsjStrictNativeFactory> ")
                     .append("__TSJ_STRICT_FACTORIES")
                     .append(" = new java.util.LinkedHashMap<>();\n");
-            builder.append("    private static final java.util.Map<String, dev.tsj.runtime.TsjCell> ")
+            builder.append("        final java.util.Map<String, dev.tsj.runtime.TsjCell> ")
                     .append("__TSJ_TOP_LEVEL_BINDINGS")
                     .append(" = new java.util.LinkedHashMap<>();\n");
-            builder.append("    private static boolean ")
-                    .append(BOOTSTRAP_GUARD_FIELD)
-                    .append(" = false;\n");
-            builder.append("    private static boolean ")
-                    .append(BOOTSTRAP_IN_PROGRESS_FIELD)
-                    .append(" = false;\n");
+            builder.append("        volatile boolean bootstrapped;\n");
+            builder.append("    }\n");
+            builder.append("    static ").append(REALM_STATE_CLASS).append(" ").append(REALM_STATE_ACCESSOR).append(" {\n");
+            builder.append("        return dev.tsj.runtime.TsjRealm.current().programState(")
+                    .append(classSimpleName)
+                    .append(".class, ")
+                    .append(REALM_STATE_CLASS)
+                    .append("::new);\n");
+            builder.append("    }\n");
+            builder.append("    static final String ")
+                    .append(PROGRAM_MODULE_ID_FIELD)
+                    .append(" = \"")
+                    .append(escapeJava(packageName + "." + classSimpleName))
+                    .append("\";\n");
             builder.append("    static void __tsjEnsureBootstrapped() {\n");
-            builder.append("        if (!").append(BOOTSTRAP_GUARD_FIELD).append(") {\n");
+            builder.append("        if (!").append(REALM_STATE_ACCESSOR).append(".bootstrapped) {\n");
             builder.append("            __tsjBootstrap();\n");
             builder.append("        }\n");
             builder.append("    }\n");
+            if (typeFeedbackPlan.instrumented()) {
+                builder.append("    static final dev.tsj.runtime.TsjTypeFeedback.Unit ")
+                        .append(TYPE_FEEDBACK_UNIT_FIELD)
+                        .append(" = dev.tsj.runtime.TsjTypeFeedback.unit(\"")
+                        .append(escapeJava(typeFeedbackPlan.unit()))
+                        .append("\", \"")
+                        .append(escapeJava(typeFeedbackPlan.output()))
+                        .append("\");\n");
+            }
             builder.append("    static dev.tsj.runtime.TsjCell __tsjResolveTopLevelBinding(final String bindingName) {\n");
-            builder.append("        final dev.tsj.runtime.TsjCell binding = __TSJ_TOP_LEVEL_BINDINGS.get(bindingName);\n");
+            builder.append("        final dev.tsj.runtime.TsjCell binding = ")
+                    .append(REALM_STATE_ACCESSOR)
+                    .append(".__TSJ_TOP_LEVEL_BINDINGS.get(bindingName);\n");
             builder.append("        if (binding != null) {\n");
             builder.append("            return binding;\n");
             builder.append("        }\n");
@@ -8813,28 +11733,38 @@ public final class JvmBytecodeCompiler {
             if (!propertyCacheFieldDeclarations.isEmpty()) {
                 builder.append("\n");
             }
-            builder.append("    private static synchronized void __tsjBootstrap() {\n");
-            builder.append("        if (").append(BOOTSTRAP_GUARD_FIELD).append(" || ")
-                    .append(BOOTSTRAP_IN_PROGRESS_FIELD)
-                    .append(") {\n");
-            builder.append("            return;\n");
+            // The program initializes once per realm: the realm's module registry tracks its state and
+            // rejects re-entry while it runs. Bootstrapping locks only that registry, so realms sharing
+            // one loaded class initialize independently.
+            builder.append("    private static void __tsjBootstrap() {\n");
+            builder.append("        final dev.tsj.runtime.TsjModuleRegistry registry = ")
+                    .append("dev.tsj.runtime.TsjRealm.current().moduleRegistry();\n");
+            builder.append("        final ").append(REALM_STATE_CLASS).append(" state = ")
+                    .append(REALM_STATE_ACCESSOR).append(";\n");
+            builder.append("        synchronized (registry) {\n");
+            builder.append("            if (!registry.isRegistered(").append(PROGRAM_MODULE_ID_FIELD).append(")) {\n");
+            builder.append("                registry.register(new dev.tsj.runtime.TsjModuleDescriptor(")
+                    .append(PROGRAM_MODULE_ID_FIELD)
+                    .append(", java.util.List.of(), ignored -> __tsjInitializeProgram(state)));\n");
+            builder.append("            }\n");
+            builder.append("            registry.initialize(").append(PROGRAM_MODULE_ID_FIELD).append(");\n");
+            builder.append("            if (registry.stateOf(").append(PROGRAM_MODULE_ID_FIELD)
+                    .append(") == dev.tsj.runtime.TsjModuleState.INITIALIZED) {\n");
+            builder.append("                state.bootstrapped = true;\n");
+            builder.append("            }\n");
             builder.append("        }\n");
-            builder.append("        ").append(BOOTSTRAP_IN_PROGRESS_FIELD).append(" = true;\n");
-            builder.append("        try {\n");
-            builder.append("        ").append(TOP_LEVEL_CLASS_MAP_FIELD).append(".clear();\n");
-            builder.append("        __TSJ_STRICT_FACTORIES.clear();\n");
-            builder.append("        __TSJ_TOP_LEVEL_BINDINGS.clear();\n");
+            builder.append("    }\n\n");
+            builder.append("    private static void __tsjInitializeProgram(final ")
+                    .append(REALM_STATE_CLASS)
+                    .append(" __tsjState) {\n");
             for (StrictNativeClassModel model : strictNativeClassModels) {
-                builder.append("        __TSJ_STRICT_FACTORIES.put(\"")
+                builder.append("        __tsjState.__TSJ_STRICT_FACTORIES.put(\"")
                         .append(escapeJava(model.tsClassName()))
                         .append("\", (__tsjCtorArgs) -> ")
                         .append(renderStrictNativeConstructionExpression(model, "__tsjCtorArgs"))
                         .append(");\n");
             }
             builder.append(bootstrapBody);
-            builder.append("        } finally {\n");
-            builder.append("            ").append(BOOTSTRAP_IN_PROGRESS_FIELD).append(" = false;\n");
-            builder.append("        }\n");
             builder.append("    }\n\n");
             builder.append("    public static void main(String[] args) {\n");
             builder.append("        __tsjBootstrap();\n");
@@ -8912,6 +11842,7 @@ public final class JvmBytecodeCompiler {
             if (strictNativeClassModels.isEmpty()) {
                 return List.of();
             }
+            strictNativeDispatchTables = createStrictNativeDispatchTables(metadataCarrierDeclarations);
             final Path packageDir = generatedSourceRoot.resolve(packageName.replace('.', '/'));
             Files.createDirectories(packageDir);
             final List<Path> sourceFiles = new ArrayList<>();
@@ -8931,6 +11862,161 @@ public final class JvmBytecodeCompiler {
             return List.copyOf(sourceFiles);
         }
 
+        /**
+         * Writes one source file and source map per module class, leaving files whose content is unchanged
+         * untouched, and removes the outputs of module classes that no longer exist.
+         */
+        private List<Path> writeModuleClassSources(
+                final Path generatedSourceRoot,
+                final Path classesDir
+        ) throws IOException {
+            final Path packageDir = generatedSourceRoot.resolve(packageName.replace('.', '/'));
+            final Path classesPackageDir = classesDir.resolve(packageName.replace('.', '/'));
+            Files.createDirectories(packageDir);
+            Files.createDirectories(classesPackageDir);
+            final Set<String> moduleClassNames = new LinkedHashSet<>();
+            final List<Path> sourceFiles = new ArrayList<>();
+            for (GeneratedModuleClassSource moduleClass : moduleClassSources) {
+                moduleClassNames.add(moduleClass.simpleName());
+                final Path sourceFile = packageDir.resolve(moduleClass.simpleName() + ".java");
+                writeIfChanged(sourceFile, moduleClass.source());
+                final Path sourceMapFile = classesPackageDir.resolve(moduleClass.simpleName() + ".tsj.map");
+                writeSourceMapFile(sourceMapFile, parseSourceMapEntries(moduleClass.source()));
+                sourceFiles.add(sourceFile);
+            }
+            deleteStaleModuleClassOutputs(packageDir, moduleClassNames);
+            deleteStaleModuleClassOutputs(classesPackageDir, moduleClassNames);
+            return List.copyOf(sourceFiles);
+        }
+
+        /**
+         * Deletes module class sources, class files (including nested classes), and source maps in
+         * {@code directory} whose module class is not part of the current build, even when an earlier build
+         * already removed the matching source file.
+         */
+        private void deleteStaleModuleClassOutputs(
+                final Path directory,
+                final Set<String> moduleClassNames
+        ) throws IOException {
+            final String moduleClassPrefix = classSimpleName + MODULE_CLASS_PREFIX;
+            try (Stream<Path> outputs = Files.list(directory)) {
+                for (Path output : outputs.toList()) {
+                    final String fileName = output.getFileName().toString();
+                    if (!fileName.startsWith(moduleClassPrefix)) {
+                        continue;
+                    }
+                    int nameEnd = moduleClassPrefix.length();
+                    while (nameEnd < fileName.length() && Character.isDigit(fileName.charAt(nameEnd))) {
+                        nameEnd++;
+                    }
+                    final String suffix = fileName.substring(nameEnd);
+                    if (nameEnd == moduleClassPrefix.length()
+                            || !(suffix.equals(".java")
+                            || suffix.equals(".class")
+                            || suffix.equals(".tsj.map")
+                            || suffix.startsWith("$") && suffix.endsWith(".class"))) {
+                        continue;
+                    }
+                    if (!moduleClassNames.contains(fileName.substring(0, nameEnd))) {
+                        Files.deleteIfExists(output);
+                    }
+                }
+            }
+        }
+
+        private Map<Integer, Path> moduleClassSourceFiles(final Path generatedSourceRoot) {
+            final Path packageDir = generatedSourceRoot.resolve(packageName.replace('.', '/'));
+            final String moduleClassPrefix = classSimpleName + MODULE_CLASS_PREFIX;
+            final Map<Integer, Path> sourceFiles = new LinkedHashMap<>();
+            for (GeneratedModuleClassSource moduleClass : moduleClassSources) {
+                sourceFiles.put(
+                        Integer.valueOf(moduleClass.simpleName().substring(moduleClassPrefix.length())),
+                        packageDir.resolve(moduleClass.simpleName() + ".java")
+                );
+            }
+            return sourceFiles;
+        }
+
+        private static void writeIfChanged(final Path file, final String content) throws IOException {
+            if (Files.isRegularFile(file) && Files.readString(file, UTF_8).equals(content)) {
+                return;
+            }
+            Files.writeString(file, content, UTF_8);
+        }
+
+        private record GeneratedModuleClassSource(String simpleName, String source) {
+        }
+
+        /**
+         * Collects the typed field and instance method signatures of every non-generic strict-native class so
+         * calls between strict-native components bind to the Java methods instead of runtime member dispatch.
+         */
+        private Map<String, StrictNativeDispatchTable> createStrictNativeDispatchTables(
+                final List<MetadataCarrierDeclaration> metadataCarrierDeclarations
+        ) {
+            final Map<String, StrictNativeDispatchTable> tables = new LinkedHashMap<>();
+            for (StrictNativeClassModel model : strictNativeClassModels) {
+                final MetadataCarrierDeclaration metadataDeclaration =
+                        resolveMetadataCarrierDeclaration(model, metadataCarrierDeclarations);
+                final TsDecoratedClass decoratedClass = metadataDeclaration == null
+                        ? null
+                        : metadataDeclaration.decoratedClass();
+                if (decoratedClass != null && !decoratedClass.genericParameters().isEmpty()) {
+                    continue;
+                }
+                final Map<String, String> importedJavaBindings = metadataDeclaration == null
+                        ? Map.of()
+                        : metadataDeclaration.importedDecoratorBindings();
+                final Map<String, List<TsDecoratedField>> decoratedFieldsByName = new LinkedHashMap<>();
+                if (decoratedClass != null) {
+                    for (TsDecoratedField field : decoratedClass.fields()) {
+                        decoratedFieldsByName.computeIfAbsent(field.fieldName(), ignored -> new ArrayList<>())
+                                .add(field);
+                    }
+                }
+                final Map<String, String> fieldTypes = new LinkedHashMap<>();
+                for (String fieldName : model.declaration().fieldNames()) {
+                    fieldTypes.put(fieldName, resolveStrictNativeFieldType(
+                            fieldName,
+                            decoratedFieldsByName.get(fieldName),
+                            Set.of(),
+                            importedJavaBindings
+                    ));
+                }
+                final Map<String, StrictNativeMethodSignature> methods = new LinkedHashMap<>();
+                for (ClassMethod method : model.declaration().methods()) {
+                    final String javaMethodName = model.methodNameMap().get(method.name());
+                    if (javaMethodName == null || methods.containsKey(method.name())) {
+                        continue;
+                    }
+                    final TsDecoratedMethod decoratedMethod = findDecoratedMethod(
+                            decoratedClass == null ? List.of() : decoratedClass.methods(),
+                            false,
+                            method.name(),
+                            method.parameters().size(),
+                            null
+                    );
+                    if (decoratedMethod != null && !decoratedMethod.genericParameters().isEmpty()) {
+                        continue;
+                    }
+                    methods.put(method.name(), new StrictNativeMethodSignature(
+                            javaMethodName,
+                            resolveStrictNativeParameterTypes(
+                                    method.parameters(),
+                                    decoratedMethod == null ? List.of() : decoratedMethod.parameters(),
+                                    Set.of(),
+                                    importedJavaBindings
+                            )
+                    ));
+                }
+                tables.put(model.tsClassName(), new StrictNativeDispatchTable(
+                        Map.copyOf(fieldTypes),
+                        Map.copyOf(methods)
+                ));
+            }
+            return Map.copyOf(tables);
+        }
+
         private MetadataCarrierDeclaration resolveMetadataCarrierDeclaration(
                 final StrictNativeClassModel model,
                 final List<MetadataCarrierDeclaration> metadataCarrierDeclarations
@@ -11747,6 +14833,9 @@ public final class JvmBytecodeCompiler {
                     return "super." + javaMethodName + "(" + String.join(", ", renderedArgs) + ")";
                 }
                 if (callExpression.callee() instanceof VariableExpression variableExpression) {
+                    if (REGEXP_LITERAL_HELPER.equals(variableExpression.name())) {
+                        return renderRegexpLiteralRuntimeCall(callExpression);
+                    }
                     if ("__tsj_for_of_values".equals(variableExpression.name())
                             || "__tsj_for_in_keys".equals(variableExpression.name())) {
                         if (callExpression.arguments().size() != 1) {
@@ -11894,6 +14983,16 @@ public final class JvmBytecodeCompiler {
                             + String.join(", ", renderedArgs)
                             + ")";
                 }
+                final String directFieldCall = renderStrictNativeDirectFieldCall(
+                        model,
+                        dynamicThisScope,
+                        memberAccessExpression,
+                        callExpression.arguments(),
+                        renderedArgs
+                );
+                if (directFieldCall != null) {
+                    return directFieldCall;
+                }
                 final String receiver = emitStrictNativeExpression(
                         model,
                         variableNames,
@@ -11924,6 +15023,73 @@ public final class JvmBytecodeCompiler {
             );
         }
 
+        /**
+         * Renders {@code this.field.method(...)} as a typed Java call when the field is declared with another
+         * strict-native class and the method's arity matches, or returns {@code null} to keep runtime dispatch.
+         * Operands and the result are widened through {@code Object} so the call types exactly like the
+         * {@code invokeMemberPreservingJava} form it replaces, and an unset field raises a TS {@code TypeError}.
+         */
+        private String renderStrictNativeDirectFieldCall(
+                final StrictNativeClassModel model,
+                final boolean dynamicThisScope,
+                final MemberAccessExpression callee,
+                final List<Expression> arguments,
+                final List<String> renderedArgs
+        ) {
+            if (dynamicThisScope
+                    || !(callee.receiver() instanceof MemberAccessExpression fieldAccess)
+                    || !(fieldAccess.receiver() instanceof ThisExpression)) {
+                return null;
+            }
+            final String javaField = model.fieldNameMap().get(fieldAccess.member());
+            final StrictNativeDispatchTable ownTable = strictNativeDispatchTables.get(model.tsClassName());
+            if (javaField == null || ownTable == null) {
+                return null;
+            }
+            final String fieldType = ownTable.fieldTypes().get(fieldAccess.member());
+            StrictNativeClassModel targetModel = null;
+            for (StrictNativeClassModel candidate : strictNativeClassModels) {
+                if (candidate.nativeClassSimpleName().equals(fieldType)) {
+                    targetModel = candidate;
+                    break;
+                }
+            }
+            StrictNativeMethodSignature signature = null;
+            while (targetModel != null && signature == null) {
+                final StrictNativeDispatchTable targetTable = strictNativeDispatchTables.get(targetModel.tsClassName());
+                if (targetTable == null) {
+                    return null;
+                }
+                signature = targetTable.methods().get(callee.member());
+                final String superClassName = targetModel.declaration().superClassName();
+                targetModel = superClassName == null ? null : findStrictNativeClassModel(superClassName);
+            }
+            if (signature == null || signature.parameterTypes().size() != renderedArgs.size()) {
+                return null;
+            }
+            final List<String> typedArgs = new ArrayList<>();
+            for (int index = 0; index < renderedArgs.size(); index++) {
+                final String parameterType = signature.parameterTypes().get(index);
+                typedArgs.add(arguments.get(index) instanceof UndefinedLiteral
+                        ? renderStrictNativeDefaultValue(parameterType)
+                        : renderStrictNativeCastExpression(
+                        parameterType,
+                        "((Object) (" + renderedArgs.get(index) + "))"
+                ));
+            }
+            return "((Object) "
+                    + classSimpleName
+                    + ".__tsjStrictReceiver(this."
+                    + javaField
+                    + ", \""
+                    + escapeJava(callee.member())
+                    + "\")."
+                    + signature.javaMethodName()
+                    + "("
+                    + String.join(", ", typedArgs)
+                    + "))";
+        }
+
         private StrictNativeClassModel findStrictNativeClassModel(final String tsClassName) {
             for (StrictNativeClassModel model : strictNativeClassModels) {
                 if (model.tsClassName().equals(tsClassName)) {
@@ -11978,6 +15144,15 @@ public final class JvmBytecodeCompiler {
         ) {
         }
 
+        private record StrictNativeDispatchTable(
+                Map<String, String> fieldTypes,
+                Map<String, StrictNativeMethodSignature> methods
+        ) {
+        }
+
+        private record StrictNativeMethodSignature(String javaMethodName, List<String> parameterTypes) {
+        }
+
         private void emitStatements(
                 final StringBuilder builder,
                 final EmissionContext context,
@@ -12025,30 +15200,7 @@ public final class JvmBytecodeCompiler {
                     continue;
                 }
                 if (statement instanceof IfStatement ifStatement) {
-                    builder.append(indent)
-                            .append("if (dev.tsj.runtime.TsjRuntime.truthy(")
-                            .append(emitExpression(context, ifStatement.condition()))
-                            .append(")) {\n");
-                    emitStatements(
-                            builder,
-                            new EmissionContext(context),
-                            ifStatement.thenBlock(),
-                            indent + "    ",
-                            insideFunction
-                    );
-                    builder.append(indent).append("}");
-                    if (!ifStatement.elseBlock().isEmpty()) {
-                        builder.append(" else {\n");
-                        emitStatements(
-                                builder,
-                                new EmissionContext(context),
-                                ifStatement.elseBlock(),
-                                indent + "    ",
-                                insideFunction
-                        );
-                        builder.append(indent).append("}");
-                    }
-                    builder.append("\n");
+                    emitIfStatement(builder, context, ifStatement, indent, insideFunction);
                     continue;
                 }
                 if (statement instanceof WhileStatement whileStatement) {
@@ -12157,64 +15309,397 @@ public final class JvmBytecodeCompiler {
                     ? moduleBindingLookupKey(context.resolveModuleInitializerName(), bindingName)
                     : bindingName;
             builder.append(indent)
-                    .append("__TSJ_TOP_LEVEL_BINDINGS.put(\"")
+                    .append(REALM_STATE_ACCESSOR)
+                    .append(".__TSJ_TOP_LEVEL_BINDINGS.put(\"")
                     .append(escapeJava(lookupKey))
                     .append("\", ")
                     .append(context.resolveBinding(bindingName))
                     .append(");\n");
         }
 
-        private void emitLabeledStatement(
+        private void emitLabeledStatement(
+                final StringBuilder builder,
+                final EmissionContext context,
+                final LabeledStatement labeledStatement,
+                final String indent,
+                final boolean insideFunction
+        ) {
+            final EmissionContext labelContext = new EmissionContext(context);
+            final String javaLabel = labelContext.declareLabel(labeledStatement.label());
+            final Statement body = labeledStatement.statement();
+            if (body instanceof WhileStatement whileStatement) {
+                emitWhileStatement(builder, labelContext, whileStatement, indent, insideFunction, javaLabel);
+                return;
+            }
+
+            builder.append(indent)
+                    .append(javaLabel)
+                    .append(": {\n");
+            emitStatements(
+                    builder,
+                    labelContext,
+                    List.of(body),
+                    indent + "    ",
+                    insideFunction
+            );
+            builder.append(indent).append("}\n");
+        }
+
+        private void emitWhileStatement(
+                final StringBuilder builder,
+                final EmissionContext context,
+                final WhileStatement whileStatement,
+                final String indent,
+                final boolean insideFunction,
+                final String label
+        ) {
+            final Map<List<String>, HoistedRead> enclosingHoistedReads = hoistedPropertyReads;
+            try {
+                hoistLoopInvariantReads(builder, context, whileStatement, indent);
+                builder.append(indent);
+                if (label != null) {
+                    builder.append(label).append(": ");
+                }
+                builder.append("while (")
+                        .append(emitConditionExpression(context, whileStatement.condition()))
+                        .append(") {\n");
+                emitStatements(
+                        builder,
+                        new EmissionContext(context),
+                        whileStatement.body(),
+                        indent + "    ",
+                        insideFunction
+                );
+                builder.append(indent).append("}\n");
+            } finally {
+                hoistedPropertyReads = enclosingHoistedReads;
+            }
+        }
+
+        /**
+         * Emits an {@code if} statement. Instrumented builds record the branch outcome; with a profile whose
+         * feedback says the condition is mostly false, the negated condition guards the else block so the
+         * hot branch comes first. Both blocks are emitted in source order either way, keeping feedback site
+         * ids stable.
+         */
+        private void emitIfStatement(
+                final StringBuilder builder,
+                final EmissionContext context,
+                final IfStatement ifStatement,
+                final String indent,
+                final boolean insideFunction
+        ) {
+            String condition = emitConditionExpression(context, ifStatement.condition());
+            final int site = allocateFeedbackSite(TsjTypeFeedback.SiteKind.BRANCH);
+            if (site >= 0 && typeFeedbackPlan.instrumented()) {
+                condition = feedbackSiteField(site) + ".branch(" + condition + ")";
+            }
+            final StringBuilder thenBody = new StringBuilder();
+            emitStatements(thenBody, new EmissionContext(context), ifStatement.thenBlock(), indent + "    ", insideFunction);
+            if (ifStatement.elseBlock().isEmpty()) {
+                builder.append(indent).append("if (").append(condition).append(") {\n");
+                builder.append(thenBody).append(indent).append("}\n");
+                return;
+            }
+            final StringBuilder elseBody = new StringBuilder();
+            emitStatements(elseBody, new EmissionContext(context), ifStatement.elseBlock(), indent + "    ", insideFunction);
+            final TsjTypeFeedback.SiteProfile profile = typeFeedbackPlan.site(site);
+            if (profile != null && profile.mostlyNotTaken()) {
+                reorderedBranchSites++;
+                builder.append(indent).append("if (!(").append(condition).append(")) {\n");
+                builder.append(elseBody).append(indent).append("} else {\n");
+                builder.append(thenBody).append(indent).append("}\n");
+                return;
+            }
+            builder.append(indent).append("if (").append(condition).append(") {\n");
+            builder.append(thenBody).append(indent).append("} else {\n");
+            builder.append(elseBody).append(indent).append("}\n");
+        }
+
+        /**
+         * Emits {@code expression} as a primitive Java condition. Comparisons, negation, and short-circuit
+         * operators are emitted directly instead of boxing a {@code Boolean} only for {@code truthy} to
+         * unbox it again. Boolean literals keep the {@code truthy} call so javac never sees a constant loop
+         * condition and rejects the code after it as unreachable.
+         */
+        private String emitConditionExpression(final EmissionContext context, final Expression expression) {
+            if (loopOptimizationEnabled) {
+                if (expression instanceof UnaryExpression unaryExpression && "!".equals(unaryExpression.operator())) {
+                    return "!(" + emitConditionExpression(context, unaryExpression.expression()) + ")";
+                }
+                if (expression instanceof BinaryExpression binaryExpression) {
+                    final String operator = binaryExpression.operator();
+                    if ("&&".equals(operator) || "||".equals(operator)) {
+                        return "("
+                                + emitConditionExpression(context, binaryExpression.left())
+                                + " "
+                                + operator
+                                + " "
+                                + emitConditionExpression(context, binaryExpression.right())
+                                + ")";
+                    }
+                    final String comparison = switch (operator) {
+                        case "<" -> "lessThan";
+                        case "<=" -> "lessThanOrEqual";
+                        case ">" -> "greaterThan";
+                        case ">=" -> "greaterThanOrEqual";
+                        case "==", "!=" -> "abstractEquals";
+                        case "===", "!==" -> "strictEquals";
+                        case "in" -> "inOperator";
+                        case "instanceof" -> "instanceOf";
+                        default -> null;
+                    };
+                    if (comparison != null) {
+                        final String left = emitExpression(context, binaryExpression.left());
+                        final String right = emitExpression(context, binaryExpression.right());
+                        return (operator.startsWith("!") ? "!" : "")
+                                + "dev.tsj.runtime.TsjRuntime."
+                                + comparison
+                                + "("
+                                + left
+                                + ", "
+                                + right
+                                + ")";
+                    }
+                }
+            }
+            return "dev.tsj.runtime.TsjRuntime.truthy(" + emitExpression(context, expression) + ")";
+        }
+
+        /**
+         * Hoists member-read chains rooted at {@code this} or an unassigned binding out of a loop whose
+         * condition and body cannot run user code: only literals, local reads and assignments, such chains,
+         * and operators that never call back into user code on primitives. Each chain is read once before the
+         * loop through {@code TsjRuntime.loopInvariantProperty}, which only reads own data properties, so the
+         * pre-read has no side effects even when the loop never runs. A guard computed next to the reads
+         * requires every chain value and every outer local the loop reads to be primitive; with the guard
+         * set nothing in the loop can write a property, and each in-loop read becomes the hoisted local.
+         * Otherwise the loop takes the generic reads, which the JIT can unswitch on the final guard.
+         */
+        private void hoistLoopInvariantReads(
+                final StringBuilder builder,
+                final EmissionContext context,
+                final WhileStatement whileStatement,
+                final String indent
+        ) {
+            if (!loopOptimizationEnabled) {
+                return;
+            }
+            final LoopInvariantScan scan = new LoopInvariantScan();
+            scan.value(whileStatement.condition());
+            scan.statements(whileStatement.body());
+            ProgramOptimizer.collectBlockDeclaredNames(whileStatement.body(), scan.declaredNames);
+            if (!scan.invariant || scan.reads.isEmpty()) {
+                return;
+            }
+            for (String declaredName : scan.declaredNames) {
+                if (context.resolveLocalBinding(declaredName) != null
+                        || topLevelBindingNames.contains(declaredName)) {
+                    return;
+                }
+            }
+            for (List<String> key : scan.reads.keySet()) {
+                if (scan.reboundNames.contains(key.get(0)) || scan.declaredNames.contains(key.get(0))) {
+                    return;
+                }
+            }
+            final String guard = context.allocateGeneratedName("loopInvariant");
+            final Map<List<String>, String> locals = new LinkedHashMap<>();
+            for (MemberAccessExpression read : scan.reads.values()) {
+                hoistInvariantRead(builder, context, read, locals, indent);
+            }
+            final List<String> checks = new ArrayList<>();
+            for (List<String> leafKey : scan.leafKeys) {
+                checks.add(locals.get(leafKey));
+            }
+            for (String valueName : scan.valueNames) {
+                if (!scan.declaredNames.contains(valueName)) {
+                    checks.add(emitExpression(context, new VariableExpression(valueName)));
+                }
+            }
+            builder.append(indent).append("final boolean ").append(guard).append(" = ");
+            for (int index = 0; index < checks.size(); index++) {
+                if (index > 0) {
+                    builder.append("\n").append(indent).append("        && ");
+                }
+                builder.append("dev.tsj.runtime.TsjRuntime.isLoopInvariantPrimitive(")
+                        .append(checks.get(index))
+                        .append(")");
+            }
+            builder.append(";\n");
+            final Map<List<String>, HoistedRead> hoisted = new LinkedHashMap<>(hoistedPropertyReads);
+            for (Map.Entry<List<String>, String> local : locals.entrySet()) {
+                hoisted.put(local.getKey(), new HoistedRead(guard, local.getValue()));
+            }
+            hoistedPropertyReads = hoisted;
+        }
+
+        private void hoistInvariantRead(
                 final StringBuilder builder,
                 final EmissionContext context,
-                final LabeledStatement labeledStatement,
-                final String indent,
-                final boolean insideFunction
+                final MemberAccessExpression read,
+                final Map<List<String>, String> locals,
+                final String indent
         ) {
-            final EmissionContext labelContext = new EmissionContext(context);
-            final String javaLabel = labelContext.declareLabel(labeledStatement.label());
-            final Statement body = labeledStatement.statement();
-            if (body instanceof WhileStatement whileStatement) {
-                emitWhileStatement(builder, labelContext, whileStatement, indent, insideFunction, javaLabel);
+            final List<String> key = invariantReadKey(read);
+            if (locals.containsKey(key)) {
                 return;
             }
-
+            final String receiver;
+            if (read.receiver() instanceof MemberAccessExpression receiverRead) {
+                hoistInvariantRead(builder, context, receiverRead, locals, indent);
+                receiver = locals.get(invariantReadKey(receiverRead));
+            } else {
+                receiver = emitExpression(context, read.receiver());
+            }
+            final String localName = context.allocateGeneratedName("loopRead");
             builder.append(indent)
-                    .append(javaLabel)
-                    .append(": {\n");
-            emitStatements(
-                    builder,
-                    labelContext,
-                    List.of(body),
-                    indent + "    ",
-                    insideFunction
+                    .append("final Object ")
+                    .append(localName)
+                    .append(" = dev.tsj.runtime.TsjRuntime.loopInvariantProperty(")
+                    .append(receiver)
+                    .append(", \"")
+                    .append(escapeJava(read.member()))
+                    .append("\");\n");
+            locals.put(key, localName);
+        }
+
+        /**
+         * Guard and local of a read hoisted ahead of the enclosing loop.
+         */
+        private record HoistedRead(String guard, String local) {
+        }
+
+        /**
+         * Walks a loop for {@link #hoistLoopInvariantReads}, clearing {@code invariant} at the first construct
+         * that could run user code. Member reads must be invariant chains; those used as values are leaves
+         * that the guard checks, and locals read as values are collected for the same check.
+         */
+        private static final class LoopInvariantScan {
+            private static final Set<String> UNARY_OPERATORS = Set.of("-", "+", "!", "~");
+            private static final Set<String> BINARY_OPERATORS = Set.of(
+                    "+", "-", "*", "/", "%", "**", "&", "|", "^", "<<", ">>", ">>>",
+                    "<", "<=", ">", ">=", "==", "!=", "===", "!==", "&&", "||", "??", ","
             );
-            builder.append(indent).append("}\n");
+
+            private final Map<List<String>, MemberAccessExpression> reads = new LinkedHashMap<>();
+            private final Set<List<String>> leafKeys = new LinkedHashSet<>();
+            private final Set<String> valueNames = new LinkedHashSet<>();
+            private final Set<String> reboundNames = new LinkedHashSet<>();
+            private final Set<String> declaredNames = new LinkedHashSet<>();
+            private boolean invariant = true;
+
+            private void statements(final List<Statement> statements) {
+                for (Statement statement : statements) {
+                    if (!invariant) {
+                        return;
+                    }
+                    if (statement instanceof VariableDeclaration declaration) {
+                        if (declaration.expression() != null) {
+                            value(declaration.expression());
+                        }
+                    } else if (statement instanceof AssignmentStatement assignment
+                            && assignment.target() instanceof VariableExpression targetVariable) {
+                        reboundNames.add(targetVariable.name());
+                        value(assignment.expression());
+                    } else if (statement instanceof ExpressionStatement expressionStatement) {
+                        value(expressionStatement.expression());
+                    } else if (statement instanceof IfStatement ifStatement) {
+                        value(ifStatement.condition());
+                        statements(ifStatement.thenBlock());
+                        statements(ifStatement.elseBlock());
+                    } else if (statement instanceof WhileStatement whileStatement) {
+                        value(whileStatement.condition());
+                        statements(whileStatement.body());
+                    } else if (statement instanceof LabeledStatement labeledStatement) {
+                        statements(List.of(labeledStatement.statement()));
+                    } else if (statement instanceof ReturnStatement returnStatement) {
+                        if (returnStatement.expression() != null) {
+                            value(returnStatement.expression());
+                        }
+                    } else if (!(statement instanceof BreakStatement) && !(statement instanceof ContinueStatement)) {
+                        invariant = false;
+                    }
+                }
+            }
+
+            private void value(final Expression expression) {
+                if (!invariant
+                        || expression instanceof NumberLiteral
+                        || expression instanceof StringLiteral
+                        || expression instanceof BooleanLiteral
+                        || expression instanceof NullLiteral
+                        || expression instanceof UndefinedLiteral) {
+                    return;
+                }
+                if (expression instanceof VariableExpression variableExpression) {
+                    valueNames.add(variableExpression.name());
+                } else if (expression instanceof MemberAccessExpression memberAccessExpression) {
+                    final List<String> key = chain(memberAccessExpression);
+                    if (key != null) {
+                        leafKeys.add(key);
+                    }
+                } else if (expression instanceof UnaryExpression unaryExpression
+                        && UNARY_OPERATORS.contains(unaryExpression.operator())) {
+                    value(unaryExpression.expression());
+                } else if (expression instanceof BinaryExpression binaryExpression
+                        && BINARY_OPERATORS.contains(binaryExpression.operator())) {
+                    value(binaryExpression.left());
+                    value(binaryExpression.right());
+                } else if (expression instanceof AssignmentExpression assignmentExpression
+                        && assignmentExpression.target() instanceof VariableExpression targetVariable) {
+                    reboundNames.add(targetVariable.name());
+                    if (!"=".equals(assignmentExpression.operator())) {
+                        valueNames.add(targetVariable.name());
+                    }
+                    value(assignmentExpression.expression());
+                } else if (expression instanceof ConditionalExpression conditionalExpression) {
+                    value(conditionalExpression.condition());
+                    value(conditionalExpression.whenTrue());
+                    value(conditionalExpression.whenFalse());
+                } else {
+                    invariant = false;
+                }
+            }
+
+            private List<String> chain(final MemberAccessExpression read) {
+                final List<String> key = invariantReadKey(read);
+                if (key == null) {
+                    invariant = false;
+                    return null;
+                }
+                reads.putIfAbsent(key, read);
+                if (read.receiver() instanceof MemberAccessExpression receiverRead) {
+                    chain(receiverRead);
+                }
+                return key;
+            }
         }
 
-        private void emitWhileStatement(
-                final StringBuilder builder,
-                final EmissionContext context,
-                final WhileStatement whileStatement,
-                final String indent,
-                final boolean insideFunction,
-                final String label
-        ) {
-            builder.append(indent);
-            if (label != null) {
-                builder.append(label).append(": ");
+        /**
+         * Returns the root-and-members key of a {@code this.a.b} or {@code name.a.b} read chain, or
+         * {@code null} when the chain has another shape.
+         */
+        private static List<String> invariantReadKey(final MemberAccessExpression read) {
+            final ArrayDeque<String> key = new ArrayDeque<>();
+            Expression cursor = read;
+            while (cursor instanceof MemberAccessExpression memberAccessExpression) {
+                if ("__proto__".equals(memberAccessExpression.member())) {
+                    return null;
+                }
+                key.addFirst(memberAccessExpression.member());
+                cursor = memberAccessExpression.receiver();
             }
-            builder.append("while (dev.tsj.runtime.TsjRuntime.truthy(")
-                    .append(emitExpression(context, whileStatement.condition()))
-                    .append(")) {\n");
-            emitStatements(
-                    builder,
-                    new EmissionContext(context),
-                    whileStatement.body(),
-                    indent + "    ",
-                    insideFunction
-            );
-            builder.append(indent).append("}\n");
+            if (cursor instanceof ThisExpression) {
+                key.addFirst("this");
+            } else if (cursor instanceof VariableExpression variableExpression
+                    && !"arguments".equals(variableExpression.name())
+                    && !variableExpression.name().startsWith("__tsj_")) {
+                key.addFirst(variableExpression.name());
+            } else {
+                return null;
+            }
+            return List.copyOf(key);
         }
 
         private void emitBreakStatement(
@@ -12331,6 +15816,10 @@ public final class JvmBytecodeCompiler {
             final String thisVar = context.allocateGeneratedName("lambdaThis");
             final String argsVar = context.allocateGeneratedName("lambdaArgs");
             final boolean moduleInitializerFunction = declaration.name().startsWith("__tsj_init_module_");
+            if (moduleInitializerFunction && context.isTopLevelScope()) {
+                emitModuleInitializerClass(builder, context, declaration, cellName, thisVar, argsVar, indent);
+                return;
+            }
 
             builder.append(indent)
                     .append(cellName)
@@ -12350,6 +15839,18 @@ public final class JvmBytecodeCompiler {
                             moduleInitializerFunction,
                             moduleInitializerFunction ? declaration.name() : null
                     );
+            final SsaFunction ssaBody = ssaLoweringEnabled && !moduleInitializerFunction
+                    ? SsaFunctionLowering.lower(declaration.name(), declaration.parameters(), declaration.body())
+                    : null;
+            if (ssaBody != null) {
+                if (!declaration.body().isEmpty()) {
+                    emitSourceMarker(builder, declaration.body().get(0), indent + "    ");
+                }
+                new SsaBodyEmitter(functionContext, ssaBody, declaration.parameters(), argsVar)
+                        .emit(builder, indent + "    ");
+                builder.append(indent).append("});\n");
+                return;
+            }
             emitParameterCells(builder, functionContext, declaration.parameters(), argsVar, indent + "    ");
 
             emitStatements(builder, functionContext, declaration.body(), indent + "    ", true);
@@ -12360,6 +15861,437 @@ public final class JvmBytecodeCompiler {
             builder.append(indent).append("});\n");
         }
 
+        /**
+         * Generates a function body from its SSA form. Values typed as numbers or booleans live in unboxed
+         * {@code double} and {@code boolean} locals and are boxed only where they escape; control flow is a
+         * dispatch loop over the reachable blocks, and each edge copies the incoming values into the phis of
+         * its target.
+         */
+        private final class SsaBodyEmitter {
+            private final EmissionContext context;
+            private final SsaFunction function;
+            private final List<String> parameters;
+            private final String argsVar;
+            private final IdentityHashMap<SsaValue, String> names;
+            private final String blockVar;
+
+            private SsaBodyEmitter(
+                    final EmissionContext context,
+                    final SsaFunction function,
+                    final List<String> parameters,
+                    final String argsVar
+            ) {
+                this.context = context;
+                this.function = function;
+                this.parameters = parameters;
+                this.argsVar = argsVar;
+                this.names = new IdentityHashMap<>();
+                this.blockVar = context.allocateGeneratedName("ssaBlock");
+            }
+
+            private void emit(final StringBuilder builder, final String indent) {
+                final List<SsaBlock> blocks = SsaFunctionLowering.reachableBlocks(function);
+                for (SsaBlock block : blocks) {
+                    for (SsaValue phi : block.phis()) {
+                        declare(builder, phi, indent);
+                    }
+                    for (SsaValue instruction : block.instructions()) {
+                        if (inline(instruction) == null) {
+                            declare(builder, instruction, indent);
+                        }
+                    }
+                }
+                builder.append(indent).append("int ").append(blockVar).append(" = ")
+                        .append(function.entry().id()).append(";\n");
+                builder.append(indent).append("while (true) {\n");
+                builder.append(indent).append("    switch (").append(blockVar).append(") {\n");
+                final String caseIndent = indent + "            ";
+                for (SsaBlock block : blocks) {
+                    builder.append(indent).append("        case ").append(block.id()).append(": {\n");
+                    for (SsaValue instruction : block.instructions()) {
+                        if (inline(instruction) == null && instruction.opcode() != SsaOpcode.PARAMETER) {
+                            builder.append(caseIndent).append(names.get(instruction)).append(" = ")
+                                    .append(compute(instruction)).append(";\n");
+                        }
+                    }
+                    emitTerminator(builder, block, caseIndent);
+                    builder.append(indent).append("        }\n");
+                }
+                builder.append(indent).append("        default:\n");
+                builder.append(indent).append("            throw new IllegalStateException(\"Unknown SSA block \" + ")
+                        .append(blockVar).append(");\n");
+                builder.append(indent).append("    }\n");
+                builder.append(indent).append("}\n");
+            }
+
+            private void declare(final StringBuilder builder, final SsaValue value, final String indent) {
+                final String name = context.allocateGeneratedName("ssaValue");
+                names.put(value, name);
+                builder.append(indent).append(javaType(value)).append(' ').append(name).append(" = ");
+                if (value.opcode() == SsaOpcode.PARAMETER) {
+                    final int index = parameters.indexOf(value.operator());
+                    builder.append(argsVar).append(".length > ").append(index).append(" ? ")
+                            .append(argsVar).append('[').append(index)
+                            .append("] : dev.tsj.runtime.TsjRuntime.undefined()");
+                } else if (value.type() == SsaType.NUMBER) {
+                    builder.append("0.0d");
+                } else if (value.type() == SsaType.BOOLEAN) {
+                    builder.append("false");
+                } else {
+                    builder.append("null");
+                }
+                builder.append(";\n");
+            }
+
+            private void emitTerminator(final StringBuilder builder, final SsaBlock block, final String indent) {
+                switch (block.terminator()) {
+                    case JUMP -> {
+                        emitEdge(builder, block, block.successors().get(0), indent);
+                        builder.append(indent).append("continue;\n");
+                    }
+                    case BRANCH -> {
+                        builder.append(indent).append("if (").append(truth(block.terminatorOperand()))
+                                .append(") {\n");
+                        emitEdge(builder, block, block.successors().get(0), indent + "    ");
+                        builder.append(indent).append("} else {\n");
+                        emitEdge(builder, block, block.successors().get(1), indent + "    ");
+                        builder.append(indent).append("}\n");
+                        builder.append(indent).append("continue;\n");
+                    }
+                    case RETURN -> builder.append(indent).append("return ")
+                            .append(block.terminatorOperand() == null ? "null" : boxed(block.terminatorOperand()))
+                            .append(";\n");
+                    default -> throw new IllegalStateException(
+                            "SSA block b" + block.id() + " has no code generation for " + block.terminator() + "."
+                    );
+                }
+            }
+
+            /**
+             * Copies the values flowing along {@code source -> target} into the phis of {@code target}, through
+             * temporaries when there are several, so one phi never reads another phi's new value.
+             */
+            private void emitEdge(
+                    final StringBuilder builder,
+                    final SsaBlock source,
+                    final SsaBlock target,
+                    final String indent
+            ) {
+                final List<SsaValue> phis = target.phis();
+                final int predecessor = target.predecessors().indexOf(source);
+                if (phis.size() == 1) {
+                    final SsaValue phi = phis.get(0);
+                    builder.append(indent).append(names.get(phi)).append(" = ")
+                            .append(convert(phi.operands().get(predecessor).resolved(), phi.type())).append(";\n");
+                } else if (!phis.isEmpty()) {
+                    final List<String> temporaries = new ArrayList<>();
+                    for (SsaValue phi : phis) {
+                        final String temporary = context.allocateGeneratedName("ssaCopy");
+                        temporaries.add(temporary);
+                        builder.append(indent).append("final ").append(javaType(phi)).append(' ').append(temporary)
+                                .append(" = ").append(convert(phi.operands().get(predecessor).resolved(), phi.type()))
+                                .append(";\n");
+                    }
+                    for (int index = 0; index < phis.size(); index++) {
+                        builder.append(indent).append(names.get(phis.get(index))).append(" = ")
+                                .append(temporaries.get(index)).append(";\n");
+                    }
+                }
+                builder.append(indent).append(blockVar).append(" = ").append(target.id()).append(";\n");
+            }
+
+            private String compute(final SsaValue value) {
+                final List<SsaValue> operands = value.operands();
+                if (value.opcode() == SsaOpcode.UNARY) {
+                    final SsaValue input = operands.get(0).resolved();
+                    final boolean number = value.type() == SsaType.NUMBER;
+                    return switch (value.operator()) {
+                        case "!" -> "!" + truth(input);
+                        case "-" -> number
+                                ? "(-" + convert(input, SsaType.NUMBER) + " + 0.0d)"
+                                : runtimeCall("negate", input);
+                        case "+" -> "(" + convert(input, SsaType.NUMBER) + " + 0.0d)";
+                        case "~" -> number
+                                ? "dev.tsj.runtime.TsjRuntime.toNumber(" + runtimeCall("bitwiseNot", input) + ")"
+                                : runtimeCall("bitwiseNot", input);
+                        case "typeof" -> runtimeCall("typeOf", input);
+                        default -> throw unsupported(value);
+                    };
+                }
+                if (value.opcode() != SsaOpcode.BINARY) {
+                    throw unsupported(value);
+                }
+                final SsaValue left = operands.get(0).resolved();
+                final SsaValue right = operands.get(1).resolved();
+                final boolean number = value.type() == SsaType.NUMBER;
+                final boolean numericOperands = left.type() == SsaType.NUMBER && right.type() == SsaType.NUMBER;
+                return switch (value.operator()) {
+                    case "+", "-", "*" -> number
+                            ? "(" + convert(left, SsaType.NUMBER) + " " + value.operator() + " "
+                                    + convert(right, SsaType.NUMBER) + " + 0.0d)"
+                            : runtimeCall(arithmeticHelper(value.operator()), left, right);
+                    case "/", "%" -> number
+                            ? "(" + convert(left, SsaType.NUMBER) + " " + value.operator() + " "
+                                    + convert(right, SsaType.NUMBER) + ")"
+                            : runtimeCall(arithmeticHelper(value.operator()), left, right);
+                    case "**" -> number
+                            ? "(Math.pow(" + convert(left, SsaType.NUMBER) + ", " + convert(right, SsaType.NUMBER) + ") + 0.0d)"
+                            : runtimeCall("power", left, right);
+                    case "&", "|", "^", "<<", ">>", ">>>" -> number
+                            ? "dev.tsj.runtime.TsjRuntime.toNumber("
+                                    + runtimeCall(arithmeticHelper(value.operator()), left, right) + ")"
+                            : runtimeCall(arithmeticHelper(value.operator()), left, right);
+                    case "<", "<=", ">", ">=" -> numericOperands
+                            ? "(" + operand(left) + " " + value.operator() + " " + operand(right) + ")"
+                            : runtimeCall(comparisonHelper(value.operator()), left, right);
+                    case "===", "==" -> numericOperands
+                            ? "(" + operand(left) + " == " + operand(right) + ")"
+                            : runtimeCall("===".equals(value.operator()) ? "strictEquals" : "abstractEquals", left, right);
+                    case "!==", "!=" -> numericOperands
+                            ? "(" + operand(left) + " != " + operand(right) + ")"
+                            : "!" + runtimeCall(
+                                    "!==".equals(value.operator()) ? "strictEquals" : "abstractEquals",
+                                    left,
+                                    right
+                            );
+                    case "in" -> runtimeCall("inOperator", left, right);
+                    case "instanceof" -> runtimeCall("instanceOf", left, right);
+                    case "," -> convert(right, value.type());
+                    default -> throw unsupported(value);
+                };
+            }
+
+            private static String arithmeticHelper(final String operator) {
+                return switch (operator) {
+                    case "+" -> "add";
+                    case "-" -> "subtract";
+                    case "*" -> "multiply";
+                    case "/" -> "divide";
+                    case "%" -> "modulo";
+                    case "&" -> "bitwiseAnd";
+                    case "|" -> "bitwiseOr";
+                    case "^" -> "bitwiseXor";
+                    case "<<" -> "shiftLeft";
+                    case ">>" -> "shiftRight";
+                    default -> "shiftRightUnsigned";
+                };
+            }
+
+            private static String comparisonHelper(final String operator) {
+                return switch (operator) {
+                    case "<" -> "lessThan";
+                    case "<=" -> "lessThanOrEqual";
+                    case ">" -> "greaterThan";
+                    default -> "greaterThanOrEqual";
+                };
+            }
+
+            private String runtimeCall(final String helper, final SsaValue... operands) {
+                final StringBuilder call = new StringBuilder("dev.tsj.runtime.TsjRuntime.").append(helper).append('(');
+                for (int index = 0; index < operands.length; index++) {
+                    if (index > 0) {
+                        call.append(", ");
+                    }
+                    call.append(boxed(operands[index]));
+                }
+                return call.append(')').toString();
+            }
+
+            /**
+             * Renders {@code value} in the representation of a local typed {@code type}.
+             */
+            private String convert(final SsaValue value, final SsaType type) {
+                if (type == SsaType.NUMBER) {
+                    return switch (value.type()) {
+                        case NUMBER -> operand(value);
+                        case BOOLEAN -> "(" + operand(value) + " ? 1.0d : 0.0d)";
+                        default -> "dev.tsj.runtime.TsjRuntime.toNumber(" + operand(value) + ")";
+                    };
+                }
+                if (type == SsaType.BOOLEAN) {
+                    return truth(value);
+                }
+                return boxed(value);
+            }
+
+            private String boxed(final SsaValue value) {
+                return switch (value.type()) {
+                    case NUMBER -> "dev.tsj.runtime.TsjRuntime.number(" + operand(value) + ")";
+                    case BOOLEAN -> "Boolean.valueOf(" + operand(value) + ")";
+                    default -> operand(value);
+                };
+            }
+
+            private String truth(final SsaValue value) {
+                return switch (value.type()) {
+                    case BOOLEAN -> operand(value);
+                    case NUMBER -> "(" + operand(value) + " != 0.0d && " + operand(value) + " == " + operand(value) + ")";
+                    default -> "dev.tsj.runtime.TsjRuntime.truthy(" + operand(value) + ")";
+                };
+            }
+
+            /**
+             * Local name of a computed value, or the literal that stands for a constant.
+             */
+            private String operand(final SsaValue value) {
+                final String literal = inline(value);
+                return literal != null ? literal : names.get(value);
+            }
+
+            private String inline(final SsaValue value) {
+                if (value.isConstant()) {
+                    final Object constant = value.constant();
+                    if (constant instanceof Double number) {
+                        return doubleLiteral(number);
+                    }
+                    if (constant instanceof Boolean booleanValue) {
+                        return booleanValue.toString();
+                    }
+                    return "\"" + escapeJava((String) constant) + "\"";
+                }
+                if (value.opcode() == SsaOpcode.OPAQUE) {
+                    return "null".equals(value.operator())
+                            ? "((Object) null)"
+                            : "dev.tsj.runtime.TsjRuntime.undefined()";
+                }
+                return null;
+            }
+
+            private static String doubleLiteral(final double number) {
+                if (Double.isNaN(number)) {
+                    return "Double.NaN";
+                }
+                if (Double.isInfinite(number)) {
+                    return number > 0 ? "Double.POSITIVE_INFINITY" : "Double.NEGATIVE_INFINITY";
+                }
+                final String literal = Double.toString(number) + "d";
+                return literal.startsWith("-") ? "(" + literal + ")" : literal;
+            }
+
+            private static String javaType(final SsaValue value) {
+                return switch (value.type()) {
+                    case NUMBER -> "double";
+                    case BOOLEAN -> "boolean";
+                    default -> "Object";
+                };
+            }
+
+            private static IllegalStateException unsupported(final SsaValue value) {
+                return new IllegalStateException("No SSA code generation for " + value + ".");
+            }
+        }
+
+        /**
+         * Emits a bundled module initializer as a static method of its own top-level class, so every module
+         * gets separate method-size limits, is loaded only when first initialized, and is JIT-compiled
+         * independently of the bootstrap method. Top-level cells the module uses are passed in explicitly and
+         * names inside the class do not depend on other modules, so an unchanged module renders the same
+         * source and its previous class file can be reused.
+         */
+        private void emitModuleInitializerClass(
+                final StringBuilder builder,
+                final EmissionContext context,
+                final FunctionDeclaration declaration,
+                final String cellName,
+                final String thisVar,
+                final String argsVar,
+                final String indent
+        ) {
+            final String moduleClassName = classSimpleName
+                    + MODULE_CLASS_PREFIX
+                    + declaration.name().substring("__tsj_init_module_".length());
+            final String moduleThisVar = "__tsjThis";
+            final String moduleArgsVar = "__tsjArgs";
+            final EmissionContext functionContext = new EmissionContext(
+                    context,
+                    moduleThisVar,
+                    context.resolveSuperClassExpression(),
+                    false,
+                    moduleArgsVar,
+                    true,
+                    declaration.name()
+            );
+            functionContext.isolateAsModuleClass(moduleThisVar, moduleArgsVar);
+            final List<String> enclosingPropertyCacheFields = propertyCacheFieldDeclarations;
+            final int enclosingPropertyCacheCounter = propertyCacheCounter;
+            final List<String> modulePropertyCacheFields = new ArrayList<>();
+            propertyCacheFieldDeclarations = modulePropertyCacheFields;
+            propertyCacheCounter = 0;
+            final StringBuilder moduleBody = new StringBuilder();
+            try {
+                emitParameterCells(moduleBody, functionContext, declaration.parameters(), moduleArgsVar, "        ");
+                emitStatements(moduleBody, functionContext, declaration.body(), "        ", true);
+            } finally {
+                propertyCacheFieldDeclarations = enclosingPropertyCacheFields;
+                propertyCacheCounter = enclosingPropertyCacheCounter;
+            }
+            if (!blockAlwaysExits(declaration.body())) {
+                moduleBody.append("        return null;\n");
+            }
+            final List<String> capturedCells = functionContext.capturedCellNames();
+
+            final StringBuilder moduleClass = new StringBuilder();
+            moduleClass.append("package ").append(packageName).append(";\n\n");
+            moduleClass.append("import static ").append(packageName).append(".").append(classSimpleName).append(".*;\n\n");
+            moduleClass.append("// ").append(MODULE_CLASS_VERSION_MARKER).append(incrementalCompilerVersion()).append("\n");
+            moduleClass.append("final class ").append(moduleClassName).append(" {\n");
+            moduleClass.append("    private ").append(moduleClassName).append("() {\n");
+            moduleClass.append("    }\n\n");
+            for (String propertyCacheField : modulePropertyCacheFields) {
+                moduleClass.append("    ").append(propertyCacheField).append("\n");
+            }
+            if (!modulePropertyCacheFields.isEmpty()) {
+                moduleClass.append("\n");
+            }
+            moduleClass.append("    static Object __tsjInit(\n");
+            moduleClass.append("            final dev.tsj.runtime.TsjCell[] __tsjCaptured,\n");
+            moduleClass.append("            final Object ").append(moduleThisVar).append(",\n");
+            moduleClass.append("            final Object... ").append(moduleArgsVar).append("\n");
+            moduleClass.append("    ) {\n");
+            for (int index = 0; index < capturedCells.size(); index++) {
+                moduleClass.append("        final dev.tsj.runtime.TsjCell ")
+                        .append(functionContext.capturedAlias(capturedCells.get(index)))
+                        .append(" = __tsjCaptured[")
+                        .append(index)
+                        .append("];\n");
+            }
+            moduleClass.append(moduleBody);
+            moduleClass.append("    }\n");
+            moduleClass.append("}\n");
+            moduleClassSources.add(new GeneratedModuleClassSource(moduleClassName, moduleClass.toString()));
+
+            // The initializer call site maps to the module's first statement, so frames that pass through the
+            // bootstrap method still resolve to TypeScript even though the module body lives in its own class.
+            for (Statement moduleStatement : declaration.body()) {
+                if (sourceLocationFor(moduleStatement) != null) {
+                    emitSourceMarker(builder, moduleStatement, indent);
+                    break;
+                }
+            }
+            final String capturedVar = context.allocateGeneratedName(moduleClassName + "_captured");
+            builder.append(indent)
+                    .append("final dev.tsj.runtime.TsjCell[] ")
+                    .append(capturedVar)
+                    .append(" = new dev.tsj.runtime.TsjCell[]{")
+                    .append(String.join(", ", capturedCells))
+                    .append("};\n");
+            builder.append(indent)
+                    .append(cellName)
+                    .append(".set((dev.tsj.runtime.TsjCallableWithThis) (Object ")
+                    .append(thisVar)
+                    .append(", Object... ")
+                    .append(argsVar)
+                    .append(") -> ")
+                    .append(moduleClassName)
+                    .append(".__tsjInit(")
+                    .append(capturedVar)
+                    .append(", ")
+                    .append(thisVar)
+                    .append(", ")
+                    .append(argsVar)
+                    .append("));\n");
+        }
+
         private void emitGeneratorFunctionAssignment(
                 final StringBuilder builder,
                 final EmissionContext context,
@@ -12475,6 +16407,8 @@ public final class JvmBytecodeCompiler {
             emitTopLevelBindingRegistration(builder, context, declaration.name(), indent);
             if (context.isTopLevelScope() || context.isModuleInitializerScope()) {
                 builder.append(indent)
+                        .append(REALM_STATE_ACCESSOR)
+                        .append(".")
                         .append(TOP_LEVEL_CLASS_MAP_FIELD)
                         .append(".put(\"")
                         .append(escapeJava(declaration.name()))
@@ -13152,9 +17086,9 @@ public final class JvmBytecodeCompiler {
                 elseWithTail.addAll(remaining);
 
                 builder.append(indent)
-                        .append("if (dev.tsj.runtime.TsjRuntime.truthy(")
-                        .append(emitExpression(context, ifStatement.condition()))
-                        .append(")) {\n");
+                        .append("if (")
+                        .append(emitConditionExpression(context, ifStatement.condition()))
+                        .append(") {\n");
                 final EmissionContext thenContext = new EmissionContext(context);
                 predeclareAsyncLocalBindings(builder, thenContext, ifStatement.thenBlock(), indent + "    ");
                 emitAsyncStatements(
@@ -13277,8 +17211,8 @@ public final class JvmBytecodeCompiler {
                     .append(loopArgs)
                     .append(") -> {\n");
             builder.append(indent)
-                    .append("    if (!dev.tsj.runtime.TsjRuntime.truthy(")
-                    .append(emitExpression(context, whileStatement.condition()))
+                    .append("    if (!(")
+                    .append(emitConditionExpression(context, whileStatement.condition()))
                     .append(")) {\n");
             emitAsyncStatementsFrom(
                     builder,
@@ -14443,7 +18377,8 @@ public final class JvmBytecodeCompiler {
                 final String left = emitExpression(context, binaryExpression.left());
                 final String right = emitExpression(context, binaryExpression.right());
                 return switch (binaryExpression.operator()) {
-                    case "+", "-", "*", "/", "%", "**", "&", "|", "^", "<<", ">>", ">>>"
+                    case "+" -> emitAddExpression(left, right);
+                    case "-", "*", "/", "%", "**", "&", "|", "^", "<<", ">>", ">>>"
                             -> emitBinaryOperatorExpression(binaryExpression.operator(), left, right);
                     case "," -> "dev.tsj.runtime.TsjRuntime.comma(" + left + ", " + right + ")";
                     case "<" -> "Boolean.valueOf(dev.tsj.runtime.TsjRuntime.lessThan(" + left + ", " + right + "))";
@@ -14488,10 +18423,10 @@ public final class JvmBytecodeCompiler {
                 return emitAssignmentExpression(context, assignmentExpression);
             }
             if (expression instanceof ConditionalExpression conditionalExpression) {
-                final String condition = emitExpression(context, conditionalExpression.condition());
+                final String condition = emitConditionExpression(context, conditionalExpression.condition());
                 final String whenTrue = emitExpression(context, conditionalExpression.whenTrue());
                 final String whenFalse = emitExpression(context, conditionalExpression.whenFalse());
-                return "(dev.tsj.runtime.TsjRuntime.truthy("
+                return "(("
                         + condition
                         + ") ? "
                         + whenTrue
@@ -14507,14 +18442,21 @@ public final class JvmBytecodeCompiler {
                         + "\")";
             }
             if (expression instanceof MemberAccessExpression memberAccessExpression) {
+                final HoistedRead hoistedRead = hoistedPropertyReads.isEmpty()
+                        ? null
+                        : hoistedPropertyReads.get(invariantReadKey(memberAccessExpression));
                 final String cacheField = allocatePropertyCacheField(memberAccessExpression.member());
-                return "dev.tsj.runtime.TsjRuntime.getPropertyCached("
+                final String read = "dev.tsj.runtime.TsjRuntime.getPropertyCached("
                         + cacheField
                         + ", "
                         + emitExpression(context, memberAccessExpression.receiver())
                         + ", \""
                         + escapeJava(memberAccessExpression.member())
                         + "\")";
+                if (hoistedRead != null) {
+                    return "(" + hoistedRead.guard() + " ? " + hoistedRead.local() + " : " + read + ")";
+                }
+                return read;
             }
             if (expression instanceof NewExpression newExpression) {
                 final String constructor = emitExpression(context, newExpression.constructor());
@@ -14577,12 +18519,18 @@ public final class JvmBytecodeCompiler {
                 if (isForInKeysFactoryCall(callExpression)) {
                     return emitSingleArgumentRuntimeCall(context, callExpression, "forInKeys", "__tsj_for_in_keys");
                 }
+                if (isRegexpLiteralFactoryCall(callExpression)) {
+                    return renderRegexpLiteralRuntimeCall(callExpression);
+                }
                 if (isIndexReadFactoryCall(callExpression)) {
                     return emitIndexReadRuntimeCall(context, callExpression);
                 }
                 if (isOptionalIndexReadFactoryCall(callExpression)) {
                     return emitOptionalIndexReadRuntimeCall(context, callExpression);
                 }
+                if (isArrayCallbackFactoryCall(callExpression)) {
+                    return emitArrayCallbackRuntimeCall(context, callExpression);
+                }
                 if (isSuperInvokeFactoryCall(callExpression)) {
                     return emitSuperInvokeRuntimeCall(context, callExpression);
                 }
@@ -14647,17 +18595,7 @@ public final class JvmBytecodeCompiler {
                 }
                 if (callExpression.callee() instanceof MemberAccessExpression memberAccessExpression) {
                     final String receiver = emitExpression(context, memberAccessExpression.receiver());
-                    final String methodName = "\"" + escapeJava(memberAccessExpression.member()) + "\"";
-                    if (renderedArgs.isEmpty()) {
-                        return "dev.tsj.runtime.TsjRuntime.invokeMember(" + receiver + ", " + methodName + ")";
-                    }
-                    return "dev.tsj.runtime.TsjRuntime.invokeMember("
-                            + receiver
-                            + ", "
-                            + methodName
-                            + ", "
-                            + String.join(", ", renderedArgs)
-                            + ")";
+                    return emitMemberCallExpression(receiver, memberAccessExpression.member(), renderedArgs);
                 }
                 final String callee = emitExpression(context, callExpression.callee());
                 if (renderedArgs.isEmpty()) {
@@ -14795,6 +18733,29 @@ public final class JvmBytecodeCompiler {
                     + ")";
         }
 
+        private String emitArrayCallbackRuntimeCall(
+                final EmissionContext context,
+                final CallExpression callExpression
+        ) {
+            if (callExpression.arguments().size() != 4
+                    || !(callExpression.arguments().get(1) instanceof StringLiteral methodName)
+                    || !(callExpression.arguments().get(2) instanceof NumberLiteral callbackArity)) {
+                throw new JvmCompilationException(
+                        "TSJ-BACKEND-UNSUPPORTED",
+                        ARRAY_CALLBACK_HELPER + " requires receiver, method name, arity, and callback arguments."
+                );
+            }
+            return "dev.tsj.runtime.TsjRuntime.invokeArrayCallback("
+                    + emitExpression(context, callExpression.arguments().get(0))
+                    + ", \""
+                    + escapeJava(methodName.value())
+                    + "\", "
+                    + Integer.parseInt(callbackArity.value())
+                    + ", "
+                    + emitExpression(context, callExpression.arguments().get(3))
+                    + ")";
+        }
+
         private String emitIndexReadRuntimeCall(
                 final EmissionContext context,
                 final CallExpression callExpression
@@ -15038,6 +18999,13 @@ public final class JvmBytecodeCompiler {
             return "__tsj_array_rest".equals(variableExpression.name());
         }
 
+        private boolean isArrayCallbackFactoryCall(final CallExpression callExpression) {
+            if (!(callExpression.callee() instanceof VariableExpression variableExpression)) {
+                return false;
+            }
+            return ARRAY_CALLBACK_HELPER.equals(variableExpression.name());
+        }
+
         private boolean isForOfValuesFactoryCall(final CallExpression callExpression) {
             if (!(callExpression.callee() instanceof VariableExpression variableExpression)) {
                 return false;
@@ -15052,6 +19020,13 @@ public final class JvmBytecodeCompiler {
             return "__tsj_for_in_keys".equals(variableExpression.name());
         }
 
+        private boolean isRegexpLiteralFactoryCall(final CallExpression callExpression) {
+            if (!(callExpression.callee() instanceof VariableExpression variableExpression)) {
+                return false;
+            }
+            return REGEXP_LITERAL_HELPER.equals(variableExpression.name());
+        }
+
         private boolean isIndexReadFactoryCall(final CallExpression callExpression) {
             if (!(callExpression.callee() instanceof VariableExpression variableExpression)) {
                 return false;
@@ -15121,6 +19096,85 @@ public final class JvmBytecodeCompiler {
                     .replace("\f", "\\f");
         }
 
+        /**
+         * Allocates the next type feedback site id, declaring its recording field in instrumented builds.
+         * Ids follow emission order, which a profile does not change, so feedback recorded by an
+         * instrumented build addresses the same sites when the profile is applied.
+         */
+        private int allocateFeedbackSite(final TsjTypeFeedback.SiteKind kind) {
+            if (!typeFeedbackPlan.active()) {
+                return -1;
+            }
+            final int site = feedbackSiteCounter;
+            feedbackSiteCounter++;
+            if (typeFeedbackPlan.instrumented()) {
+                instrumentedSites++;
+                propertyCacheFieldDeclarations.add(
+                        "private static final dev.tsj.runtime.TsjTypeFeedback.Site "
+                                + feedbackSiteField(site)
+                                + " = "
+                                + TYPE_FEEDBACK_UNIT_FIELD
+                                + ".site("
+                                + site
+                                + ", dev.tsj.runtime.TsjTypeFeedback.SiteKind."
+                                + kind.name()
+                                + ");"
+                );
+            }
+            return site;
+        }
+
+        private static String feedbackSiteField(final int site) {
+            return "FEEDBACK_SITE_" + site;
+        }
+
+        private String emitAddExpression(final String left, final String right) {
+            final int site = allocateFeedbackSite(TsjTypeFeedback.SiteKind.ADD);
+            if (site >= 0 && typeFeedbackPlan.instrumented()) {
+                return feedbackSiteField(site) + ".add(" + left + ", " + right + ")";
+            }
+            final TsjTypeFeedback.SiteProfile profile = typeFeedbackPlan.site(site);
+            if (profile != null && profile.numericOnly()) {
+                numericAddSites++;
+                return "dev.tsj.runtime.TsjRuntime.addNumbers(" + left + ", " + right + ")";
+            }
+            return emitBinaryOperatorExpression("+", left, right);
+        }
+
+        private String emitMemberCallExpression(
+                final String receiver,
+                final String member,
+                final List<String> renderedArgs
+        ) {
+            final String methodName = "\"" + escapeJava(member) + "\"";
+            final String arguments = renderedArgs.isEmpty() ? "" : ", " + String.join(", ", renderedArgs);
+            final int site = allocateFeedbackSite(TsjTypeFeedback.SiteKind.CALL);
+            if (site >= 0 && typeFeedbackPlan.instrumented()) {
+                return feedbackSiteField(site) + ".invokeMember(" + receiver + ", " + methodName + arguments + ")";
+            }
+            final TsjTypeFeedback.SiteProfile profile = typeFeedbackPlan.site(site);
+            if (profile != null && profile.monomorphic()) {
+                devirtualizedCallSites++;
+                final String cacheField = "MEMBER_CACHE_" + site;
+                propertyCacheFieldDeclarations.add(
+                        "private static final dev.tsj.runtime.TsjMemberCallCache "
+                                + cacheField
+                                + " = new dev.tsj.runtime.TsjMemberCallCache("
+                                + methodName
+                                + ");"
+                );
+                return "dev.tsj.runtime.TsjRuntime.invokeMemberCached("
+                        + cacheField
+                        + ", "
+                        + receiver
+                        + ", "
+                        + methodName
+                        + arguments
+                        + ")";
+            }
+            return "dev.tsj.runtime.TsjRuntime.invokeMember(" + receiver + ", " + methodName + arguments + ")";
+        }
+
         private String allocatePropertyCacheField(final String propertyName) {
             final String fieldName = "PROPERTY_CACHE_" + propertyCacheCounter;
             propertyCacheCounter++;
@@ -15167,6 +19221,8 @@ public final class JvmBytecodeCompiler {
             private final String argumentsReference;
             private final boolean moduleInitializerScope;
             private final String moduleInitializerName;
+            private Map<String, String> capturedBindings;
+            private boolean moduleClassBoundary;
 
             private EmissionContext(final EmissionContext parent) {
                 this(
@@ -15234,6 +19290,35 @@ public final class JvmBytecodeCompiler {
                 this.argumentsReference = argumentsReference;
                 this.moduleInitializerScope = moduleInitializerScope;
                 this.moduleInitializerName = moduleInitializerName;
+                this.capturedBindings = null;
+                this.moduleClassBoundary = false;
+            }
+
+            /**
+             * Makes this context the root of a module class body. Enclosing-scope cells it resolves are
+             * recorded and renamed to positional aliases, and generated names no longer consult enclosing
+             * scopes, so the emitted body depends only on the module itself.
+             */
+            private void isolateAsModuleClass(final String thisName, final String argumentsName) {
+                this.capturedBindings = new LinkedHashMap<>();
+                this.moduleClassBoundary = true;
+                generatedNames.add(thisName);
+                generatedNames.add(argumentsName);
+            }
+
+            private List<String> capturedCellNames() {
+                return capturedBindings == null ? List.of() : List.copyOf(capturedBindings.keySet());
+            }
+
+            private String capturedAlias(final String enclosingCellName) {
+                return capturedBindings.get(enclosingCellName);
+            }
+
+            private String resolveLocalBinding(final String sourceName) {
+                if (bindings.containsKey(sourceName)) {
+                    return bindings.get(sourceName);
+                }
+                return parent != null ? parent.resolveLocalBinding(sourceName) : null;
             }
 
             private String predeclareBinding(final String sourceName) {
@@ -15264,89 +19349,99 @@ public final class JvmBytecodeCompiler {
                 if (bindings.containsKey(sourceName)) {
                     return bindings.get(sourceName);
                 }
+                if (capturedBindings != null && parent != null) {
+                    final String capturedCell = parent.resolveLocalBinding(sourceName);
+                    if (capturedCell != null) {
+                        return capturedBindings.computeIfAbsent(capturedCell, ignored -> {
+                            final String alias = "__tsjCaptured_" + capturedBindings.size();
+                            generatedNames.add(alias);
+                            return alias;
+                        });
+                    }
+                }
                 if (parent != null) {
                     return parent.resolveBinding(sourceName);
                 }
                 if ("Error".equals(sourceName)) {
-                    return ERROR_BUILTIN_CELL_FIELD;
+                    return builtinCell(ERROR_BUILTIN_CELL_FIELD);
                 }
                 if ("String".equals(sourceName)) {
-                    return STRING_BUILTIN_CELL_FIELD;
+                    return builtinCell(STRING_BUILTIN_CELL_FIELD);
                 }
                 if ("JSON".equals(sourceName)) {
-                    return JSON_BUILTIN_CELL_FIELD;
+                    return builtinCell(JSON_BUILTIN_CELL_FIELD);
                 }
                 if ("Object".equals(sourceName)) {
-                    return OBJECT_BUILTIN_CELL_FIELD;
+                    return builtinCell(OBJECT_BUILTIN_CELL_FIELD);
                 }
                 if ("Reflect".equals(sourceName)) {
-                    return REFLECT_BUILTIN_CELL_FIELD;
+                    return builtinCell(REFLECT_BUILTIN_CELL_FIELD);
                 }
                 if ("Proxy".equals(sourceName)) {
-                    return PROXY_BUILTIN_CELL_FIELD;
+                    return builtinCell(PROXY_BUILTIN_CELL_FIELD);
                 }
                 if ("Array".equals(sourceName)) {
-                    return ARRAY_BUILTIN_CELL_FIELD;
+                    return builtinCell(ARRAY_BUILTIN_CELL_FIELD);
                 }
                 if ("Map".equals(sourceName)) {
-                    return MAP_BUILTIN_CELL_FIELD;
+                    return builtinCell(MAP_BUILTIN_CELL_FIELD);
                 }
                 if ("Set".equals(sourceName)) {
-                    return SET_BUILTIN_CELL_FIELD;
+                    return builtinCell(SET_BUILTIN_CELL_FIELD);
                 }
                 if ("WeakMap".equals(sourceName)) {
-                    return WEAK_MAP_BUILTIN_CELL_FIELD;
+                    return builtinCell(WEAK_MAP_BUILTIN_CELL_FIELD);
                 }
                 if ("WeakSet".equals(sourceName)) {
-                    return WEAK_SET_BUILTIN_CELL_FIELD;
+                    return builtinCell(WEAK_SET_BUILTIN_CELL_FIELD);
                 }
                 if ("WeakRef".equals(sourceName)) {
-                    return WEAK_REF_BUILTIN_CELL_FIELD;
+                    return builtinCell(WEAK_REF_BUILTIN_CELL_FIELD);
                 }
                 if ("Date".equals(sourceName)) {
-                    return DATE_BUILTIN_CELL_FIELD;
+                    return builtinCell(DATE_BUILTIN_CELL_FIELD);
                 }
                 if ("RegExp".equals(sourceName)) {
-                    return REGEXP_BUILTIN_CELL_FIELD;
+                    return builtinCell(REGEXP_BUILTIN_CELL_FIELD);
                 }
                 if ("AggregateError".equals(sourceName)) {
-                    return AGGREGATE_ERROR_BUILTIN_CELL_FIELD;
+                    return builtinCell(AGGREGATE_ERROR_BUILTIN_CELL_FIELD);
                 }
                 if ("TypeError".equals(sourceName)) {
-                    return TYPE_ERROR_BUILTIN_CELL_FIELD;
+                    return builtinCell(TYPE_ERROR_BUILTIN_CELL_FIELD);
                 }
                 if ("RangeError".equals(sourceName)) {
-                    return RANGE_ERROR_BUILTIN_CELL_FIELD;
+                    return builtinCell(RANGE_ERROR_BUILTIN_CELL_FIELD);
                 }
                 if ("Math".equals(sourceName)) {
-                    return MATH_BUILTIN_CELL_FIELD;
+                    return builtinCell(MATH_BUILTIN_CELL_FIELD);
                 }
                 if ("Number".equals(sourceName)) {
-                    return NUMBER_BUILTIN_CELL_FIELD;
+                    return builtinCell(NUMBER_BUILTIN_CELL_FIELD);
                 }
                 if ("BigInt".equals(sourceName)) {
-                    return BIGINT_BUILTIN_CELL_FIELD;
+                    return builtinCell(BIGINT_BUILTIN_CELL_FIELD);
                 }
                 if ("Symbol".equals(sourceName)) {
-                    return SYMBOL_BUILTIN_CELL_FIELD;
+                    return builtinCell(SYMBOL_BUILTIN_CELL_FIELD);
                 }
                 if ("parseInt".equals(sourceName)) {
-                    return PARSE_INT_BUILTIN_CELL_FIELD;
+                    return builtinCell(PARSE_INT_BUILTIN_CELL_FIELD);
                 }
                 if ("parseFloat".equals(sourceName)) {
-                    return PARSE_FLOAT_BUILTIN_CELL_FIELD;
+                    return builtinCell(PARSE_FLOAT_BUILTIN_CELL_FIELD);
                 }
                 if ("Infinity".equals(sourceName)) {
-                    return INFINITY_BUILTIN_CELL_FIELD;
+                    return builtinCell(INFINITY_BUILTIN_CELL_FIELD);
                 }
                 if ("NaN".equals(sourceName)) {
-                    return NAN_BUILTIN_CELL_FIELD;
+                    return builtinCell(NAN_BUILTIN_CELL_FIELD);
                 }
                 if ("Promise".equals(sourceName)) {
-                    return "PROMISE_BUILTIN_CELL";
+                    return builtinCell(PROMISE_BUILTIN_CELL_FIELD);
                 }
                 if (IMPLICIT_GLOBAL_BUILTINS.contains(sourceName)) {
-                    return UNDEFINED_BUILTIN_CELL_FIELD;
+                    return builtinCell(UNDEFINED_BUILTIN_CELL_FIELD);
                 }
                 throw new JvmCompilationException(
                         "TSJ-BACKEND-UNSUPPORTED",
@@ -15354,6 +19449,11 @@ public final class JvmBytecodeCompiler {
                 );
             }
 
+            private String builtinCell(final String fieldName) {
+                referencedBuiltinCells.add(fieldName);
+                return fieldName;
+            }
+
             private String allocateGeneratedName(final String prefix) {
                 final String base = sanitizeIdentifier(prefix);
                 final String allocated = allocateUniqueName(base);
@@ -15400,7 +19500,7 @@ public final class JvmBytecodeCompiler {
                 if (bindings.containsValue(value) || labels.containsValue(value) || generatedNames.contains(value)) {
                     return true;
                 }
-                if (parent != null) {
+                if (parent != null && !moduleClassBoundary) {
                     return parent.isNameUsed(value);
                 }
                 return false;
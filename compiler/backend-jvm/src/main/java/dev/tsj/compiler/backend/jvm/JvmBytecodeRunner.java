@@ -1,5 +1,8 @@
 package dev.tsj.compiler.backend.jvm;
 
+import dev.tsj.runtime.TsjRealm;
+
+import java.io.File;
 import java.io.PrintStream;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
@@ -10,12 +13,11 @@ import java.net.URLClassLoader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.stream.Stream;
 
 /**
  * Loads and executes compiled JVM artifact classes.
@@ -103,13 +105,51 @@ public final class JvmBytecodeRunner {
             final PrintStream stderr
     ) {
         Objects.requireNonNull(artifact, "artifact");
+        run(artifact, interopClasspathEntries, isolationMode, TsjRealm.create(artifact.className()), stdout, stderr);
+    }
+
+    /**
+     * Executes the artifact inside {@code realm}; hosts reuse one realm per tenant to share its registries
+     * across runs, while the other overloads isolate each run in a fresh realm.
+     */
+    public void run(
+            final JvmCompiledArtifact artifact,
+            final List<Path> interopClasspathEntries,
+            final ClassloaderIsolationMode isolationMode,
+            final TsjRealm realm,
+            final PrintStream stdout,
+            final PrintStream stderr
+    ) {
+        Objects.requireNonNull(artifact, "artifact");
+        Objects.requireNonNull(realm, "realm");
         Objects.requireNonNull(stdout, "stdout");
         Objects.requireNonNull(stderr, "stderr");
+        try (RunnerClassLoader classLoader = createClassLoader(artifact, interopClasspathEntries, isolationMode)) {
+            invokeMain(classLoader.mainLoader(), artifact.className(), isolationMode, realm, stdout, stderr);
+        } catch (final IOException ioException) {
+            throw new JvmCompilationException(
+                    "TSJ-RUN-004",
+                    "Failed to execute generated class: " + ioException.getMessage(),
+                    null,
+                    null,
+                    ioException
+            );
+        }
+    }
+
+    static void invokeMain(
+            final ClassLoader mainLoader,
+            final String className,
+            final ClassloaderIsolationMode isolationMode,
+            final TsjRealm realm,
+            final PrintStream stdout,
+            final PrintStream stderr
+    ) {
         final Thread thread = Thread.currentThread();
         final ClassLoader originalContextLoader = thread.getContextClassLoader();
-        try (RunnerClassLoader classLoader = createClassLoader(artifact, interopClasspathEntries, isolationMode)) {
-            thread.setContextClassLoader(classLoader.mainLoader());
-            final Class<?> mainClass = Class.forName(artifact.className(), true, classLoader.mainLoader());
+        try {
+            thread.setContextClassLoader(mainLoader);
+            final Class<?> mainClass = Class.forName(className, true, mainLoader);
             final Method mainMethod = mainClass.getMethod("main", String[].class);
             final PrintStream originalOut = System.out;
             final PrintStream originalErr = System.err;
@@ -117,7 +157,7 @@ public final class JvmBytecodeRunner {
                 try {
                     System.setOut(stdout);
                     System.setErr(stderr);
-                    mainMethod.invoke(null, (Object) new String[0]);
+                    realm.execute(() -> mainMethod.invoke(null, (Object) new String[0]));
                 } finally {
                     System.setOut(originalOut);
                     System.setErr(originalErr);
@@ -128,7 +168,7 @@ public final class JvmBytecodeRunner {
         } catch (final ClassNotFoundException classNotFoundException) {
             throw new JvmCompilationException(
                     "TSJ-RUN-003",
-                    "Generated class not found: " + artifact.className(),
+                    "Generated class not found: " + className,
                     null,
                     null,
                     classNotFoundException
@@ -136,7 +176,7 @@ public final class JvmBytecodeRunner {
         } catch (final NoSuchMethodException noSuchMethodException) {
             throw new JvmCompilationException(
                     "TSJ-RUN-005",
-                    "Generated class missing main method: " + artifact.className(),
+                    "Generated class missing main method: " + className,
                     null,
                     null,
                     noSuchMethodException
@@ -242,13 +282,21 @@ public final class JvmBytecodeRunner {
         return new RunnerClassLoader(appLoader, List.of(appLoader, dependencyLoader));
     }
 
-    private static void detectIsolationConflicts(
+    /**
+     * Fails when a dependency provides a class that the app output also defines.
+     *
+     * <p>The app output is listed once; each dependency is then probed for those entries by name, through
+     * the jar's central directory or a file lookup, so the cost follows the number of app classes rather
+     * than the size of the dependency classpath. The first conflict in classpath and class-name order is
+     * reported.
+     */
+    static void detectIsolationConflicts(
             final Path outputDirectory,
             final List<Path> interopClasspathEntries,
             final ClassloaderIsolationMode isolationMode
     ) {
-        final Set<String> appClasses = collectClassNames(outputDirectory);
-        if (appClasses.isEmpty()) {
+        final List<String> appClassEntries = collectClassEntries(outputDirectory.toAbsolutePath().normalize());
+        if (appClassEntries.isEmpty()) {
             return;
         }
         for (Path classpathEntry : interopClasspathEntries) {
@@ -256,70 +304,68 @@ public final class JvmBytecodeRunner {
                 continue;
             }
             final Path normalized = classpathEntry.toAbsolutePath().normalize();
-            for (String dependencyClass : collectClassNames(normalized)) {
-                if (!appClasses.contains(dependencyClass)) {
-                    continue;
-                }
-                throw new JvmCompilationException(
-                        "TSJ-RUN-009",
-                        "Classloader isolation conflict under mode `"
-                                + isolationMode.cliValue()
-                                + "`: class `"
-                                + dependencyClass
-                                + "` exists in both app output and dependency `"
-                                + normalized
-                                + "`."
-                );
+            final String conflictingEntry = firstProvidedEntry(normalized, appClassEntries);
+            if (conflictingEntry == null) {
+                continue;
             }
+            throw new JvmCompilationException(
+                    "TSJ-RUN-009",
+                    "Classloader isolation conflict under mode `"
+                            + isolationMode.cliValue()
+                            + "`: class `"
+                            + toClassName(conflictingEntry)
+                            + "` exists in both app output and dependency `"
+                            + normalized
+                            + "`."
+            );
         }
     }
 
-    private static Set<String> collectClassNames(final Path classpathEntry) {
-        final Set<String> classNames = new HashSet<>();
-        if (isJrtClasspathEntry(classpathEntry)) {
-            return classNames;
+    private static List<String> collectClassEntries(final Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(path -> Files.isRegularFile(path) && path.toString().endsWith(".class"))
+                    .map(path -> directory.relativize(path).toString().replace(File.separatorChar, '/'))
+                    .sorted()
+                    .toList();
+        } catch (final IOException ignored) {
+            return List.of();
         }
-        final Path normalized = classpathEntry.toAbsolutePath().normalize();
-        if (Files.isDirectory(normalized)) {
-            try (java.util.stream.Stream<Path> paths = Files.walk(normalized)) {
-                paths.filter(path -> Files.isRegularFile(path) && path.toString().endsWith(".class"))
-                        .forEach(path -> classNames.add(toClassName(normalized.relativize(path))));
-            } catch (final IOException ignored) {
-                return classNames;
+    }
+
+    private static String firstProvidedEntry(final Path classpathEntry, final List<String> classEntries) {
+        if (Files.isDirectory(classpathEntry)) {
+            for (String classEntry : classEntries) {
+                if (Files.isRegularFile(classpathEntry.resolve(classEntry))) {
+                    return classEntry;
+                }
             }
-            return classNames;
+            return null;
         }
-        if (!Files.isRegularFile(normalized)) {
-            return classNames;
+        if (!Files.isRegularFile(classpathEntry)) {
+            return null;
         }
-        try (JarFile jarFile = new JarFile(normalized.toFile())) {
-            final java.util.Enumeration<JarEntry> entries = jarFile.entries();
-            while (entries.hasMoreElements()) {
-                final JarEntry entry = entries.nextElement();
-                if (entry.isDirectory()) {
-                    continue;
+        try (JarFile jarFile = new JarFile(classpathEntry.toFile(), false)) {
+            for (String classEntry : classEntries) {
+                final JarEntry jarEntry = jarFile.getJarEntry(classEntry);
+                if (jarEntry != null && !jarEntry.isDirectory()) {
+                    return classEntry;
                 }
-                final String name = entry.getName();
-                if (!name.endsWith(".class")) {
-                    continue;
-                }
-                classNames.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
             }
         } catch (final IOException ignored) {
-            return classNames;
+            return null;
         }
-        return classNames;
+        return null;
     }
 
-    private static boolean isJrtClasspathEntry(final Path classpathEntry) {
+    static boolean isJrtClasspathEntry(final Path classpathEntry) {
         return "jrt".equalsIgnoreCase(classpathEntry.getFileSystem().provider().getScheme());
     }
 
-    private static String toClassName(final Path relativeClassFile) {
-        final String normalized = relativeClassFile
-                .toString()
-                .replace(java.io.File.separatorChar, '.');
-        return normalized.substring(0, normalized.length() - ".class".length());
+    private static String toClassName(final String classEntry) {
+        return classEntry.substring(0, classEntry.length() - ".class".length()).replace('/', '.');
     }
 
     private static JvmCompilationException maybeIsolationFailure(
@@ -361,7 +407,7 @@ public final class JvmBytecodeRunner {
         return missingClassName(cause);
     }
 
-    private static URL toUrl(final Path path) {
+    static URL toUrl(final Path path) {
         try {
             return path.toUri().toURL();
         } catch (final MalformedURLException malformedURLException) {
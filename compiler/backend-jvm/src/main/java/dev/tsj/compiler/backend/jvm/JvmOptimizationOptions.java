@@ -1,20 +1,66 @@
 package dev.tsj.compiler.backend.jvm;
 
+import java.nio.file.Path;
+
 /**
  * TSJ-17 baseline optimization controls.
  *
- * @param constantFoldingEnabled enable constant-expression folding
+ * @param constantFoldingEnabled enable constant-expression folding, and generation of function bodies the SSA
+ *                               form models completely from that form
  * @param deadCodeEliminationEnabled enable baseline dead-code elimination
+ * @param inliningEnabled enable inlining of small non-escaping functions and specialization of
+ *                        builtin array callbacks with literal function arguments
+ * @param loopOptimizationEnabled enable guarded hoisting of invariant property reads out of loops that cannot run
+ *                                user code, and unboxed emission of branch conditions
+ * @param profileInput type feedback profile used to specialize operator, branch, and member call sites,
+ *                     or {@code null}
+ * @param profileOutput profile file that an instrumented build records type feedback into, or
+ *                      {@code null} for an uninstrumented build
  */
 public record JvmOptimizationOptions(
         boolean constantFoldingEnabled,
-        boolean deadCodeEliminationEnabled
+        boolean deadCodeEliminationEnabled,
+        boolean inliningEnabled,
+        boolean loopOptimizationEnabled,
+        Path profileInput,
+        Path profileOutput
 ) {
+    public JvmOptimizationOptions(
+            final boolean constantFoldingEnabled,
+            final boolean deadCodeEliminationEnabled,
+            final boolean inliningEnabled,
+            final boolean loopOptimizationEnabled
+    ) {
+        this(constantFoldingEnabled, deadCodeEliminationEnabled, inliningEnabled, loopOptimizationEnabled, null, null);
+    }
+
     public static JvmOptimizationOptions defaults() {
-        return new JvmOptimizationOptions(true, true);
+        return new JvmOptimizationOptions(true, true, true, true);
     }
 
     public static JvmOptimizationOptions disabled() {
-        return new JvmOptimizationOptions(false, false);
+        return new JvmOptimizationOptions(false, false, false, false);
+    }
+
+    public JvmOptimizationOptions withInliningEnabled(final boolean enabled) {
+        return new JvmOptimizationOptions(
+                constantFoldingEnabled,
+                deadCodeEliminationEnabled,
+                enabled,
+                loopOptimizationEnabled,
+                profileInput,
+                profileOutput
+        );
+    }
+
+    public JvmOptimizationOptions withProfile(final Path input, final Path output) {
+        return new JvmOptimizationOptions(
+                constantFoldingEnabled,
+                deadCodeEliminationEnabled,
+                inliningEnabled,
+                loopOptimizationEnabled,
+                input,
+                output
+        );
     }
 }
@@ -0,0 +1,263 @@
+package dev.tsj.compiler.backend.jvm;
+
+import dev.tsj.runtime.TsjRealm;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Long-lived host that keeps a compiled artifact warm between executions.
+ *
+ * <p>The host opens the interop dependency classloader once and caches generated class bytes in memory.
+ * Program classes are defined by one loader per artifact fingerprint (the set of class files with their
+ * sizes and timestamps), so repeated runs reuse the defined classes and their JIT profiles. Generated
+ * programs keep their top-level bindings in the {@link TsjRealm} they run in rather than in statics, so
+ * runs in different realms can share that loader, even interleaved, without seeing each other's state.
+ *
+ * <p>{@link #reload} re-reads only the class files whose size or timestamp changed, and replaces the
+ * program loader only when the fingerprint changed. Reuse stops at class bytes: every run initializes all
+ * TS modules again in its realm. Re-running only the changed modules is not supported, because each module
+ * class links against the main program class, which is regenerated whenever any module changes.
+ */
+public final class JvmProgramHost implements AutoCloseable {
+    private final List<Path> interopClasspathEntries;
+    private final JvmBytecodeRunner.ClassloaderIsolationMode isolationMode;
+    private final URLClassLoader dependencyLoader;
+    private final Map<String, CachedClass> classes;
+    private JvmCompiledArtifact artifact;
+    private ProgramClassLoader programLoader;
+    private int lastReloadedClassCount;
+
+    public JvmProgramHost(
+            final JvmCompiledArtifact artifact,
+            final List<Path> interopClasspathEntries,
+            final JvmBytecodeRunner.ClassloaderIsolationMode isolationMode
+    ) {
+        Objects.requireNonNull(artifact, "artifact");
+        this.interopClasspathEntries = List.copyOf(Objects.requireNonNull(
+                interopClasspathEntries,
+                "interopClasspathEntries"
+        ));
+        this.isolationMode = Objects.requireNonNull(isolationMode, "isolationMode");
+        this.dependencyLoader = createDependencyLoader(this.interopClasspathEntries);
+        this.classes = new HashMap<>();
+        reload(artifact);
+    }
+
+    public synchronized JvmCompiledArtifact artifact() {
+        return artifact;
+    }
+
+    /**
+     * Number of class files read from disk by the most recent load or reload.
+     */
+    public synchronized int lastReloadedClassCount() {
+        return lastReloadedClassCount;
+    }
+
+    /**
+     * Points the host at {@code nextArtifact}, keeping cached bytes of class files that did not change.
+     */
+    public synchronized void reload(final JvmCompiledArtifact nextArtifact) {
+        Objects.requireNonNull(nextArtifact, "nextArtifact");
+        if (isolationMode == JvmBytecodeRunner.ClassloaderIsolationMode.APP_ISOLATED) {
+            JvmBytecodeRunner.detectIsolationConflicts(
+                    nextArtifact.outputDirectory(),
+                    interopClasspathEntries,
+                    isolationMode
+            );
+        }
+        final Path outputDirectory = nextArtifact.outputDirectory().toAbsolutePath().normalize();
+        final Map<String, CachedClass> previous = artifact != null
+                && artifact.outputDirectory().toAbsolutePath().normalize().equals(outputDirectory)
+                ? new HashMap<>(classes)
+                : Map.of();
+        final Map<String, CachedClass> loaded = new HashMap<>();
+        int reloadedCount = 0;
+        try (Stream<Path> paths = Files.walk(outputDirectory)) {
+            final List<Path> classFiles = paths
+                    .filter(path -> Files.isRegularFile(path) && path.toString().endsWith(".class"))
+                    .toList();
+            for (Path classFile : classFiles) {
+                final String className = toClassName(outputDirectory.relativize(classFile));
+                final long size = Files.size(classFile);
+                final long lastModified = Files.getLastModifiedTime(classFile).toMillis();
+                final CachedClass cached = previous.get(className);
+                if (cached != null && cached.size() == size && cached.lastModified() == lastModified) {
+                    loaded.put(className, cached);
+                    continue;
+                }
+                loaded.put(className, new CachedClass(Files.readAllBytes(classFile), size, lastModified));
+                reloadedCount++;
+            }
+        } catch (final IOException ioException) {
+            throw new JvmCompilationException(
+                    "TSJ-RUN-004",
+                    "Failed to load generated classes: " + ioException.getMessage(),
+                    null,
+                    null,
+                    ioException
+            );
+        }
+        if (!loaded.containsKey(nextArtifact.className())) {
+            throw new JvmCompilationException(
+                    "TSJ-RUN-003",
+                    "Generated class not found: " + nextArtifact.className()
+            );
+        }
+        final boolean fingerprintChanged = programLoader == null
+                || reloadedCount > 0
+                || !loaded.keySet().equals(previous.keySet());
+        classes.clear();
+        classes.putAll(loaded);
+        artifact = nextArtifact;
+        lastReloadedClassCount = reloadedCount;
+        if (fingerprintChanged) {
+            // Runs already in flight keep their classes; a closed loader only stops serving resources.
+            closeProgramLoader();
+            programLoader = new ProgramClassLoader(
+                    JvmBytecodeRunner.toUrl(outputDirectory),
+                    Map.copyOf(loaded),
+                    dependencyLoader
+            );
+        }
+    }
+
+    public void run(final PrintStream stdout, final PrintStream stderr) {
+        run(TsjRealm.create(artifact().className()), stdout, stderr);
+    }
+
+    /**
+     * Executes the program entry point once inside {@code realm} using the current program classloader.
+     */
+    public void run(final TsjRealm realm, final PrintStream stdout, final PrintStream stderr) {
+        Objects.requireNonNull(realm, "realm");
+        Objects.requireNonNull(stdout, "stdout");
+        Objects.requireNonNull(stderr, "stderr");
+        final JvmCompiledArtifact currentArtifact;
+        final ProgramClassLoader currentLoader;
+        synchronized (this) {
+            currentArtifact = artifact;
+            currentLoader = programLoader;
+        }
+        JvmBytecodeRunner.invokeMain(
+                currentLoader,
+                currentArtifact.className(),
+                isolationMode,
+                realm,
+                stdout,
+                stderr
+        );
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (programLoader != null) {
+                programLoader.close();
+                programLoader = null;
+            }
+        } finally {
+            dependencyLoader.close();
+        }
+    }
+
+    private void closeProgramLoader() {
+        if (programLoader == null) {
+            return;
+        }
+        try {
+            programLoader.close();
+        } catch (final IOException ioException) {
+            throw new JvmCompilationException(
+                    "TSJ-RUN-004",
+                    "Failed to close program classloader: " + ioException.getMessage(),
+                    null,
+                    null,
+                    ioException
+            );
+        }
+        programLoader = null;
+    }
+
+    private static URLClassLoader createDependencyLoader(final List<Path> interopClasspathEntries) {
+        final List<URL> urls = new ArrayList<>();
+        for (Path classpathEntry : interopClasspathEntries) {
+            if (JvmBytecodeRunner.isJrtClasspathEntry(classpathEntry)) {
+                continue;
+            }
+            final Path normalized = classpathEntry.toAbsolutePath().normalize();
+            if (!Files.exists(normalized)) {
+                throw new JvmCompilationException(
+                        "TSJ-RUN-008",
+                        "Classpath entry not found: " + normalized
+                );
+            }
+            urls.add(JvmBytecodeRunner.toUrl(normalized));
+        }
+        return new URLClassLoader(urls.toArray(URL[]::new), Thread.currentThread().getContextClassLoader());
+    }
+
+    private static String toClassName(final Path relativeClassFile) {
+        final String normalized = relativeClassFile
+                .toString()
+                .replace(java.io.File.separatorChar, '.');
+        return normalized.substring(0, normalized.length() - ".class".length());
+    }
+
+    private record CachedClass(byte[] bytes, long size, long lastModified) {
+    }
+
+    /**
+     * Program loader that defines generated classes from cached bytes ahead of its parent, and serves
+     * non-class resources from the artifact output directory.
+     */
+    private static final class ProgramClassLoader extends URLClassLoader {
+        private final Map<String, CachedClass> classes;
+
+        private ProgramClassLoader(
+                final URL outputDirectory,
+                final Map<String, CachedClass> classes,
+                final ClassLoader parent
+        ) {
+            super(new URL[]{outputDirectory}, parent);
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+            if (!classes.containsKey(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded == null) {
+                    loaded = findClass(name);
+                }
+                if (resolve) {
+                    resolveClass(loaded);
+                }
+                return loaded;
+            }
+        }
+
+        @Override
+        protected Class<?> findClass(final String name) throws ClassNotFoundException {
+            final CachedClass cached = classes.get(name);
+            if (cached == null) {
+                return super.findClass(name);
+            }
+            return defineClass(name, cached.bytes(), 0, cached.bytes().length);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package dev.tsj.compiler.backend.jvm;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Content-addressed compilation cache stored on disk and shared by compiler processes.
+ *
+ * <p>Entries live under {@code <root>/v1/<kind>/<aa>/<key>} where {@code key} is a SHA-256 of everything
+ * the cached value depends on. Writes go to a temporary file in the entry directory and are moved into
+ * place atomically, so concurrent processes never observe partial entries and racing writers of the same
+ * key simply replace identical content. Reads refresh the entry timestamp, and {@link #evictIfOverLimit()}
+ * removes least recently used entries once the cache grows past its byte budget.
+ *
+ * <p>The cache is best-effort: unreadable or corrupt entries are treated as misses and failed writes are
+ * ignored, so a broken cache directory never fails a compile.
+ */
+final class PersistentCompilationCache {
+    static final String CACHE_DIR_PROPERTY = "tsj.backend.cacheDir";
+    static final String CACHE_MAX_BYTES_PROPERTY = "tsj.backend.cacheMaxBytes";
+    static final long DEFAULT_MAX_BYTES = 512L * 1024L * 1024L;
+    static final String KIND_BRIDGE_AST = "bridge-ast";
+    static final String KIND_CLASSES = "classes";
+    static final String KIND_DESCRIPTORS = "descriptors";
+    static final String KIND_SOURCE_GRAPH = "source-graph";
+    private static final String LAYOUT_VERSION = "v1";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int CLASS_ENTRIES_MAGIC = 0x54534A43;
+    private static final long STALE_TEMP_MILLIS = 60L * 60L * 1000L;
+
+    private final Path root;
+    private final long maxBytes;
+
+    PersistentCompilationCache(final Path root, final long maxBytes) {
+        this.root = Objects.requireNonNull(root, "root").toAbsolutePath().normalize().resolve(LAYOUT_VERSION);
+        if (maxBytes <= 0L) {
+            throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cache selected by {@code tsj.backend.cacheDir}, or {@code null} when no cache is configured.
+     */
+    static PersistentCompilationCache configured() {
+        final String cacheDir = System.getProperty(CACHE_DIR_PROPERTY, "");
+        if (cacheDir.isBlank()) {
+            return null;
+        }
+        long maxBytes = DEFAULT_MAX_BYTES;
+        final String configuredMaxBytes = System.getProperty(CACHE_MAX_BYTES_PROPERTY, "");
+        if (!configuredMaxBytes.isBlank()) {
+            try {
+                maxBytes = Long.parseLong(configuredMaxBytes.trim());
+            } catch (final NumberFormatException numberFormatException) {
+                maxBytes = DEFAULT_MAX_BYTES;
+            }
+            if (maxBytes <= 0L) {
+                maxBytes = DEFAULT_MAX_BYTES;
+            }
+        }
+        return new PersistentCompilationCache(Path.of(cacheDir), maxBytes);
+    }
+
+    Path root() {
+        return root;
+    }
+
+    long maxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns the location of an entry that its owner reads and updates in place, such as the append-only
+     * descriptor log of {@link JavaSymbolTable}. Such owners follow the same temporary-file convention so
+     * eviction can clean up after them.
+     */
+    Path entryFile(final String kind, final String key) {
+        return entryPath(kind, key);
+    }
+
+    static String key(final String... parts) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException noSuchAlgorithmException) {
+            throw new IllegalStateException("SHA-256 digest is unavailable.", noSuchAlgorithmException);
+        }
+        for (String part : parts) {
+            digest.update((part == null ? "" : part).getBytes(UTF_8));
+            digest.update((byte) 0);
+        }
+        final byte[] bytes = digest.digest();
+        final StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (byte current : bytes) {
+            builder.append(String.format(Locale.ROOT, "%02x", current));
+        }
+        return builder.toString();
+    }
+
+    String readText(final String kind, final String key) {
+        final byte[] bytes = read(kind, key);
+        return bytes == null ? null : new String(bytes, UTF_8);
+    }
+
+    void writeText(final String kind, final String key, final String value) {
+        write(kind, key, value.getBytes(UTF_8));
+    }
+
+    /**
+     * Reads a bundle of named binary entries, such as the class files javac produced for one source.
+     */
+    Map<String, byte[]> readEntries(final String kind, final String key) {
+        final byte[] bytes = read(kind, key);
+        if (bytes == null) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (input.readInt() != CLASS_ENTRIES_MAGIC) {
+                return null;
+            }
+            final int count = input.readInt();
+            final Map<String, byte[]> entries = new LinkedHashMap<>();
+            for (int index = 0; index < count; index++) {
+                final String name = input.readUTF();
+                final byte[] content = new byte[input.readInt()];
+                input.readFully(content);
+                entries.put(name, content);
+            }
+            return entries;
+        } catch (final IOException | RuntimeException exception) {
+            return null;
+        }
+    }
+
+    void writeEntries(final String kind, final String key, final Map<String, byte[]> entries) {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(buffer)) {
+            output.writeInt(CLASS_ENTRIES_MAGIC);
+            output.writeInt(entries.size());
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                output.writeUTF(entry.getKey());
+                output.writeInt(entry.getValue().length);
+                output.write(entry.getValue());
+            }
+        } catch (final IOException ioException) {
+            return;
+        }
+        write(kind, key, buffer.toByteArray());
+    }
+
+    /**
+     * Deletes least recently used entries until the cache fits its byte budget again.
+     */
+    void evictIfOverLimit() {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        final List<CacheFile> files = new ArrayList<>();
+        long totalBytes = 0L;
+        final long now = System.currentTimeMillis();
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.filter(Files::isRegularFile).toList()) {
+                try {
+                    final long size = Files.size(path);
+                    final long lastModified = Files.getLastModifiedTime(path).toMillis();
+                    if (path.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                        if (now - lastModified > STALE_TEMP_MILLIS) {
+                            Files.deleteIfExists(path);
+                        }
+                        continue;
+                    }
+                    files.add(new CacheFile(path, size, lastModified));
+                    totalBytes += size;
+                } catch (final IOException ignored) {
+                    // Entry disappeared or is being replaced by another process.
+                }
+            }
+        } catch (final IOException | RuntimeException ignored) {
+            return;
+        }
+        if (totalBytes <= maxBytes) {
+            return;
+        }
+        files.sort(Comparator.comparingLong(CacheFile::lastModified));
+        for (CacheFile file : files) {
+            if (totalBytes <= maxBytes) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(file.path());
+                totalBytes -= file.size();
+            } catch (final IOException ignored) {
+                // Another process may hold or have removed the entry.
+            }
+        }
+    }
+
+    private Path entryPath(final String kind, final String key) {
+        return root.resolve(kind).resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private byte[] read(final String kind, final String key) {
+        final Path entry = entryPath(kind, key);
+        try (InputStream input = Files.newInputStream(entry)) {
+            final byte[] bytes = input.readAllBytes();
+            try {
+                Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            } catch (final IOException ignored) {
+                // Recency is advisory; a read-only cache still serves hits.
+            }
+            return bytes;
+        } catch (final IOException ioException) {
+            return null;
+        }
+    }
+
+    private void write(final String kind, final String key, final byte[] bytes) {
+        final Path entry = entryPath(kind, key);
+        Path tempFile = null;
+        try {
+            Files.createDirectories(entry.getParent());
+            tempFile = Files.createTempFile(entry.getParent(), key, TEMP_SUFFIX);
+            Files.write(tempFile, bytes);
+            try {
+                Files.move(tempFile, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (final AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+                Files.move(tempFile, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+            tempFile = null;
+        } catch (final IOException ignored) {
+            // Best-effort: the compile result does not depend on the cache write.
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (final IOException ignored) {
+                    // Best-effort cleanup.
+                }
+            }
+        }
+    }
+
+    private record CacheFile(Path path, long size, long lastModified) {
+    }
+}
@@ -11,8 +11,10 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
 import static java.nio.file.StandardOpenOption.WRITE;
@@ -23,12 +25,36 @@ final class TypeScriptSyntaxBridge {
     private static final String BRIDGE_SCRIPT_PROPERTY = "tsj.backend.tokenBridgeScript";
     private static final String BRIDGE_SCRIPT_REPO_RELATIVE = "compiler/frontend/ts-bridge/emit-backend-tokens.cjs";
     private static final String BRIDGE_SCRIPT_MODULE_RELATIVE = "frontend/ts-bridge/emit-backend-tokens.cjs";
+    private static final String TOOLCHAIN_VERSIONS_ARGUMENT = "--toolchain-versions";
+    private static final String UNKNOWN_TOOLCHAIN = "";
+    private static final Map<Path, String> TOOLCHAIN_VERSIONS = new ConcurrentHashMap<>();
 
     BridgeResult tokenize(final String sourceText, final Path sourceFileHint) {
         Objects.requireNonNull(sourceText, "sourceText");
         Objects.requireNonNull(sourceFileHint, "sourceFileHint");
 
         final Path bridgeScript = resolveBridgeScript();
+        final PersistentCompilationCache configuredCache = PersistentCompilationCache.configured();
+        final String toolchainVersions = configuredCache == null ? UNKNOWN_TOOLCHAIN : toolchainVersions(bridgeScript);
+        // Without known node and typescript versions a cached AST could come from another toolchain.
+        final PersistentCompilationCache persistentCache = UNKNOWN_TOOLCHAIN.equals(toolchainVersions)
+                ? null
+                : configuredCache;
+        final String cacheKey = persistentCache == null
+                ? null
+                : PersistentCompilationCache.key(
+                        SCHEMA_VERSION,
+                        bridgeScriptDigest(bridgeScript),
+                        toolchainVersions,
+                        sourceExtension(sourceFileHint),
+                        sourceText
+                );
+        if (persistentCache != null) {
+            final String cachedPayload = persistentCache.readText(PersistentCompilationCache.KIND_BRIDGE_AST, cacheKey);
+            if (cachedPayload != null) {
+                return parseBridgePayload(cachedPayload);
+            }
+        }
         final Path tempSource = createTempSource(sourceText, sourceFileHint);
         try {
             final ProcessBuilder processBuilder = new ProcessBuilder(
@@ -52,7 +78,11 @@ final class TypeScriptSyntaxBridge {
                         "TypeScript syntax bridge failed: " + (stderr.isBlank() ? stdout.trim() : stderr.trim())
                 );
             }
-            return parseBridgePayload(stdout);
+            final BridgeResult result = parseBridgePayload(stdout);
+            if (persistentCache != null) {
+                persistentCache.writeText(PersistentCompilationCache.KIND_BRIDGE_AST, cacheKey, stdout);
+            }
+            return result;
         } catch (final IOException ioException) {
             throw new JvmCompilationException(
                     "TSJ-BACKEND-AST-BRIDGE",
@@ -76,8 +106,51 @@ final class TypeScriptSyntaxBridge {
         }
     }
 
+    private static String sourceExtension(final Path sourceFileHint) {
+        return sourceFileHint.getFileName().toString().endsWith(".tsx") ? ".tsx" : ".ts";
+    }
+
+    private static String bridgeScriptDigest(final Path bridgeScript) {
+        try {
+            return PersistentCompilationCache.key(Files.readString(bridgeScript, StandardCharsets.UTF_8));
+        } catch (final IOException ioException) {
+            return bridgeScript.toString();
+        }
+    }
+
+    /**
+     * Returns the node and resolved {@code typescript} package versions the bridge script runs with, probed
+     * once per script per JVM, or {@link #UNKNOWN_TOOLCHAIN} when the probe fails.
+     */
+    private static String toolchainVersions(final Path bridgeScript) {
+        return TOOLCHAIN_VERSIONS.computeIfAbsent(bridgeScript, TypeScriptSyntaxBridge::probeToolchainVersions);
+    }
+
+    private static String probeToolchainVersions(final Path bridgeScript) {
+        try {
+            final ProcessBuilder processBuilder = new ProcessBuilder(
+                    "node",
+                    bridgeScript.toString(),
+                    TOOLCHAIN_VERSIONS_ARGUMENT
+            );
+            processBuilder.directory(Path.of("").toAbsolutePath().normalize().toFile());
+            processBuilder.redirectError(ProcessBuilder.Redirect.DISCARD);
+            final Process process = processBuilder.start();
+            final String stdout;
+            try (InputStream stdoutStream = process.getInputStream()) {
+                stdout = new String(stdoutStream.readAllBytes(), StandardCharsets.UTF_8).trim();
+            }
+            return process.waitFor() == 0 ? stdout : UNKNOWN_TOOLCHAIN;
+        } catch (final IOException ioException) {
+            return UNKNOWN_TOOLCHAIN;
+        } catch (final InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            return UNKNOWN_TOOLCHAIN;
+        }
+    }
+
     private static Path createTempSource(final String sourceText, final Path sourceFileHint) {
-        final String extension = sourceFileHint.getFileName().toString().endsWith(".tsx") ? ".tsx" : ".ts";
+        final String extension = sourceExtension(sourceFileHint);
         try {
             final Path tempFile = Files.createTempFile("tsj-backend-syntax-", extension);
             Files.writeString(tempFile, sourceText, StandardCharsets.UTF_8, WRITE, TRUNCATE_EXISTING);
@@ -0,0 +1,84 @@
+package dev.tsj.compiler.backend.jvm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompilationWorkersTest {
+    @Test
+    void returnsResultsInSubmissionOrderWhenTasksFinishOutOfOrder() {
+        withParallelism("4", () -> {
+            final CountDownLatch lastTaskDone = new CountDownLatch(1);
+            final List<Callable<String>> tasks = List.of(
+                    () -> {
+                        assertTrue(lastTaskDone.await(10, TimeUnit.SECONDS));
+                        return "first";
+                    },
+                    () -> "second",
+                    () -> {
+                        lastTaskDone.countDown();
+                        return "third";
+                    }
+            );
+
+            assertEquals(List.of("first", "second", "third"), CompilationWorkers.invokeAll(tasks));
+        });
+    }
+
+    @Test
+    void rethrowsFailureOfEarliestTask() {
+        withParallelism("4", () -> {
+            final List<Callable<String>> tasks = List.of(
+                    () -> "ok",
+                    () -> {
+                        throw new JvmCompilationException("TSJ-TEST-1", "first failure");
+                    },
+                    () -> {
+                        throw new JvmCompilationException("TSJ-TEST-2", "second failure");
+                    }
+            );
+
+            final JvmCompilationException exception = assertThrows(
+                    JvmCompilationException.class,
+                    () -> CompilationWorkers.invokeAll(tasks)
+            );
+            assertEquals("TSJ-TEST-1", exception.code());
+        });
+    }
+
+    @Test
+    void partitionsIntoContiguousWeightBalancedBatches() {
+        final List<Integer> weights = List.of(100, 1, 1, 1, 1);
+
+        final List<List<Integer>> batches = CompilationWorkers.partition(weights, 3, Integer::longValue);
+
+        assertEquals(List.of(List.of(100), List.of(1, 1), List.of(1, 1)), batches);
+        final List<Integer> flattened = new ArrayList<>();
+        batches.forEach(flattened::addAll);
+        assertEquals(weights, flattened);
+        assertEquals(List.of(List.of(1, 2)), CompilationWorkers.partition(List.of(1, 2), 1, Integer::longValue));
+        assertEquals(List.of(), CompilationWorkers.partition(List.<Integer>of(), 4, Integer::longValue));
+    }
+
+    private static void withParallelism(final String value, final Runnable body) {
+        final String previous = System.getProperty(CompilationWorkers.PARALLELISM_PROPERTY);
+        System.setProperty(CompilationWorkers.PARALLELISM_PROPERTY, value);
+        try {
+            body.run();
+        } finally {
+            if (previous == null) {
+                System.clearProperty(CompilationWorkers.PARALLELISM_PROPERTY);
+            } else {
+                System.setProperty(CompilationWorkers.PARALLELISM_PROPERTY, previous);
+            }
+        }
+    }
+}
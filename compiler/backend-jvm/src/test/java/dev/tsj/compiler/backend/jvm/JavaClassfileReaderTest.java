@@ -18,6 +18,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class JavaClassfileReaderTest {
@@ -250,6 +251,53 @@ class JavaClassfileReaderTest {
         assertTrue(javapOutput.contains(idMethod.descriptor()));
     }
 
+    @Test
+    void looksUpMembersByNameAndRejectsTruncatedClassfiles() throws Exception {
+        final Path classesDir = compileSources(Map.of(
+                "sample/tsj46/Overloads.java",
+                """
+                package sample.tsj46;
+
+                public class Overloads {
+                    public int size;
+
+                    public int size() {
+                        return size;
+                    }
+
+                    public String join(final String value) {
+                        return value;
+                    }
+
+                    public String join(final String left, final String right) {
+                        return left + right;
+                    }
+                }
+                """
+        ));
+        final byte[] bytes = Files.readAllBytes(classFile(classesDir, "sample/tsj46/Overloads"));
+        final JavaClassfileReader.RawClassInfo info = new JavaClassfileReader()
+                .read(bytes, Path.of("Overloads.class"));
+
+        final List<JavaClassfileReader.RawMethodInfo> joins = info.methodsNamed("join");
+        assertEquals(
+                List.of("(Ljava/lang/String;)Ljava/lang/String;", "(Ljava/lang/String;Ljava/lang/String;)Ljava/lang/String;"),
+                joins.stream().map(JavaClassfileReader.RawMethodInfo::descriptor).toList()
+        );
+        assertEquals(List.of("()I"), info.methodsNamed("size").stream()
+                .map(JavaClassfileReader.RawMethodInfo::descriptor)
+                .toList());
+        assertEquals(List.of("I"), info.fieldsNamed("size").stream()
+                .map(JavaClassfileReader.RawFieldInfo::descriptor)
+                .toList());
+        assertTrue(info.methodsNamed("missing").isEmpty());
+        assertEquals(joins, info.methods().stream().filter(method -> "join".equals(method.name())).toList());
+        assertEquals(joins, info.methodsNamed("join"));
+
+        final byte[] truncated = java.util.Arrays.copyOf(bytes, bytes.length - 3);
+        assertThrows(IOException.class, () -> new JavaClassfileReader().read(truncated, Path.of("Overloads.class")));
+    }
+
     private Path compileSources(final Map<String, String> relativeSources) throws Exception {
         final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
         if (compiler == null) {
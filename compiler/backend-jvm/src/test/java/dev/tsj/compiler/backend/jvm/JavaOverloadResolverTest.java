@@ -8,6 +8,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class JavaOverloadResolverTest {
@@ -74,6 +75,34 @@ class JavaOverloadResolverTest {
         assertTrue(resolution.diagnostic().contains("candidates"));
     }
 
+    @Test
+    void memoizesResolutionsAndConversionScoresPerCallShape() {
+        final JavaOverloadResolver memoizing = new JavaOverloadResolver();
+        final List<JavaOverloadResolver.Candidate> candidates = JavaOverloadResolver.candidatesForClassMethod(
+                OverloadFixture.class,
+                "needsInt",
+                JavaOverloadResolver.InvokeKind.STATIC_METHOD
+        );
+        final List<JavaOverloadResolver.Argument> stringArgument =
+                List.of(JavaOverloadResolver.Argument.descriptor("Ljava/lang/String;"));
+
+        final JavaOverloadResolver.Resolution first = memoizing.resolve(candidates, stringArgument);
+        final JavaOverloadResolver.Resolution second = memoizing.resolve(
+                JavaOverloadResolver.candidatesForClassMethod(
+                        OverloadFixture.class,
+                        "needsInt",
+                        JavaOverloadResolver.InvokeKind.STATIC_METHOD
+                ),
+                List.of(JavaOverloadResolver.Argument.descriptor("Ljava/lang/String;"))
+        );
+        memoizing.resolve(candidates, List.of(JavaOverloadResolver.Argument.descriptor("I")));
+
+        assertSame(first, second);
+        assertEquals(JavaOverloadResolver.Status.NO_APPLICABLE, second.status());
+        assertTrue(second.diagnostic().contains("No applicable candidate"));
+        assertEquals(new JavaOverloadResolver.CacheStats(1, 2, 0, 2), memoizing.cacheStats());
+    }
+
     @Test
     void reportsAmbiguousBestCandidatesWithCandidateSummary() {
         final List<JavaOverloadResolver.Candidate> candidates = JavaOverloadResolver.candidatesForClassMethod(
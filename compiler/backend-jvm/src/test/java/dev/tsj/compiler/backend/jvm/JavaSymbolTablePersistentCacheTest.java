@@ -5,6 +5,7 @@ import org.junit.jupiter.api.io.TempDir;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 import javax.tools.JavaCompiler;
 import javax.tools.JavaFileObject;
@@ -48,6 +49,7 @@ class JavaSymbolTablePersistentCacheTest {
         );
         assertTrue(cold.resolveClass("sample.tsj56.CacheOne").isPresent());
         assertEquals(1, cold.parsedCount("sample.tsj56.CacheOne"));
+        cold.flush();
 
         final JavaSymbolTable warm = new JavaSymbolTable(
                 List.of(classesDir),
@@ -91,6 +93,7 @@ class JavaSymbolTablePersistentCacheTest {
                 "1"
         );
         seed.resolveClass("sample.tsj56.Schema");
+        seed.flush();
 
         final JavaSymbolTable stale = new JavaSymbolTable(
                 List.of(classesDir),
@@ -186,6 +189,7 @@ class JavaSymbolTablePersistentCacheTest {
         for (String className : classNames) {
             assertTrue(cold.resolveClass(className).isPresent());
         }
+        cold.flush();
 
         final JavaSymbolTable warm = new JavaSymbolTable(
                 List.of(classesDir),
@@ -206,6 +210,146 @@ class JavaSymbolTablePersistentCacheTest {
         assertTrue(reuseRatio >= 0.9d, "Expected reuse ratio >= 0.9 but was " + reuseRatio);
     }
 
+    @Test
+    void appendsOnlyNewDescriptorsAndDecodesPersistedEntriesOnDemand() throws Exception {
+        final Path classesDir = tempDir.resolve("cache-append-classes");
+        for (String simpleName : List.of("AppendOne", "AppendTwo", "AppendThree")) {
+            compileClass(
+                    "sample.tsj56." + simpleName,
+                    """
+                    package sample.tsj56;
+
+                    public final class %s {
+                    }
+                    """.formatted(simpleName),
+                    classesDir
+            );
+        }
+        final Path cacheFile = tempDir.resolve("descriptor-cache-append.bin");
+        final JavaSymbolTable first = openTable(classesDir, "fp-append", cacheFile);
+        first.resolveClass("sample.tsj56.AppendOne");
+        first.resolveClass("sample.tsj56.AppendTwo");
+        assertEquals(0, Files.exists(cacheFile) ? Files.size(cacheFile) : 0L);
+        first.flush();
+        final long firstSize = Files.size(cacheFile);
+        assertEquals(2, first.cacheStats().appendedEntries());
+
+        final JavaSymbolTable second = openTable(classesDir, "fp-append", cacheFile);
+        assertEquals(2, second.cacheStats().persistedEntries());
+        assertEquals(2, second.cacheSize());
+        assertTrue(second.resolveClass("sample.tsj56.AppendOne").isPresent());
+        assertTrue(second.resolveClass("sample.tsj56.AppendThree").isPresent());
+        assertEquals(1, second.cacheStats().loadedEntries());
+        second.flush();
+        assertEquals(1, second.cacheStats().appendedEntries());
+        final byte[] written = Files.readAllBytes(cacheFile);
+        assertTrue(written.length > firstSize);
+
+        final JavaSymbolTable third = openTable(classesDir, "fp-append", cacheFile);
+        assertEquals(3, third.cacheStats().persistedEntries());
+        assertTrue(third.resolveClass("sample.tsj56.AppendThree").isPresent());
+        assertTrue(third.resolveClass("sample.tsj56.Missing").isEmpty());
+        third.flush();
+        final JavaSymbolTable fourth = openTable(classesDir, "fp-append", cacheFile);
+        assertTrue(fourth.resolveClass("sample.tsj56.Missing").isEmpty());
+        assertEquals(0, fourth.cacheStats().misses());
+    }
+
+    @Test
+    void recoversEntriesBeforeCorruptTailAndTruncatesIt() throws Exception {
+        final Path classesDir = tempDir.resolve("cache-tail-classes");
+        for (String simpleName : List.of("TailOne", "TailTwo")) {
+            compileClass(
+                    "sample.tsj56." + simpleName,
+                    """
+                    package sample.tsj56;
+
+                    public final class %s {
+                    }
+                    """.formatted(simpleName),
+                    classesDir
+            );
+        }
+        final Path cacheFile = tempDir.resolve("descriptor-cache-tail.bin");
+        final JavaSymbolTable seed = openTable(classesDir, "fp-tail", cacheFile);
+        seed.resolveClass("sample.tsj56.TailOne");
+        seed.flush();
+        final long intactSize = Files.size(cacheFile);
+        seed.resolveClass("sample.tsj56.TailTwo");
+        seed.flush();
+        final byte[] bytes = Files.readAllBytes(cacheFile);
+        Files.write(cacheFile, Arrays.copyOf(bytes, bytes.length - 7));
+
+        final JavaSymbolTable recovered = openTable(classesDir, "fp-tail", cacheFile);
+        assertTrue(recovered.cacheDiagnostics().stream().anyMatch(message -> message.contains("truncated")));
+        assertEquals(0, recovered.cacheStats().invalidations());
+        assertEquals(1, recovered.cacheStats().persistedEntries());
+        assertTrue(recovered.resolveClass("sample.tsj56.TailOne").isPresent());
+        assertTrue(recovered.resolveClass("sample.tsj56.TailTwo").isPresent());
+        assertEquals(1, recovered.cacheStats().hits());
+        assertEquals(1, recovered.cacheStats().misses());
+        recovered.flush();
+        assertTrue(Files.size(cacheFile) > intactSize);
+
+        final JavaSymbolTable reopened = openTable(classesDir, "fp-tail", cacheFile);
+        assertTrue(reopened.cacheDiagnostics().isEmpty());
+        assertEquals(2, reopened.cacheStats().persistedEntries());
+        assertTrue(reopened.resolveClass("sample.tsj56.TailTwo").isPresent());
+        assertEquals(0, reopened.cacheStats().misses());
+    }
+
+    @Test
+    void cuttingADamagedTailKeepsRecordsAppendedByAnotherCompile() throws Exception {
+        final Path classesDir = tempDir.resolve("cache-shared-tail-classes");
+        for (String simpleName : List.of("SharedOne", "SharedTwo", "SharedThree")) {
+            compileClass(
+                    "sample.tsj56." + simpleName,
+                    """
+                    package sample.tsj56;
+
+                    public final class %s {
+                    }
+                    """.formatted(simpleName),
+                    classesDir
+            );
+        }
+        final Path cacheFile = tempDir.resolve("descriptor-cache-shared-tail.bin");
+        final JavaSymbolTable seed = openTable(classesDir, "fp-shared", cacheFile);
+        seed.resolveClass("sample.tsj56.SharedOne");
+        seed.flush();
+        final byte[] intact = Files.readAllBytes(cacheFile);
+        final byte[] damaged = Arrays.copyOf(intact, intact.length + 5);
+        Files.write(cacheFile, damaged);
+
+        final JavaSymbolTable first = openTable(classesDir, "fp-shared", cacheFile);
+        final JavaSymbolTable second = openTable(classesDir, "fp-shared", cacheFile);
+        assertTrue(first.cacheDiagnostics().stream().anyMatch(message -> message.contains("truncated")));
+        second.resolveClass("sample.tsj56.SharedTwo");
+        second.flush();
+        first.resolveClass("sample.tsj56.SharedThree");
+        first.flush();
+
+        final JavaSymbolTable reopened = openTable(classesDir, "fp-shared", cacheFile);
+        assertTrue(reopened.cacheDiagnostics().isEmpty());
+        assertEquals(3, reopened.cacheStats().persistedEntries());
+        for (String simpleName : List.of("SharedOne", "SharedTwo", "SharedThree")) {
+            assertTrue(reopened.resolveClass("sample.tsj56." + simpleName).isPresent());
+        }
+        assertEquals(0, reopened.cacheStats().misses());
+    }
+
+    private static JavaSymbolTable openTable(final Path classesDir, final String fingerprint, final Path cacheFile) {
+        return new JavaSymbolTable(
+                List.of(classesDir),
+                fingerprint,
+                21,
+                new JavaClassfileReader(),
+                cacheFile,
+                "tsj-test",
+                "1"
+        );
+    }
+
     private static void compileClass(final String fqcn, final String sourceText, final Path classesRoot) throws Exception {
         final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
         if (compiler == null) {
@@ -12,6 +12,7 @@ import dev.tsj.compiler.backend.jvm.fixtures.annotations.TypedAttributeMark;
 import dev.tsj.compiler.backend.jvm.fixtures.annotations.TypedAttributeMode;
 import dev.tsj.compiler.backend.jvm.fixtures.annotations.TypeMark;
 import dev.tsj.runtime.TsjRuntime;
+import dev.tsj.runtime.TsjThrownException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -19,6 +20,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
@@ -28,6 +30,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
@@ -169,6 +172,95 @@ class JvmBytecodeCompilerTest {
         }
     }
 
+    @Test
+    void strictJvmFieldCallsBetweenNativeClassesBindToTypedMethods() throws Exception {
+        final Path sourceFile = tempDir.resolve("strict-native-typed-calls.ts");
+        Files.writeString(
+                sourceFile,
+                """
+                class Repository {
+                  prefix: string;
+
+                  constructor() {
+                    this.prefix = "owner:";
+                  }
+
+                  find(name: string, limit: number) {
+                    return this.prefix + name + "/" + limit;
+                  }
+                }
+
+                class Service {
+                  repository: Repository;
+
+                  constructor(repository: Repository) {
+                    this.repository = repository;
+                  }
+
+                  lookup(name: string) {
+                    return this.repository.find(name, 2);
+                  }
+                }
+
+                class Controller {
+                  service: Service;
+
+                  constructor(service: Service) {
+                    this.service = service;
+                  }
+
+                  handle(name: string) {
+                    return this.service.lookup(name);
+                  }
+                }
+                """,
+                UTF_8
+        );
+
+        final Path outDir = tempDir.resolve("strict-native-typed-calls-out");
+        final JvmCompiledArtifact artifact = new JvmBytecodeCompiler().compile(
+                sourceFile,
+                outDir,
+                JvmOptimizationOptions.defaults(),
+                JvmBytecodeCompiler.BackendMode.JVM_STRICT
+        );
+
+        final String generatedSources = allGeneratedJavaSources(outDir);
+        assertTrue(generatedSources.contains("__tsjStrictReceiver(this.service, \"lookup\").lookup("), generatedSources);
+        assertTrue(generatedSources.contains("__tsjStrictReceiver(this.repository, \"find\").find("), generatedSources);
+        assertFalse(generatedSources.contains("invokeMemberPreservingJava(this.service"), generatedSources);
+        assertFalse(generatedSources.contains("invokeMemberPreservingJava(this.repository"), generatedSources);
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{artifact.outputDirectory().toUri().toURL()})) {
+            final Class<?> repositoryClass = Class.forName("dev.tsj.generated.Repository", true, classLoader);
+            final Class<?> serviceClass = Class.forName("dev.tsj.generated.Service", true, classLoader);
+            final Object repository = repositoryClass.getConstructor().newInstance();
+            final Object service = resolveCompatibleConstructor(serviceClass, new Object[]{repository})
+                    .newInstance(repository);
+            final Object result = invokeStrictInstanceMethod(
+                    classLoader,
+                    "Controller",
+                    "handle",
+                    new Object[]{service},
+                    new Object[]{"Ada"}
+            );
+            assertEquals("owner:Ada/2", result);
+
+            final InvocationTargetException unsetField = assertThrows(
+                    InvocationTargetException.class,
+                    () -> invokeStrictInstanceMethod(
+                            classLoader,
+                            "Controller",
+                            "handle",
+                            new Object[]{null},
+                            new Object[]{"Ada"}
+                    )
+            );
+            final TsjThrownException thrown = assertInstanceOf(TsjThrownException.class, unsetField.getCause());
+            assertEquals("TypeError", TsjRuntime.getProperty(thrown.thrownValue(), "name"));
+        }
+    }
+
     @Test
     void strictJvmEligibleAnnotatedClassEmitsExecutableTopLevelClassWithoutMetadataCarrier() throws Exception {
         final Path sourceFile = tempDir.resolve("strict-native-executable-class.ts");
@@ -5138,6 +5230,576 @@ class JvmBytecodeCompilerTest {
         assertTrue(baselineSource.contains("while (dev.tsj.runtime.TsjRuntime.truthy(Boolean.FALSE))"));
     }
 
+    @Test
+    void inlinesSmallNonEscapingFunctionsAndSpecializesArrayCallbacks() throws Exception {
+        final Path sourceFile = tempDir.resolve("inline-and-specialize.ts");
+        Files.writeString(
+                sourceFile,
+                """
+                function twice(value: number) {
+                  return value * 2;
+                }
+                const area = (width: number, height: number) => width * height;
+                const items = [{ id: 1, name: "a" }, { id: 2, name: "b" }];
+                const wanted = 2;
+                const found = items.find((item) => item.id === wanted);
+                const names = items.map((item) => item.name);
+                console.log("twice=" + twice(21) + " area=" + area(3, 4) + " iife=" + ((a, b) => a - b)(9, 4));
+                console.log("found=" + found.name + " names=" + names.join(","));
+                """,
+                UTF_8
+        );
+
+        final Path optimizedOut = tempDir.resolve("inline-on");
+        final JvmBytecodeCompiler optimizedCompiler = new JvmBytecodeCompiler();
+        final JvmCompiledArtifact optimizedArtifact = optimizedCompiler.compile(sourceFile, optimizedOut);
+        final String optimizedSource = generatedJavaSource(optimizedOut, optimizedArtifact);
+        assertEquals(
+                new JvmBytecodeCompiler.OptimizationReport(3, 2, 2, 0, 0),
+                optimizedCompiler.lastOptimizationReport()
+        );
+        assertTrue(optimizedSource.contains("TsjRuntime.invokeArrayCallback("));
+
+        final Path baselineOut = tempDir.resolve("inline-off");
+        final JvmBytecodeCompiler baselineCompiler = new JvmBytecodeCompiler();
+        final JvmCompiledArtifact baselineArtifact = baselineCompiler.compile(
+                sourceFile,
+                baselineOut,
+                JvmOptimizationOptions.defaults().withInliningEnabled(false)
+        );
+        final String baselineSource = generatedJavaSource(baselineOut, baselineArtifact);
+        assertEquals(JvmBytecodeCompiler.OptimizationReport.none(), baselineCompiler.lastOptimizationReport());
+        assertFalse(baselineSource.contains("TsjRuntime.invokeArrayCallback("));
+
+        final String expected = "twice=42 area=12 iife=5\nfound=b names=a,b\n";
+        final ByteArrayOutputStream optimizedStdout = new ByteArrayOutputStream();
+        new JvmBytecodeRunner().run(optimizedArtifact, new PrintStream(optimizedStdout));
+        assertEquals(expected, optimizedStdout.toString(UTF_8));
+        final ByteArrayOutputStream baselineStdout = new ByteArrayOutputStream();
+        new JvmBytecodeRunner().run(baselineArtifact, new PrintStream(baselineStdout));
+        assertEquals(expected, baselineStdout.toString(UTF_8));
+    }
+
+    @Test
+    void treeShakesUnreachableModuleFunctionsExportsAndSideEffectFreeModules() throws Exception {
+        final Path libFile = tempDir.resolve("shake-lib.ts");
+        Files.writeString(
+                libFile,
+                """
+                export function used(value: number) {
+                  return helper(value) + 1;
+                }
+                function helper(value: number) {
+                  return value * 2;
+                }
+                export function unused() {
+                  return "never-called";
+                }
+                export const alsoUnused = () => 42;
+                console.log("lib loaded");
+                """,
+                UTF_8
+        );
+        final Path formatFile = tempDir.resolve("shake-format.ts");
+        Files.writeString(
+                formatFile,
+                """
+                export function format(value: number) {
+                  return "formatted=" + value;
+                }
+                """,
+                UTF_8
+        );
+        final Path entryFile = tempDir.resolve("shake-main.ts");
+        Files.writeString(
+                entryFile,
+                """
+                import { used } from "./shake-lib";
+                import { format } from "./shake-format";
+                console.log("result=" + used(3));
+                """,
+                UTF_8
+        );
+
+        final Path shakenOut = tempDir.resolve("shake-on");
+        final JvmBytecodeCompiler shakenCompiler = new JvmBytecodeCompiler();
+        final JvmCompiledArtifact shakenArtifact = shakenCompiler.compile(entryFile, shakenOut);
+        final String shakenSource = allGeneratedJavaSources(shakenOut);
+        assertEquals(7, shakenCompiler.lastOptimizationReport().shakenDeclarations());
+        assertEquals(1, shakenCompiler.lastOptimizationReport().shakenModules());
+        assertFalse(shakenSource.contains("never-called"));
+        assertFalse(shakenSource.contains("formatted="));
+
+        final Path baselineOut = tempDir.resolve("shake-off");
+        final JvmCompiledArtifact baselineArtifact = new JvmBytecodeCompiler().compile(
+                entryFile,
+                baselineOut,
+                JvmOptimizationOptions.disabled()
+        );
+        assertTrue(allGeneratedJavaSources(baselineOut).contains("never-called"));
+
+        final String expected = "lib loaded\nresult=7\n";
+        final ByteArrayOutputStream shakenStdout = new ByteArrayOutputStream();
+        new JvmBytecodeRunner().run(shakenArtifact, new PrintStream(shakenStdout));
+        assertEquals(expected, shakenStdout.toString(UTF_8));
+        final ByteArrayOutputStream baselineStdout = new ByteArrayOutputStream();
+        new JvmBytecodeRunner().run(baselineArtifact, new PrintStream(baselineStdout));
+        assertEquals(expected, baselineStdout.toString(UTF_8));
+    }
+
+    @Test
+    void helloWorldDeclaresOnlyReferencedBuiltinCellsAndLeavesOtherHoldersUninitialized() throws Exception {
+        final Path sourceFile = tempDir.resolve("hello-builtins.ts");
+        Files.writeString(
+                sourceFile,
+                """
+                console.log("hello " + Math.max(1, 2));
+                """,
+                UTF_8
+        );
+
+        final Path outDir = tempDir.resolve("hello-builtins-out");
+        final JvmCompiledArtifact artifact = new JvmBytecodeCompiler().compile(sourceFile, outDir);
+        final String javaSource = generatedJavaSource(outDir, artifact);
+        assertTrue(javaSource.contains("MATH_BUILTIN_CELL = new dev.tsj.runtime.TsjCell("));
+        assertFalse(javaSource.contains("PROXY_BUILTIN_CELL"));
+        assertFalse(javaSource.contains("DATE_BUILTIN_CELL"));
+
+        final URL runtimeClasses = TsjRuntime.class.getProtectionDomain().getCodeSource().getLocation();
+        try (IsolatedProgramLoader loader = new IsolatedProgramLoader(
+                runtimeClasses,
+                artifact.outputDirectory().toUri().toURL()
+        )) {
+            final Class<?> mainClass = Class.forName(artifact.className(), true, loader);
+            final PrintStream originalOut = System.out;
+            final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+            System.setOut(new PrintStream(stdout, true, UTF_8));
+            try {
+                mainClass.getMethod("main", String[].class).invoke(null, (Object) new String[0]);
+            } finally {
+                System.setOut(originalOut);
+            }
+            assertEquals("hello 2\n", stdout.toString(UTF_8));
+            for (String holder : List.of(
+                    "$ProxyHolder",
+                    "$ReflectHolder",
+                    "$DateHolder",
+                    "$BigIntHolder",
+                    "$RegExpHolder",
+                    "$WeakMapHolder",
+                    "$WeakSetHolder",
+                    "$WeakRefHolder"
+            )) {
+                assertFalse(loader.isLoaded(TsjRuntime.class.getName() + holder), holder);
+            }
+        }
+    }
+
+    @Test
+    void keepsCallsWhenInliningWouldChangeBindingsOrEvaluationOrder() throws Exception {
+        final Path sourceFile = tempDir.resolve("inline-guards.ts");
+        Files.writeString(
+                sourceFile,
+                """
+                const offset = 10;
+                function addOffset(value: number) {
+                  return value + offset;
+                }
+                function shadowed() {
+                  const offset = 1;
+                  return addOffset(5);
+                }
+                let counter = 1;
+                function bump() {
+                  counter = counter + 1;
+                  return 0;
+                }
+                function readAfterBump(value: number) {
+                  return bump() + value;
+                }
+                function fact(n: number) {
+                  return n <= 1 ? 1 : n * fact(n - 1);
+                }
+                function identity(value: number) {
+                  return value;
+                }
+                const alias = identity;
+                const custom = { length: 1, map: (callback) => "custom-map" };
+                console.log("shadowed=" + shadowed() + " order=" + readAfterBump(counter) + " fact=" + fact(5));
+                console.log("alias=" + alias(7) + " custom=" + custom.map((value) => value));
+                """,
+                UTF_8
+        );
+
+        final Path outDir = tempDir.resolve("inline-guards-out");
+        final JvmBytecodeCompiler compiler = new JvmBytecodeCompiler();
+        final JvmCompiledArtifact artifact = compiler.compile(sourceFile, outDir);
+
+        assertEquals(0, compiler.lastOptimizationReport().inlinedCallSites());
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        new JvmBytecodeRunner().run(artifact, new PrintStream(stdout));
+        assertEquals("shadowed=15 order=1 fact=120\nalias=7 custom=custom-map\n", stdout.toString(UTF_8));
+    }
+
+    @Test
+    void hoistsLoopInvariantPropertyReadsOutOfLoopsThatCannotRunUserCode() throws Exception {
+        final Path sourceFile = tempDir.resolve("loop-invariant-reads.ts");
+        Files.writeString(
+                sourceFile,
+                """
+                class Shelter {
+                  config: any;
+                  constructor(config: any) {
+                    this.config = config;
+                  }
+                  weigh(limit: number) {
+                    let i = 0;
+                    let total = 0;
+                    while (i < this.config.count) {
+                      if (i * this.config.step > limit && !(i === 9)) {
+                        total = total + this.config.step;
+                      }
+                      i = i + 1;
+                    }
+                    return total;
+                  }
+                }
+                const shelter = new Shelter({ count: 6, step: 3 });
+                let reads = 0;
+                const sized = {};
+                Object.defineProperty(sized, "size", { get: () => { reads = reads + 1; return 2; } });
+                let j = 0;
+                while (j < sized.size) {
+                  j = j + 1;
+                }
+                const grown = [1];
+                let k = 0;
+                while (k < grown.length && k < 4) {
+                  grown.push(k);
+                  k = k + 1;
+                }
+                console.log("total=" + shelter.weigh(5) + " reads=" + reads + " grown=" + grown.length);
+                """,
+                UTF_8
+        );
+
+        final Path optimizedOut = tempDir.resolve("loop-opt-on");
+        final JvmCompiledArtifact optimizedArtifact = new JvmBytecodeCompiler().compile(sourceFile, optimizedOut);
+        final String optimizedSource = generatedJavaSource(optimizedOut, optimizedArtifact);
+        assertTrue(optimizedSource.matches(
+                "(?s).*final Object loopRead\\w* = dev\\.tsj\\.runtime\\.TsjRuntime\\.loopInvariantProperty"
+                        + "\\(thisObject\\w*, \"config\"\\);.*"
+        ));
+        assertTrue(optimizedSource.matches("(?s).*loopInvariantProperty\\(loopRead\\w*, \"count\"\\).*"));
+        assertEquals(
+                2,
+                optimizedSource.split("TsjRuntime\\.loopInvariantProperty\\(loopRead\\w*, \"step\"\\)", -1).length
+        );
+        assertTrue(optimizedSource.matches(
+                "(?s).*final boolean loopInvariant\\w* = .*isLoopInvariantPrimitive\\(limit\\w*\\.get\\(\\)\\).*"
+        ));
+        assertTrue(optimizedSource.matches("(?s).*while \\([^\\n]*\\(loopInvariant\\w* \\? loopRead\\w* : .*"));
+        assertTrue(optimizedSource.matches(
+                "(?s).*TsjRuntime\\.loopInvariantProperty\\(sized_cell\\.get\\(\\), \"size\"\\).*"
+        ));
+        assertFalse(optimizedSource.contains("TsjRuntime.loopInvariantProperty(grown_cell.get()"));
+        assertFalse(optimizedSource.contains("truthy(Boolean.valueOf("));
+
+        final Path baselineOut = tempDir.resolve("loop-opt-off");
+        final JvmCompiledArtifact baselineArtifact = new JvmBytecodeCompiler().compile(
+                sourceFile,
+                baselineOut,
+                JvmOptimizationOptions.disabled()
+        );
+        final String baselineSource = generatedJavaSource(baselineOut, baselineArtifact);
+        assertFalse(baselineSource.contains("TsjRuntime.loopInvariantProperty("));
+        assertTrue(baselineSource.contains("truthy(Boolean.valueOf("));
+
+        final String expected = "total=12 reads=3 grown=5\n";
+        final ByteArrayOutputStream optimizedStdout = new ByteArrayOutputStream();
+        new JvmBytecodeRunner().run(optimizedArtifact, new PrintStream(optimizedStdout));
+        assertEquals(expected, optimizedStdout.toString(UTF_8));
+        final ByteArrayOutputStream baselineStdout = new ByteArrayOutputStream();
+        new JvmBytecodeRunner().run(baselineArtifact, new PrintStream(baselineStdout));
+        assertEquals(expected, baselineStdout.toString(UTF_8));
+    }
+
+    @Test
+    void hoistedLoopReadsFallBackWhenGettersOrValueOfCouldMutateReceivers() throws Exception {
+        final Path sourceFile = tempDir.resolve("loop-invariant-mutations.ts");
+        Files.writeString(
+                sourceFile,
+                """
+                const box = { limit: 5 };
+                const meter = {};
+                Object.defineProperty(meter, "level", { get: () => { box.limit = 2; return 0; } });
+                let i = 0;
+                let seen = 0;
+                while (i < box.limit) {
+                  seen = seen + meter.level;
+                  i = i + 1;
+                }
+                const range = { end: 4 };
+                const start = { valueOf: () => { range.end = 1; return 0; } };
+                let n = 0;
+                while (n < range.end - start) {
+                  n = n + 1;
+                }
+                let innerReads = 0;
+                const holder = {};
+                Object.defineProperty(holder, "inner", { get: () => { innerReads = innerReads + 1; return { value: 1 }; } });
+                let skipped = 0;
+                while (skipped > 0) {
+                  skipped = skipped + holder.inner.value;
+                }
+                console.log("i=" + i + " n=" + n + " skipped=" + skipped + " innerReads=" + innerReads);
+                """,
+                UTF_8
+        );
+
+        final Path optimizedOut = tempDir.resolve("loop-mutations-opt-on");
+        final JvmCompiledArtifact optimizedArtifact = new JvmBytecodeCompiler().compile(sourceFile, optimizedOut);
+        final String optimizedSource = generatedJavaSource(optimizedOut, optimizedArtifact);
+        assertTrue(optimizedSource.contains("TsjRuntime.loopInvariantProperty(box_cell.get(), \"limit\")"));
+        assertTrue(optimizedSource.contains("TsjRuntime.loopInvariantProperty(range_cell.get(), \"end\")"));
+        assertTrue(optimizedSource.contains("TsjRuntime.isLoopInvariantPrimitive(start_cell.get())"));
+        assertTrue(optimizedSource.contains("TsjRuntime.loopInvariantProperty(holder_cell.get(), \"inner\")"));
+
+        final String expected = "i=2 n=1 skipped=0 innerReads=0\n";
+        final ByteArrayOutputStream optimizedStdout = new ByteArrayOutputStream();
+        new JvmBytecodeRunner().run(optimizedArtifact, new PrintStream(optimizedStdout));
+        assertEquals(expected, optimizedStdout.toString(UTF_8));
+        final Path baselineOut = tempDir.resolve("loop-mutations-opt-off");
+        final JvmCompiledArtifact baselineArtifact = new JvmBytecodeCompiler().compile(
+                sourceFile,
+                baselineOut,
+                JvmOptimizationOptions.disabled()
+        );
+        final ByteArrayOutputStream baselineStdout = new ByteArrayOutputStream();
+        new JvmBytecodeRunner().run(baselineArtifact, new PrintStream(baselineStdout));
+        assertEquals(expected, baselineStdout.toString(UTF_8));
+    }
+
+    @Test
+    void propagatesLocalConstantsThroughSsaIntoConditionsAndExpressions() throws Exception {
+        final Path sourceFile = tempDir.resolve("ssa-constants.ts");
+        Files.writeString(
+                sourceFile,
+                """
+                function score(n: number) {
+                  const limit = 3;
+                  const scale = limit * 2;
+                  let debug = false;
+                  let total = 0;
+                  let i = 0;
+                  while (i < limit) {
+                    if (debug) {
+                      console.log("never");
+                    }
+                    total = total + n * scale;
+                    i = i + 1;
+                  }
+                  let mode = "fast";
+                  if (n > 1) {
+                    mode = "fast";
+                  }
+                  return mode + ":" + total;
+                }
+                function captured() {
+                  let k = 1;
+                  const bump = () => { k = k + 1; };
+                  bump();
+                  return k;
+                }
+                function merged(flag: boolean) {
+                  let v = 1;
+                  if (flag) {
+                    v = 2;
+                  }
+                  let w = 5;
+                  flag && (w = 6);
+                  return v * 10 + w;
+                }
+                console.log(score(2) + " " + captured() + " " + merged(true) + " " + merged(false));
+                """,
+                UTF_8
+        );
+
+        final Path optimizedOut = tempDir.resolve("ssa-on");
+        final JvmCompiledArtifact optimizedArtifact = new JvmBytecodeCompiler().compile(sourceFile, optimizedOut);
+        final String optimizedSource = generatedJavaSource(optimizedOut, optimizedArtifact);
+        assertTrue(optimizedSource.contains(" < 3.0d)"));
+        assertTrue(optimizedSource.contains("dev.tsj.runtime.TsjRuntime.number(6.0d))"));
+        assertFalse(optimizedSource.contains("limit_cell"));
+        assertFalse(optimizedSource.contains("\"never\""));
+        assertTrue(optimizedSource.contains("return k_cell.get();"));
+        assertFalse(optimizedSource.contains("return dev.tsj.runtime.TsjRuntime.number(26.0d);"));
+
+        final Path baselineOut = tempDir.resolve("ssa-off");
+        final JvmCompiledArtifact baselineArtifact = new JvmBytecodeCompiler().compile(
+                sourceFile,
+                baselineOut,
+                JvmOptimizationOptions.disabled()
+        );
+        final String baselineSource = generatedJavaSource(baselineOut, baselineArtifact);
+        assertTrue(baselineSource.contains("lessThan(i_cell.get(), limit_cell.get())"));
+        assertTrue(baselineSource.contains("\"never\""));
+
+        final String expected = "fast:36 2 26 15\n";
+        final ByteArrayOutputStream optimizedStdout = new ByteArrayOutputStream();
+        new JvmBytecodeRunner().run(optimizedArtifact, new PrintStream(optimizedStdout));
+        assertEquals(expected, optimizedStdout.toString(UTF_8));
+        final ByteArrayOutputStream baselineStdout = new ByteArrayOutputStream();
+        new JvmBytecodeRunner().run(baselineArtifact, new PrintStream(baselineStdout));
+        assertEquals(expected, baselineStdout.toString(UTF_8));
+    }
+
+    @Test
+    void generatesFunctionBodiesFromSsaWithUnboxedNumbersAndFallsBackForCalls() throws Exception {
+        final Path sourceFile = tempDir.resolve("ssa-codegen.ts");
+        Files.writeString(
+                sourceFile,
+                """
+                function sumTo(n: number) {
+                  let total = 0;
+                  let i = 1;
+                  while (i <= n) {
+                    if (i % 3 === 0 || i % 5 === 0) {
+                      total = total + i;
+                    }
+                    i = i + 1;
+                  }
+                  return total;
+                }
+                function fib(n: number) {
+                  let a = 0;
+                  let b = 1;
+                  while (n > 0) {
+                    const t = a + b;
+                    a = b;
+                    b = t;
+                    n = n - 1;
+                  }
+                  return a;
+                }
+                function classify(x: number) {
+                  const half = x / 2;
+                  const label = x > 10 ? "big" : "small";
+                  if (half < 0) {
+                    return -half;
+                  }
+                  return label + ":" + half;
+                }
+                function twice(f) {
+                  let calls = f();
+                  calls = calls + f();
+                  return calls;
+                }
+                console.log(sumTo(999) + " " + fib(40) + " " + classify(21) + " " + classify(-4));
+                console.log(sumTo("10") + " " + twice(() => 4) + " " + (0 / classify(0)));
+                """,
+                UTF_8
+        );
+
+        final Path optimizedOut = tempDir.resolve("ssa-codegen-on");
+        final JvmCompiledArtifact optimizedArtifact = new JvmBytecodeCompiler().compile(sourceFile, optimizedOut);
+        final String optimizedSource = generatedJavaSource(optimizedOut, optimizedArtifact);
+        assertTrue(optimizedSource.contains("double ssaValue"));
+        assertTrue(optimizedSource.contains("switch (ssaBlock)"));
+        assertFalse(optimizedSource.contains("total_cell"));
+        assertTrue(optimizedSource.contains("calls_cell"));
+
+        final Path baselineOut = tempDir.resolve("ssa-codegen-off");
+        final JvmCompiledArtifact baselineArtifact = new JvmBytecodeCompiler().compile(
+                sourceFile,
+                baselineOut,
+                JvmOptimizationOptions.disabled()
+        );
+        final String baselineSource = generatedJavaSource(baselineOut, baselineArtifact);
+        assertFalse(baselineSource.contains("ssaBlock"));
+
+        final String expected = "233168 102334155 big:10.5 2\n33 8 NaN\n";
+        final ByteArrayOutputStream optimizedStdout = new ByteArrayOutputStream();
+        new JvmBytecodeRunner().run(optimizedArtifact, new PrintStream(optimizedStdout));
+        assertEquals(expected, optimizedStdout.toString(UTF_8));
+        final ByteArrayOutputStream baselineStdout = new ByteArrayOutputStream();
+        new JvmBytecodeRunner().run(baselineArtifact, new PrintStream(baselineStdout));
+        assertEquals(expected, baselineStdout.toString(UTF_8));
+    }
+
+    @Test
+    void specializesSitesFromTypeFeedbackRecordedByInstrumentedBuild() throws Exception {
+        final Path sourceFile = tempDir.resolve("pgo.ts");
+        final String source = """
+                class Point {
+                  constructor(x: number, y: number) { this.x = x; this.y = y; }
+                  norm() { return this.x * this.x + this.y * this.y; }
+                }
+                function work(n: number) {
+                  let total = 0;
+                  let i = 0;
+                  let label = "";
+                  while (i < n) {
+                    const p = new Point(i, i + 1);
+                    total = total + p.norm();
+                    if (i > 1000) {
+                      label = label + "big";
+                    } else {
+                      total = total + 1;
+                    }
+                    i = i + 1;
+                  }
+                  return total + ":" + label;
+                }
+                console.log(work(20));
+                """;
+        Files.writeString(sourceFile, source, UTF_8);
+        final Path profile = tempDir.resolve("pgo.tsjprof");
+
+        final Path instrumentedOut = tempDir.resolve("pgo-instrumented");
+        final JvmBytecodeCompiler instrumentingCompiler = new JvmBytecodeCompiler();
+        final JvmCompiledArtifact instrumentedArtifact = instrumentingCompiler.compile(
+                sourceFile,
+                instrumentedOut,
+                JvmOptimizationOptions.defaults().withProfile(null, profile)
+        );
+        assertEquals("instrumented", instrumentingCompiler.lastProfileReport().status());
+        assertTrue(generatedJavaSource(instrumentedOut, instrumentedArtifact).contains(".branch("));
+        final ByteArrayOutputStream instrumentedStdout = new ByteArrayOutputStream();
+        new JvmBytecodeRunner().run(instrumentedArtifact, new PrintStream(instrumentedStdout));
+        dev.tsj.runtime.TsjTypeFeedback.flush();
+        assertTrue(Files.readString(profile, UTF_8).contains(" mono\n"));
+
+        final Path guidedOut = tempDir.resolve("pgo-guided");
+        final JvmBytecodeCompiler guidedCompiler = new JvmBytecodeCompiler();
+        final JvmCompiledArtifact guidedArtifact = guidedCompiler.compile(
+                sourceFile,
+                guidedOut,
+                JvmOptimizationOptions.defaults().withProfile(profile, null)
+        );
+        final JvmBytecodeCompiler.ProfileReport report = guidedCompiler.lastProfileReport();
+        assertEquals("applied", report.status());
+        assertEquals(instrumentingCompiler.lastProfileReport().unit(), report.unit());
+        assertEquals(1, report.devirtualizedCallSites());
+        assertEquals(1, report.reorderedBranchSites());
+        assertTrue(report.numericAddSites() >= 4, report.toString());
+        final String guidedSource = generatedJavaSource(guidedOut, guidedArtifact);
+        assertTrue(guidedSource.contains("TsjRuntime.invokeMemberCached(MEMBER_CACHE_"));
+        assertTrue(guidedSource.contains("if (!(dev.tsj.runtime.TsjRuntime.greaterThan("));
+        assertTrue(guidedSource.contains("TsjRuntime.add(dev.tsj.runtime.TsjRuntime.add(total_cell.get(), \":\")"));
+
+        final ByteArrayOutputStream guidedStdout = new ByteArrayOutputStream();
+        new JvmBytecodeRunner().run(guidedArtifact, new PrintStream(guidedStdout));
+        assertEquals("5360:\n", instrumentedStdout.toString(UTF_8));
+        assertEquals(instrumentedStdout.toString(UTF_8), guidedStdout.toString(UTF_8));
+
+        Files.writeString(sourceFile, source.replace("work(20)", "work(21)"), UTF_8);
+        final JvmBytecodeCompiler staleCompiler = new JvmBytecodeCompiler();
+        staleCompiler.compile(sourceFile, tempDir.resolve("pgo-stale"), JvmOptimizationOptions.defaults().withProfile(profile, null));
+        assertEquals("stale", staleCompiler.lastProfileReport().status());
+        assertEquals(0, staleCompiler.lastProfileReport().numericAddSites());
+    }
+
     @Test
     void optimizationBenchmarkShowsGeneratedSourceReductionAcrossFixtureSet() throws Exception {
         final Path fixturesRoot = tempDir.resolve("tsj17-fixtures");
@@ -6399,6 +7061,31 @@ class JvmBytecodeCompilerTest {
         assertEquals("regex=true\n", stdout.toString(UTF_8));
     }
 
+    @Test
+    void regexpLiteralLastIndexLivesOnEachEvaluatedRegex() throws Exception {
+        final Path sourceFile = tempDir.resolve("regexp-literal-state.ts");
+        Files.writeString(
+                sourceFile,
+                """
+                function firstDigits(input: string): string {
+                  const digits = /[0-9]+/g;
+                  return digits.exec(input)[0];
+                }
+                const shared = /[0-9]+/g;
+                shared.exec("a1b22");
+                console.log(firstDigits("a1b22") + ":" + firstDigits("a1b22") + ":" + shared.lastIndex);
+                console.log("" + /a+/gi);
+                """,
+                UTF_8
+        );
+
+        final JvmCompiledArtifact artifact = new JvmBytecodeCompiler().compile(sourceFile, tempDir.resolve("out-regexp-state"));
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        new JvmBytecodeRunner().run(artifact, new PrintStream(stdout));
+
+        assertEquals("1:1:2\n/a+/gi\n", stdout.toString(UTF_8));
+    }
+
     @Test
     void supportsAsyncFunctionExpressionWithAwaitInBinaryExpression() throws Exception {
         final Path sourceFile = tempDir.resolve("async-fn-expression.ts");
@@ -7276,6 +7963,58 @@ class JvmBytecodeCompilerTest {
         assertEquals("default=41\nvalue=7\n", stdout.toString(UTF_8));
     }
 
+    @Test
+    void emitsModuleClassesAndInitializesDynamicOnlyModulesOnFirstImport() throws Exception {
+        final Path staticDep = tempDir.resolve("dep.ts");
+        final Path lazyDep = tempDir.resolve("lazy.ts");
+        final Path entry = tempDir.resolve("main.ts");
+        Files.writeString(
+                staticDep,
+                """
+                console.log("dep init");
+                export const greeting = "hi";
+                """,
+                UTF_8
+        );
+        Files.writeString(
+                lazyDep,
+                """
+                console.log("lazy init");
+                export const value = 7;
+                """,
+                UTF_8
+        );
+        Files.writeString(
+                entry,
+                """
+                import { greeting } from "./dep.ts";
+                console.log("main " + greeting);
+                const first = await import("./lazy.ts");
+                const second = await import("./lazy.ts");
+                console.log("value=" + first.value + "," + second.value);
+                """,
+                UTF_8
+        );
+
+        final JvmCompiledArtifact artifact = new JvmBytecodeCompiler().compile(entry, tempDir.resolve("out-module-classes"));
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        new JvmBytecodeRunner().run(artifact, new PrintStream(stdout));
+
+        assertEquals("dep init\nmain hi\nlazy init\nvalue=7,7\n", stdout.toString(UTF_8));
+        final String classFileName = artifact.classFile().getFileName().toString();
+        final String modulePrefix = classFileName.substring(0, classFileName.length() - ".class".length())
+                + "__TsjModule_";
+        try (Stream<Path> classFiles = Files.list(artifact.classFile().getParent())) {
+            assertEquals(
+                    3L,
+                    classFiles
+                            .map(path -> path.getFileName().toString())
+                            .filter(name -> name.startsWith(modulePrefix) && name.endsWith(".class"))
+                            .count()
+            );
+        }
+    }
+
     @Test
     void supportsNamedImportLiveBindingForMutableExportInTsj65Subset() throws Exception {
         final Path module = tempDir.resolve("dep.ts");
@@ -8914,6 +9653,248 @@ class JvmBytecodeCompilerTest {
         }
     }
 
+    @Test
+    void reusesCompiledModuleClassesAndRebuildsOnlyEditedModulesInSameOutputDirectory() throws Exception {
+        final String previousIncrementalCache = System.getProperty("tsj.backend.incrementalCache");
+        try {
+            System.setProperty("tsj.backend.incrementalCache", "true");
+
+            final Path dependency = tempDir.resolve("module-dep.ts");
+            Files.writeString(dependency, "export function describe() { return \"one\"; }\n", UTF_8);
+            final Path sourceFile = tempDir.resolve("module-main.ts");
+            Files.writeString(
+                    sourceFile,
+                    """
+                    import { describe } from "./module-dep.ts";
+                    console.log("value=" + describe());
+                    """,
+                    UTF_8
+            );
+            final Path outDir = tempDir.resolve("module-incremental-out");
+
+            final JvmBytecodeCompiler compiler = new JvmBytecodeCompiler();
+            compiler.compile(sourceFile, outDir);
+            final JvmBytecodeCompiler.IncrementalCompilationReport first = compiler.lastIncrementalCompilationReport();
+            assertEquals(JvmBytecodeCompiler.IncrementalStageState.MISS, first.backend());
+            assertEquals(2, first.moduleCount());
+            assertEquals(2, first.rebuiltModules().size());
+
+            compiler.compile(sourceFile, outDir);
+            final JvmBytecodeCompiler.IncrementalCompilationReport second = compiler.lastIncrementalCompilationReport();
+            assertEquals(JvmBytecodeCompiler.IncrementalStageState.HIT, second.backend());
+            assertTrue(second.rebuiltModules().isEmpty());
+
+            Files.writeString(dependency, "export function describe() { return \"two\"; }\n", UTF_8);
+            final JvmCompiledArtifact artifact = compiler.compile(sourceFile, outDir);
+            final JvmBytecodeCompiler.IncrementalCompilationReport third = compiler.lastIncrementalCompilationReport();
+            assertEquals(JvmBytecodeCompiler.IncrementalStageState.INVALIDATED, third.backend());
+            assertEquals(
+                    List.of(dependency.toAbsolutePath().normalize()),
+                    third.rebuiltModules()
+            );
+
+            final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+            new JvmBytecodeRunner().run(artifact, new PrintStream(stdout));
+            assertEquals("value=two\n", stdout.toString(UTF_8));
+        } finally {
+            restoreSystemProperty("tsj.backend.incrementalCache", previousIncrementalCache);
+        }
+    }
+
+    @Test
+    void moduleClassesKeepSourceLocationsAndStaleModuleOutputsAreRemoved() throws Exception {
+        final Path dependency = tempDir.resolve("module-map-dep.ts");
+        Files.writeString(
+                dependency,
+                """
+                let calls = 0;
+                export function describe() {
+                  calls = calls + 1;
+                  return "calls=" + calls;
+                }
+                """,
+                UTF_8
+        );
+        final Path sourceFile = tempDir.resolve("module-map-main.ts");
+        Files.writeString(
+                sourceFile,
+                """
+                import { describe } from "./module-map-dep.ts";
+                console.log(describe());
+                """,
+                UTF_8
+        );
+        final Path outDir = tempDir.resolve("module-map-out");
+
+        final JvmCompiledArtifact modular = new JvmBytecodeCompiler().compile(sourceFile, outDir);
+        final Path classesPackageDir = modular.classFile().getParent();
+        final String simpleName = modular.className().substring(modular.className().lastIndexOf('.') + 1);
+        final String dependencyPath = dependency.toAbsolutePath().normalize().toString();
+        final String moduleMap = Files.readString(
+                classesPackageDir.resolve(simpleName + "__TsjModule_0.tsj.map"),
+                UTF_8
+        );
+        assertTrue(moduleMap.contains(dependencyPath + "\t3\t"), moduleMap);
+        final String mainMap = Files.readString(modular.sourceMapFile(), UTF_8);
+        assertTrue(mainMap.contains(dependencyPath + "\t1\t"), mainMap);
+
+        Files.write(classesPackageDir.resolve(simpleName + "__TsjModule_7.class"), new byte[0]);
+        Files.write(classesPackageDir.resolve(simpleName + "__TsjModule_1$1.class"), new byte[0]);
+        Files.writeString(sourceFile, "console.log(\"single\");\n", UTF_8);
+        final JvmCompiledArtifact single = new JvmBytecodeCompiler().compile(sourceFile, outDir);
+
+        try (Stream<Path> outputs = Files.list(single.classFile().getParent())) {
+            final List<String> staleOutputs = outputs.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(simpleName + "__TsjModule_"))
+                    .toList();
+            assertEquals(List.of(), staleOutputs);
+        }
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        new JvmBytecodeRunner().run(single, new PrintStream(stdout));
+        assertEquals("single\n", stdout.toString(UTF_8));
+    }
+
+    @Test
+    void restoresCompiledClassesFromPersistentCacheIntoFreshOutputDirectory() throws Exception {
+        final String previousCacheDir = System.getProperty("tsj.backend.cacheDir");
+        try {
+            System.setProperty("tsj.backend.cacheDir", tempDir.resolve("persistent-cache").toString());
+
+            final Path sourceFile = tempDir.resolve("persistent-main.ts");
+            Files.writeString(
+                    sourceFile,
+                    """
+                    function twice(value: number) { return value * 2; }
+                    console.log("value=" + twice(21));
+                    """,
+                    UTF_8
+            );
+
+            new JvmBytecodeCompiler().compile(sourceFile, tempDir.resolve("persistent-out-1"));
+
+            final JvmBytecodeCompiler compiler = new JvmBytecodeCompiler();
+            final JvmCompiledArtifact artifact = compiler.compile(sourceFile, tempDir.resolve("persistent-out-2"));
+            assertEquals(
+                    JvmBytecodeCompiler.IncrementalStageState.HIT,
+                    compiler.lastIncrementalCompilationReport().backend()
+            );
+            final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+            new JvmBytecodeRunner().run(artifact, new PrintStream(stdout));
+            assertEquals("value=42\n", stdout.toString(UTF_8));
+        } finally {
+            restoreSystemProperty("tsj.backend.cacheDir", previousCacheDir);
+        }
+    }
+
+    @Test
+    void reusesPersistedJavaDescriptorsAcrossCompilers() throws Exception {
+        final String previousCacheDir = System.getProperty("tsj.backend.cacheDir");
+        try {
+            System.setProperty("tsj.backend.cacheDir", tempDir.resolve("descriptor-cache").toString());
+            final Path sourceFile = tempDir.resolve("descriptor-main.ts");
+            Files.writeString(sourceFile, "console.log(\"descriptors\");\n", UTF_8);
+
+            final JvmBytecodeCompiler cold = new JvmBytecodeCompiler();
+            cold.compile(sourceFile, tempDir.resolve("descriptor-out-1"));
+            final JvmBytecodeCompiler.DescriptorCacheReport coldReport = cold.lastDescriptorCacheReport();
+            assertTrue(coldReport.persistent());
+            assertTrue(coldReport.misses() > 0, coldReport.toString());
+            assertEquals(coldReport.misses(), coldReport.appendedEntries());
+
+            final JvmBytecodeCompiler warm = new JvmBytecodeCompiler();
+            warm.compile(sourceFile, tempDir.resolve("descriptor-out-2"));
+            final JvmBytecodeCompiler.DescriptorCacheReport warmReport = warm.lastDescriptorCacheReport();
+            assertEquals(coldReport.appendedEntries(), warmReport.persistedEntries());
+            assertEquals(0L, warmReport.misses(), warmReport.toString());
+            assertEquals(coldReport.misses(), warmReport.hits());
+            assertEquals(0, warmReport.appendedEntries());
+        } finally {
+            restoreSystemProperty("tsj.backend.cacheDir", previousCacheDir);
+        }
+    }
+
+    @Test
+    void compilesModuleGraphInParallelBatchesWithSequentialOutput() throws Exception {
+        final String previousParallelism = System.getProperty("tsj.backend.parallelism");
+        try {
+            final StringBuilder entrySource = new StringBuilder();
+            for (int moduleIndex = 0; moduleIndex < 4; moduleIndex++) {
+                final StringBuilder moduleSource = new StringBuilder();
+                for (int functionIndex = 0; functionIndex < 20; functionIndex++) {
+                    moduleSource.append("function step")
+                            .append(functionIndex)
+                            .append("(value: number) { return value + ")
+                            .append(functionIndex)
+                            .append("; }\n");
+                }
+                moduleSource.append("export function total")
+                        .append(moduleIndex)
+                        .append("() { return step19(step0(")
+                        .append(moduleIndex)
+                        .append(")); }\n");
+                Files.writeString(tempDir.resolve("parallel-" + moduleIndex + ".ts"), moduleSource.toString(), UTF_8);
+                entrySource.append("import { total")
+                        .append(moduleIndex)
+                        .append(" } from \"./parallel-")
+                        .append(moduleIndex)
+                        .append(".ts\";\n");
+            }
+            entrySource.append("console.log(\"totals=\" + total0() + \",\" + total1() + \",\" + total2() + \",\" + total3());\n");
+            final Path entry = tempDir.resolve("parallel-main.ts");
+            Files.writeString(entry, entrySource.toString(), UTF_8);
+
+            System.setProperty("tsj.backend.parallelism", "1");
+            final JvmCompiledArtifact sequential = new JvmBytecodeCompiler().compile(entry, tempDir.resolve("parallel-out-1"));
+            System.setProperty("tsj.backend.parallelism", "4");
+            final JvmCompiledArtifact parallel = new JvmBytecodeCompiler().compile(entry, tempDir.resolve("parallel-out-4"));
+
+            final ByteArrayOutputStream sequentialOut = new ByteArrayOutputStream();
+            new JvmBytecodeRunner().run(sequential, new PrintStream(sequentialOut));
+            final ByteArrayOutputStream parallelOut = new ByteArrayOutputStream();
+            new JvmBytecodeRunner().run(parallel, new PrintStream(parallelOut));
+            assertEquals("totals=19,20,21,22\n", sequentialOut.toString(UTF_8));
+            assertEquals(sequentialOut.toString(UTF_8), parallelOut.toString(UTF_8));
+            try (Stream<Path> sequentialClasses = Files.list(sequential.classFile().getParent());
+                 Stream<Path> parallelClasses = Files.list(parallel.classFile().getParent())) {
+                assertEquals(
+                        sequentialClasses.map(path -> path.getFileName().toString()).sorted().toList(),
+                        parallelClasses.map(path -> path.getFileName().toString()).sorted().toList()
+                );
+            }
+        } finally {
+            restoreSystemProperty("tsj.backend.parallelism", previousParallelism);
+        }
+    }
+
+    @Test
+    void ordersJavacUnitsByGeneratedClassReferences() throws Exception {
+        final Path sourceRoot = Files.createDirectories(tempDir.resolve("javac-levels/dev/tsj/generated"));
+        final Path program = sourceRoot.resolve("LevelProgram.java");
+        final Path module = sourceRoot.resolve("LevelProgram__TsjModule_0.java");
+        final Path carrier = sourceRoot.resolve("LevelCarrier.java");
+        final Path helper = sourceRoot.resolve("LevelHelper.java");
+        Files.writeString(program, "final class LevelProgram { Object m = LevelProgram__TsjModule_0.class; }\n", UTF_8);
+        Files.writeString(
+                module,
+                "import static dev.tsj.generated.LevelProgram.*;\nfinal class LevelProgram__TsjModule_0 { }\n",
+                UTF_8
+        );
+        Files.writeString(carrier, "final class LevelCarrier { LevelHelper helper; LevelProgram program; }\n", UTF_8);
+        Files.writeString(helper, "final class LevelHelper { }\n", UTF_8);
+
+        final List<List<List<Path>>> levels = JvmBytecodeCompiler.javacCompileLevels(
+                List.of(program, module, carrier, helper)
+        );
+
+        assertEquals(
+                List.of(
+                        List.of(List.of(program, module), List.of(helper)),
+                        List.of(List.of(carrier))
+                ),
+                levels
+        );
+    }
+
     @Test
     void emitsVerifierSafeClassThatCanBeLoadedReflectively() throws Exception {
         final Path sourceFile = tempDir.resolve("loadable.ts");
@@ -9112,6 +10093,26 @@ class JvmBytecodeCompilerTest {
         return Files.readString(generatedSource, UTF_8);
     }
 
+    private static String allGeneratedJavaSources(final Path outDir) throws Exception {
+        final StringBuilder builder = new StringBuilder();
+        try (Stream<Path> paths = Files.walk(outDir.resolve("generated-src"))) {
+            for (Path path : paths.filter(path -> path.toString().endsWith(".java")).sorted().toList()) {
+                builder.append(Files.readString(path, UTF_8));
+            }
+        }
+        return builder.toString();
+    }
+
+    private static final class IsolatedProgramLoader extends URLClassLoader {
+        private IsolatedProgramLoader(final URL runtimeClasses, final URL programClasses) {
+            super(new URL[]{runtimeClasses, programClasses}, ClassLoader.getPlatformClassLoader());
+        }
+
+        private boolean isLoaded(final String className) {
+            return findLoadedClass(className) != null;
+        }
+    }
+
     private static int runtimeOperationCount(final String javaSource) {
         final String marker = "dev.tsj.runtime.TsjRuntime.";
         int count = 0;
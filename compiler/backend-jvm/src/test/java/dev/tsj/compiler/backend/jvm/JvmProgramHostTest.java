@@ -0,0 +1,308 @@
+package dev.tsj.compiler.backend.jvm;
+
+import dev.tsj.runtime.TsjCell;
+import dev.tsj.runtime.TsjModuleState;
+import dev.tsj.runtime.TsjRealm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class JvmProgramHostTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void repeatedRunsReuseTheProgramLoaderUntilClassesChange() throws Exception {
+        final Path outDir = tempDir.resolve("counter-out");
+        final JvmCompiledArtifact artifact = compileProgram(
+                outDir,
+                "sample.host.CounterProgram",
+                """
+                package sample.host;
+
+                public final class CounterProgram {
+                    private static int count;
+
+                    public static void main(String[] args) {
+                        count++;
+                        System.out.println("count=" + count);
+                    }
+                }
+                """
+        );
+
+        try (JvmProgramHost host = new JvmProgramHost(
+                artifact,
+                List.of(),
+                JvmBytecodeRunner.ClassloaderIsolationMode.SHARED
+        )) {
+            final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+            final PrintStream printStream = new PrintStream(stdout, true, UTF_8);
+            host.run(printStream, printStream);
+            host.run(printStream, printStream);
+            host.reload(artifact);
+            host.run(printStream, printStream);
+            Files.setLastModifiedTime(
+                    artifact.classFile(),
+                    FileTime.fromMillis(Files.getLastModifiedTime(artifact.classFile()).toMillis() + 1_000L)
+            );
+            host.reload(artifact);
+            host.run(printStream, printStream);
+
+            assertEquals(
+                    String.join(System.lineSeparator(), "count=1", "count=2", "count=3", "count=1", ""),
+                    stdout.toString(UTF_8)
+            );
+        }
+    }
+
+    @Test
+    void generatedProgramsInitializeOncePerRealmInOneLoader() throws Exception {
+        final Path entryFile = tempDir.resolve("realm-main.ts");
+        Files.writeString(
+                entryFile,
+                """
+                import { next } from "./realm-counter";
+                console.log("count=" + next());
+                """,
+                UTF_8
+        );
+        Files.writeString(
+                tempDir.resolve("realm-counter.ts"),
+                """
+                let count = 0;
+                export function next() {
+                  count = count + 1;
+                  return count;
+                }
+                """,
+                UTF_8
+        );
+        final JvmCompiledArtifact artifact = new JvmBytecodeCompiler().compile(entryFile, tempDir.resolve("realm-out"));
+
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        final PrintStream printStream = new PrintStream(stdout, true, UTF_8);
+        final TsjRealm tenantA = TsjRealm.create("tenant-a");
+        final TsjRealm tenantB = TsjRealm.create("tenant-b");
+        try (URLClassLoader loader = new URLClassLoader(
+                new URL[]{artifact.outputDirectory().toUri().toURL()},
+                getClass().getClassLoader()
+        )) {
+            final JvmBytecodeRunner.ClassloaderIsolationMode mode = JvmBytecodeRunner.ClassloaderIsolationMode.SHARED;
+            JvmBytecodeRunner.invokeMain(loader, artifact.className(), mode, tenantA, printStream, printStream);
+            JvmBytecodeRunner.invokeMain(loader, artifact.className(), mode, tenantA, printStream, printStream);
+            JvmBytecodeRunner.invokeMain(loader, artifact.className(), mode, tenantB, printStream, printStream);
+        }
+
+        assertEquals("count=1\ncount=1\n", stdout.toString(UTF_8));
+        assertEquals(
+                TsjModuleState.INITIALIZED,
+                tenantA.moduleRegistry().stateOf(artifact.className())
+        );
+        assertEquals(
+                TsjModuleState.INITIALIZED,
+                tenantB.moduleRegistry().stateOf(artifact.className())
+        );
+
+        final ByteArrayOutputStream hostStdout = new ByteArrayOutputStream();
+        final PrintStream hostPrintStream = new PrintStream(hostStdout, true, UTF_8);
+        try (JvmProgramHost host = new JvmProgramHost(
+                artifact,
+                List.of(),
+                JvmBytecodeRunner.ClassloaderIsolationMode.SHARED
+        )) {
+            host.run(hostPrintStream, hostPrintStream);
+            host.run(hostPrintStream, hostPrintStream);
+        }
+        assertEquals("count=1\ncount=1\n", hostStdout.toString(UTF_8));
+    }
+
+    @Test
+    void alternatingRealmsKeepTheirOwnTopLevelBindingsInOneLoader() throws Exception {
+        final Path entryFile = tempDir.resolve("alternating-main.ts");
+        Files.writeString(
+                entryFile,
+                """
+                let count = 0;
+                count = count + 1;
+                console.log("count=" + count);
+                """,
+                UTF_8
+        );
+        final JvmCompiledArtifact artifact = new JvmBytecodeCompiler().compile(
+                entryFile,
+                tempDir.resolve("alternating-out")
+        );
+
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        final PrintStream printStream = new PrintStream(stdout, true, UTF_8);
+        final TsjRealm tenantA = TsjRealm.create("tenant-a");
+        final TsjRealm tenantB = TsjRealm.create("tenant-b");
+        try (URLClassLoader loader = new URLClassLoader(
+                new URL[]{artifact.outputDirectory().toUri().toURL()},
+                getClass().getClassLoader()
+        )) {
+            final JvmBytecodeRunner.ClassloaderIsolationMode mode = JvmBytecodeRunner.ClassloaderIsolationMode.SHARED;
+            JvmBytecodeRunner.invokeMain(loader, artifact.className(), mode, tenantA, printStream, printStream);
+            final Method resolve = loader.loadClass(artifact.className())
+                    .getDeclaredMethod("__tsjResolveTopLevelBinding", String.class);
+            resolve.setAccessible(true);
+            final Object countInA = tenantA.execute(() -> resolve.invoke(null, "count"));
+
+            JvmBytecodeRunner.invokeMain(loader, artifact.className(), mode, tenantB, printStream, printStream);
+            JvmBytecodeRunner.invokeMain(loader, artifact.className(), mode, tenantA, printStream, printStream);
+            final Object countInB = tenantB.execute(() -> resolve.invoke(null, "count"));
+
+            assertSame(countInA, tenantA.execute(() -> resolve.invoke(null, "count")));
+            assertNotSame(countInA, countInB);
+            assertEquals(1, ((TsjCell) countInA).get());
+            assertEquals(1, ((TsjCell) countInB).get());
+        }
+
+        assertEquals("count=1\ncount=1\n", stdout.toString(UTF_8));
+    }
+
+    @Test
+    void hostRunsInterleavedRealmsAgainstOneProgramLoader() throws Exception {
+        final Path entryFile = tempDir.resolve("interleaved-main.ts");
+        Files.writeString(
+                entryFile,
+                """
+                let count = 0;
+                count = count + 1;
+                console.log("count=" + count);
+                """,
+                UTF_8
+        );
+        final JvmCompiledArtifact artifact = new JvmBytecodeCompiler().compile(
+                entryFile,
+                tempDir.resolve("interleaved-out")
+        );
+
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        final PrintStream printStream = new PrintStream(stdout, true, UTF_8);
+        final TsjRealm tenantA = TsjRealm.create("tenant-a");
+        final TsjRealm tenantB = TsjRealm.create("tenant-b");
+        try (JvmProgramHost host = new JvmProgramHost(
+                artifact,
+                List.of(),
+                JvmBytecodeRunner.ClassloaderIsolationMode.SHARED
+        )) {
+            host.run(tenantA, printStream, printStream);
+            host.run(tenantB, printStream, printStream);
+            host.reload(artifact);
+            assertEquals(0, host.lastReloadedClassCount());
+            host.run(tenantA, printStream, printStream);
+            host.run(printStream, printStream);
+        }
+
+        assertEquals("count=1\ncount=1\ncount=1\n", stdout.toString(UTF_8));
+        assertEquals(TsjModuleState.INITIALIZED, tenantA.moduleRegistry().stateOf(artifact.className()));
+        assertEquals(TsjModuleState.INITIALIZED, tenantB.moduleRegistry().stateOf(artifact.className()));
+    }
+
+    @Test
+    void reloadRereadsOnlyChangedClassFiles() throws Exception {
+        final Path outDir = tempDir.resolve("greeting-out");
+        final JvmCompiledArtifact first = compileProgram(
+                outDir,
+                "sample.host.GreetingProgram",
+                """
+                package sample.host;
+
+                public final class GreetingProgram {
+                    public static void main(String[] args) {
+                        System.out.println(Message.TEXT);
+                    }
+                }
+
+                final class Message {
+                    static final String TEXT = new String("hello");
+                }
+                """
+        );
+
+        try (JvmProgramHost host = new JvmProgramHost(
+                first,
+                List.of(),
+                JvmBytecodeRunner.ClassloaderIsolationMode.SHARED
+        )) {
+            assertEquals(2, host.lastReloadedClassCount());
+            host.reload(first);
+            assertEquals(0, host.lastReloadedClassCount());
+
+            final Path messageClass = outDir.resolve("sample/host/Message.class");
+            final FileTime previousTimestamp = Files.getLastModifiedTime(messageClass);
+            final Path mainClass = first.classFile();
+            final FileTime mainTimestamp = Files.getLastModifiedTime(mainClass);
+            final JvmCompiledArtifact second = compileProgram(
+                    outDir,
+                    "sample.host.GreetingProgram",
+                    """
+                    package sample.host;
+
+                    public final class GreetingProgram {
+                        public static void main(String[] args) {
+                            System.out.println(Message.TEXT);
+                        }
+                    }
+
+                    final class Message {
+                        static final String TEXT = new String("hello again");
+                    }
+                    """
+            );
+            Files.setLastModifiedTime(mainClass, mainTimestamp);
+            Files.setLastModifiedTime(messageClass, FileTime.fromMillis(previousTimestamp.toMillis() + 1_000L));
+            host.reload(second);
+            assertEquals(1, host.lastReloadedClassCount());
+
+            final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+            final PrintStream printStream = new PrintStream(stdout, true, UTF_8);
+            host.run(printStream, printStream);
+            assertEquals("hello again" + System.lineSeparator(), stdout.toString(UTF_8));
+        }
+    }
+
+    private JvmCompiledArtifact compileProgram(
+            final Path outDir,
+            final String className,
+            final String source
+    ) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull(compiler);
+        final Path sourceFile = tempDir.resolve("src").resolve(className.replace('.', '/') + ".java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.createDirectories(outDir);
+        Files.writeString(sourceFile, source, UTF_8);
+        final int exitCode = compiler.run(null, null, null, "-d", outDir.toString(), sourceFile.toString());
+        assertEquals(0, exitCode);
+        final Path classFile = outDir.resolve(className.replace('.', '/') + ".class");
+        return new JvmCompiledArtifact(
+                sourceFile,
+                outDir,
+                className,
+                classFile,
+                outDir.resolve(className.replace('.', '/') + ".tsj.map"),
+                "runtime-carrier"
+        );
+    }
+}
@@ -0,0 +1,106 @@
+package dev.tsj.compiler.backend.jvm;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PersistentCompilationCacheTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void roundTripsTextAndClassEntriesAcrossInstances() {
+        final Path cacheDir = tempDir.resolve("cache");
+        final String textKey = PersistentCompilationCache.key("bridge", "source-a");
+        final String classKey = PersistentCompilationCache.key("classes", "source-a");
+        final Map<String, byte[]> classes = new LinkedHashMap<>();
+        classes.put("MainProgram.class", new byte[]{1, 2, 3});
+        classes.put("MainProgram$1.class", new byte[]{4});
+
+        final PersistentCompilationCache writer = new PersistentCompilationCache(cacheDir, 1024L * 1024L);
+        assertNull(writer.readText(PersistentCompilationCache.KIND_BRIDGE_AST, textKey));
+        writer.writeText(PersistentCompilationCache.KIND_BRIDGE_AST, textKey, "{\"astNodes\":[]}");
+        writer.writeEntries(PersistentCompilationCache.KIND_CLASSES, classKey, classes);
+
+        final PersistentCompilationCache reader = new PersistentCompilationCache(cacheDir, 1024L * 1024L);
+        assertEquals("{\"astNodes\":[]}", reader.readText(PersistentCompilationCache.KIND_BRIDGE_AST, textKey));
+        final Map<String, byte[]> restored = reader.readEntries(PersistentCompilationCache.KIND_CLASSES, classKey);
+        assertNotNull(restored);
+        assertEquals(List.of("MainProgram.class", "MainProgram$1.class"), List.copyOf(restored.keySet()));
+        assertArrayEquals(new byte[]{1, 2, 3}, restored.get("MainProgram.class"));
+    }
+
+    @Test
+    void treatsCorruptClassEntriesAsMisses() throws Exception {
+        final Path cacheDir = tempDir.resolve("corrupt-cache");
+        final PersistentCompilationCache cache = new PersistentCompilationCache(cacheDir, 1024L * 1024L);
+        final String key = PersistentCompilationCache.key("classes", "corrupt");
+        cache.writeText(PersistentCompilationCache.KIND_CLASSES, key, "not a class bundle");
+
+        assertNull(cache.readEntries(PersistentCompilationCache.KIND_CLASSES, key));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntriesOverByteBudget() throws Exception {
+        final Path cacheDir = tempDir.resolve("bounded-cache");
+        final PersistentCompilationCache cache = new PersistentCompilationCache(cacheDir, 250L);
+        final String oldKey = PersistentCompilationCache.key("old");
+        final String recentKey = PersistentCompilationCache.key("recent");
+        cache.writeText(PersistentCompilationCache.KIND_BRIDGE_AST, oldKey, "x".repeat(200));
+        cache.writeText(PersistentCompilationCache.KIND_BRIDGE_AST, recentKey, "y".repeat(200));
+        try (Stream<Path> entries = Files.walk(cache.root())) {
+            for (Path entry : entries.filter(Files::isRegularFile).toList()) {
+                final long age = entry.getFileName().toString().equals(oldKey) ? 60_000L : 0L;
+                Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis() - age));
+            }
+        }
+
+        cache.evictIfOverLimit();
+
+        assertNull(cache.readText(PersistentCompilationCache.KIND_BRIDGE_AST, oldKey));
+        assertEquals("y".repeat(200), cache.readText(PersistentCompilationCache.KIND_BRIDGE_AST, recentKey));
+    }
+
+    @Test
+    void configuredCacheFollowsSystemProperties() {
+        final String previousDir = System.getProperty(PersistentCompilationCache.CACHE_DIR_PROPERTY);
+        final String previousMaxBytes = System.getProperty(PersistentCompilationCache.CACHE_MAX_BYTES_PROPERTY);
+        try {
+            System.clearProperty(PersistentCompilationCache.CACHE_DIR_PROPERTY);
+            assertNull(PersistentCompilationCache.configured());
+
+            System.setProperty(PersistentCompilationCache.CACHE_DIR_PROPERTY, tempDir.resolve("configured").toString());
+            System.setProperty(PersistentCompilationCache.CACHE_MAX_BYTES_PROPERTY, "4096");
+            final PersistentCompilationCache cache = PersistentCompilationCache.configured();
+            assertNotNull(cache);
+            assertEquals(4096L, cache.maxBytes());
+            assertTrue(cache.root().startsWith(tempDir.resolve("configured").toAbsolutePath().normalize()));
+            cache.writeText(PersistentCompilationCache.KIND_SOURCE_GRAPH, PersistentCompilationCache.key("k"), "v");
+            assertTrue(Files.isDirectory(cache.root().resolve(PersistentCompilationCache.KIND_SOURCE_GRAPH)));
+        } finally {
+            restore(PersistentCompilationCache.CACHE_DIR_PROPERTY, previousDir);
+            restore(PersistentCompilationCache.CACHE_MAX_BYTES_PROPERTY, previousMaxBytes);
+        }
+    }
+
+    private static void restore(final String key, final String value) {
+        if (value == null) {
+            System.clearProperty(key);
+        } else {
+            System.setProperty(key, value);
+        }
+    }
+}
@@ -56,6 +56,52 @@ class TypeScriptSyntaxBridgeTest {
         assertTrue(result.tokens().isEmpty());
     }
 
+    @Test
+    void persistentAstCacheIsKeyedByToolchainVersions() throws Exception {
+        final String script = """
+                const fs = require('node:fs');
+                const path = require('node:path');
+                const toolchain = fs.readFileSync(path.join(__dirname, 'toolchain.txt'), 'utf8').trim();
+                if (process.argv[2] === '--toolchain-versions') {
+                  process.stdout.write(toolchain + '\\n');
+                } else {
+                  process.stdout.write(JSON.stringify({
+                    schemaVersion: "tsj-backend-token-v1",
+                    diagnostics: [],
+                    tokens: [{ type: "IDENTIFIER", text: toolchain, line: 1, column: 1 }],
+                    astNodes: [{ kind: "SourceFile", line: 1, column: 1, endLine: 1, endColumn: 1 }]
+                  }));
+                }
+                """;
+        final Path oldToolchain = Files.createDirectories(tempDir.resolve("toolchain-old"));
+        final Path newToolchain = Files.createDirectories(tempDir.resolve("toolchain-new"));
+        Files.writeString(oldToolchain.resolve("bridge.cjs"), script, UTF_8);
+        Files.writeString(newToolchain.resolve("bridge.cjs"), script, UTF_8);
+        Files.writeString(oldToolchain.resolve("toolchain.txt"), "typescript-5.4", UTF_8);
+        Files.writeString(newToolchain.resolve("toolchain.txt"), "typescript-5.6", UTF_8);
+        final Path sourceFile = tempDir.resolve("cached.ts");
+
+        final String previousScript = System.getProperty(TOKEN_BRIDGE_SCRIPT_PROPERTY);
+        final String previousCacheDir = System.getProperty(PersistentCompilationCache.CACHE_DIR_PROPERTY);
+        try {
+            System.setProperty(PersistentCompilationCache.CACHE_DIR_PROPERTY, tempDir.resolve("cache").toString());
+            System.setProperty(TOKEN_BRIDGE_SCRIPT_PROPERTY, oldToolchain.resolve("bridge.cjs").toString());
+            assertEquals(
+                    "typescript-5.4",
+                    new TypeScriptSyntaxBridge().tokenize("const x = 1;", sourceFile).tokens().getFirst().text()
+            );
+
+            System.setProperty(TOKEN_BRIDGE_SCRIPT_PROPERTY, newToolchain.resolve("bridge.cjs").toString());
+            assertEquals(
+                    "typescript-5.6",
+                    new TypeScriptSyntaxBridge().tokenize("const x = 1;", sourceFile).tokens().getFirst().text()
+            );
+        } finally {
+            restoreSystemProperty(TOKEN_BRIDGE_SCRIPT_PROPERTY, previousScript);
+            restoreSystemProperty(PersistentCompilationCache.CACHE_DIR_PROPERTY, previousCacheDir);
+        }
+    }
+
     @Test
     void failsFastWhenConfiguredBridgeScriptIsMissing() {
         final String previousScript = System.getProperty(TOKEN_BRIDGE_SCRIPT_PROPERTY);
@@ -1,14 +1,28 @@
 package dev.tsj.compiler.frontend;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
+/**
+ * Resolves {@code java:} import bindings to member descriptors from classfile bytes.
+ *
+ * <p>Classes are read as class loader resources and parsed for their access flags, supertypes, fields, and
+ * methods only, so compiling against a framework never runs its static initializers. Member lookup mirrors
+ * {@link Class#getMethods()}, {@link Class#getField(String)}, and {@link Class#getConstructors()}.
+ */
 final class JavaInteropSymbolResolver {
     private static final String CODE_CLASS_NOT_FOUND = "TSJ55-INTEROP-CLASS-NOT-FOUND";
     private static final String CODE_MEMBER_NOT_FOUND = "TSJ55-INTEROP-MEMBER-NOT-FOUND";
@@ -21,6 +35,25 @@ final class JavaInteropSymbolResolver {
     private static final String BINDING_STATIC_GET_PREFIX = "$static$get$";
     private static final String BINDING_STATIC_SET_PREFIX = "$static$set$";
 
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_BRIDGE = 0x0040;
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_SYNTHETIC = 0x1000;
+    private static final int CLASSFILE_MAGIC = 0xCAFEBABE;
+
+    private final ClassLoader classLoader;
+    private final Map<String, Optional<ClassInfo>> classesByInternalName;
+
+    JavaInteropSymbolResolver() {
+        this(resolveClassLoader());
+    }
+
+    JavaInteropSymbolResolver(final ClassLoader classLoader) {
+        this.classLoader = Objects.requireNonNull(classLoader, "classLoader");
+        this.classesByInternalName = new HashMap<>();
+    }
+
     Resolution resolve(final List<FrontendInteropBinding> bindings) {
         final List<FrontendInteropSymbol> symbols = new ArrayList<>();
         final List<FrontendDiagnostic> diagnostics = new ArrayList<>();
@@ -30,15 +63,13 @@ final class JavaInteropSymbolResolver {
         return new Resolution(List.copyOf(symbols), List.copyOf(diagnostics));
     }
 
-    private static void resolveBinding(
+    private void resolveBinding(
             final FrontendInteropBinding binding,
             final List<FrontendInteropSymbol> symbols,
             final List<FrontendDiagnostic> diagnostics
     ) {
-        final Class<?> targetClass;
-        try {
-            targetClass = Class.forName(binding.className(), true, resolveClassLoader());
-        } catch (final ClassNotFoundException classNotFoundException) {
+        final ClassInfo targetClass = classInfo(binding.className().replace('.', '/')).orElse(null);
+        if (targetClass == null) {
             diagnostics.add(diagnostic(
                     binding,
                     CODE_CLASS_NOT_FOUND,
@@ -88,9 +119,9 @@ final class JavaInteropSymbolResolver {
         resolveStaticMethodOrField(binding, targetClass, importedName, symbols, diagnostics);
     }
 
-    private static void resolveStaticMethodOrField(
+    private void resolveStaticMethodOrField(
             final FrontendInteropBinding binding,
-            final Class<?> targetClass,
+            final ClassInfo targetClass,
             final String memberName,
             final List<FrontendInteropSymbol> symbols,
             final List<FrontendDiagnostic> diagnostics
@@ -126,31 +157,37 @@ final class JavaInteropSymbolResolver {
 
     private static void resolveConstructor(
             final FrontendInteropBinding binding,
-            final Class<?> targetClass,
+            final ClassInfo targetClass,
             final List<FrontendInteropSymbol> symbols,
             final List<FrontendDiagnostic> diagnostics
     ) {
-        final Constructor<?>[] constructors = targetClass.getConstructors();
-        if (constructors.length == 0) {
-            if (targetClass.getDeclaredConstructors().length > 0) {
+        final LinkedHashSet<String> descriptors = new LinkedHashSet<>();
+        boolean declared = false;
+        for (MemberInfo method : targetClass.methods()) {
+            if (!"<init>".equals(method.name())) {
+                continue;
+            }
+            declared = true;
+            if (method.is(ACC_PUBLIC)) {
+                descriptors.add(method.descriptor());
+            }
+        }
+        if (descriptors.isEmpty()) {
+            if (declared) {
                 diagnostics.add(diagnostic(
                         binding,
                         CODE_VISIBILITY,
-                        "Java interop constructor exists but is not public on " + targetClass.getName() + "."
+                        "Java interop constructor exists but is not public on " + targetClass.javaName() + "."
                 ));
             } else {
                 diagnostics.add(diagnostic(
                         binding,
                         CODE_MEMBER_NOT_FOUND,
-                        "Java interop constructor not found on " + targetClass.getName() + "."
+                        "Java interop constructor not found on " + targetClass.javaName() + "."
                 ));
             }
             return;
         }
-        final LinkedHashSet<String> descriptors = new LinkedHashSet<>();
-        for (Constructor<?> constructor : constructors) {
-            descriptors.add(constructorDescriptor(constructor));
-        }
         symbols.add(new FrontendInteropSymbol(
                 binding.filePath(),
                 binding.line(),
@@ -159,57 +196,54 @@ final class JavaInteropSymbolResolver {
                 binding.importedName(),
                 binding.localName(),
                 "CONSTRUCTOR",
-                targetClass.getName(),
+                targetClass.javaName(),
                 "<init>",
                 List.copyOf(descriptors),
                 "constructor overloads " + String.join(" | ", descriptors)
         ));
     }
 
-    private static void resolveMethod(
+    private void resolveMethod(
             final FrontendInteropBinding binding,
-            final Class<?> targetClass,
+            final ClassInfo targetClass,
             final String methodName,
             final boolean expectStatic,
             final List<FrontendInteropSymbol> symbols,
             final List<FrontendDiagnostic> diagnostics
     ) {
-        final List<Method> allCandidates = new ArrayList<>();
-        final List<Method> nonBridgeCandidates = new ArrayList<>();
-        for (Method method : targetClass.getMethods()) {
-            if (!method.getName().equals(methodName)) {
-                continue;
-            }
-            if (Modifier.isStatic(method.getModifiers()) != expectStatic) {
+        final List<MemberInfo> allCandidates = new ArrayList<>();
+        final List<MemberInfo> nonBridgeCandidates = new ArrayList<>();
+        for (MemberInfo method : publicMethods(targetClass, methodName)) {
+            if (method.is(ACC_STATIC) != expectStatic) {
                 continue;
             }
             allCandidates.add(method);
-            if (!method.isBridge() && !method.isSynthetic()) {
+            if (!method.is(ACC_BRIDGE) && !method.is(ACC_SYNTHETIC)) {
                 nonBridgeCandidates.add(method);
             }
         }
-        final List<Method> selected = nonBridgeCandidates.isEmpty() ? allCandidates : nonBridgeCandidates;
+        final List<MemberInfo> selected = nonBridgeCandidates.isEmpty() ? allCandidates : nonBridgeCandidates;
         if (selected.isEmpty()) {
-            if (hasRestrictedDeclaredMethod(targetClass, methodName, expectStatic)) {
+            if (hasRestrictedDeclaredMember(targetClass, methodName, expectStatic, true)) {
                 diagnostics.add(diagnostic(
                         binding,
                         CODE_VISIBILITY,
                         "Java interop member exists but is not publicly visible: "
-                                + targetClass.getName() + "#" + methodName + "."
+                                + targetClass.javaName() + "#" + methodName + "."
                 ));
             } else {
                 diagnostics.add(diagnostic(
                         binding,
                         CODE_MEMBER_NOT_FOUND,
-                        "Java interop member not found: " + targetClass.getName() + "#" + methodName + "."
+                        "Java interop member not found: " + targetClass.javaName() + "#" + methodName + "."
                 ));
             }
             return;
         }
 
         final LinkedHashSet<String> descriptors = new LinkedHashSet<>();
-        for (Method method : selected) {
-            descriptors.add(methodDescriptor(method));
+        for (MemberInfo method : selected) {
+            descriptors.add(method.descriptor());
         }
         symbols.add(new FrontendInteropSymbol(
                 binding.filePath(),
@@ -219,51 +253,49 @@ final class JavaInteropSymbolResolver {
                 binding.importedName(),
                 binding.localName(),
                 expectStatic ? "STATIC_METHOD" : "INSTANCE_METHOD",
-                targetClass.getName(),
+                targetClass.javaName(),
                 methodName,
                 List.copyOf(descriptors),
                 "method overloads " + String.join(" | ", descriptors)
         ));
     }
 
-    private static void resolveField(
+    private void resolveField(
             final FrontendInteropBinding binding,
-            final Class<?> targetClass,
+            final ClassInfo targetClass,
             final String fieldName,
             final boolean expectStatic,
             final boolean getter,
             final List<FrontendInteropSymbol> symbols,
             final List<FrontendDiagnostic> diagnostics
     ) {
-        final Field field;
-        try {
-            field = targetClass.getField(fieldName);
-        } catch (final NoSuchFieldException noSuchFieldException) {
-            if (hasRestrictedDeclaredField(targetClass, fieldName, expectStatic)) {
+        final MemberInfo field = publicField(targetClass, fieldName, new HashSet<>());
+        if (field == null) {
+            if (hasRestrictedDeclaredMember(targetClass, fieldName, expectStatic, false)) {
                 diagnostics.add(diagnostic(
                         binding,
                         CODE_VISIBILITY,
                         "Java interop field exists but is not publicly visible: "
-                                + targetClass.getName() + "#" + fieldName + "."
+                                + targetClass.javaName() + "#" + fieldName + "."
                 ));
             } else {
                 diagnostics.add(diagnostic(
                         binding,
                         CODE_MEMBER_NOT_FOUND,
-                        "Java interop field not found: " + targetClass.getName() + "#" + fieldName + "."
+                        "Java interop field not found: " + targetClass.javaName() + "#" + fieldName + "."
                 ));
             }
             return;
         }
-        if (Modifier.isStatic(field.getModifiers()) != expectStatic) {
+        if (field.is(ACC_STATIC) != expectStatic) {
             diagnostics.add(diagnostic(
                     binding,
                     CODE_MEMBER_NOT_FOUND,
-                    "Java interop field kind mismatch for " + targetClass.getName() + "#" + fieldName + "."
+                    "Java interop field kind mismatch for " + targetClass.javaName() + "#" + fieldName + "."
             ));
             return;
         }
-        final String fieldDescriptor = descriptorFor(field.getType());
+        final String fieldDescriptor = field.descriptor();
         final String memberDescriptor = getter ? "()" + fieldDescriptor : "(" + fieldDescriptor + ")V";
         symbols.add(new FrontendInteropSymbol(
                 binding.filePath(),
@@ -273,7 +305,7 @@ final class JavaInteropSymbolResolver {
                 binding.importedName(),
                 binding.localName(),
                 symbolKindForField(expectStatic, getter),
-                targetClass.getName(),
+                targetClass.javaName(),
                 fieldName,
                 List.of(memberDescriptor),
                 "field " + fieldName + " " + memberDescriptor
@@ -287,50 +319,113 @@ final class JavaInteropSymbolResolver {
         return getter ? "INSTANCE_FIELD_GET" : "INSTANCE_FIELD_SET";
     }
 
-    private static boolean hasRestrictedDeclaredMethod(
-            final Class<?> targetClass,
+    /**
+     * Public methods named {@code methodName} that {@link Class#getMethods()} would report: the class's own,
+     * those of its superclasses, and the instance methods of its superinterfaces, with {@code Object} methods
+     * omitted for interfaces. A method hidden by one with the same descriptor closer to the class is dropped.
+     */
+    private List<MemberInfo> publicMethods(final ClassInfo targetClass, final String methodName) {
+        final Map<String, MemberInfo> methodsByDescriptor = new LinkedHashMap<>();
+        final Set<String> visited = new HashSet<>();
+        ClassInfo cursor = targetClass;
+        while (cursor != null) {
+            collectPublicMethods(cursor, methodName, cursor == targetClass, methodsByDescriptor);
+            visited.add(cursor.internalName());
+            if (cursor.isInterface()) {
+                break;
+            }
+            cursor = cursor.superName() == null ? null : classInfo(cursor.superName()).orElse(null);
+        }
+        final ArrayDeque<String> interfaces = new ArrayDeque<>();
+        cursor = targetClass;
+        while (cursor != null) {
+            interfaces.addAll(cursor.interfaces());
+            cursor = cursor.isInterface() || cursor.superName() == null
+                    ? null
+                    : classInfo(cursor.superName()).orElse(null);
+        }
+        while (!interfaces.isEmpty()) {
+            final String interfaceName = interfaces.removeFirst();
+            if (!visited.add(interfaceName)) {
+                continue;
+            }
+            final ClassInfo interfaceInfo = classInfo(interfaceName).orElse(null);
+            if (interfaceInfo == null) {
+                continue;
+            }
+            collectPublicMethods(interfaceInfo, methodName, false, methodsByDescriptor);
+            interfaces.addAll(interfaceInfo.interfaces());
+        }
+        return List.copyOf(methodsByDescriptor.values());
+    }
+
+    private static void collectPublicMethods(
+            final ClassInfo owner,
             final String methodName,
-            final boolean expectStatic
+            final boolean includeInterfaceStatics,
+            final Map<String, MemberInfo> methodsByDescriptor
     ) {
-        Class<?> cursor = targetClass;
-        while (cursor != null) {
-            final boolean classPublic = Modifier.isPublic(cursor.getModifiers());
-            for (Method method : cursor.getDeclaredMethods()) {
-                if (!method.getName().equals(methodName)) {
-                    continue;
-                }
-                if (Modifier.isStatic(method.getModifiers()) != expectStatic) {
-                    continue;
-                }
-                if (!(classPublic && Modifier.isPublic(method.getModifiers()))) {
-                    return true;
-                }
+        for (MemberInfo method : owner.methods()) {
+            if (!method.name().equals(methodName) || !method.is(ACC_PUBLIC)) {
+                continue;
             }
-            cursor = cursor.getSuperclass();
+            if (owner.isInterface() && method.is(ACC_STATIC) && !includeInterfaceStatics) {
+                continue;
+            }
+            methodsByDescriptor.putIfAbsent(method.descriptor(), method);
         }
-        return false;
     }
 
-    private static boolean hasRestrictedDeclaredField(
-            final Class<?> targetClass,
-            final String fieldName,
-            final boolean expectStatic
+    /**
+     * Public field lookup in {@link Class#getField(String)} order: the class, its superinterfaces, then its
+     * superclass.
+     */
+    private MemberInfo publicField(final ClassInfo owner, final String fieldName, final Set<String> visited) {
+        if (!visited.add(owner.internalName())) {
+            return null;
+        }
+        for (MemberInfo field : owner.fields()) {
+            if (field.name().equals(fieldName) && field.is(ACC_PUBLIC)) {
+                return field;
+            }
+        }
+        for (String interfaceName : owner.interfaces()) {
+            final MemberInfo inherited = classInfo(interfaceName)
+                    .map(interfaceInfo -> publicField(interfaceInfo, fieldName, visited))
+                    .orElse(null);
+            if (inherited != null) {
+                return inherited;
+            }
+        }
+        if (owner.superName() == null) {
+            return null;
+        }
+        return classInfo(owner.superName())
+                .map(superInfo -> publicField(superInfo, fieldName, visited))
+                .orElse(null);
+    }
+
+    private boolean hasRestrictedDeclaredMember(
+            final ClassInfo targetClass,
+            final String memberName,
+            final boolean expectStatic,
+            final boolean method
     ) {
-        Class<?> cursor = targetClass;
+        ClassInfo cursor = targetClass;
         while (cursor != null) {
-            final boolean classPublic = Modifier.isPublic(cursor.getModifiers());
-            for (Field field : cursor.getDeclaredFields()) {
-                if (!field.getName().equals(fieldName)) {
+            final boolean classPublic = (cursor.modifiers() & ACC_PUBLIC) != 0;
+            for (MemberInfo member : method ? cursor.methods() : cursor.fields()) {
+                if (!member.name().equals(memberName)) {
                     continue;
                 }
-                if (Modifier.isStatic(field.getModifiers()) != expectStatic) {
+                if (member.is(ACC_STATIC) != expectStatic) {
                     continue;
                 }
-                if (!(classPublic && Modifier.isPublic(field.getModifiers()))) {
+                if (!(classPublic && member.is(ACC_PUBLIC))) {
                     return true;
                 }
             }
-            cursor = cursor.getSuperclass();
+            cursor = cursor.superName() == null ? null : classInfo(cursor.superName()).orElse(null);
         }
         return false;
     }
@@ -350,59 +445,99 @@ final class JavaInteropSymbolResolver {
         );
     }
 
-    private static String constructorDescriptor(final Constructor<?> constructor) {
-        final StringBuilder builder = new StringBuilder();
-        builder.append("(");
-        for (Class<?> parameterType : constructor.getParameterTypes()) {
-            builder.append(descriptorFor(parameterType));
-        }
-        builder.append(")V");
-        return builder.toString();
-    }
-
-    private static String methodDescriptor(final Method method) {
-        final StringBuilder builder = new StringBuilder();
-        builder.append("(");
-        for (Class<?> parameterType : method.getParameterTypes()) {
-            builder.append(descriptorFor(parameterType));
-        }
-        builder.append(")");
-        builder.append(descriptorFor(method.getReturnType()));
-        return builder.toString();
+    /**
+     * Reads the class as a resource of the resolver's class loader, so resolution never loads, links, or
+     * initializes the target or its supertypes. Results, including misses, are memoized per resolver.
+     */
+    private Optional<ClassInfo> classInfo(final String internalName) {
+        final Optional<ClassInfo> cached = classesByInternalName.get(internalName);
+        if (cached != null) {
+            return cached;
+        }
+        Optional<ClassInfo> parsed = Optional.empty();
+        try (InputStream input = classLoader.getResourceAsStream(internalName + ".class")) {
+            if (input != null) {
+                parsed = Optional.ofNullable(parseClassfile(internalName, input.readAllBytes()));
+            }
+        } catch (final IOException ignored) {
+            parsed = Optional.empty();
+        }
+        classesByInternalName.put(internalName, parsed);
+        return parsed;
     }
 
-    private static String descriptorFor(final Class<?> type) {
-        if (type.isPrimitive()) {
-            if (type == void.class) {
-                return "V";
-            }
-            if (type == boolean.class) {
-                return "Z";
-            }
-            if (type == byte.class) {
-                return "B";
-            }
-            if (type == short.class) {
-                return "S";
-            }
-            if (type == char.class) {
-                return "C";
-            }
-            if (type == int.class) {
-                return "I";
+    private static ClassInfo parseClassfile(final String expectedName, final byte[] bytes) throws IOException {
+        final DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (input.readInt() != CLASSFILE_MAGIC) {
+            return null;
+        }
+        input.readUnsignedShort();
+        input.readUnsignedShort();
+        final int constantPoolCount = input.readUnsignedShort();
+        final String[] utf8 = new String[constantPoolCount];
+        final int[] classNameIndex = new int[constantPoolCount];
+        for (int index = 1; index < constantPoolCount; index++) {
+            final int tag = input.readUnsignedByte();
+            switch (tag) {
+                case 1 -> utf8[index] = input.readUTF();
+                case 7 -> classNameIndex[index] = input.readUnsignedShort();
+                case 8, 16, 19, 20 -> input.skipNBytes(2);
+                case 15 -> input.skipNBytes(3);
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> input.skipNBytes(4);
+                case 5, 6 -> {
+                    input.skipNBytes(8);
+                    index++;
+                }
+                default -> throw new IOException("Unsupported constant pool tag " + tag + " in " + expectedName);
             }
-            if (type == long.class) {
-                return "J";
+        }
+        int modifiers = input.readUnsignedShort();
+        final String thisName = utf8[classNameIndex[input.readUnsignedShort()]];
+        final int superIndex = input.readUnsignedShort();
+        final String superName = superIndex == 0 ? null : utf8[classNameIndex[superIndex]];
+        final int interfaceCount = input.readUnsignedShort();
+        final List<String> interfaces = new ArrayList<>(interfaceCount);
+        for (int index = 0; index < interfaceCount; index++) {
+            interfaces.add(utf8[classNameIndex[input.readUnsignedShort()]]);
+        }
+        final List<MemberInfo> fields = readMembers(input, utf8);
+        final List<MemberInfo> methods = readMembers(input, utf8);
+        final int attributeCount = input.readUnsignedShort();
+        for (int index = 0; index < attributeCount; index++) {
+            final String attributeName = utf8[input.readUnsignedShort()];
+            final int length = input.readInt();
+            if (!"InnerClasses".equals(attributeName)) {
+                input.skipNBytes(length);
+                continue;
             }
-            if (type == float.class) {
-                return "F";
+            final int classCount = input.readUnsignedShort();
+            for (int classIndex = 0; classIndex < classCount; classIndex++) {
+                final int innerIndex = input.readUnsignedShort();
+                input.skipNBytes(4);
+                final int innerModifiers = input.readUnsignedShort();
+                if (innerIndex != 0 && thisName.equals(utf8[classNameIndex[innerIndex]])) {
+                    modifiers = innerModifiers;
+                }
             }
-            return "D";
         }
-        if (type.isArray()) {
-            return type.getName().replace('.', '/');
+        return new ClassInfo(thisName, modifiers, superName, List.copyOf(interfaces), fields, methods);
+    }
+
+    private static List<MemberInfo> readMembers(final DataInputStream input, final String[] utf8) throws IOException {
+        final int count = input.readUnsignedShort();
+        final List<MemberInfo> members = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            final int modifiers = input.readUnsignedShort();
+            final String name = utf8[input.readUnsignedShort()];
+            final String descriptor = utf8[input.readUnsignedShort()];
+            final int attributeCount = input.readUnsignedShort();
+            for (int attributeIndex = 0; attributeIndex < attributeCount; attributeIndex++) {
+                input.skipNBytes(2);
+                input.skipNBytes(input.readInt());
+            }
+            members.add(new MemberInfo(name, descriptor, modifiers));
         }
-        return "L" + type.getName().replace('.', '/') + ";";
+        return List.copyOf(members);
     }
 
     private static ClassLoader resolveClassLoader() {
@@ -422,4 +557,27 @@ final class JavaInteropSymbolResolver {
             diagnostics = List.copyOf(Objects.requireNonNull(diagnostics, "diagnostics"));
         }
     }
+
+    private record ClassInfo(
+            String internalName,
+            int modifiers,
+            String superName,
+            List<String> interfaces,
+            List<MemberInfo> fields,
+            List<MemberInfo> methods
+    ) {
+        private String javaName() {
+            return internalName.replace('/', '.');
+        }
+
+        private boolean isInterface() {
+            return (modifiers & ACC_INTERFACE) != 0;
+        }
+    }
+
+    private record MemberInfo(String name, String descriptor, int modifiers) {
+        private boolean is(final int flag) {
+            return (modifiers & flag) != 0;
+        }
+    }
 }
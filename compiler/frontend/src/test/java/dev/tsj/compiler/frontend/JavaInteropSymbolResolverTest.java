@@ -0,0 +1,98 @@
+package dev.tsj.compiler.frontend;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JavaInteropSymbolResolverTest {
+    private static final String FIXTURE = "dev.tsj.compiler.frontend.fixtures.FrontendStaticInitFixture";
+
+    @Test
+    void resolvesDeclaredAndInheritedMembersWithoutInitializingTheTargetClass() {
+        final JavaInteropSymbolResolver.Resolution resolution = new JavaInteropSymbolResolver().resolve(List.of(
+                binding(FIXTURE, "$new"),
+                binding(FIXTURE, "$instance$name"),
+                binding(FIXTURE, "$instance$compareTo"),
+                binding(FIXTURE, "$instance$hashCode"),
+                binding(FIXTURE, "twice"),
+                binding(FIXTURE, "LABEL"),
+                binding(FIXTURE, "$static$get$BASE_LIMIT"),
+                binding(FIXTURE, "$instance$reset")
+        ));
+
+        assertEquals(List.of("()V"), descriptors(resolution, "$new"));
+        assertEquals(List.of("()Ljava/lang/String;"), descriptors(resolution, "$instance$name"));
+        assertEquals(
+                List.of("(Ldev/tsj/compiler/frontend/fixtures/FrontendStaticInitFixture;)I"),
+                descriptors(resolution, "$instance$compareTo")
+        );
+        assertEquals(List.of("()I"), descriptors(resolution, "$instance$hashCode"));
+        assertEquals(List.of("(I)I"), descriptors(resolution, "twice"));
+        assertEquals(List.of("()Ljava/lang/String;"), descriptors(resolution, "LABEL"));
+        assertEquals(List.of("()I"), descriptors(resolution, "$static$get$BASE_LIMIT"));
+        assertEquals(1, resolution.diagnostics().size(), resolution.diagnostics().toString());
+        assertEquals("TSJ55-INTEROP-VISIBILITY", resolution.diagnostics().getFirst().code());
+        assertTrue(resolution.diagnostics().getFirst().message().contains("reset"));
+    }
+
+    @Test
+    void mirrorsReflectionVisibilityAndInterfaceStaticRules() {
+        final JavaInteropSymbolResolver.Resolution resolution = new JavaInteropSymbolResolver().resolve(List.of(
+                binding("java.lang.Math", "max"),
+                binding("java.util.List", "of"),
+                binding("java.util.ArrayList", "of"),
+                binding("java.util.List", "$instance$getClass"),
+                binding("dev.tsj.compiler.frontend.DoesNotExist", "nope"),
+                binding("dev.tsj.compiler.frontend.fixtures.FrontendInteropFixture", "hiddenEcho"),
+                binding("dev.tsj.compiler.frontend.fixtures.FrontendInteropFixture", "$static$get$HIDDEN_COUNT")
+        ));
+
+        assertTrue(descriptors(resolution, "max").contains("(II)I"));
+        assertTrue(descriptors(resolution, "of").contains("()Ljava/util/List;"));
+        assertEquals(
+                List.of(
+                        "TSJ55-INTEROP-MEMBER-NOT-FOUND:java.util.ArrayList#of",
+                        "TSJ55-INTEROP-MEMBER-NOT-FOUND:java.util.List#getClass",
+                        "TSJ55-INTEROP-CLASS-NOT-FOUND:DoesNotExist",
+                        "TSJ55-INTEROP-VISIBILITY:hiddenEcho",
+                        "TSJ55-INTEROP-VISIBILITY:HIDDEN_COUNT"
+                ),
+                resolution.diagnostics().stream()
+                        .map(diagnostic -> diagnostic.code() + ":" + diagnosticSubject(diagnostic.message()))
+                        .toList()
+        );
+    }
+
+    private static FrontendInteropBinding binding(final String className, final String importedName) {
+        return new FrontendInteropBinding("/src/main.ts", 1, 1, className, importedName, importedName);
+    }
+
+    private static List<String> descriptors(
+            final JavaInteropSymbolResolver.Resolution resolution,
+            final String importedName
+    ) {
+        return resolution.symbols().stream()
+                .filter(symbol -> symbol.importedName().equals(importedName))
+                .findFirst()
+                .map(FrontendInteropSymbol::descriptors)
+                .orElse(List.of());
+    }
+
+    private static String diagnosticSubject(final String message) {
+        for (String subject : List.of(
+                "java.util.ArrayList#of",
+                "java.util.List#getClass",
+                "DoesNotExist",
+                "hiddenEcho",
+                "HIDDEN_COUNT"
+        )) {
+            if (message.contains(subject)) {
+                return subject;
+            }
+        }
+        return message;
+    }
+}
@@ -0,0 +1,19 @@
+package dev.tsj.compiler.frontend.fixtures;
+
+/**
+ * Superclass of {@link FrontendStaticInitFixture} contributing inherited interop members.
+ */
+public class FrontendStaticInitBase {
+    public static final int BASE_LIMIT = 5;
+
+    public Object name() {
+        return "base";
+    }
+
+    public static int twice(final int value) {
+        return value * 2;
+    }
+
+    protected void reset() {
+    }
+}
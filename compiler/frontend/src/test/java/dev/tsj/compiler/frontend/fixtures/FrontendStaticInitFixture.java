@@ -0,0 +1,29 @@
+package dev.tsj.compiler.frontend.fixtures;
+
+/**
+ * Java interop fixture whose static initializer fails, so resolving it by loading the class would throw.
+ */
+public class FrontendStaticInitFixture extends FrontendStaticInitBase implements Comparable<FrontendStaticInitFixture> {
+    public static final String LABEL = "fixture";
+
+    static {
+        if (Boolean.parseBoolean("true")) {
+            throw new IllegalStateException("FrontendStaticInitFixture must not be initialized by the frontend.");
+        }
+    }
+
+    public FrontendStaticInitFixture() {
+    }
+
+    FrontendStaticInitFixture(final int ignored) {
+    }
+
+    public String name() {
+        return LABEL;
+    }
+
+    @Override
+    public int compareTo(final FrontendStaticInitFixture other) {
+        return 0;
+    }
+}
@@ -3125,10 +3125,19 @@ function normalizeExpression(ts, sourceFile, expression) {
     return undefinedLiteral(expressionLoc.line, expressionLoc.column);
   }
   if (ts.isRegularExpressionLiteral && ts.isRegularExpressionLiteral(expression)) {
-    return withLocation(sourceFile, expression, {
-      kind: 'StringLiteral',
-      text: expression.getText(sourceFile)
-    });
+    // Each evaluation builds a fresh RegExp object so `lastIndex` lives on the regex itself.
+    const literalText = expression.getText(sourceFile);
+    const closingSlash = literalText.lastIndexOf('/');
+    const expressionLoc = nodeLocation(sourceFile, expression);
+    return syntheticCallExpression(
+      '__tsj_regexp_literal',
+      [
+        stringLiteralExpression(literalText.substring(1, closingSlash), expressionLoc.line, expressionLoc.column),
+        stringLiteralExpression(literalText.substring(closingSlash + 1), expressionLoc.line, expressionLoc.column)
+      ],
+      expressionLoc.line,
+      expressionLoc.column
+    );
   }
   if (ts.isPrefixUnaryExpression(expression)) {
     if (expression.operator === ts.SyntaxKind.PlusPlusToken || expression.operator === ts.SyntaxKind.MinusMinusToken) {
@@ -4601,6 +4610,10 @@ function main() {
   if (!sourceArg) {
     throw new Error('Usage: node emit-backend-tokens.cjs <source-file>');
   }
+  if (sourceArg === '--toolchain-versions') {
+    process.stdout.write(`node ${process.version}\ntypescript ${ts.version}\n`);
+    return;
+  }
   const sourcePath = path.resolve(sourceArg);
   if (!fs.existsSync(sourcePath)) {
     throw new Error(`Source file not found: ${sourcePath}`);
@@ -0,0 +1,126 @@
+package dev.tsj.compiler.ir.ssa;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SSA basic block: phis, straight-line instructions and a terminator.
+ */
+public final class SsaBlock {
+    private final int id;
+    private final List<SsaValue> phis;
+    private final List<SsaValue> instructions;
+    private final List<SsaBlock> predecessors;
+    private final List<SsaBlock> successors;
+    private SsaTerminator terminator;
+    private SsaValue terminatorOperand;
+
+    SsaBlock(final int id) {
+        this.id = id;
+        this.phis = new ArrayList<>();
+        this.instructions = new ArrayList<>();
+        this.predecessors = new ArrayList<>();
+        this.successors = new ArrayList<>();
+        this.terminator = SsaTerminator.NONE;
+    }
+
+    public int id() {
+        return id;
+    }
+
+    public List<SsaValue> phis() {
+        return List.copyOf(phis);
+    }
+
+    public List<SsaValue> instructions() {
+        return List.copyOf(instructions);
+    }
+
+    public List<SsaBlock> predecessors() {
+        return List.copyOf(predecessors);
+    }
+
+    public List<SsaBlock> successors() {
+        return List.copyOf(successors);
+    }
+
+    public SsaTerminator terminator() {
+        return terminator;
+    }
+
+    /**
+     * Branch condition or return value, or {@code null}.
+     */
+    public SsaValue terminatorOperand() {
+        return terminatorOperand == null ? null : terminatorOperand.resolved();
+    }
+
+    public boolean isTerminated() {
+        return terminator != SsaTerminator.NONE;
+    }
+
+    List<SsaValue> mutablePhis() {
+        return phis;
+    }
+
+    List<SsaValue> mutableInstructions() {
+        return instructions;
+    }
+
+    List<SsaBlock> mutablePredecessors() {
+        return predecessors;
+    }
+
+    void terminate(final SsaTerminator kind, final SsaValue operand, final List<SsaBlock> targets) {
+        if (isTerminated()) {
+            throw new IllegalStateException("SSA block b" + id + " is already terminated.");
+        }
+        this.terminator = kind;
+        this.terminatorOperand = operand;
+        this.successors.addAll(targets);
+    }
+
+    /**
+     * Moves a phi that was folded to a constant into the instruction list.
+     */
+    void demotePhi(final SsaValue phi) {
+        if (phis.remove(phi)) {
+            instructions.add(0, phi);
+        }
+    }
+
+    String render() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append('b').append(id);
+        if (!predecessors.isEmpty()) {
+            builder.append(" <-");
+            for (SsaBlock predecessor : predecessors) {
+                builder.append(" b").append(predecessor.id);
+            }
+        }
+        builder.append(":\n");
+        for (SsaValue phi : phis) {
+            builder.append("  ").append(phi.render()).append('\n');
+        }
+        for (SsaValue instruction : instructions) {
+            builder.append("  ").append(instruction.render()).append('\n');
+        }
+        switch (terminator) {
+            case JUMP -> builder.append("  jump b").append(successors.get(0).id).append('\n');
+            case BRANCH -> builder.append("  branch v").append(terminatorOperand().id())
+                    .append(" b").append(successors.get(0).id)
+                    .append(" b").append(successors.get(1).id).append('\n');
+            case RETURN -> {
+                builder.append("  return");
+                if (terminatorOperand != null) {
+                    builder.append(" v").append(terminatorOperand().id());
+                }
+                builder.append('\n');
+            }
+            case THROW -> builder.append("  throw v").append(terminatorOperand().id()).append('\n');
+            case NONE -> {
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,272 @@
+package dev.tsj.compiler.ir.ssa;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Builds SSA form directly from structured source, without a separate dominance-frontier pass.
+ *
+ * <p>Follows Braun et al., "Simple and Efficient Construction of Static Single Assignment Form": callers
+ * record variable writes and reads per block, create blocks and edges as they walk the source, and seal a
+ * block once all of its predecessors are known. Reads in unsealed blocks create operandless phis that are
+ * completed on sealing; phis whose operands are all the same value are removed on the fly and again in
+ * {@link #finish()}. A read with no reaching definition yields an opaque value, which keeps uses of
+ * uninitialized or hoisted bindings unknown instead of failing construction.
+ */
+public final class SsaBuilder {
+    private final String name;
+    private final List<SsaBlock> blocks;
+    private final Map<SsaBlock, Map<String, SsaValue>> currentDefinitions;
+    private final Map<SsaBlock, Map<String, SsaValue>> incompletePhis;
+    private final Set<SsaBlock> sealedBlocks;
+    private SsaBlock currentBlock;
+    private int nextValueId;
+
+    public SsaBuilder(final String name) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.blocks = new ArrayList<>();
+        this.currentDefinitions = new HashMap<>();
+        this.incompletePhis = new HashMap<>();
+        this.sealedBlocks = new HashSet<>();
+        this.currentBlock = newBlock();
+        seal(currentBlock);
+    }
+
+    public SsaBlock currentBlock() {
+        return currentBlock;
+    }
+
+    public void currentBlock(final SsaBlock block) {
+        this.currentBlock = Objects.requireNonNull(block, "block");
+    }
+
+    public SsaBlock newBlock() {
+        final SsaBlock block = new SsaBlock(blocks.size());
+        blocks.add(block);
+        return block;
+    }
+
+    /**
+     * Continues emission in a fresh block without predecessors, used after return, throw, break or continue.
+     */
+    public SsaBlock startUnreachableBlock() {
+        final SsaBlock block = newBlock();
+        seal(block);
+        currentBlock = block;
+        return block;
+    }
+
+    public SsaValue parameter(final String parameterName) {
+        final SsaValue value = append(SsaOpcode.PARAMETER, parameterName, List.of(), null, SsaType.ANY);
+        writeVariable(parameterName, value);
+        return value;
+    }
+
+    public SsaValue constant(final Object value) {
+        return append(SsaOpcode.CONSTANT, null, List.of(), value, SsaType.ofConstant(value));
+    }
+
+    public SsaValue binary(final String operator, final SsaValue left, final SsaValue right) {
+        final SsaValue value = append(SsaOpcode.BINARY, operator, List.of(left, right), null, SsaType.NONE);
+        value.type(SsaTypeInferencePass.inferType(value));
+        return value;
+    }
+
+    public SsaValue unary(final String operator, final SsaValue operand) {
+        final SsaValue value = append(SsaOpcode.UNARY, operator, List.of(operand), null, SsaType.NONE);
+        value.type(SsaTypeInferencePass.inferType(value));
+        return value;
+    }
+
+    public SsaValue opaque(final String label, final SsaType type, final List<SsaValue> operands) {
+        return append(SsaOpcode.OPAQUE, label, operands, null, type);
+    }
+
+    public void writeVariable(final String variable, final SsaValue value) {
+        writeVariable(variable, currentBlock, value);
+    }
+
+    public SsaValue readVariable(final String variable) {
+        return readVariable(variable, currentBlock);
+    }
+
+    public void jump(final SsaBlock target) {
+        final SsaBlock source = currentBlock;
+        source.terminate(SsaTerminator.JUMP, null, List.of(target));
+        addPredecessor(target, source);
+    }
+
+    public void branch(final SsaValue condition, final SsaBlock whenTrue, final SsaBlock whenFalse) {
+        final SsaBlock source = currentBlock;
+        source.terminate(SsaTerminator.BRANCH, Objects.requireNonNull(condition, "condition"), List.of(
+                whenTrue,
+                whenFalse
+        ));
+        addPredecessor(whenTrue, source);
+        addPredecessor(whenFalse, source);
+    }
+
+    public void ret(final SsaValue value) {
+        currentBlock.terminate(SsaTerminator.RETURN, value, List.of());
+    }
+
+    public void raise(final SsaValue value) {
+        currentBlock.terminate(SsaTerminator.THROW, Objects.requireNonNull(value, "value"), List.of());
+    }
+
+    /**
+     * Declares that every predecessor of {@code block} is known and completes its pending phis.
+     */
+    public void seal(final SsaBlock block) {
+        if (!sealedBlocks.add(block)) {
+            return;
+        }
+        final Map<String, SsaValue> pending = incompletePhis.remove(block);
+        if (pending == null) {
+            return;
+        }
+        for (Map.Entry<String, SsaValue> entry : pending.entrySet()) {
+            addPhiOperands(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public SsaFunction finish() {
+        for (SsaBlock block : blocks) {
+            if (!sealedBlocks.contains(block)) {
+                throw new IllegalStateException("SSA block b" + block.id() + " of " + name + " was never sealed.");
+            }
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (SsaBlock block : blocks) {
+                for (SsaValue phi : List.copyOf(block.mutablePhis())) {
+                    if (tryRemoveTrivialPhi(phi) != phi) {
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return new SsaFunction(name, blocks);
+    }
+
+    private SsaValue append(
+            final SsaOpcode opcode,
+            final String operator,
+            final List<SsaValue> operands,
+            final Object constant,
+            final SsaType type
+    ) {
+        if (currentBlock.isTerminated()) {
+            throw new IllegalStateException("SSA block b" + currentBlock.id() + " is already terminated.");
+        }
+        final List<SsaValue> resolvedOperands = new ArrayList<>(operands.size());
+        for (SsaValue operand : operands) {
+            resolvedOperands.add(operand.resolved());
+        }
+        final SsaValue value = new SsaValue(
+                nextValueId++,
+                currentBlock,
+                opcode,
+                operator,
+                resolvedOperands,
+                constant,
+                type
+        );
+        currentBlock.mutableInstructions().add(value);
+        return value;
+    }
+
+    private void addPredecessor(final SsaBlock target, final SsaBlock source) {
+        if (sealedBlocks.contains(target)) {
+            throw new IllegalStateException("SSA block b" + target.id() + " is sealed; cannot add predecessor.");
+        }
+        target.mutablePredecessors().add(source);
+    }
+
+    private void writeVariable(final String variable, final SsaBlock block, final SsaValue value) {
+        currentDefinitions.computeIfAbsent(block, ignored -> new HashMap<>()).put(variable, value);
+    }
+
+    private SsaValue readVariable(final String variable, final SsaBlock block) {
+        final Map<String, SsaValue> definitions = currentDefinitions.get(block);
+        if (definitions != null) {
+            final SsaValue value = definitions.get(variable);
+            if (value != null) {
+                return value.resolved();
+            }
+        }
+        return readVariableRecursive(variable, block);
+    }
+
+    private SsaValue readVariableRecursive(final String variable, final SsaBlock block) {
+        SsaValue value;
+        if (!sealedBlocks.contains(block)) {
+            value = newPhi(block);
+            incompletePhis.computeIfAbsent(block, ignored -> new LinkedHashMap<>()).put(variable, value);
+        } else if (block.mutablePredecessors().size() == 1) {
+            value = readVariable(variable, block.mutablePredecessors().get(0));
+        } else if (block.mutablePredecessors().isEmpty()) {
+            value = undefinedRead(block, variable);
+        } else {
+            final SsaValue phi = newPhi(block);
+            writeVariable(variable, block, phi);
+            value = addPhiOperands(variable, phi);
+        }
+        writeVariable(variable, block, value);
+        return value;
+    }
+
+    private SsaValue addPhiOperands(final String variable, final SsaValue phi) {
+        for (SsaBlock predecessor : phi.block().mutablePredecessors()) {
+            phi.addOperand(readVariable(variable, predecessor));
+        }
+        return tryRemoveTrivialPhi(phi);
+    }
+
+    private SsaValue tryRemoveTrivialPhi(final SsaValue phi) {
+        SsaValue same = null;
+        for (SsaValue operand : phi.operands()) {
+            final SsaValue resolved = operand.resolved();
+            if (resolved == same || resolved == phi) {
+                continue;
+            }
+            if (same != null) {
+                return phi;
+            }
+            same = resolved;
+        }
+        if (same == null) {
+            same = undefinedRead(phi.block(), null);
+        }
+        phi.replaceWith(same);
+        phi.block().mutablePhis().remove(phi);
+        return same;
+    }
+
+    private SsaValue newPhi(final SsaBlock block) {
+        final SsaValue phi = new SsaValue(nextValueId++, block, SsaOpcode.PHI, null, List.of(), null, SsaType.NONE);
+        block.mutablePhis().add(phi);
+        return phi;
+    }
+
+    private SsaValue undefinedRead(final SsaBlock block, final String variable) {
+        final SsaValue value = new SsaValue(
+                nextValueId++,
+                block,
+                SsaOpcode.OPAQUE,
+                variable == null ? "undef" : "undef " + variable,
+                List.of(),
+                null,
+                SsaType.ANY
+        );
+        block.mutableInstructions().add(0, value);
+        return value;
+    }
+}
@@ -0,0 +1,156 @@
+package dev.tsj.compiler.ir.ssa;
+
+import java.util.List;
+
+/**
+ * Folds operators over constant operands and phis whose incoming values are the same constant.
+ *
+ * <p>Only conversions that cannot observe user code or formatting differences are folded: arithmetic and
+ * comparisons over numbers, concatenation and comparisons over strings, strict equality over matching
+ * kinds, and logical operators over any constant. Everything else stays symbolic.
+ */
+public final class SsaConstantPropagationPass implements SsaPass {
+    @Override
+    public String name() {
+        return "constant-propagation";
+    }
+
+    @Override
+    public int run(final SsaFunction function) {
+        int changed = 0;
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (SsaValue value : function.values()) {
+                final Object folded = fold(value);
+                if (folded != null) {
+                    value.foldTo(folded);
+                    value.block().demotePhi(value);
+                    changed++;
+                    progress = true;
+                }
+            }
+        }
+        return changed;
+    }
+
+    private static Object fold(final SsaValue value) {
+        return switch (value.opcode()) {
+            case PHI -> foldPhi(value);
+            case UNARY -> {
+                final SsaValue operand = value.operands().get(0).resolved();
+                yield operand.isConstant() ? foldUnary(value.operator(), operand.constant()) : null;
+            }
+            case BINARY -> {
+                final SsaValue left = value.operands().get(0).resolved();
+                final SsaValue right = value.operands().get(1).resolved();
+                yield left.isConstant() && right.isConstant()
+                        ? foldBinary(value.operator(), left.constant(), right.constant())
+                        : null;
+            }
+            default -> null;
+        };
+    }
+
+    private static Object foldPhi(final SsaValue phi) {
+        final List<SsaValue> operands = phi.operands();
+        if (operands.isEmpty()) {
+            return null;
+        }
+        Object constant = null;
+        for (SsaValue operand : operands) {
+            final SsaValue resolved = operand.resolved();
+            if (resolved == phi) {
+                continue;
+            }
+            if (!resolved.isConstant()) {
+                return null;
+            }
+            if (constant == null) {
+                constant = resolved.constant();
+            } else if (!constant.equals(resolved.constant())) {
+                return null;
+            }
+        }
+        return constant;
+    }
+
+    private static Object foldUnary(final String operator, final Object operand) {
+        return switch (operator) {
+            case "!" -> !isTruthy(operand);
+            case "-" -> operand instanceof Double number ? -number : null;
+            case "+" -> operand instanceof Double number ? number : null;
+            case "typeof" -> operand instanceof Double ? "number"
+                    : operand instanceof String ? "string"
+                    : "boolean";
+            default -> null;
+        };
+    }
+
+    private static Object foldBinary(final String operator, final Object left, final Object right) {
+        switch (operator) {
+            case "&&":
+                return isTruthy(left) ? right : left;
+            case "||":
+                return isTruthy(left) ? left : right;
+            case "??":
+                return left;
+            case "===":
+                return strictEquals(left, right);
+            case "!==":
+                return !strictEquals(left, right);
+            default:
+                break;
+        }
+        if (left.getClass() != right.getClass()) {
+            return null;
+        }
+        if ("==".equals(operator) || "!=".equals(operator)) {
+            return strictEquals(left, right) == "==".equals(operator);
+        }
+        if (left instanceof Boolean) {
+            return null;
+        }
+        if (left instanceof String leftString && right instanceof String rightString) {
+            return switch (operator) {
+                case "+" -> leftString + rightString;
+                case "<" -> leftString.compareTo(rightString) < 0;
+                case "<=" -> leftString.compareTo(rightString) <= 0;
+                case ">" -> leftString.compareTo(rightString) > 0;
+                case ">=" -> leftString.compareTo(rightString) >= 0;
+                default -> null;
+            };
+        }
+        final double leftNumber = (Double) left;
+        final double rightNumber = (Double) right;
+        return switch (operator) {
+            case "+" -> leftNumber + rightNumber;
+            case "-" -> leftNumber - rightNumber;
+            case "*" -> leftNumber * rightNumber;
+            case "/" -> leftNumber / rightNumber;
+            case "%" -> leftNumber % rightNumber;
+            case "<" -> leftNumber < rightNumber;
+            case "<=" -> leftNumber <= rightNumber;
+            case ">" -> leftNumber > rightNumber;
+            case ">=" -> leftNumber >= rightNumber;
+            default -> null;
+        };
+    }
+
+    private static boolean strictEquals(final Object left, final Object right) {
+        if (left instanceof Double leftNumber && right instanceof Double rightNumber) {
+            return leftNumber.doubleValue() == rightNumber.doubleValue();
+        }
+        return left.equals(right);
+    }
+
+    static boolean isTruthy(final Object value) {
+        if (value instanceof Boolean booleanValue) {
+            return booleanValue;
+        }
+        if (value instanceof Double number) {
+            return number != 0.0d && !number.isNaN();
+        }
+        return !((String) value).isEmpty();
+    }
+}
@@ -0,0 +1,81 @@
+package dev.tsj.compiler.ir.ssa;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Removes side-effect-free values that no terminator or effectful value depends on.
+ *
+ * <p>Opaque values and parameters are always kept. Operators are only considered pure when every operand
+ * is known to be primitive, because operators over objects may call {@code valueOf} or {@code toString}.
+ */
+public final class SsaDeadValueEliminationPass implements SsaPass {
+    private static final Set<String> PURE_OPERATORS = Set.of(
+            "+", "-", "*", "/", "%", "**", "<<", ">>", ">>>", "&", "^", "|",
+            "<", "<=", ">", ">=", "==", "!=", "===", "!==", "&&", "||", "??", "!", "typeof", "~"
+    );
+
+    @Override
+    public String name() {
+        return "dead-value-elimination";
+    }
+
+    @Override
+    public int run(final SsaFunction function) {
+        final Set<SsaValue> live = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Deque<SsaValue> worklist = new ArrayDeque<>();
+        for (SsaValue value : function.values()) {
+            if (!isRemovable(value)) {
+                worklist.add(value);
+            }
+        }
+        for (SsaBlock block : function.blocks()) {
+            if (block.terminatorOperand() != null) {
+                worklist.add(block.terminatorOperand());
+            }
+        }
+        while (!worklist.isEmpty()) {
+            final SsaValue value = worklist.removeFirst().resolved();
+            if (!live.add(value)) {
+                continue;
+            }
+            for (SsaValue operand : value.operands()) {
+                worklist.add(operand.resolved());
+            }
+        }
+        int removed = 0;
+        for (SsaBlock block : function.blocks()) {
+            removed += removeDead(block.mutablePhis(), live);
+            removed += removeDead(block.mutableInstructions(), live);
+        }
+        return removed;
+    }
+
+    private static int removeDead(final List<SsaValue> values, final Set<SsaValue> live) {
+        final int before = values.size();
+        values.removeIf(value -> !live.contains(value));
+        return before - values.size();
+    }
+
+    private static boolean isRemovable(final SsaValue value) {
+        return switch (value.opcode()) {
+            case CONSTANT, PHI -> true;
+            case PARAMETER, OPAQUE -> false;
+            case UNARY, BINARY -> {
+                if (!PURE_OPERATORS.contains(value.operator())) {
+                    yield false;
+                }
+                for (SsaValue operand : value.operands()) {
+                    if (!operand.resolved().type().isPrimitive()) {
+                        yield false;
+                    }
+                }
+                yield true;
+            }
+        };
+    }
+}
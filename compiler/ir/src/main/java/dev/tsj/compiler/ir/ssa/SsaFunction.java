@@ -0,0 +1,60 @@
+package dev.tsj.compiler.ir.ssa;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Function in SSA form, produced by {@link SsaBuilder}.
+ */
+public final class SsaFunction {
+    private final String name;
+    private final List<SsaBlock> blocks;
+
+    SsaFunction(final String name, final List<SsaBlock> blocks) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.blocks = List.copyOf(blocks);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public List<SsaBlock> blocks() {
+        return blocks;
+    }
+
+    public SsaBlock entry() {
+        return blocks.get(0);
+    }
+
+    /**
+     * Returns every live value in block order, phis first within each block.
+     */
+    public List<SsaValue> values() {
+        final List<SsaValue> values = new ArrayList<>();
+        for (SsaBlock block : blocks) {
+            values.addAll(block.mutablePhis());
+            values.addAll(block.mutableInstructions());
+        }
+        return values;
+    }
+
+    /**
+     * Renders the function as stable text for diagnostics and tests.
+     */
+    public String dump() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("function ").append(name).append(" {\n");
+        for (SsaBlock block : blocks) {
+            builder.append(block.render());
+        }
+        builder.append("}\n");
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return dump();
+    }
+}
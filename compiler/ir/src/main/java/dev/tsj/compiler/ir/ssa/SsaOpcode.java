@@ -0,0 +1,19 @@
+package dev.tsj.compiler.ir.ssa;
+
+/**
+ * SSA value kinds.
+ */
+public enum SsaOpcode {
+    /** Function parameter; value unknown at compile time. */
+    PARAMETER,
+    /** Number ({@link Double}), string or boolean constant. */
+    CONSTANT,
+    /** Binary operator applied to two operands. */
+    BINARY,
+    /** Unary operator applied to one operand. */
+    UNARY,
+    /** Join of the incoming values of a block, one operand per predecessor. */
+    PHI,
+    /** Value the IR does not model (calls, property reads, literals of objects); may have side effects. */
+    OPAQUE
+}
@@ -0,0 +1,13 @@
+package dev.tsj.compiler.ir.ssa;
+
+/**
+ * Transformation or analysis over one SSA function.
+ */
+public interface SsaPass {
+    String name();
+
+    /**
+     * Runs the pass and returns how many values it changed; zero means the function is at a fixpoint for this pass.
+     */
+    int run(SsaFunction function);
+}
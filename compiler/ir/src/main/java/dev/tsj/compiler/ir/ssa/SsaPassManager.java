@@ -0,0 +1,68 @@
+package dev.tsj.compiler.ir.ssa;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Runs an ordered pass pipeline over SSA functions until no pass reports a change.
+ *
+ * <p>The JVM backend runs the standard pipeline on every function body it can lower, and for bodies the IR
+ * models completely it generates Java from the resulting blocks, phis and inferred types.
+ */
+public final class SsaPassManager {
+    static final int MAX_ROUNDS = 8;
+
+    private final List<SsaPass> passes;
+
+    public SsaPassManager(final List<SsaPass> passes) {
+        this.passes = List.copyOf(Objects.requireNonNull(passes, "passes"));
+    }
+
+    /**
+     * Type inference, constant propagation and dead value elimination.
+     */
+    public static SsaPassManager standard() {
+        return new SsaPassManager(List.of(
+                new SsaTypeInferencePass(),
+                new SsaConstantPropagationPass(),
+                new SsaDeadValueEliminationPass()
+        ));
+    }
+
+    public List<SsaPass> passes() {
+        return passes;
+    }
+
+    public Report run(final SsaFunction function) {
+        Objects.requireNonNull(function, "function");
+        final Map<String, Integer> changes = new LinkedHashMap<>();
+        for (SsaPass pass : passes) {
+            changes.put(pass.name(), 0);
+        }
+        int rounds = 0;
+        boolean changed = true;
+        while (changed && rounds < MAX_ROUNDS) {
+            changed = false;
+            rounds++;
+            for (SsaPass pass : passes) {
+                final int passChanges = pass.run(function);
+                if (passChanges > 0) {
+                    changes.merge(pass.name(), passChanges, Integer::sum);
+                    changed = true;
+                }
+            }
+        }
+        return new Report(rounds, Map.copyOf(changes));
+    }
+
+    /**
+     * Pass manager outcome.
+     *
+     * @param rounds number of pipeline rounds executed
+     * @param changesByPass total values changed per pass name
+     */
+    public record Report(int rounds, Map<String, Integer> changesByPass) {
+    }
+}
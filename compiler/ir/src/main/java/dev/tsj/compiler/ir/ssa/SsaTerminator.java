@@ -0,0 +1,17 @@
+package dev.tsj.compiler.ir.ssa;
+
+/**
+ * How control leaves a basic block.
+ */
+public enum SsaTerminator {
+    /** Block is still open or ends in unreachable code. */
+    NONE,
+    /** Unconditional jump to the single successor. */
+    JUMP,
+    /** Two-way branch on the terminator operand; successors are the true and false targets. */
+    BRANCH,
+    /** Return from the function with an optional terminator operand. */
+    RETURN,
+    /** Abrupt exit that throws the terminator operand. */
+    THROW
+}
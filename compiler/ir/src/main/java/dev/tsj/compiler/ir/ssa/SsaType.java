@@ -0,0 +1,47 @@
+package dev.tsj.compiler.ir.ssa;
+
+/**
+ * Type lattice for SSA values.
+ *
+ * <p>{@link #NONE} is the bottom element (no information yet), {@link #ANY} is the top element, and the
+ * remaining members are pairwise incomparable, so joining two different concrete types yields {@link #ANY}.
+ * {@link #NUMBER} means a JavaScript number, never a BigInt, so code generators may keep such values unboxed.
+ */
+public enum SsaType {
+    NONE,
+    NUMBER,
+    STRING,
+    BOOLEAN,
+    OBJECT,
+    ANY;
+
+    public SsaType join(final SsaType other) {
+        if (this == other || other == NONE) {
+            return this;
+        }
+        if (this == NONE) {
+            return other;
+        }
+        return ANY;
+    }
+
+    /**
+     * Primitive values cannot run user code when converted, so operators over them are side-effect free.
+     */
+    public boolean isPrimitive() {
+        return this == NUMBER || this == STRING || this == BOOLEAN;
+    }
+
+    public static SsaType ofConstant(final Object value) {
+        if (value instanceof Double) {
+            return NUMBER;
+        }
+        if (value instanceof String) {
+            return STRING;
+        }
+        if (value instanceof Boolean) {
+            return BOOLEAN;
+        }
+        throw new IllegalArgumentException("Unsupported SSA constant: " + value);
+    }
+}
@@ -0,0 +1,98 @@
+package dev.tsj.compiler.ir.ssa;
+
+import java.util.Set;
+
+/**
+ * Propagates {@link SsaType} facts through operators and phis until no type changes.
+ */
+public final class SsaTypeInferencePass implements SsaPass {
+    private static final Set<String> NUMERIC_OPERATORS = Set.of(
+            "-", "*", "/", "%", "**", "<<", ">>", ">>>", "&", "^", "|"
+    );
+    private static final Set<String> BOOLEAN_OPERATORS = Set.of(
+            "<", "<=", ">", ">=", "==", "!=", "===", "!==", "in", "instanceof"
+    );
+
+    @Override
+    public String name() {
+        return "type-inference";
+    }
+
+    @Override
+    public int run(final SsaFunction function) {
+        int changed = 0;
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (SsaValue value : function.values()) {
+                final SsaType inferred = value.type().join(inferType(value));
+                if (inferred != value.type()) {
+                    value.type(inferred);
+                    changed++;
+                    progress = true;
+                }
+            }
+        }
+        return changed;
+    }
+
+    static SsaType inferType(final SsaValue value) {
+        return switch (value.opcode()) {
+            case CONSTANT -> SsaType.ofConstant(value.constant());
+            case PARAMETER, OPAQUE -> value.type();
+            case PHI -> {
+                SsaType joined = SsaType.NONE;
+                for (SsaValue operand : value.operands()) {
+                    joined = joined.join(operand.resolved().type());
+                }
+                yield joined;
+            }
+            case UNARY -> switch (value.operator()) {
+                case "!" -> SsaType.BOOLEAN;
+                case "typeof" -> SsaType.STRING;
+                case "+" -> SsaType.NUMBER;
+                case "-", "~" -> numericType(value.operands().get(0).resolved().type(), SsaType.NUMBER);
+                default -> SsaType.ANY;
+            };
+            case BINARY -> binaryType(value);
+        };
+    }
+
+    private static SsaType binaryType(final SsaValue value) {
+        final String operator = value.operator();
+        if (BOOLEAN_OPERATORS.contains(operator)) {
+            return SsaType.BOOLEAN;
+        }
+        final SsaType left = value.operands().get(0).resolved().type();
+        final SsaType right = value.operands().get(1).resolved().type();
+        if (NUMERIC_OPERATORS.contains(operator)) {
+            return numericType(left, right);
+        }
+        if ("+".equals(operator)) {
+            if (left == SsaType.STRING || right == SsaType.STRING) {
+                return SsaType.STRING;
+            }
+            if (left == SsaType.NONE || right == SsaType.NONE) {
+                return SsaType.NONE;
+            }
+            final boolean numericLeft = left == SsaType.NUMBER || left == SsaType.BOOLEAN;
+            final boolean numericRight = right == SsaType.NUMBER || right == SsaType.BOOLEAN;
+            return numericLeft && numericRight ? SsaType.NUMBER : SsaType.ANY;
+        }
+        if ("&&".equals(operator) || "||".equals(operator) || "??".equals(operator)) {
+            return left.join(right);
+        }
+        return SsaType.ANY;
+    }
+
+    /**
+     * Numeric operators yield a number only over primitives; over objects or unknown values they may
+     * produce a BigInt, so the result is {@link SsaType#ANY}.
+     */
+    private static SsaType numericType(final SsaType left, final SsaType right) {
+        if (left == SsaType.NONE || right == SsaType.NONE) {
+            return SsaType.NONE;
+        }
+        return left.isPrimitive() && right.isPrimitive() ? SsaType.NUMBER : SsaType.ANY;
+    }
+}
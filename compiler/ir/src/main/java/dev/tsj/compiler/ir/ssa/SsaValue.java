@@ -0,0 +1,147 @@
+package dev.tsj.compiler.ir.ssa;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * SSA value, which is also the instruction that defines it.
+ *
+ * <p>Values are mutable while passes run: phis gain operands as blocks are sealed, a value may be
+ * folded into a constant in place, and a value may be replaced by another one. Replaced values keep
+ * forwarding to their replacement, so consumers should always go through {@link #resolved()}.
+ */
+public final class SsaValue {
+    private final int id;
+    private final SsaBlock block;
+    private final String operator;
+    private final List<SsaValue> operands;
+    private SsaOpcode opcode;
+    private Object constant;
+    private SsaType type;
+    private SsaValue replacement;
+
+    SsaValue(
+            final int id,
+            final SsaBlock block,
+            final SsaOpcode opcode,
+            final String operator,
+            final List<SsaValue> operands,
+            final Object constant,
+            final SsaType type
+    ) {
+        this.id = id;
+        this.block = Objects.requireNonNull(block, "block");
+        this.opcode = Objects.requireNonNull(opcode, "opcode");
+        this.operator = operator;
+        this.operands = new ArrayList<>(operands);
+        this.constant = constant;
+        this.type = Objects.requireNonNull(type, "type");
+    }
+
+    public int id() {
+        return id;
+    }
+
+    public SsaBlock block() {
+        return block;
+    }
+
+    public SsaOpcode opcode() {
+        return opcode;
+    }
+
+    /**
+     * Operator for binary and unary values, parameter name for parameters, or a label for opaque values.
+     */
+    public String operator() {
+        return operator;
+    }
+
+    public List<SsaValue> operands() {
+        return List.copyOf(operands);
+    }
+
+    public SsaType type() {
+        return type;
+    }
+
+    public Object constant() {
+        return constant;
+    }
+
+    public boolean isConstant() {
+        return opcode == SsaOpcode.CONSTANT;
+    }
+
+    /**
+     * Follows replacements to the value that currently stands for this one.
+     */
+    public SsaValue resolved() {
+        SsaValue current = this;
+        while (current.replacement != null) {
+            current = current.replacement;
+        }
+        return current;
+    }
+
+    public boolean isReplaced() {
+        return replacement != null;
+    }
+
+    void addOperand(final SsaValue operand) {
+        operands.add(Objects.requireNonNull(operand, "operand"));
+    }
+
+    void type(final SsaType newType) {
+        this.type = Objects.requireNonNull(newType, "newType");
+    }
+
+    void replaceWith(final SsaValue value) {
+        if (value.resolved() == this) {
+            throw new IllegalArgumentException("SSA value v" + id + " cannot replace itself.");
+        }
+        this.replacement = value;
+    }
+
+    void foldTo(final Object value) {
+        this.opcode = SsaOpcode.CONSTANT;
+        this.constant = value;
+        this.type = SsaType.ofConstant(value);
+        this.operands.clear();
+    }
+
+    String render() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append('v').append(id).append(':').append(type.name().toLowerCase()).append(" = ");
+        switch (opcode) {
+            case CONSTANT -> builder.append("const ").append(renderConstant(constant));
+            case PARAMETER -> builder.append("param ").append(operator);
+            default -> {
+                builder.append(opcode.name().toLowerCase());
+                if (operator != null) {
+                    builder.append(' ').append(operator);
+                }
+                for (SsaValue operand : operands) {
+                    builder.append(" v").append(operand.resolved().id);
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    private static String renderConstant(final Object value) {
+        if (value instanceof String stringValue) {
+            return '"' + stringValue + '"';
+        }
+        if (value instanceof Double number && Math.rint(number) == number && !Double.isInfinite(number)) {
+            return Long.toString(number.longValue());
+        }
+        return String.valueOf(value);
+    }
+
+    @Override
+    public String toString() {
+        return render();
+    }
+}
@@ -0,0 +1,162 @@
+package dev.tsj.compiler.ir.ssa;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SsaPassManagerTest {
+    @Test
+    void builderPlacesPhisOnlyForLoopCarriedValues() {
+        // let i = n; let x = 1; while (i < 10) { i = i + 1; } return x + i;
+        final SsaBuilder builder = new SsaBuilder("loop");
+        builder.parameter("n");
+        builder.writeVariable("i", builder.readVariable("n"));
+        builder.writeVariable("x", builder.constant(1.0d));
+        final SsaBlock header = builder.newBlock();
+        final SsaBlock body = builder.newBlock();
+        final SsaBlock exit = builder.newBlock();
+        builder.jump(header);
+        builder.currentBlock(header);
+        final SsaValue condition = builder.binary("<", builder.readVariable("i"), builder.constant(10.0d));
+        builder.branch(condition, body, exit);
+        builder.seal(body);
+        builder.currentBlock(body);
+        builder.writeVariable("i", builder.binary("+", builder.readVariable("i"), builder.constant(1.0d)));
+        builder.jump(header);
+        builder.seal(header);
+        builder.seal(exit);
+        builder.currentBlock(exit);
+        final SsaValue x = builder.readVariable("x");
+        final SsaValue i = builder.readVariable("i");
+        builder.ret(builder.binary("+", x, i));
+        final SsaFunction function = builder.finish();
+
+        assertEquals(1, header.phis().size());
+        assertSame(SsaOpcode.PHI, i.resolved().opcode());
+        assertSame(SsaOpcode.CONSTANT, x.resolved().opcode());
+        assertEquals(List.of(header), exit.predecessors());
+        assertTrue(function.dump().contains("branch v"), function.dump());
+    }
+
+    @Test
+    void standardPipelinePropagatesConstantsThroughPhisAndRemovesDeadValues() {
+        // let a = 2; let b = a * 3; let c; if (p) { c = b; } else { c = 6; } return c;
+        final SsaBuilder builder = new SsaBuilder("fold");
+        builder.parameter("p");
+        builder.writeVariable("a", builder.constant(2.0d));
+        builder.writeVariable("b", builder.binary("*", builder.readVariable("a"), builder.constant(3.0d)));
+        final SsaBlock thenBlock = builder.newBlock();
+        final SsaBlock elseBlock = builder.newBlock();
+        final SsaBlock join = builder.newBlock();
+        builder.branch(builder.readVariable("p"), thenBlock, elseBlock);
+        builder.seal(thenBlock);
+        builder.seal(elseBlock);
+        builder.currentBlock(thenBlock);
+        builder.writeVariable("c", builder.readVariable("b"));
+        builder.jump(join);
+        builder.currentBlock(elseBlock);
+        builder.writeVariable("c", builder.constant(6.0d));
+        builder.jump(join);
+        builder.seal(join);
+        builder.currentBlock(join);
+        final SsaValue c = builder.readVariable("c");
+        builder.ret(c);
+        final SsaFunction function = builder.finish();
+
+        final SsaPassManager.Report report = SsaPassManager.standard().run(function);
+
+        assertTrue(c.resolved().isConstant(), function.dump());
+        assertEquals(6.0d, c.resolved().constant());
+        assertSame(SsaType.NUMBER, c.resolved().type());
+        assertTrue(report.changesByPass().get("constant-propagation") >= 2, report.toString());
+        assertTrue(report.changesByPass().get("dead-value-elimination") > 0, report.toString());
+        assertEquals(
+                "function fold {\n"
+                        + "b0:\n"
+                        + "  v0:any = param p\n"
+                        + "  branch v0 b1 b2\n"
+                        + "b1 <- b0:\n"
+                        + "  jump b3\n"
+                        + "b2 <- b0:\n"
+                        + "  jump b3\n"
+                        + "b3 <- b1 b2:\n"
+                        + "  v" + c.resolved().id() + ":number = const 6\n"
+                        + "  return v" + c.resolved().id() + "\n"
+                        + "}\n",
+                function.dump()
+        );
+    }
+
+    @Test
+    void keepsOperatorsOverUnknownValuesAndJoinsConflictingTypes() {
+        // let v = p ? 1 : "one"; v + o; 3 - 1;   where o is an opaque object
+        final SsaBuilder builder = new SsaBuilder("types");
+        builder.parameter("p");
+        final SsaBlock thenBlock = builder.newBlock();
+        final SsaBlock elseBlock = builder.newBlock();
+        final SsaBlock join = builder.newBlock();
+        builder.branch(builder.readVariable("p"), thenBlock, elseBlock);
+        builder.seal(thenBlock);
+        builder.seal(elseBlock);
+        builder.currentBlock(thenBlock);
+        builder.writeVariable("v", builder.constant(1.0d));
+        builder.jump(join);
+        builder.currentBlock(elseBlock);
+        builder.writeVariable("v", builder.constant("one"));
+        builder.jump(join);
+        builder.seal(join);
+        builder.currentBlock(join);
+        final SsaValue v = builder.readVariable("v");
+        final SsaValue object = builder.opaque("call", SsaType.OBJECT, List.of());
+        final SsaValue unused = builder.binary("+", v, object);
+        final SsaValue unusedPure = builder.binary("-", builder.constant(3.0d), builder.constant(1.0d));
+        builder.ret(null);
+        final SsaFunction function = builder.finish();
+
+        SsaPassManager.standard().run(function);
+
+        assertSame(SsaType.ANY, v.resolved().type());
+        assertSame(SsaType.ANY, unused.type());
+        assertTrue(function.values().contains(unused), function.dump());
+        assertTrue(!function.values().contains(unusedPure), function.dump());
+    }
+
+    @Test
+    void numericOperatorsYieldNumbersOnlyOverPrimitiveOperands() {
+        // p - 1; "3" - 1; -p; +p; ~true;   where p may hold a BigInt
+        final SsaBuilder builder = new SsaBuilder("numeric");
+        final SsaValue p = builder.parameter("p");
+        final SsaValue overParameter = builder.binary("-", p, builder.constant(1.0d));
+        final SsaValue overString = builder.binary("-", builder.constant("3"), builder.constant(1.0d));
+        final SsaValue negated = builder.unary("-", p);
+        final SsaValue plus = builder.unary("+", p);
+        final SsaValue inverted = builder.unary("~", builder.constant(true));
+        builder.ret(null);
+
+        assertSame(SsaType.ANY, overParameter.type());
+        assertSame(SsaType.NUMBER, overString.type());
+        assertSame(SsaType.ANY, negated.type());
+        assertSame(SsaType.NUMBER, plus.type());
+        assertSame(SsaType.NUMBER, inverted.type());
+    }
+
+    @Test
+    void readsWithoutDefinitionAreOpaqueAndSealedBlocksRejectNewEdges() {
+        final SsaBuilder builder = new SsaBuilder("undefined");
+        final SsaValue missing = builder.readVariable("x");
+        assertSame(SsaOpcode.OPAQUE, missing.opcode());
+        final SsaBlock sealed = builder.newBlock();
+        builder.seal(sealed);
+        assertThrows(IllegalStateException.class, () -> builder.jump(sealed));
+
+        final SsaBuilder unsealed = new SsaBuilder("unsealed");
+        final SsaBlock pending = unsealed.newBlock();
+        unsealed.jump(pending);
+        assertThrows(IllegalStateException.class, unsealed::finish);
+    }
+}
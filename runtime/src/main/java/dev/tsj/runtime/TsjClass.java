@@ -1,5 +1,7 @@
 package dev.tsj.runtime;
 
+import java.util.function.Function;
+
 /**
  * Runtime class model for TSJ subset.
  */
@@ -9,6 +11,7 @@ public final class TsjClass {
     private final TsjObject prototype;
     private final TsjObject staticMembers;
     private TsjMethod constructorMethod;
+    private Function<TsjObject, TsjObject> instanceFactory;
 
     public TsjClass(final String name, final TsjClass superClass) {
         this.name = name;
@@ -16,6 +19,7 @@ public final class TsjClass {
         this.prototype = new TsjObject(superClass != null ? superClass.prototype : null);
         this.staticMembers = new TsjObject(superClass != null ? superClass.staticMembers : null);
         this.constructorMethod = null;
+        this.instanceFactory = null;
     }
 
     public String name() {
@@ -52,16 +56,36 @@ public final class TsjClass {
         this.constructorMethod = constructorMethod;
     }
 
+    void setInstanceFactory(final Function<TsjObject, TsjObject> instanceFactory) {
+        this.instanceFactory = instanceFactory;
+    }
+
+    void freeze() {
+        prototype.freeze();
+        staticMembers.freeze();
+    }
+
     public void defineMethod(final String methodName, final TsjMethod method) {
         prototype.setOwn(methodName, method);
     }
 
     public Object construct(final Object... args) {
-        final TsjObject instance = new TsjObject(prototype);
+        final TsjObject instance = newInstance();
         invokeConstructor(instance, args);
         return instance;
     }
 
+    private TsjObject newInstance() {
+        TsjClass cursor = this;
+        while (cursor != null) {
+            if (cursor.instanceFactory != null) {
+                return cursor.instanceFactory.apply(prototype);
+            }
+            cursor = cursor.superClass;
+        }
+        return new TsjObject(prototype);
+    }
+
     public void invokeConstructor(final TsjObject instance, final Object... args) {
         if (constructorMethod != null) {
             constructorMethod.call(instance, args);
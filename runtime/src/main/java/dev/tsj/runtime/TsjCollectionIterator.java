@@ -0,0 +1,59 @@
+package dev.tsj.runtime;
+
+/**
+ * Live iterator over a native `Map`/`Set` table, shared by `keys()`, `values()` and `entries()`.
+ */
+final class TsjCollectionIterator extends TsjObject {
+    private final TsjOrderedTable.Cursor cursor;
+    private final Kind kind;
+    private boolean exhausted;
+
+    TsjCollectionIterator(final TsjObject prototype, final TsjOrderedTable.Cursor cursor, final Kind kind) {
+        super(prototype);
+        this.cursor = cursor;
+        this.kind = kind;
+        this.exhausted = false;
+    }
+
+    /**
+     * Advances to the next entry; returns {@code false} once the underlying table is exhausted.
+     */
+    boolean advance() {
+        if (exhausted) {
+            return false;
+        }
+        if (!cursor.advance()) {
+            exhausted = true;
+            return false;
+        }
+        return true;
+    }
+
+    Object currentValue() {
+        return switch (kind) {
+            case KEYS -> cursor.key();
+            case VALUES -> cursor.value();
+            case ENTRIES -> TsjRuntime.arrayLiteral(cursor.key(), cursor.value());
+            case KEY_PAIRS -> TsjRuntime.arrayLiteral(cursor.key(), cursor.key());
+        };
+    }
+
+    Object nextResult() {
+        final TsjObject result = new TsjObject(null);
+        if (advance()) {
+            result.setOwn("value", currentValue());
+            result.setOwn("done", Boolean.FALSE);
+        } else {
+            result.setOwn("value", TsjUndefined.INSTANCE);
+            result.setOwn("done", Boolean.TRUE);
+        }
+        return result;
+    }
+
+    enum Kind {
+        KEYS,
+        VALUES,
+        ENTRIES,
+        KEY_PAIRS
+    }
+}
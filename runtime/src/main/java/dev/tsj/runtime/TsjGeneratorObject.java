@@ -1,6 +1,7 @@
 package dev.tsj.runtime;
 
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.Objects;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -9,6 +10,8 @@ final class TsjGeneratorObject extends TsjObject {
     private final TsjCallableWithThis body;
     private final Object thisValue;
     private final Object[] args;
+    private final Deque<Runnable> microtaskQueue;
+    private final TsjRealm realm;
     private final BlockingQueue<GeneratorSignal> signalQueue = new LinkedBlockingQueue<>();
     private final BlockingQueue<ResumeCommand> resumeQueue = new LinkedBlockingQueue<>();
 
@@ -23,6 +26,8 @@ final class TsjGeneratorObject extends TsjObject {
         this.body = Objects.requireNonNull(body, "body");
         this.thisValue = thisValue;
         this.args = args == null ? new Object[0] : Arrays.copyOf(args, args.length);
+        this.microtaskQueue = TsjRuntime.currentMicrotaskQueue();
+        this.realm = TsjRealm.current();
 
         setOwn("next", (TsjCallableWithThis) (receiver, invokeArgs) ->
                 nextResult(invokeArgs.length > 0 ? invokeArgs[0] : TsjRuntime.undefined()));
@@ -91,7 +96,7 @@ final class TsjGeneratorObject extends TsjObject {
     }
 
     private void runGeneratorBody() {
-        TsjRuntime.enterGenerator(this);
+        TsjRuntime.enterGenerator(this, microtaskQueue, realm);
         try {
             final Object result = body.callWithThis(thisValue, args);
             publishSignal(GeneratorSignal.complete(result));
@@ -13,6 +13,7 @@ import java.lang.reflect.WildcardType;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -354,8 +355,9 @@ public final class TsjInteropCodec {
 
     private static Object fromCompletableFuture(final CompletableFuture<?> completableFuture) {
         final TsjPromise promise = new TsjPromise();
+        final Deque<Runnable> microtaskQueue = TsjRuntime.currentMicrotaskQueue();
         completableFuture.whenComplete((value, throwable) -> {
-            TsjRuntime.enqueueMicrotask(() -> {
+            microtaskQueue.addLast(() -> {
                 final Throwable unwrapped = unwrapCompletionThrowable(throwable);
                 if (unwrapped != null) {
                     promise.rejectExternal(fromJava(unwrapped));
@@ -0,0 +1,41 @@
+package dev.tsj.runtime;
+
+/**
+ * Native `Map` instance holding its insertion-ordered entry table directly.
+ */
+final class TsjMapObject extends TsjObject {
+    private final TsjOrderedTable entries;
+
+    TsjMapObject(final TsjObject prototype) {
+        super(prototype);
+        this.entries = new TsjOrderedTable();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    Object getEntry(final Object key) {
+        return entries.get(key, TsjUndefined.INSTANCE);
+    }
+
+    boolean hasEntry(final Object key) {
+        return entries.containsKey(key);
+    }
+
+    void setEntry(final Object key, final Object value) {
+        entries.put(key, value);
+    }
+
+    boolean deleteEntry(final Object key) {
+        return entries.remove(key);
+    }
+
+    void clearEntries() {
+        entries.clear();
+    }
+
+    TsjOrderedTable.Cursor cursor() {
+        return entries.cursor();
+    }
+}
@@ -0,0 +1,75 @@
+package dev.tsj.runtime;
+
+/**
+ * Monomorphic inline cache for a member call site that profiled a single receiver prototype.
+ *
+ * <p>The cache remembers the prototype chain from the receiver's prototype up to the object that owns the
+ * method, together with the shape token of every link. A hit requires the same chain with unchanged
+ * shapes and no own property on the receiver that shadows the method, so any write that could change
+ * the lookup result falls back to the generic path. Entries are immutable and replaced as a whole, which
+ * makes a cache shared by concurrently running programs safe to read without locking.
+ */
+public final class TsjMemberCallCache {
+    private final String methodName;
+    private Entry entry;
+
+    public TsjMemberCallCache(final String methodName) {
+        this.methodName = methodName;
+        this.entry = null;
+    }
+
+    Object lookup(final TsjObject receiver) {
+        final Entry current = entry;
+        if (current == null || receiver.prototype() != current.chain[0] || receiver.hasOwn(methodName)) {
+            return null;
+        }
+        for (int index = 0; index < current.chain.length; index++) {
+            if (current.chain[index].shapeToken() != current.shapeTokens[index]) {
+                return null;
+            }
+        }
+        return current.member;
+    }
+
+    Object remember(final TsjObject receiver) {
+        entry = null;
+        if (receiver.hasOwn(methodName)) {
+            return null;
+        }
+        int depth = 0;
+        TsjObject holder = receiver.prototype();
+        while (holder != null && !holder.hasOwn(methodName)) {
+            holder = holder.prototype();
+            depth++;
+        }
+        if (holder == null) {
+            return null;
+        }
+        final Object member = holder.getOwn(methodName);
+        if (!(member instanceof TsjMethod || member instanceof TsjCallableWithThis)) {
+            return null;
+        }
+        final TsjObject[] chain = new TsjObject[depth + 1];
+        final long[] shapeTokens = new long[depth + 1];
+        TsjObject cursor = receiver.prototype();
+        for (int index = 0; index <= depth; index++) {
+            chain[index] = cursor;
+            shapeTokens[index] = cursor.shapeToken();
+            cursor = cursor.prototype();
+        }
+        entry = new Entry(chain, shapeTokens, member);
+        return member;
+    }
+
+    private static final class Entry {
+        private final TsjObject[] chain;
+        private final long[] shapeTokens;
+        private final Object member;
+
+        private Entry(final TsjObject[] chain, final long[] shapeTokens, final Object member) {
+            this.chain = chain;
+            this.shapeTokens = shapeTokens;
+            this.member = member;
+        }
+    }
+}
@@ -6,6 +6,9 @@ import java.util.Objects;
 
 /**
  * Registry that manages module initialization and live export bindings.
+ *
+ * <p>Each {@link TsjRealm} owns one registry, and generated programs register their module graph in the
+ * current realm's registry, so a program loaded once initializes separately in every realm.
  */
 public final class TsjModuleRegistry {
     private final Map<String, TsjModuleDescriptor> descriptors;
@@ -18,7 +21,7 @@ public final class TsjModuleRegistry {
         this.exports = new LinkedHashMap<>();
     }
 
-    public void register(final TsjModuleDescriptor descriptor) {
+    public synchronized void register(final TsjModuleDescriptor descriptor) {
         Objects.requireNonNull(descriptor, "descriptor");
         if (descriptors.containsKey(descriptor.id())) {
             throw new IllegalArgumentException("Duplicate module id: " + descriptor.id());
@@ -28,13 +31,13 @@ public final class TsjModuleRegistry {
         exports.put(descriptor.id(), new LinkedHashMap<>());
     }
 
-    public void initializeAll() {
+    public synchronized void initializeAll() {
         for (String moduleId : descriptors.keySet()) {
             initialize(moduleId);
         }
     }
 
-    public void initialize(final String moduleId) {
+    public synchronized void initialize(final String moduleId) {
         final TsjModuleDescriptor descriptor = resolveDescriptor(moduleId);
         final TsjModuleState currentState = states.get(moduleId);
         if (currentState == TsjModuleState.INITIALIZED) {
@@ -63,7 +66,7 @@ public final class TsjModuleRegistry {
         }
     }
 
-    public Object readBinding(final String moduleId, final String exportName) {
+    public synchronized Object readBinding(final String moduleId, final String exportName) {
         resolveDescriptor(moduleId);
         final Map<String, TsjCell> moduleExports = exports.get(moduleId);
         if (!moduleExports.containsKey(exportName)) {
@@ -77,14 +80,18 @@ public final class TsjModuleRegistry {
         return moduleExports.get(exportName).get();
     }
 
-    public void writeBinding(final String moduleId, final String exportName, final Object value) {
+    public synchronized void writeBinding(final String moduleId, final String exportName, final Object value) {
         resolveDescriptor(moduleId);
         final Map<String, TsjCell> moduleExports = exports.get(moduleId);
         final TsjCell cell = moduleExports.computeIfAbsent(exportName, ignored -> new TsjCell(TsjUndefined.INSTANCE));
         cell.set(value);
     }
 
-    public TsjModuleState stateOf(final String moduleId) {
+    public synchronized boolean isRegistered(final String moduleId) {
+        return descriptors.containsKey(moduleId);
+    }
+
+    public synchronized TsjModuleState stateOf(final String moduleId) {
         resolveDescriptor(moduleId);
         return states.get(moduleId);
     }
@@ -6,16 +6,21 @@ import java.util.Map;
 
 /**
  * Dynamic object with own properties and prototype pointer.
+ *
+ * <p>Instances are not synchronized. Objects shared across threads, such as runtime builtins, are
+ * frozen before publication so that concurrent readers never observe a mutation.
  */
 public class TsjObject {
     private TsjObject prototype;
     private final Map<String, Object> ownProperties;
     private long shapeToken;
+    private boolean frozen;
 
     public TsjObject(final TsjObject prototype) {
         this.prototype = prototype;
         this.ownProperties = new LinkedHashMap<>();
         this.shapeToken = 1L;
+        this.frozen = false;
     }
 
     public TsjObject prototype() {
@@ -23,6 +28,7 @@ public class TsjObject {
     }
 
     public void setPrototype(final TsjObject prototype) {
+        ensureNotFrozen("[[Prototype]]");
         ensureNoPrototypeCycle(prototype);
         this.prototype = prototype;
         shapeToken++;
@@ -37,12 +43,14 @@ public class TsjObject {
     }
 
     public void setOwn(final String key, final Object value) {
+        ensureNotFrozen(key);
         ownProperties.put(key, value);
         shapeToken++;
     }
 
     public boolean deleteOwn(final String key) {
         if (ownProperties.containsKey(key)) {
+            ensureNotFrozen(key);
             ownProperties.remove(key);
             shapeToken++;
         }
@@ -60,6 +68,7 @@ public class TsjObject {
     }
 
     public void set(final String key, final Object value) {
+        ensureNotFrozen(key);
         ownProperties.put(key, value);
         shapeToken++;
     }
@@ -72,6 +81,20 @@ public class TsjObject {
         return Collections.unmodifiableMap(ownProperties);
     }
 
+    public void freeze() {
+        frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void ensureNotFrozen(final String key) {
+        if (frozen) {
+            throw TsjRuntime.typeError("Cannot modify property `" + key + "` of a frozen object.");
+        }
+    }
+
     private void ensureNoPrototypeCycle(final TsjObject candidatePrototype) {
         TsjObject cursor = candidatePrototype;
         while (cursor != null) {
@@ -0,0 +1,409 @@
+package dev.tsj.runtime;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Insertion-ordered hash table backing TSJ `Map`/`Set` with SameValueZero key semantics.
+ *
+ * <p>Entries live in append-only slot arrays indexed by an open-addressing bucket table. Deleted slots
+ * are tombstoned until the next compaction, and every compaction is recorded so that live cursors can
+ * re-map their slot position and keep iterating in insertion order across mutations.
+ *
+ * <p>The key storage specialises on the first inserted key: number keys are kept unboxed in a
+ * {@code double[]}, string keys in a {@code String[]} with cached hashes, and the table falls back to
+ * boxed generic keys the first time a key of another kind is inserted.
+ */
+final class TsjOrderedTable {
+    private static final int INITIAL_CAPACITY = 8;
+    private static final Object DELETED = new Object();
+
+    private KeyKind keyKind;
+    private double[] numberKeys;
+    private String[] stringKeys;
+    private Object[] objectKeys;
+    private int[] hashes;
+    private Object[] values;
+    private int[] buckets;
+    private int slotCount;
+    private int liveCount;
+    private Compaction latestCompaction;
+
+    TsjOrderedTable() {
+        this.keyKind = KeyKind.EMPTY;
+        this.slotCount = 0;
+        this.liveCount = 0;
+        this.latestCompaction = new Compaction();
+    }
+
+    static Object normalizeKey(final Object key) {
+        if (key instanceof Double
+                || key instanceof Float
+                || key instanceof Long
+                || key instanceof Short
+                || key instanceof Byte) {
+            return boxNumber(((Number) key).doubleValue());
+        }
+        return key;
+    }
+
+    int size() {
+        return liveCount;
+    }
+
+    KeyKind keyKind() {
+        return keyKind;
+    }
+
+    boolean containsKey(final Object key) {
+        return findSlot(key) >= 0;
+    }
+
+    Object get(final Object key, final Object missingValue) {
+        final int slot = findSlot(key);
+        return slot >= 0 ? values[slot] : missingValue;
+    }
+
+    void put(final Object key, final Object value) {
+        if (keyKind == KeyKind.EMPTY) {
+            allocate(kindOf(key), INITIAL_CAPACITY);
+        } else if (keyKind != KeyKind.GENERIC && kindOf(key) != keyKind) {
+            promoteToGeneric();
+        }
+        final int existingSlot = findSlot(key);
+        if (existingSlot >= 0) {
+            values[existingSlot] = value;
+            return;
+        }
+        if (slotCount == values.length) {
+            rehash();
+        }
+        final int slot = slotCount++;
+        switch (keyKind) {
+            case NUMBER -> numberKeys[slot] = canonicalNumber(key);
+            case STRING -> {
+                stringKeys[slot] = (String) key;
+                hashes[slot] = mix(key.hashCode());
+            }
+            default -> {
+                final Object normalizedKey = normalizeKey(key);
+                objectKeys[slot] = normalizedKey;
+                hashes[slot] = genericHash(normalizedKey);
+            }
+        }
+        values[slot] = value;
+        liveCount++;
+        insertBucket(slot);
+    }
+
+    boolean remove(final Object key) {
+        final int slot = findSlot(key);
+        if (slot < 0) {
+            return false;
+        }
+        values[slot] = DELETED;
+        if (stringKeys != null) {
+            stringKeys[slot] = null;
+        }
+        if (objectKeys != null) {
+            objectKeys[slot] = null;
+        }
+        liveCount--;
+        return true;
+    }
+
+    void clear() {
+        if (slotCount == 0) {
+            return;
+        }
+        recordCompaction(null);
+        keyKind = KeyKind.EMPTY;
+        numberKeys = null;
+        stringKeys = null;
+        objectKeys = null;
+        hashes = null;
+        values = null;
+        buckets = null;
+        slotCount = 0;
+        liveCount = 0;
+    }
+
+    Cursor cursor() {
+        return new Cursor(this);
+    }
+
+    private int findSlot(final Object key) {
+        return switch (keyKind) {
+            case EMPTY -> -1;
+            case NUMBER -> isNumberKey(key) ? findNumberSlot(canonicalNumber(key)) : -1;
+            case STRING -> key instanceof String stringKey ? findStringSlot(stringKey) : -1;
+            case GENERIC -> findObjectSlot(normalizeKey(key));
+        };
+    }
+
+    private int findNumberSlot(final double key) {
+        final long keyBits = Double.doubleToLongBits(key);
+        final int mask = buckets.length - 1;
+        int bucket = numberHash(key) & mask;
+        while (true) {
+            final int encodedSlot = buckets[bucket];
+            if (encodedSlot == 0) {
+                return -1;
+            }
+            final int slot = encodedSlot - 1;
+            if (values[slot] != DELETED && Double.doubleToLongBits(numberKeys[slot]) == keyBits) {
+                return slot;
+            }
+            bucket = (bucket + 1) & mask;
+        }
+    }
+
+    private int findStringSlot(final String key) {
+        final int hash = mix(key.hashCode());
+        final int mask = buckets.length - 1;
+        int bucket = hash & mask;
+        while (true) {
+            final int encodedSlot = buckets[bucket];
+            if (encodedSlot == 0) {
+                return -1;
+            }
+            final int slot = encodedSlot - 1;
+            if (hashes[slot] == hash && values[slot] != DELETED && key.equals(stringKeys[slot])) {
+                return slot;
+            }
+            bucket = (bucket + 1) & mask;
+        }
+    }
+
+    private int findObjectSlot(final Object normalizedKey) {
+        final int hash = genericHash(normalizedKey);
+        final int mask = buckets.length - 1;
+        int bucket = hash & mask;
+        while (true) {
+            final int encodedSlot = buckets[bucket];
+            if (encodedSlot == 0) {
+                return -1;
+            }
+            final int slot = encodedSlot - 1;
+            if (hashes[slot] == hash && values[slot] != DELETED && Objects.equals(objectKeys[slot], normalizedKey)) {
+                return slot;
+            }
+            bucket = (bucket + 1) & mask;
+        }
+    }
+
+    private void insertBucket(final int slot) {
+        final int mask = buckets.length - 1;
+        int bucket = slotHash(slot) & mask;
+        while (buckets[bucket] != 0 && values[buckets[bucket] - 1] != DELETED) {
+            bucket = (bucket + 1) & mask;
+        }
+        buckets[bucket] = slot + 1;
+    }
+
+    private int slotHash(final int slot) {
+        return keyKind == KeyKind.NUMBER ? numberHash(numberKeys[slot]) : hashes[slot];
+    }
+
+    private void allocate(final KeyKind kind, final int capacity) {
+        keyKind = kind;
+        numberKeys = kind == KeyKind.NUMBER ? new double[capacity] : null;
+        stringKeys = kind == KeyKind.STRING ? new String[capacity] : null;
+        objectKeys = kind == KeyKind.GENERIC ? new Object[capacity] : null;
+        hashes = kind == KeyKind.NUMBER ? null : new int[capacity];
+        values = new Object[capacity];
+        buckets = new int[capacity * 2];
+    }
+
+    private void promoteToGeneric() {
+        final Object[] promotedKeys = new Object[values.length];
+        final int[] promotedHashes = new int[values.length];
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (values[slot] == DELETED) {
+                continue;
+            }
+            final Object key = keyKind == KeyKind.NUMBER ? boxNumber(numberKeys[slot]) : stringKeys[slot];
+            promotedKeys[slot] = key;
+            promotedHashes[slot] = genericHash(key);
+        }
+        keyKind = KeyKind.GENERIC;
+        numberKeys = null;
+        stringKeys = null;
+        objectKeys = promotedKeys;
+        hashes = promotedHashes;
+        rebuildBuckets();
+    }
+
+    private void rehash() {
+        final KeyKind kind = keyKind;
+        final double[] oldNumberKeys = numberKeys;
+        final String[] oldStringKeys = stringKeys;
+        final Object[] oldObjectKeys = objectKeys;
+        final int[] oldHashes = hashes;
+        final Object[] oldValues = values;
+        final int oldSlotCount = slotCount;
+        final int capacity = liveCount * 2 > oldValues.length ? oldValues.length * 2 : oldValues.length;
+        allocate(kind, capacity);
+
+        final int[] removedSlots = new int[oldSlotCount - liveCount];
+        int removedCount = 0;
+        int target = 0;
+        for (int slot = 0; slot < oldSlotCount; slot++) {
+            if (oldValues[slot] == DELETED) {
+                removedSlots[removedCount++] = slot;
+                continue;
+            }
+            switch (kind) {
+                case NUMBER -> numberKeys[target] = oldNumberKeys[slot];
+                case STRING -> stringKeys[target] = oldStringKeys[slot];
+                default -> objectKeys[target] = oldObjectKeys[slot];
+            }
+            if (oldHashes != null) {
+                hashes[target] = oldHashes[slot];
+            }
+            values[target] = oldValues[slot];
+            target++;
+        }
+        if (removedCount > 0) {
+            recordCompaction(removedSlots);
+        }
+        slotCount = target;
+        rebuildBuckets();
+    }
+
+    private void rebuildBuckets() {
+        Arrays.fill(buckets, 0);
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (values[slot] != DELETED) {
+                insertBucket(slot);
+            }
+        }
+    }
+
+    private void recordCompaction(final int[] removedSlots) {
+        final Compaction compaction = latestCompaction;
+        compaction.removedSlots = removedSlots;
+        compaction.next = new Compaction();
+        latestCompaction = compaction.next;
+    }
+
+    private Object keyAt(final int slot) {
+        return switch (keyKind) {
+            case NUMBER -> boxNumber(numberKeys[slot]);
+            case STRING -> stringKeys[slot];
+            default -> objectKeys[slot];
+        };
+    }
+
+    private static KeyKind kindOf(final Object key) {
+        if (isNumberKey(key)) {
+            return KeyKind.NUMBER;
+        }
+        if (key instanceof String) {
+            return KeyKind.STRING;
+        }
+        return KeyKind.GENERIC;
+    }
+
+    private static boolean isNumberKey(final Object key) {
+        return key instanceof Integer
+                || key instanceof Double
+                || key instanceof Long
+                || key instanceof Float
+                || key instanceof Short
+                || key instanceof Byte;
+    }
+
+    private static double canonicalNumber(final Object key) {
+        // Adding +0.0 folds -0.0 into +0.0 (SameValueZero); NaN is canonicalized by doubleToLongBits.
+        return ((Number) key).doubleValue() + 0.0d;
+    }
+
+    private static Object boxNumber(final double value) {
+        if (value == (int) value) {
+            return Integer.valueOf((int) value);
+        }
+        return Double.valueOf(value);
+    }
+
+    private static int numberHash(final double key) {
+        final long bits = Double.doubleToLongBits(key);
+        return mix((int) (bits ^ (bits >>> 32)));
+    }
+
+    private static int genericHash(final Object normalizedKey) {
+        return normalizedKey == null ? 0 : mix(normalizedKey.hashCode());
+    }
+
+    private static int mix(final int hash) {
+        final int scrambled = hash * 0x9E3779B9;
+        return scrambled ^ (scrambled >>> 16);
+    }
+
+    enum KeyKind {
+        EMPTY,
+        NUMBER,
+        STRING,
+        GENERIC
+    }
+
+    /**
+     * Compaction record shared by cursors created before it. {@code removedSlots == null} means clear().
+     */
+    private static final class Compaction {
+        private int[] removedSlots;
+        private Compaction next;
+
+        private int remap(final int slot) {
+            if (removedSlots == null) {
+                return 0;
+            }
+            final int insertionPoint = Arrays.binarySearch(removedSlots, slot);
+            final int removedBefore = insertionPoint >= 0 ? insertionPoint : -insertionPoint - 1;
+            return slot - removedBefore;
+        }
+    }
+
+    /**
+     * Live insertion-order cursor; entries added during iteration are visited, removed ones are skipped.
+     */
+    static final class Cursor {
+        private final TsjOrderedTable table;
+        private Compaction compaction;
+        private int nextSlot;
+        private Object key;
+        private Object value;
+
+        private Cursor(final TsjOrderedTable table) {
+            this.table = table;
+            this.compaction = table.latestCompaction;
+            this.nextSlot = 0;
+        }
+
+        boolean advance() {
+            while (compaction.next != null) {
+                nextSlot = compaction.remap(nextSlot);
+                compaction = compaction.next;
+            }
+            while (nextSlot < table.slotCount) {
+                final int slot = nextSlot++;
+                if (table.values[slot] != DELETED) {
+                    key = table.keyAt(slot);
+                    value = table.values[slot];
+                    return true;
+                }
+            }
+            key = null;
+            value = null;
+            return false;
+        }
+
+        Object key() {
+            return key;
+        }
+
+        Object value() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package dev.tsj.runtime;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Isolation unit for TSJ programs hosted in one JVM.
+ *
+ * <p>A realm owns the mutable global state of a program: the `Symbol.for` registry, the module
+ * registry, the top-level state of each loaded program, the unhandled-rejection reporter, and the
+ * microtask queue of each {@link #execute(Callable)} entry. Builtins are frozen and shared by every realm
+ * rather than copied on write, so creating a realm allocates only these registries.
+ */
+public final class TsjRealm {
+    private static final TsjRealm DEFAULT_REALM = new TsjRealm("default");
+    private static final ThreadLocal<TsjRealm> CURRENT_REALM = new ThreadLocal<>();
+
+    private final String name;
+    private final Map<String, TsjSymbol> symbolRegistry;
+    private final TsjModuleRegistry moduleRegistry;
+    private final Map<Class<?>, Object> programStates;
+    private volatile Consumer<Object> unhandledRejectionReporter;
+
+    private TsjRealm(final String name) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.symbolRegistry = new ConcurrentHashMap<>();
+        this.moduleRegistry = new TsjModuleRegistry();
+        this.programStates = new ConcurrentHashMap<>();
+        this.unhandledRejectionReporter = null;
+    }
+
+    public static TsjRealm create(final String name) {
+        return new TsjRealm(name);
+    }
+
+    public static TsjRealm defaultRealm() {
+        return DEFAULT_REALM;
+    }
+
+    public static TsjRealm current() {
+        final TsjRealm realm = CURRENT_REALM.get();
+        return realm != null ? realm : DEFAULT_REALM;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public TsjModuleRegistry moduleRegistry() {
+        return moduleRegistry;
+    }
+
+    /**
+     * Returns the state {@code program} keeps in this realm, creating it on first use. State is keyed by
+     * the loaded program class, so two loads of one program, or one load running in two realms, never
+     * share top-level bindings.
+     */
+    public <T> T programState(final Class<?> program, final Supplier<T> factory) {
+        Objects.requireNonNull(program, "program");
+        Objects.requireNonNull(factory, "factory");
+        @SuppressWarnings("unchecked")
+        final T state = (T) programStates.computeIfAbsent(program, ignored -> factory.get());
+        return state;
+    }
+
+    /**
+     * Overrides the process-wide reporter for rejections that stay unhandled inside this realm.
+     */
+    public void setUnhandledRejectionReporter(final Consumer<Object> reporter) {
+        this.unhandledRejectionReporter = Objects.requireNonNull(reporter, "reporter");
+    }
+
+    /**
+     * Runs {@code task} on the calling thread with this realm current and a fresh microtask queue,
+     * drains the queue before returning, and then restores the previously current realm.
+     */
+    public <T> T execute(final Callable<T> task) throws Exception {
+        Objects.requireNonNull(task, "task");
+        final TsjRealm previousRealm = CURRENT_REALM.get();
+        final Deque<Runnable> previousQueue = TsjRuntime.currentMicrotaskQueue();
+        CURRENT_REALM.set(this);
+        TsjRuntime.bindMicrotaskQueue(new ConcurrentLinkedDeque<>());
+        try {
+            final T result = task.call();
+            TsjRuntime.flushMicrotasks();
+            return result;
+        } finally {
+            TsjRuntime.bindMicrotaskQueue(previousQueue);
+            bind(previousRealm);
+        }
+    }
+
+    public void run(final Runnable task) {
+        Objects.requireNonNull(task, "task");
+        try {
+            execute(() -> {
+                task.run();
+                return null;
+            });
+        } catch (final RuntimeException runtimeException) {
+            throw runtimeException;
+        } catch (final Exception exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    static void bind(final TsjRealm realm) {
+        if (realm == null) {
+            CURRENT_REALM.remove();
+        } else {
+            CURRENT_REALM.set(realm);
+        }
+    }
+
+    TsjSymbol symbolFor(final String key) {
+        return symbolRegistry.computeIfAbsent(key, TsjSymbol::create);
+    }
+
+    String symbolKeyFor(final TsjSymbol symbol) {
+        for (Map.Entry<String, TsjSymbol> entry : symbolRegistry.entrySet()) {
+            if (entry.getValue() == symbol) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    Consumer<Object> unhandledRejectionReporter() {
+        return unhandledRejectionReporter;
+    }
+
+    @Override
+    public String toString() {
+        return "TsjRealm[" + name + "]";
+    }
+}
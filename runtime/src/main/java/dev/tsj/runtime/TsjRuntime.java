@@ -11,14 +11,13 @@ import java.lang.reflect.RecordComponent;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
-import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.regex.Matcher;
@@ -26,11 +25,13 @@ import java.util.regex.Pattern;
 
 /**
  * Runtime helpers used by TSJ-generated JVM classes in TSJ-9 subset.
+ *
+ * <p>Builtins are created once and frozen, so they can be shared by concurrently running programs.
+ * Per-program state (symbol registry) lives in the current {@link TsjRealm}, regex `lastIndex` lives on
+ * each RegExp object, and the microtask queue is thread-confined.
  */
 public final class TsjRuntime {
     private static final String DATE_MILLIS_KEY = "__tsj_date_millis";
-    private static final String MAP_BACKING_KEY = "__tsj_map_backing";
-    private static final String SET_BACKING_KEY = "__tsj_set_backing";
     private static final String WEAK_MAP_BACKING_KEY = "__tsj_weakmap_backing";
     private static final String WEAK_SET_BACKING_KEY = "__tsj_weakset_backing";
     private static final String WEAK_REF_TARGET_KEY = "__tsj_weakref_target";
@@ -40,42 +41,22 @@ public final class TsjRuntime {
     private static final String REGEXP_PATTERN_KEY = "__tsj_regexp_pattern";
     private static final String REGEXP_FLAGS_KEY = "__tsj_regexp_flags";
     private static final String REGEXP_LAST_INDEX_KEY = "lastIndex";
-    private static final Deque<Runnable> MICROTASK_QUEUE = new ArrayDeque<>();
+    private static final ThreadLocal<Deque<Runnable>> MICROTASK_QUEUE =
+            ThreadLocal.withInitial(ConcurrentLinkedDeque::new);
     private static final Object INFINITY_VALUE = Double.valueOf(Double.POSITIVE_INFINITY);
     private static final Object NAN_VALUE = Double.valueOf(Double.NaN);
-    private static final TsjClass ERROR_BUILTIN = createErrorBuiltin();
-    private static final TsjClass AGGREGATE_ERROR_BUILTIN = createAggregateErrorBuiltin();
-    private static final TsjClass TYPE_ERROR_BUILTIN = createNativeErrorSubtypeBuiltin("TypeError");
-    private static final TsjClass RANGE_ERROR_BUILTIN = createNativeErrorSubtypeBuiltin("RangeError");
-    private static final TsjCallable STRING_BUILTIN =
-            args -> toDisplayString(args.length > 0 ? args[0] : TsjUndefined.INSTANCE);
-    private static final TsjFunctionObject OBJECT_BUILTIN = createObjectBuiltin();
-    private static final TsjObject REFLECT_BUILTIN = createReflectBuiltin();
-    private static final TsjClass PROXY_BUILTIN = createProxyBuiltin();
-    private static final TsjClass ARRAY_BUILTIN = createArrayBuiltin();
-    private static final TsjClass MAP_BUILTIN = createMapBuiltin();
-    private static final TsjClass SET_BUILTIN = createSetBuiltin();
-    private static final TsjClass WEAK_MAP_BUILTIN = createWeakMapBuiltin();
-    private static final TsjClass WEAK_SET_BUILTIN = createWeakSetBuiltin();
-    private static final TsjClass WEAK_REF_BUILTIN = createWeakRefBuiltin();
-    private static final TsjClass REGEXP_BUILTIN = createRegExpBuiltin();
-    private static final TsjClass DATE_BUILTIN = createDateBuiltin();
-    private static final TsjObject MATH_BUILTIN = createMathBuiltin();
-    private static final TsjFunctionObject NUMBER_BUILTIN = createNumberBuiltin();
-    private static final TsjFunctionObject BIGINT_BUILTIN = createBigIntBuiltin();
-    private static final Map<String, TsjSymbol> SYMBOL_REGISTRY = new LinkedHashMap<>();
     private static final TsjSymbol SYMBOL_ITERATOR = TsjSymbol.create("Symbol.iterator");
     private static final TsjSymbol SYMBOL_TO_PRIMITIVE = TsjSymbol.create("Symbol.toPrimitive");
-    private static final TsjFunctionObject SYMBOL_BUILTIN = createSymbolBuiltin();
+    private static final TsjCallable STRING_BUILTIN =
+            args -> toDisplayString(args.length > 0 ? args[0] : TsjUndefined.INSTANCE);
     private static final TsjCallable PARSE_INT_BUILTIN = args -> parseIntBuiltinValue(args);
     private static final TsjCallable PARSE_FLOAT_BUILTIN = args -> parseFloatBuiltinValue(args);
-    private static final TsjObject JSON_BUILTIN = createJsonBuiltin();
-    private static final TsjObject PROMISE_BUILTIN = createPromiseBuiltin();
-    private static final Map<String, Integer> REGEXP_LITERAL_LAST_INDEX = new IdentityHashMap<>();
     private static final Object COERCION_NOT_CALLABLE = new Object();
     private static final Object JAVA_PROPERTY_NOT_FOUND = new Object();
+    private static final Object LOOP_INVARIANT_MISS = new Object();
     private static final ThreadLocal<TsjGeneratorObject> ACTIVE_GENERATOR = new ThreadLocal<>();
-    private static Consumer<Object> unhandledRejectionReporter = TsjRuntime::defaultUnhandledRejectionReporter;
+    private static volatile Consumer<Object> unhandledRejectionReporter =
+            TsjRuntime::defaultUnhandledRejectionReporter;
 
     private TsjRuntime() {
     }
@@ -89,23 +70,23 @@ public final class TsjRuntime {
     }
 
     public static Object promiseBuiltin() {
-        return PROMISE_BUILTIN;
+        return PromiseHolder.INSTANCE;
     }
 
     public static Object errorBuiltin() {
-        return ERROR_BUILTIN;
+        return ErrorHolder.INSTANCE;
     }
 
     public static Object aggregateErrorBuiltin() {
-        return AGGREGATE_ERROR_BUILTIN;
+        return AggregateErrorHolder.INSTANCE;
     }
 
     public static Object typeErrorBuiltin() {
-        return TYPE_ERROR_BUILTIN;
+        return TypeErrorHolder.INSTANCE;
     }
 
     public static Object rangeErrorBuiltin() {
-        return RANGE_ERROR_BUILTIN;
+        return RangeErrorHolder.INSTANCE;
     }
 
     public static Object stringBuiltin() {
@@ -113,63 +94,71 @@ public final class TsjRuntime {
     }
 
     public static Object objectBuiltin() {
-        return OBJECT_BUILTIN;
+        return ObjectHolder.INSTANCE;
     }
 
     public static Object reflectBuiltin() {
-        return REFLECT_BUILTIN;
+        return ReflectHolder.INSTANCE;
     }
 
     public static Object proxyBuiltin() {
-        return PROXY_BUILTIN;
+        return ProxyHolder.INSTANCE;
     }
 
     public static Object arrayBuiltin() {
-        return ARRAY_BUILTIN;
+        return ArrayHolder.INSTANCE;
     }
 
     public static Object mapBuiltin() {
-        return MAP_BUILTIN;
+        return MapHolder.INSTANCE;
     }
 
     public static Object setBuiltin() {
-        return SET_BUILTIN;
+        return SetHolder.INSTANCE;
     }
 
     public static Object weakMapBuiltin() {
-        return WEAK_MAP_BUILTIN;
+        return WeakMapHolder.INSTANCE;
     }
 
     public static Object weakSetBuiltin() {
-        return WEAK_SET_BUILTIN;
+        return WeakSetHolder.INSTANCE;
     }
 
     public static Object weakRefBuiltin() {
-        return WEAK_REF_BUILTIN;
+        return WeakRefHolder.INSTANCE;
     }
 
     public static Object regexpBuiltin() {
-        return REGEXP_BUILTIN;
+        return RegExpHolder.INSTANCE;
+    }
+
+    /**
+     * Evaluates a regex literal. Every evaluation yields a new RegExp object that carries its own
+     * `lastIndex`, as in JavaScript.
+     */
+    public static Object regexpLiteral(final String pattern, final String flags) {
+        return construct(regexpBuiltin(), pattern, flags);
     }
 
     public static Object dateBuiltin() {
-        return DATE_BUILTIN;
+        return DateHolder.INSTANCE;
     }
 
     public static Object mathBuiltin() {
-        return MATH_BUILTIN;
+        return MathHolder.INSTANCE;
     }
 
     public static Object numberBuiltin() {
-        return NUMBER_BUILTIN;
+        return NumberHolder.INSTANCE;
     }
 
     public static Object bigIntBuiltin() {
-        return BIGINT_BUILTIN;
+        return BigIntHolder.INSTANCE;
     }
 
     public static Object symbolBuiltin() {
-        return SYMBOL_BUILTIN;
+        return SymbolHolder.INSTANCE;
     }
 
     public static Object parseIntBuiltin() {
@@ -194,7 +183,7 @@ public final class TsjRuntime {
     }
 
     public static Object jsonBuiltin() {
-        return JSON_BUILTIN;
+        return JsonHolder.INSTANCE;
     }
 
     public static TsjPromise promiseResolve(final Object value) {
@@ -214,7 +203,8 @@ public final class TsjRuntime {
     }
 
     static void reportUnhandledPromiseRejection(final Object reason) {
-        unhandledRejectionReporter.accept(reason);
+        final Consumer<Object> realmReporter = TsjRealm.current().unhandledRejectionReporter();
+        (realmReporter != null ? realmReporter : unhandledRejectionReporter).accept(reason);
     }
 
     public static void setUnhandledRejectionReporter(final Consumer<Object> reporter) {
@@ -232,6 +222,14 @@ public final class TsjRuntime {
         return new TsjThrownException(value);
     }
 
+    /**
+     * Returns a TS {@code TypeError} carrying {@code message}, ready for a Java {@code throw}, so TS
+     * {@code catch} blocks see the same error value JavaScript would throw.
+     */
+    public static RuntimeException typeError(final String message) {
+        return raise(construct(typeErrorBuiltin(), message));
+    }
+
     public static Object normalizeThrown(final RuntimeException exception) {
         if (exception instanceof TsjThrownException thrownException) {
             return thrownException.thrownValue();
@@ -240,13 +238,27 @@ public final class TsjRuntime {
     }
 
     static void enqueueMicrotask(final Runnable task) {
-        MICROTASK_QUEUE.addLast(task);
+        MICROTASK_QUEUE.get().addLast(task);
+    }
+
+    /**
+     * Returns the calling thread's microtask queue; other threads may append to it to schedule work
+     * that must run on this thread's next {@link #flushMicrotasks()}.
+     */
+    static Deque<Runnable> currentMicrotaskQueue() {
+        return MICROTASK_QUEUE.get();
+    }
+
+    static void bindMicrotaskQueue(final Deque<Runnable> microtaskQueue) {
+        MICROTASK_QUEUE.set(microtaskQueue);
     }
 
     public static void flushMicrotasks() {
-        while (!MICROTASK_QUEUE.isEmpty()) {
-            final Runnable task = MICROTASK_QUEUE.removeFirst();
+        final Deque<Runnable> queue = MICROTASK_QUEUE.get();
+        Runnable task = queue.pollFirst();
+        while (task != null) {
             task.run();
+            task = queue.pollFirst();
         }
     }
 
@@ -285,12 +297,20 @@ public final class TsjRuntime {
         return resumeValue;
     }
 
-    static void enterGenerator(final TsjGeneratorObject generatorObject) {
+    static void enterGenerator(
+            final TsjGeneratorObject generatorObject,
+            final Deque<Runnable> microtaskQueue,
+            final TsjRealm realm
+    ) {
         ACTIVE_GENERATOR.set(generatorObject);
+        MICROTASK_QUEUE.set(microtaskQueue);
+        TsjRealm.bind(realm);
     }
 
     static void exitGenerator() {
         ACTIVE_GENERATOR.remove();
+        MICROTASK_QUEUE.remove();
+        TsjRealm.bind(null);
     }
 
     private static TsjGeneratorObject activeGeneratorOrThrow() {
@@ -404,6 +424,30 @@ public final class TsjRuntime {
         return getProperty(target, key);
     }
 
+    /**
+     * Reads a property ahead of a loop the compiler hoisted it out of. The read happens only when the target
+     * is a non-proxy object with an own data property under {@code key}, so it never runs user code or throws;
+     * anything else yields a marker that {@link #isLoopInvariantPrimitive} rejects, and a marker target
+     * yields the marker again so whole chains can be read without intermediate checks.
+     */
+    public static Object loopInvariantProperty(final Object target, final String key) {
+        if (target instanceof TsjObject tsjObject
+                && tsjObject.hasOwn(key)
+                && !(tsjObject.getOwn(key) instanceof TsjAccessorDescriptor)
+                && !isProxyObject(tsjObject)) {
+            return tsjObject.getOwn(key);
+        }
+        return LOOP_INVARIANT_MISS;
+    }
+
+    /**
+     * Returns whether a value read ahead of a loop may stand in for the in-loop reads: it must be a primitive,
+     * so operators applied to it cannot call back into user code, and not the miss marker.
+     */
+    public static boolean isLoopInvariantPrimitive(final Object value) {
+        return value != LOOP_INVARIANT_MISS && isPrimitiveValue(value);
+    }
+
     public static Object setProperty(final Object target, final String key, final Object value) {
         if (target instanceof TsjObject tsjObject) {
             if (isProxyObject(tsjObject)) {
@@ -953,6 +997,31 @@ public final class TsjRuntime {
         return invokeMember(target, methodName, false, args);
     }
 
+    /**
+     * Member call through a monomorphic {@link TsjMemberCallCache}; receivers the cache cannot serve take
+     * the {@link #invokeMember(Object, String, Object...)} path.
+     */
+    public static Object invokeMemberCached(
+            final TsjMemberCallCache cache,
+            final Object target,
+            final String methodName,
+            final Object... args
+    ) {
+        if (target instanceof TsjObject tsjObject && !isProxyObject(tsjObject)) {
+            Object member = cache.lookup(tsjObject);
+            if (member == null) {
+                member = cache.remember(tsjObject);
+            }
+            if (member instanceof TsjMethod method) {
+                return method.call(tsjObject, args);
+            }
+            if (member instanceof TsjCallableWithThis callableWithThis) {
+                return callableWithThis.callWithThis(tsjObject, args);
+            }
+        }
+        return invokeMember(target, methodName, false, args);
+    }
+
     public static Object invokeMemberPreservingJava(final Object target, final String methodName, final Object... args) {
         return invokeMember(target, methodName, true, args);
     }
@@ -1055,6 +1124,101 @@ public final class TsjRuntime {
         return values.toArray();
     }
 
+    /**
+     * Specialized form of {@code target.methodName(callback)} for builtin array callback methods whose
+     * callback is a function literal declaring {@code callbackArity} parameters. Array-like receivers run
+     * the builtin loop directly and pass only the declared callback arguments; any other receiver falls
+     * back to regular member invocation.
+     */
+    public static Object invokeArrayCallback(
+            final Object target,
+            final String methodName,
+            final int callbackArity,
+            final Object callback
+    ) {
+        if (!(target instanceof TsjObject tsjObject)
+                || isProxyObject(tsjObject)
+                || !isUndefined(getProperty(tsjObject, methodName))
+                || !isArrayLikeObject(tsjObject)) {
+            return invokeMember(target, methodName, callback);
+        }
+        final List<Object> values = arrayLikeValues(tsjObject);
+        switch (methodName) {
+            case "map" -> {
+                final Object[] mapped = new Object[values.size()];
+                for (int index = 0; index < values.size(); index++) {
+                    mapped[index] = callArrayCallback(callback, callbackArity, values.get(index), index, tsjObject);
+                }
+                return arrayLiteral(mapped);
+            }
+            case "filter" -> {
+                final List<Object> filtered = new ArrayList<>();
+                for (int index = 0; index < values.size(); index++) {
+                    if (truthy(callArrayCallback(callback, callbackArity, values.get(index), index, tsjObject))) {
+                        filtered.add(values.get(index));
+                    }
+                }
+                return arrayLiteral(filtered.toArray());
+            }
+            case "forEach" -> {
+                for (int index = 0; index < values.size(); index++) {
+                    callArrayCallback(callback, callbackArity, values.get(index), index, tsjObject);
+                }
+                return TsjUndefined.INSTANCE;
+            }
+            case "find" -> {
+                for (int index = 0; index < values.size(); index++) {
+                    if (truthy(callArrayCallback(callback, callbackArity, values.get(index), index, tsjObject))) {
+                        return values.get(index);
+                    }
+                }
+                return undefined();
+            }
+            case "findIndex" -> {
+                for (int index = 0; index < values.size(); index++) {
+                    if (truthy(callArrayCallback(callback, callbackArity, values.get(index), index, tsjObject))) {
+                        return Integer.valueOf(index);
+                    }
+                }
+                return Integer.valueOf(-1);
+            }
+            case "some" -> {
+                for (int index = 0; index < values.size(); index++) {
+                    if (truthy(callArrayCallback(callback, callbackArity, values.get(index), index, tsjObject))) {
+                        return Boolean.TRUE;
+                    }
+                }
+                return Boolean.FALSE;
+            }
+            case "every" -> {
+                for (int index = 0; index < values.size(); index++) {
+                    if (!truthy(callArrayCallback(callback, callbackArity, values.get(index), index, tsjObject))) {
+                        return Boolean.FALSE;
+                    }
+                }
+                return Boolean.TRUE;
+            }
+            default -> {
+                return invokeMember(target, methodName, callback);
+            }
+        }
+    }
+
+    private static Object callArrayCallback(
+            final Object callback,
+            final int callbackArity,
+            final Object value,
+            final int index,
+            final TsjObject target
+    ) {
+        return switch (callbackArity) {
+            case 0 -> call(callback);
+            case 1 -> call(callback, value);
+            case 2 -> call(callback, value, Integer.valueOf(index));
+            default -> call(callback, value, Integer.valueOf(index), target);
+        };
+    }
+
     private static Object invokeArrayLikeMember(final TsjObject target, final String methodName, final Object... args) {
         if (!isArrayLikeObject(target)) {
             return COERCION_NOT_CALLABLE;
@@ -1432,7 +1596,10 @@ public final class TsjRuntime {
                 if (descriptor == null) {
                     return TsjJavaInterop.invokeInstanceMember(target, methodName, args);
                 }
-                final Object result = executeRegexLiteralWithState(target, descriptor, toDisplayString(firstArg(args)));
+                final Object result = executeRegexWithState(
+                        (TsjObject) regexpLiteral(descriptor.pattern(), regexFlagsText(descriptor)),
+                        toDisplayString(firstArg(args))
+                );
                 return Boolean.valueOf(result != null);
             }
             case "exec" -> {
@@ -1440,7 +1607,10 @@ public final class TsjRuntime {
                 if (descriptor == null) {
                     return TsjJavaInterop.invokeInstanceMember(target, methodName, args);
                 }
-                return executeRegexLiteralWithState(target, descriptor, toDisplayString(firstArg(args)));
+                return executeRegexWithState(
+                        (TsjObject) regexpLiteral(descriptor.pattern(), regexFlagsText(descriptor)),
+                        toDisplayString(firstArg(args))
+                );
             }
             case "match" -> {
                 final RegexDescriptor descriptor = regexDescriptorFromValue(firstArg(args));
@@ -1640,10 +1810,39 @@ public final class TsjRuntime {
         return narrowNumber(toNumber(left) + toNumber(right));
     }
 
+    /**
+     * {@link #add(Object, Object)} for sites that profiled numeric operands only; other operands take the
+     * generic path, so the result is always the same.
+     */
+    public static Object addNumbers(final Object left, final Object right) {
+        if (left instanceof Integer leftInteger && right instanceof Integer rightInteger) {
+            final long sum = (long) leftInteger + rightInteger;
+            if (sum == (int) sum) {
+                return Integer.valueOf((int) sum);
+            }
+            return Double.valueOf(sum);
+        }
+        if (left instanceof Double leftDouble && right instanceof Double rightDouble) {
+            return narrowNumber(leftDouble + rightDouble);
+        }
+        return add(left, right);
+    }
+
     public static Object comma(final Object left, final Object right) {
         return right;
     }
 
+    /**
+     * Boxes an unboxed number the way the arithmetic helpers box their results, except that negative zero
+     * stays a {@link Double} so a quotient such as {@code 0 / -1} keeps its sign.
+     */
+    public static Object number(final double value) {
+        if (value == 0.0d && Double.doubleToRawLongBits(value) != 0L) {
+            return Double.valueOf(value);
+        }
+        return narrowNumber(value);
+    }
+
     public static Object unaryPlus(final Object value) {
         return narrowNumber(toNumber(value));
     }
@@ -1774,7 +1973,7 @@ public final class TsjRuntime {
             return false;
         }
         if (value instanceof Throwable) {
-            return tsjClass == ERROR_BUILTIN;
+            return tsjClass == ErrorHolder.INSTANCE;
         }
         if (!(value instanceof TsjObject tsjObject)) {
             return false;
@@ -2353,30 +2552,6 @@ public final class TsjRuntime {
         return 0L;
     }
 
-    @SuppressWarnings("unchecked")
-    private static Map<Object, Object> mapBacking(final TsjObject mapObject) {
-        final Object value = mapObject.get(MAP_BACKING_KEY);
-        if (value instanceof Map<?, ?>) {
-            return (Map<Object, Object>) value;
-        }
-        final Map<Object, Object> created = new LinkedHashMap<>();
-        mapObject.setOwn(MAP_BACKING_KEY, created);
-        mapObject.setOwn("size", Integer.valueOf(0));
-        return created;
-    }
-
-    @SuppressWarnings("unchecked")
-    private static java.util.Set<Object> setBacking(final TsjObject setObject) {
-        final Object value = setObject.get(SET_BACKING_KEY);
-        if (value instanceof java.util.Set<?>) {
-            return (java.util.Set<Object>) value;
-        }
-        final java.util.Set<Object> created = new java.util.LinkedHashSet<>();
-        setObject.setOwn(SET_BACKING_KEY, created);
-        setObject.setOwn("size", Integer.valueOf(0));
-        return created;
-    }
-
     @SuppressWarnings("unchecked")
     private static Map<Object, Object> weakMapBacking(final TsjObject weakMapObject) {
         final Object value = weakMapObject.get(WEAK_MAP_BACKING_KEY);
@@ -2517,25 +2692,8 @@ public final class TsjRuntime {
         return buildRegexMatchArray(matcher, input);
     }
 
-    private static Object executeRegexLiteralWithState(
-            final String literal,
-            final RegexDescriptor descriptor,
-            final String input
-    ) {
-        final int startIndex = descriptor.global()
-                ? REGEXP_LITERAL_LAST_INDEX.getOrDefault(literal, Integer.valueOf(0)).intValue()
-                : 0;
-        final Matcher matcher = compileRegexPattern(descriptor).matcher(input);
-        if (!matcher.find(Math.min(Math.max(startIndex, 0), input.length()))) {
-            if (descriptor.global()) {
-                REGEXP_LITERAL_LAST_INDEX.put(literal, Integer.valueOf(0));
-            }
-            return null;
-        }
-        if (descriptor.global()) {
-            REGEXP_LITERAL_LAST_INDEX.put(literal, Integer.valueOf(matcher.end()));
-        }
-        return buildRegexMatchArray(matcher, input);
+    private static String regexFlagsText(final RegexDescriptor descriptor) {
+        return descriptor.global() ? "g" + descriptor.flags() : descriptor.flags();
     }
 
     private static Object buildRegexMatchArray(final Matcher matcher, final String input) {
@@ -2689,12 +2847,12 @@ public final class TsjRuntime {
     }
 
     private static TsjClass createAggregateErrorBuiltin() {
-        final TsjClass aggregateErrorClass = new TsjClass("AggregateError", ERROR_BUILTIN);
+        final TsjClass aggregateErrorClass = new TsjClass("AggregateError", ErrorHolder.INSTANCE);
         aggregateErrorClass.setConstructor((thisObject, args) -> {
             final Object iterable = firstArg(args);
             final Object rawMessage = secondArg(args);
             final Object options = args.length > 2 ? args[2] : TsjUndefined.INSTANCE;
-            ERROR_BUILTIN.invokeConstructor(thisObject, rawMessage, options);
+            ErrorHolder.INSTANCE.invokeConstructor(thisObject, rawMessage, options);
             thisObject.setOwn("name", "AggregateError");
             final List<Object> reasons = new ArrayList<>();
             if (!isNullish(iterable)) {
@@ -2707,11 +2865,11 @@ public final class TsjRuntime {
     }
 
     private static TsjClass createNativeErrorSubtypeBuiltin(final String name) {
-        final TsjClass subtype = new TsjClass(name, ERROR_BUILTIN);
+        final TsjClass subtype = new TsjClass(name, ErrorHolder.INSTANCE);
         subtype.setConstructor((thisObject, args) -> {
             final Object rawMessage = args.length > 0 ? args[0] : "";
             final Object options = args.length > 1 ? args[1] : TsjUndefined.INSTANCE;
-            ERROR_BUILTIN.invokeConstructor(thisObject, rawMessage, options);
+            ErrorHolder.INSTANCE.invokeConstructor(thisObject, rawMessage, options);
             initializeErrorObject(thisObject, name, rawMessage, options);
             return null;
         });
@@ -2944,12 +3102,128 @@ public final class TsjRuntime {
         return array;
     }
 
+    private static <T extends TsjObject> T frozen(final T builtin) {
+        builtin.freeze();
+        return builtin;
+    }
+
+    private static TsjClass frozen(final TsjClass builtin) {
+        builtin.freeze();
+        return builtin;
+    }
+
+    /*
+     * Builtins are created on first use through initialization-on-demand holders, so a program that never
+     * touches Proxy, Date, or BigInt does not load or build them at startup. Class initialization runs each
+     * factory exactly once and publishes the frozen result safely to every thread.
+     */
+    private static final class ErrorHolder {
+        private static final TsjClass INSTANCE = frozen(createErrorBuiltin());
+    }
+
+    private static final class AggregateErrorHolder {
+        private static final TsjClass INSTANCE = frozen(createAggregateErrorBuiltin());
+    }
+
+    private static final class TypeErrorHolder {
+        private static final TsjClass INSTANCE = frozen(createNativeErrorSubtypeBuiltin("TypeError"));
+    }
+
+    private static final class RangeErrorHolder {
+        private static final TsjClass INSTANCE = frozen(createNativeErrorSubtypeBuiltin("RangeError"));
+    }
+
+    private static final class ObjectHolder {
+        private static final TsjFunctionObject INSTANCE = frozen(createObjectBuiltin());
+    }
+
+    private static final class ReflectHolder {
+        private static final TsjObject INSTANCE = frozen(createReflectBuiltin());
+    }
+
+    private static final class ProxyHolder {
+        private static final TsjClass INSTANCE = frozen(createProxyBuiltin());
+    }
+
+    private static final class ArrayHolder {
+        private static final TsjClass INSTANCE = frozen(createArrayBuiltin());
+    }
+
+    private static final class CollectionIteratorPrototypeHolder {
+        private static final TsjObject INSTANCE = frozen(createCollectionIteratorPrototype());
+    }
+
+    private static final class MapHolder {
+        private static final TsjClass INSTANCE = frozen(createMapBuiltin());
+    }
+
+    private static final class SetHolder {
+        private static final TsjClass INSTANCE = frozen(createSetBuiltin());
+    }
+
+    private static final class WeakMapHolder {
+        private static final TsjClass INSTANCE = frozen(createWeakMapBuiltin());
+    }
+
+    private static final class WeakSetHolder {
+        private static final TsjClass INSTANCE = frozen(createWeakSetBuiltin());
+    }
+
+    private static final class WeakRefHolder {
+        private static final TsjClass INSTANCE = frozen(createWeakRefBuiltin());
+    }
+
+    private static final class RegExpHolder {
+        private static final TsjClass INSTANCE = frozen(createRegExpBuiltin());
+    }
+
+    private static final class DateHolder {
+        private static final TsjClass INSTANCE = frozen(createDateBuiltin());
+    }
+
+    private static final class MathHolder {
+        private static final TsjObject INSTANCE = frozen(createMathBuiltin());
+    }
+
+    private static final class NumberHolder {
+        private static final TsjFunctionObject INSTANCE = frozen(createNumberBuiltin());
+    }
+
+    private static final class BigIntHolder {
+        private static final TsjFunctionObject INSTANCE = frozen(createBigIntBuiltin());
+    }
+
+    private static final class SymbolHolder {
+        private static final TsjFunctionObject INSTANCE = frozen(createSymbolBuiltin());
+    }
+
+    private static final class JsonHolder {
+        private static final TsjObject INSTANCE = frozen(createJsonBuiltin());
+    }
+
+    private static final class PromiseHolder {
+        private static final TsjObject INSTANCE = frozen(createPromiseBuiltin());
+    }
+
+    private static TsjObject createCollectionIteratorPrototype() {
+        final TsjObject prototype = new TsjObject(null);
+        prototype.setOwn("next", (TsjMethod) (thisObject, args) -> {
+            if (thisObject instanceof TsjCollectionIterator iterator) {
+                return iterator.nextResult();
+            }
+            throw new IllegalArgumentException(
+                    "Collection iterator next() called on incompatible receiver: " + toDisplayString(thisObject)
+            );
+        });
+        prototype.setOwn(SYMBOL_ITERATOR.propertyKey(), (TsjMethod) (thisObject, args) -> thisObject);
+        return prototype;
+    }
+
     private static TsjClass createMapBuiltin() {
         final TsjClass map = new TsjClass("Map", null);
+        map.setInstanceFactory(TsjMapObject::new);
         map.setConstructor((thisObject, args) -> {
-            final Map<Object, Object> backing = new LinkedHashMap<>();
-            thisObject.setOwn(MAP_BACKING_KEY, backing);
-            thisObject.setOwn("size", Integer.valueOf(0));
+            final TsjMapObject mapObject = mapReceiver(thisObject, "constructor");
             final Object iterable = firstArg(args);
             if (!isNullish(iterable)) {
                 final List<Object> entries = new ArrayList<>();
@@ -2966,87 +3240,131 @@ public final class TsjRuntime {
                     } else {
                         throw new IllegalArgumentException("Map constructor expects iterable key/value entries.");
                     }
-                    backing.put(key, value);
+                    mapObject.setEntry(key, value);
                 }
-                thisObject.setOwn("size", Integer.valueOf(backing.size()));
             }
             return null;
         });
+        defineAccessorProperty(
+                map.prototype(),
+                "size",
+                (TsjMethod) (thisObject, args) -> Integer.valueOf(mapReceiver(thisObject, "size").size()),
+                TsjUndefined.INSTANCE
+        );
         map.defineMethod("set", (thisObject, args) -> {
-            final Map<Object, Object> backing = mapBacking(thisObject);
-            backing.put(firstArg(args), secondArg(args));
-            thisObject.setOwn("size", Integer.valueOf(backing.size()));
+            mapReceiver(thisObject, "set").setEntry(firstArg(args), secondArg(args));
             return thisObject;
         });
-        map.defineMethod("get", (thisObject, args) -> mapBacking(thisObject).getOrDefault(firstArg(args), TsjUndefined.INSTANCE));
-        map.defineMethod("has", (thisObject, args) -> Boolean.valueOf(mapBacking(thisObject).containsKey(firstArg(args))));
-        map.defineMethod("delete", (thisObject, args) -> {
-            final Map<Object, Object> backing = mapBacking(thisObject);
-            final Object removed = backing.remove(firstArg(args));
-            thisObject.setOwn("size", Integer.valueOf(backing.size()));
-            return Boolean.valueOf(removed != null);
-        });
+        map.defineMethod("get", (thisObject, args) -> mapReceiver(thisObject, "get").getEntry(firstArg(args)));
+        map.defineMethod("has", (thisObject, args) ->
+                Boolean.valueOf(mapReceiver(thisObject, "has").hasEntry(firstArg(args))));
+        map.defineMethod("delete", (thisObject, args) ->
+                Boolean.valueOf(mapReceiver(thisObject, "delete").deleteEntry(firstArg(args))));
         map.defineMethod("clear", (thisObject, args) -> {
-            final Map<Object, Object> backing = mapBacking(thisObject);
-            backing.clear();
-            thisObject.setOwn("size", Integer.valueOf(0));
+            mapReceiver(thisObject, "clear").clearEntries();
             return TsjUndefined.INSTANCE;
         });
         map.defineMethod("forEach", (thisObject, args) -> {
             final Object callback = firstArg(args);
-            final Map<Object, Object> backing = mapBacking(thisObject);
-            for (Map.Entry<Object, Object> entry : backing.entrySet()) {
-                call(callback, entry.getValue(), entry.getKey(), thisObject);
+            final TsjOrderedTable.Cursor cursor = mapReceiver(thisObject, "forEach").cursor();
+            while (cursor.advance()) {
+                call(callback, cursor.value(), cursor.key(), thisObject);
             }
             return TsjUndefined.INSTANCE;
         });
+        final TsjMethod entries = (thisObject, args) -> collectionIterator(
+                mapReceiver(thisObject, "entries").cursor(),
+                TsjCollectionIterator.Kind.ENTRIES
+        );
+        map.defineMethod("entries", entries);
+        map.defineMethod("keys", (thisObject, args) -> collectionIterator(
+                mapReceiver(thisObject, "keys").cursor(),
+                TsjCollectionIterator.Kind.KEYS
+        ));
+        map.defineMethod("values", (thisObject, args) -> collectionIterator(
+                mapReceiver(thisObject, "values").cursor(),
+                TsjCollectionIterator.Kind.VALUES
+        ));
+        map.defineMethod(SYMBOL_ITERATOR.propertyKey(), entries);
         return map;
     }
 
     private static TsjClass createSetBuiltin() {
         final TsjClass set = new TsjClass("Set", null);
+        set.setInstanceFactory(TsjSetObject::new);
         set.setConstructor((thisObject, args) -> {
-            thisObject.setOwn(SET_BACKING_KEY, new java.util.LinkedHashSet<>());
-            thisObject.setOwn("size", Integer.valueOf(0));
+            final TsjSetObject setObject = setReceiver(thisObject, "constructor");
             final Object iterable = firstArg(args);
             if (!isNullish(iterable)) {
                 final List<Object> values = new ArrayList<>();
                 appendSpreadValues(values, iterable);
-                final java.util.Set<Object> backing = setBacking(thisObject);
-                backing.addAll(values);
-                thisObject.setOwn("size", Integer.valueOf(backing.size()));
+                for (Object value : values) {
+                    setObject.addValue(value);
+                }
             }
             return null;
         });
+        defineAccessorProperty(
+                set.prototype(),
+                "size",
+                (TsjMethod) (thisObject, args) -> Integer.valueOf(setReceiver(thisObject, "size").size()),
+                TsjUndefined.INSTANCE
+        );
         set.defineMethod("add", (thisObject, args) -> {
-            final java.util.Set<Object> backing = setBacking(thisObject);
-            backing.add(firstArg(args));
-            thisObject.setOwn("size", Integer.valueOf(backing.size()));
+            setReceiver(thisObject, "add").addValue(firstArg(args));
             return thisObject;
         });
-        set.defineMethod("has", (thisObject, args) -> Boolean.valueOf(setBacking(thisObject).contains(firstArg(args))));
-        set.defineMethod("delete", (thisObject, args) -> {
-            final java.util.Set<Object> backing = setBacking(thisObject);
-            final boolean removed = backing.remove(firstArg(args));
-            thisObject.setOwn("size", Integer.valueOf(backing.size()));
-            return Boolean.valueOf(removed);
-        });
+        set.defineMethod("has", (thisObject, args) ->
+                Boolean.valueOf(setReceiver(thisObject, "has").hasValue(firstArg(args))));
+        set.defineMethod("delete", (thisObject, args) ->
+                Boolean.valueOf(setReceiver(thisObject, "delete").deleteValue(firstArg(args))));
         set.defineMethod("clear", (thisObject, args) -> {
-            final java.util.Set<Object> backing = setBacking(thisObject);
-            backing.clear();
-            thisObject.setOwn("size", Integer.valueOf(0));
+            setReceiver(thisObject, "clear").clearValues();
             return TsjUndefined.INSTANCE;
         });
         set.defineMethod("forEach", (thisObject, args) -> {
             final Object callback = firstArg(args);
-            for (Object value : setBacking(thisObject)) {
-                call(callback, value, value, thisObject);
+            final TsjOrderedTable.Cursor cursor = setReceiver(thisObject, "forEach").cursor();
+            while (cursor.advance()) {
+                call(callback, cursor.key(), cursor.key(), thisObject);
             }
             return TsjUndefined.INSTANCE;
         });
+        final TsjMethod values = (thisObject, args) -> collectionIterator(
+                setReceiver(thisObject, "values").cursor(),
+                TsjCollectionIterator.Kind.KEYS
+        );
+        set.defineMethod("values", values);
+        set.defineMethod("keys", values);
+        set.defineMethod("entries", (thisObject, args) -> collectionIterator(
+                setReceiver(thisObject, "entries").cursor(),
+                TsjCollectionIterator.Kind.KEY_PAIRS
+        ));
+        set.defineMethod(SYMBOL_ITERATOR.propertyKey(), values);
         return set;
     }
 
+    private static TsjMapObject mapReceiver(final TsjObject thisObject, final String methodName) {
+        if (thisObject instanceof TsjMapObject mapObject) {
+            return mapObject;
+        }
+        throw new IllegalArgumentException("Map." + methodName + " called on incompatible receiver.");
+    }
+
+    private static TsjSetObject setReceiver(final TsjObject thisObject, final String methodName) {
+        if (thisObject instanceof TsjSetObject setObject) {
+            return setObject;
+        }
+        throw new IllegalArgumentException("Set." + methodName + " called on incompatible receiver.");
+    }
+
+    private static TsjCollectionIterator collectionIterator(
+            final TsjOrderedTable.Cursor cursor,
+            final TsjCollectionIterator.Kind kind
+    ) {
+        return new TsjCollectionIterator(CollectionIteratorPrototypeHolder.INSTANCE, cursor, kind);
+    }
+
     private static TsjClass createWeakMapBuiltin() {
         final TsjClass weakMap = new TsjClass("WeakMap", null);
         weakMap.setConstructor((thisObject, args) -> {
@@ -3121,6 +3439,10 @@ public final class TsjRuntime {
         });
         regexp.defineMethod("exec", (thisObject, args) ->
                 executeRegexWithState(thisObject, toDisplayString(firstArg(args))));
+        regexp.defineMethod("toString", (thisObject, args) -> {
+            final RegexDescriptor descriptor = regexDescriptorFromValue(thisObject);
+            return descriptor == null ? "/(?:)/" : "/" + descriptor.pattern() + "/" + regexFlagsText(descriptor);
+        });
         return regexp;
     }
 
@@ -3251,19 +3573,15 @@ public final class TsjRuntime {
         });
         symbol.setOwn("for", (TsjMethod) (thisObject, args) -> {
             final String key = toDisplayString(firstArg(args));
-            return SYMBOL_REGISTRY.computeIfAbsent(key, TsjSymbol::create);
+            return TsjRealm.current().symbolFor(key);
         });
         symbol.setOwn("keyFor", (TsjMethod) (thisObject, args) -> {
             final Object candidate = firstArg(args);
             if (!(candidate instanceof TsjSymbol tsjSymbol)) {
                 return undefined();
             }
-            for (Map.Entry<String, TsjSymbol> entry : SYMBOL_REGISTRY.entrySet()) {
-                if (entry.getValue() == tsjSymbol) {
-                    return entry.getKey();
-                }
-            }
-            return undefined();
+            final String key = TsjRealm.current().symbolKeyFor(tsjSymbol);
+            return key != null ? key : undefined();
         });
         symbol.setOwn("iterator", SYMBOL_ITERATOR);
         symbol.setOwn("toPrimitive", SYMBOL_TO_PRIMITIVE);
@@ -3910,6 +4228,13 @@ public final class TsjRuntime {
         }
 
         final List<Object> values = new ArrayList<>();
+        if (iteratorObject instanceof TsjCollectionIterator collectionIterator
+                && !collectionIterator.hasOwn("next")) {
+            while (collectionIterator.advance()) {
+                values.add(collectionIterator.currentValue());
+            }
+            return values;
+        }
         try {
             while (true) {
                 final Object nextMember = iteratorObject.get("next");
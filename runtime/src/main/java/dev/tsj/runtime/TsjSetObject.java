@@ -0,0 +1,37 @@
+package dev.tsj.runtime;
+
+/**
+ * Native `Set` instance holding its insertion-ordered value table directly.
+ */
+final class TsjSetObject extends TsjObject {
+    private final TsjOrderedTable values;
+
+    TsjSetObject(final TsjObject prototype) {
+        super(prototype);
+        this.values = new TsjOrderedTable();
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    boolean hasValue(final Object value) {
+        return values.containsKey(value);
+    }
+
+    void addValue(final Object value) {
+        values.put(value, null);
+    }
+
+    boolean deleteValue(final Object value) {
+        return values.remove(value);
+    }
+
+    void clearValues() {
+        values.clear();
+    }
+
+    TsjOrderedTable.Cursor cursor() {
+        return values.cursor();
+    }
+}
@@ -0,0 +1,418 @@
+package dev.tsj.runtime;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runtime type feedback for profile-guided compilation.
+ *
+ * <p>Programs compiled with {@code --profile-out} allocate one {@link Site} per {@code +} operator,
+ * {@code if} condition and member call. Sites count operand kinds, branch outcomes and receiver
+ * prototypes, and the counters of every loaded {@link Unit} are merged into the unit's profile file when
+ * the JVM exits. {@code tsj compile --profile} reads the file back with {@link #read(Path)} and
+ * specializes the sites of the matching unit.
+ *
+ * <p>The profile is a line-oriented text file:
+ * <pre>
+ * tsj-type-feedback 1
+ * unit dev.tsj.generated.MainProgram@3f2a9c1d0b7e6a54
+ * add 0 120 0 0
+ * branch 1 3 117
+ * call 2 40 mono
+ * </pre>
+ * {@code add} lines carry numeric, string and other operand counts, {@code branch} lines taken and
+ * not-taken counts, and {@code call} lines the call count and receiver shape.
+ */
+public final class TsjTypeFeedback {
+    /**
+     * System property that overrides the profile file baked in at compile time.
+     */
+    public static final String OUTPUT_PROPERTY = "tsj.profile.out";
+
+    private static final String HEADER = "tsj-type-feedback 1";
+    private static final Object NULL_PROTOTYPE = new Object();
+    private static final Map<String, Unit> UNITS = new ConcurrentHashMap<>();
+    private static final AtomicBoolean SHUTDOWN_HOOK_INSTALLED = new AtomicBoolean(false);
+
+    private TsjTypeFeedback() {
+    }
+
+    /**
+     * Kind of a feedback site, named as in the profile file.
+     */
+    public enum SiteKind {
+        ADD,
+        BRANCH,
+        CALL;
+
+        String token() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Receiver prototypes observed by a call site.
+     */
+    public enum ReceiverShape {
+        NONE,
+        MONO,
+        POLY,
+        FOREIGN;
+
+        String token() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        ReceiverShape merge(final ReceiverShape other) {
+            if (this == other || other == NONE) {
+                return this;
+            }
+            return this == NONE ? other : POLY;
+        }
+    }
+
+    /**
+     * Returns the unit registered for a compiled program, registering it on first use.
+     *
+     * @param name generated class name and source fingerprint
+     * @param defaultOutput profile file used when {@link #OUTPUT_PROPERTY} is unset, or {@code null}
+     */
+    public static Unit unit(final String name, final String defaultOutput) {
+        Objects.requireNonNull(name, "name");
+        if (SHUTDOWN_HOOK_INSTALLED.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(TsjTypeFeedback::flushQuietly, "tsj-type-feedback"));
+        }
+        return UNITS.computeIfAbsent(name, ignored -> new Unit(name, defaultOutput));
+    }
+
+    /**
+     * Merges the counters recorded since the last flush into each unit's profile file and resets them.
+     */
+    public static synchronized void flush() throws IOException {
+        final Map<Path, Profile> recordedByOutput = new LinkedHashMap<>();
+        for (Unit unit : UNITS.values()) {
+            final Path output = unit.output();
+            if (output == null) {
+                continue;
+            }
+            final Profile recorded = new Profile(Map.of(unit.name, unit.drain()));
+            recordedByOutput.merge(output, recorded, Profile::merge);
+        }
+        for (Map.Entry<Path, Profile> entry : recordedByOutput.entrySet()) {
+            final Path output = entry.getKey();
+            final Profile existing = Files.isRegularFile(output) ? read(output) : new Profile(Map.of());
+            write(output, existing.merge(entry.getValue()));
+        }
+    }
+
+    public static Profile read(final Path file) throws IOException {
+        final List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        if (lines.isEmpty() || !HEADER.equals(lines.get(0).trim())) {
+            throw new IllegalArgumentException("Not a TSJ type feedback profile: " + file);
+        }
+        final Map<String, Map<Integer, SiteProfile>> units = new LinkedHashMap<>();
+        Map<Integer, SiteProfile> current = null;
+        for (int index = 1; index < lines.size(); index++) {
+            final String line = lines.get(index).trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            final String[] fields = line.split("\\s+");
+            try {
+                if ("unit".equals(fields[0]) && fields.length == 2) {
+                    current = units.computeIfAbsent(fields[1], ignored -> new TreeMap<>());
+                    continue;
+                }
+                if (current == null) {
+                    throw new IllegalArgumentException("site before unit");
+                }
+                final int id = Integer.parseInt(fields[1]);
+                final SiteProfile site = switch (fields[0]) {
+                    case "add" -> new SiteProfile(
+                            SiteKind.ADD,
+                            Long.parseLong(fields[2]),
+                            Long.parseLong(fields[3]),
+                            Long.parseLong(fields[4]),
+                            ReceiverShape.NONE
+                    );
+                    case "branch" -> new SiteProfile(
+                            SiteKind.BRANCH,
+                            Long.parseLong(fields[2]),
+                            Long.parseLong(fields[3]),
+                            0L,
+                            ReceiverShape.NONE
+                    );
+                    case "call" -> new SiteProfile(
+                            SiteKind.CALL,
+                            Long.parseLong(fields[2]),
+                            0L,
+                            0L,
+                            ReceiverShape.valueOf(fields[3].toUpperCase(Locale.ROOT))
+                    );
+                    default -> throw new IllegalArgumentException("unknown record `" + fields[0] + "`");
+                };
+                current.merge(id, site, SiteProfile::merge);
+            } catch (final RuntimeException malformed) {
+                throw new IllegalArgumentException(
+                        "Malformed TSJ type feedback profile " + file + " at line " + (index + 1) + ": " + line,
+                        malformed
+                );
+            }
+        }
+        return new Profile(units);
+    }
+
+    public static void write(final Path file, final Profile profile) throws IOException {
+        final StringBuilder builder = new StringBuilder(HEADER).append('\n');
+        for (Map.Entry<String, Map<Integer, SiteProfile>> unit : new TreeMap<>(profile.units()).entrySet()) {
+            builder.append("unit ").append(unit.getKey()).append('\n');
+            for (Map.Entry<Integer, SiteProfile> site : new TreeMap<>(unit.getValue()).entrySet()) {
+                site.getValue().render(builder, site.getKey());
+            }
+        }
+        final Path absolute = file.toAbsolutePath();
+        if (absolute.getParent() != null) {
+            Files.createDirectories(absolute.getParent());
+        }
+        final Path temporary = Files.createTempFile(
+                absolute.getParent() == null ? Path.of(".") : absolute.getParent(),
+                absolute.getFileName().toString(),
+                ".tmp"
+        );
+        Files.writeString(temporary, builder, StandardCharsets.UTF_8);
+        Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static void reset() {
+        UNITS.clear();
+    }
+
+    private static void flushQuietly() {
+        try {
+            flush();
+        } catch (final IOException | RuntimeException ignored) {
+            // Profiling must never change how the program exits.
+        }
+    }
+
+    /**
+     * Feedback sites of one compiled program.
+     */
+    public static final class Unit {
+        private final String name;
+        private final String defaultOutput;
+        private final Map<Integer, Site> sites;
+
+        private Unit(final String name, final String defaultOutput) {
+            this.name = name;
+            this.defaultOutput = defaultOutput;
+            this.sites = new ConcurrentHashMap<>();
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public Site site(final int id, final SiteKind kind) {
+            return sites.computeIfAbsent(id, ignored -> new Site(kind));
+        }
+
+        private Path output() {
+            final String configured = System.getProperty(OUTPUT_PROPERTY);
+            final String output = configured == null || configured.isBlank() ? defaultOutput : configured;
+            return output == null || output.isBlank() ? null : Path.of(output);
+        }
+
+        private Map<Integer, SiteProfile> drain() {
+            final Map<Integer, SiteProfile> drained = new TreeMap<>();
+            for (Map.Entry<Integer, Site> entry : sites.entrySet()) {
+                final SiteProfile profile = entry.getValue().drain();
+                if (profile.samples() > 0L) {
+                    drained.put(entry.getKey(), profile);
+                }
+            }
+            return drained;
+        }
+    }
+
+    /**
+     * Counters of one instrumented site; the recording methods evaluate the operation they observe.
+     */
+    public static final class Site {
+        private final SiteKind kind;
+        private final LongAdder first;
+        private final LongAdder second;
+        private final LongAdder third;
+        private volatile Object firstPrototype;
+        private volatile ReceiverShape receiverShape;
+
+        private Site(final SiteKind kind) {
+            this.kind = kind;
+            this.first = new LongAdder();
+            this.second = new LongAdder();
+            this.third = new LongAdder();
+            this.receiverShape = ReceiverShape.NONE;
+        }
+
+        public Object add(final Object left, final Object right) {
+            if (left instanceof String || right instanceof String) {
+                second.increment();
+            } else if (isPlainNumber(left) && isPlainNumber(right)) {
+                first.increment();
+            } else {
+                third.increment();
+            }
+            return TsjRuntime.add(left, right);
+        }
+
+        public boolean branch(final boolean condition) {
+            (condition ? first : second).increment();
+            return condition;
+        }
+
+        public Object invokeMember(final Object target, final String methodName, final Object... args) {
+            first.increment();
+            recordReceiver(target);
+            return TsjRuntime.invokeMember(target, methodName, args);
+        }
+
+        private static boolean isPlainNumber(final Object value) {
+            return value instanceof Integer || value instanceof Double;
+        }
+
+        private void recordReceiver(final Object target) {
+            final ReceiverShape shape = receiverShape;
+            if (shape == ReceiverShape.POLY) {
+                return;
+            }
+            if (!(target instanceof TsjObject tsjObject)) {
+                if (shape != ReceiverShape.FOREIGN) {
+                    updateReceiver(ReceiverShape.FOREIGN, null);
+                }
+                return;
+            }
+            final Object prototype = tsjObject.prototype() == null ? NULL_PROTOTYPE : tsjObject.prototype();
+            if (shape != ReceiverShape.MONO || firstPrototype != prototype) {
+                updateReceiver(ReceiverShape.MONO, prototype);
+            }
+        }
+
+        private synchronized void updateReceiver(final ReceiverShape observed, final Object prototype) {
+            if (observed == ReceiverShape.MONO) {
+                if (firstPrototype == null) {
+                    firstPrototype = prototype;
+                } else if (firstPrototype != prototype) {
+                    receiverShape = ReceiverShape.POLY;
+                    return;
+                }
+            }
+            receiverShape = receiverShape.merge(observed);
+        }
+
+        private SiteProfile drain() {
+            return new SiteProfile(kind, first.sumThenReset(), second.sumThenReset(), third.sumThenReset(), receiverShape);
+        }
+    }
+
+    /**
+     * Recorded counters of one site.
+     *
+     * @param kind site kind
+     * @param first numeric operands, taken branches, or calls
+     * @param second string operands or not-taken branches
+     * @param third other operands
+     * @param receiver receiver prototypes of a call site
+     */
+    public record SiteProfile(SiteKind kind, long first, long second, long third, ReceiverShape receiver) {
+        /**
+         * Sites observed fewer times than this are left unspecialized.
+         */
+        public static final long MIN_SAMPLES = 8L;
+
+        public SiteProfile {
+            Objects.requireNonNull(kind, "kind");
+            Objects.requireNonNull(receiver, "receiver");
+        }
+
+        public long samples() {
+            return first + second + third;
+        }
+
+        public boolean numericOnly() {
+            return kind == SiteKind.ADD && first >= MIN_SAMPLES && second == 0L && third == 0L;
+        }
+
+        public boolean mostlyNotTaken() {
+            return kind == SiteKind.BRANCH && samples() >= MIN_SAMPLES && second > 2L * first;
+        }
+
+        public boolean monomorphic() {
+            return kind == SiteKind.CALL && first >= MIN_SAMPLES && receiver == ReceiverShape.MONO;
+        }
+
+        SiteProfile merge(final SiteProfile other) {
+            if (kind != other.kind) {
+                throw new IllegalArgumentException("Conflicting site kinds: " + kind + " and " + other.kind);
+            }
+            return new SiteProfile(
+                    kind,
+                    first + other.first,
+                    second + other.second,
+                    third + other.third,
+                    receiver.merge(other.receiver)
+            );
+        }
+
+        private void render(final StringBuilder builder, final int id) {
+            builder.append(kind.token()).append(' ').append(id).append(' ').append(first);
+            switch (kind) {
+                case ADD -> builder.append(' ').append(second).append(' ').append(third);
+                case BRANCH -> builder.append(' ').append(second);
+                case CALL -> builder.append(' ').append(receiver.token());
+            }
+            builder.append('\n');
+        }
+    }
+
+    /**
+     * Site counters grouped by unit name.
+     */
+    public record Profile(Map<String, Map<Integer, SiteProfile>> units) {
+        public Profile {
+            final Map<String, Map<Integer, SiteProfile>> copy = new LinkedHashMap<>();
+            for (Map.Entry<String, Map<Integer, SiteProfile>> entry : units.entrySet()) {
+                copy.put(entry.getKey(), Map.copyOf(entry.getValue()));
+            }
+            units = Map.copyOf(copy);
+        }
+
+        public Map<Integer, SiteProfile> unit(final String name) {
+            return units.get(name);
+        }
+
+        public Profile merge(final Profile other) {
+            final Map<String, Map<Integer, SiteProfile>> merged = new LinkedHashMap<>();
+            for (Profile profile : List.of(this, other)) {
+                for (Map.Entry<String, Map<Integer, SiteProfile>> unit : profile.units.entrySet()) {
+                    final Map<Integer, SiteProfile> sites = merged.computeIfAbsent(unit.getKey(), ignored -> new TreeMap<>());
+                    for (Map.Entry<Integer, SiteProfile> site : unit.getValue().entrySet()) {
+                        sites.merge(site.getKey(), site.getValue(), SiteProfile::merge);
+                    }
+                }
+            }
+            return new Profile(merged);
+        }
+    }
+}
@@ -107,4 +107,21 @@ class TsjObjectTest {
         prototype.set("x", 5);
         assertEquals(5, cache.read(object, "x"));
     }
+
+    @Test
+    void frozenObjectRejectsMutationButKeepsReads() {
+        final TsjObject object = new TsjObject(null);
+        object.setOwn("value", 1);
+        object.freeze();
+
+        assertTrue(object.isFrozen());
+        assertEquals(1, object.get("value"));
+        final TsjThrownException thrown = assertThrows(TsjThrownException.class, () -> object.setOwn("value", 2));
+        assertEquals("TypeError", TsjRuntime.getProperty(thrown.thrownValue(), "name"));
+        assertThrows(TsjThrownException.class, () -> object.set("other", 2));
+        assertThrows(TsjThrownException.class, () -> object.deleteOwn("value"));
+        assertThrows(TsjThrownException.class, () -> object.setPrototype(new TsjObject(null)));
+        assertTrue(object.deleteOwn("missing"));
+        assertEquals(1, object.get("value"));
+    }
 }
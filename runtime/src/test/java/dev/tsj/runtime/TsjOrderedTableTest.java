@@ -0,0 +1,114 @@
+package dev.tsj.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TsjOrderedTableTest {
+    @Test
+    void preservesInsertionOrderAcrossUpdatesAndGrowth() {
+        final TsjOrderedTable table = new TsjOrderedTable();
+        for (int index = 0; index < 100; index++) {
+            table.put("k" + index, index);
+        }
+        table.put("k0", "updated");
+
+        assertEquals(100, table.size());
+        assertEquals("updated", table.get("k0", null));
+        assertEquals(42, table.get("k42", null));
+        final TsjOrderedTable.Cursor cursor = table.cursor();
+        assertTrue(cursor.advance());
+        assertEquals("k0", cursor.key());
+        assertTrue(cursor.advance());
+        assertEquals("k1", cursor.key());
+    }
+
+    @Test
+    void cursorSurvivesCompactionAndSkipsRemovedEntries() {
+        final TsjOrderedTable table = new TsjOrderedTable();
+        for (int index = 0; index < 8; index++) {
+            table.put(index, "v" + index);
+        }
+        final TsjOrderedTable.Cursor cursor = table.cursor();
+        assertTrue(cursor.advance());
+        assertTrue(cursor.advance());
+        assertEquals(1, cursor.key());
+        for (int index = 0; index < 6; index++) {
+            table.remove(index);
+        }
+        for (int index = 8; index < 20; index++) {
+            table.put(index, "v" + index);
+        }
+
+        final List<Object> remaining = new ArrayList<>();
+        while (cursor.advance()) {
+            remaining.add(cursor.key());
+        }
+        assertEquals(14, remaining.size());
+        assertEquals(6, remaining.get(0));
+        assertEquals(19, remaining.get(13));
+    }
+
+    @Test
+    void clearRestartsLiveCursorsAtNewlyAddedEntries() {
+        final TsjOrderedTable table = new TsjOrderedTable();
+        table.put("a", 1);
+        table.put("b", 2);
+        final TsjOrderedTable.Cursor cursor = table.cursor();
+        assertTrue(cursor.advance());
+        table.clear();
+        assertFalse(table.containsKey("a"));
+        table.put("c", 3);
+
+        assertTrue(cursor.advance());
+        assertEquals("c", cursor.key());
+        assertFalse(cursor.advance());
+    }
+
+    @Test
+    void specialisesOnNumberAndStringKeysAndPromotesOnMixedKeys() {
+        final TsjOrderedTable numbers = new TsjOrderedTable();
+        assertEquals(TsjOrderedTable.KeyKind.EMPTY, numbers.keyKind());
+        for (int index = 0; index < 1_000; index++) {
+            numbers.put(index * 0.5d, index);
+        }
+        numbers.put(-0.0d, "zero");
+        numbers.put(Double.NaN, "nan");
+        assertEquals(TsjOrderedTable.KeyKind.NUMBER, numbers.keyKind());
+        assertEquals(1_001, numbers.size());
+        assertEquals("zero", numbers.get(0, null));
+        assertEquals("nan", numbers.get(Double.NaN, null));
+        assertEquals(3, numbers.get(1.5f, null));
+        assertFalse(numbers.containsKey("1"));
+
+        numbers.put("1", "string");
+        assertEquals(TsjOrderedTable.KeyKind.GENERIC, numbers.keyKind());
+        assertEquals(2, numbers.get(1L, null));
+        assertEquals("string", numbers.get("1", null));
+        final TsjOrderedTable.Cursor cursor = numbers.cursor();
+        assertTrue(cursor.advance());
+        assertEquals(0, cursor.key());
+        assertTrue(cursor.advance());
+        assertEquals(0.5d, cursor.key());
+
+        final TsjOrderedTable strings = new TsjOrderedTable();
+        strings.put("a", 1);
+        strings.put("b", 2);
+        strings.remove("a");
+        assertEquals(TsjOrderedTable.KeyKind.STRING, strings.keyKind());
+        strings.put(Boolean.TRUE, 3);
+        assertEquals(TsjOrderedTable.KeyKind.GENERIC, strings.keyKind());
+        assertFalse(strings.containsKey("a"));
+        assertEquals(2, strings.get("b", null));
+        assertEquals(3, strings.get(Boolean.TRUE, null));
+
+        strings.clear();
+        strings.put(7, "seven");
+        assertEquals(TsjOrderedTable.KeyKind.NUMBER, strings.keyKind());
+    }
+}
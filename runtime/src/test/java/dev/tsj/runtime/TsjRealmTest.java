@@ -0,0 +1,97 @@
+package dev.tsj.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TsjRealmTest {
+    @Test
+    void symbolRegistryIsScopedToTheCurrentRealm() throws Exception {
+        final Object symbolBuiltin = TsjRuntime.symbolBuiltin();
+        final TsjRealm tenantA = TsjRealm.create("tenant-a");
+        final TsjRealm tenantB = TsjRealm.create("tenant-b");
+
+        final Object fromA = tenantA.execute(() -> TsjRuntime.invokeMember(symbolBuiltin, "for", "app.key"));
+        final Object fromAAgain = tenantA.execute(() -> TsjRuntime.invokeMember(symbolBuiltin, "for", "app.key"));
+        final Object fromB = tenantB.execute(() -> TsjRuntime.invokeMember(symbolBuiltin, "for", "app.key"));
+
+        assertSame(fromA, fromAAgain);
+        assertNotSame(fromA, fromB);
+        assertEquals(TsjRuntime.undefined(), tenantB.execute(() -> TsjRuntime.invokeMember(symbolBuiltin, "keyFor", fromA)));
+        assertSame(TsjRealm.defaultRealm(), TsjRealm.current());
+    }
+
+    @Test
+    void programStateIsKeptPerRealmAndProgramClass() {
+        final TsjRealm tenantA = TsjRealm.create("tenant-a");
+        final TsjRealm tenantB = TsjRealm.create("tenant-b");
+
+        final List<String> stateA = tenantA.programState(String.class, ArrayList::new);
+        stateA.add("a");
+
+        assertSame(stateA, tenantA.programState(String.class, ArrayList::new));
+        assertEquals(List.of(), tenantB.programState(String.class, ArrayList::new));
+        assertEquals(List.of(), tenantA.programState(Integer.class, ArrayList::new));
+    }
+
+    @Test
+    void executeDrainsItsOwnMicrotasksAndRestoresTheOuterQueue() throws Exception {
+        final List<String> events = new ArrayList<>();
+        TsjRuntime.promiseResolve("outer").then((TsjCallable) args -> events.add("outer"), TsjRuntime.undefined());
+
+        final TsjRealm realm = TsjRealm.create("tenant");
+        realm.run(() -> {
+            assertSame(realm, TsjRealm.current());
+            TsjRuntime.promiseResolve("inner").then((TsjCallable) args -> events.add("inner"), TsjRuntime.undefined());
+        });
+        assertEquals(List.of("inner"), events);
+
+        TsjRuntime.flushMicrotasks();
+        assertEquals(List.of("inner", "outer"), events);
+    }
+
+    @Test
+    void nestedRealmsRestoreTheEnclosingRealmOnFailure() {
+        final TsjRealm outer = TsjRealm.create("outer");
+        final TsjRealm inner = TsjRealm.create("inner");
+
+        outer.run(() -> {
+            assertThrows(IllegalStateException.class, () -> inner.run(() -> {
+                throw new IllegalStateException("boom");
+            }));
+            assertSame(outer, TsjRealm.current());
+        });
+        assertSame(TsjRealm.defaultRealm(), TsjRealm.current());
+    }
+
+    @Test
+    void unhandledRejectionsAreReportedToTheRealmReporter() {
+        final List<Object> reported = new ArrayList<>();
+        final TsjRealm realm = TsjRealm.create("tenant");
+        realm.setUnhandledRejectionReporter(reported::add);
+
+        realm.run(() -> TsjRuntime.promiseReject("tenant-failure"));
+
+        assertEquals(List.of("tenant-failure"), reported);
+    }
+
+    @Test
+    void generatorBodiesRunInTheRealmThatCreatedThem() throws Exception {
+        final TsjRealm realm = TsjRealm.create("generator-tenant");
+        final Object observedRealm = realm.execute(() -> {
+            final Object generator = TsjRuntime.createGenerator(
+                    (TsjCallableWithThis) (thisValue, args) -> TsjRealm.current().name(),
+                    TsjRuntime.undefined()
+            );
+            return TsjRuntime.getProperty(TsjRuntime.invokeMember(generator, "next"), "value");
+        });
+
+        assertEquals("generator-tenant", observedRealm);
+    }
+}
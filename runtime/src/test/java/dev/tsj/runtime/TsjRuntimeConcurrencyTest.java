@@ -0,0 +1,161 @@
+package dev.tsj.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TsjRuntimeConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 2_000;
+
+    @Test
+    void symbolRegistryReturnsOneSymbolPerKeyUnderContention() throws Exception {
+        final Object symbolBuiltin = TsjRuntime.symbolBuiltin();
+        final List<Object> results = runConcurrently(threadIndex -> {
+            Object last = null;
+            for (int index = 0; index < ITERATIONS; index++) {
+                last = TsjRuntime.invokeMember(symbolBuiltin, "for", "shared-" + (index % 16));
+            }
+            return TsjRuntime.invokeMember(symbolBuiltin, "for", "shared-0");
+        });
+
+        for (Object result : results) {
+            assertSame(results.get(0), result);
+        }
+        assertEquals("shared-0", TsjRuntime.invokeMember(symbolBuiltin, "keyFor", results.get(0)));
+    }
+
+    @Test
+    void globalRegexLiteralLastIndexLivesOnEachEvaluatedRegex() throws Exception {
+        final List<Object> results = runConcurrently(threadIndex -> {
+            for (int index = 0; index < ITERATIONS; index++) {
+                final Object regex = TsjRuntime.regexpLiteral("\\d+", "g");
+                final Object first = TsjRuntime.invokeMember(regex, "exec", "a1b22c333");
+                final Object second = TsjRuntime.invokeMember(regex, "exec", "a1b22c333");
+                final Object third = TsjRuntime.invokeMember(regex, "exec", "a1b22c333");
+                final Object exhausted = TsjRuntime.invokeMember(regex, "exec", "a1b22c333");
+                if (!"1".equals(TsjRuntime.getProperty(first, "0"))
+                        || !"22".equals(TsjRuntime.getProperty(second, "0"))
+                        || !"333".equals(TsjRuntime.getProperty(third, "0"))
+                        || exhausted != null) {
+                    return Boolean.FALSE;
+                }
+            }
+            return Boolean.TRUE;
+        });
+
+        for (Object result : results) {
+            assertEquals(Boolean.TRUE, result);
+        }
+    }
+
+    @Test
+    void microtasksRunOnTheThreadThatScheduledThem() throws Exception {
+        final List<Object> results = runConcurrently(threadIndex -> {
+            final AtomicInteger settled = new AtomicInteger();
+            final Thread owner = Thread.currentThread();
+            for (int index = 0; index < ITERATIONS; index++) {
+                TsjRuntime.promiseResolve(index).then(
+                        (TsjCallable) args -> {
+                            if (Thread.currentThread() == owner) {
+                                settled.incrementAndGet();
+                            }
+                            return args[0];
+                        },
+                        TsjRuntime.undefined()
+                );
+            }
+            TsjRuntime.flushMicrotasks();
+            return Integer.valueOf(settled.get());
+        });
+
+        for (Object result : results) {
+            assertEquals(ITERATIONS, result);
+        }
+    }
+
+    @Test
+    void completableFutureCompletedElsewhereSchedulesOntoOwningThread() throws Exception {
+        final ExecutorService completer = Executors.newSingleThreadExecutor();
+        try {
+            final CompletableFuture<String> future = new CompletableFuture<>();
+            final Object promise = TsjInteropCodec.fromJava(future);
+            final AtomicInteger observed = new AtomicInteger();
+            TsjRuntime.promiseThen(promise, (TsjCallable) args -> {
+                observed.incrementAndGet();
+                return args[0];
+            }, TsjRuntime.undefined());
+
+            completer.submit(() -> future.complete("done")).get(10, TimeUnit.SECONDS);
+            TsjRuntime.flushMicrotasks();
+            TsjRuntime.flushMicrotasks();
+            assertEquals(1, observed.get());
+        } finally {
+            completer.shutdownNow();
+        }
+    }
+
+    @Test
+    void builtinsAreFrozenAndSafeToReadConcurrently() throws Exception {
+        final Object mapPrototype = TsjRuntime.getProperty(TsjRuntime.mapBuiltin(), "prototype");
+        assertThrows(TsjThrownException.class, () -> TsjRuntime.setProperty(mapPrototype, "extra", 1));
+        assertThrows(TsjThrownException.class, () -> TsjRuntime.setProperty(TsjRuntime.mathBuiltin(), "PI", 3));
+        assertTrue(((TsjObject) TsjRuntime.jsonBuiltin()).isFrozen());
+
+        final List<Object> results = runConcurrently(threadIndex -> {
+            final Object map = TsjRuntime.construct(TsjRuntime.mapBuiltin());
+            for (int index = 0; index < ITERATIONS; index++) {
+                TsjRuntime.invokeMember(map, "set", index, threadIndex);
+                TsjRuntime.invokeMember(TsjRuntime.mathBuiltin(), "max", index, threadIndex);
+            }
+            return TsjRuntime.getProperty(map, "size");
+        });
+
+        for (Object result : results) {
+            assertEquals(ITERATIONS, result);
+        }
+    }
+
+    private static List<Object> runConcurrently(final ThreadTask task) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<Object>> futures = new ArrayList<>();
+            for (int threadIndex = 0; threadIndex < THREADS; threadIndex++) {
+                final int index = threadIndex;
+                final Callable<Object> callable = () -> {
+                    start.await();
+                    return task.run(index);
+                };
+                futures.add(executor.submit(callable));
+            }
+            start.countDown();
+            final List<Object> results = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        Object run(int threadIndex) throws Exception;
+    }
+}
@@ -2,11 +2,14 @@ package dev.tsj.runtime;
 
 import org.junit.jupiter.api.Test;
 
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -547,6 +550,50 @@ class TsjRuntimeTest {
         assertEquals(9, TsjRuntime.getProperty(object, "value"));
     }
 
+    @Test
+    void numberBoxesUnboxedResultsLikeArithmeticHelpersButKeepsNegativeZero() {
+        assertEquals(Integer.valueOf(6), TsjRuntime.number(6.0d));
+        assertEquals(Double.valueOf(2.5d), TsjRuntime.number(2.5d));
+        assertEquals(Double.valueOf(3.0e10d), TsjRuntime.number(3.0e10d));
+        assertEquals(Integer.valueOf(0), TsjRuntime.number(0.0d));
+        assertEquals(Double.valueOf(-0.0d), TsjRuntime.number(-0.0d));
+        assertTrue(Double.isNaN((Double) TsjRuntime.number(Double.NaN)));
+    }
+
+    @Test
+    void loopInvariantPropertyReadsOnlyOwnDataPropertiesWithoutRunningUserCode() {
+        final TsjObject prototype = new TsjObject(null);
+        prototype.setOwn("inherited", "proto");
+        final TsjObject object = new TsjObject(prototype);
+        object.setOwn("items", TsjRuntime.arrayLiteral(1, 2));
+        final int[] getterCalls = {0};
+        final Object getter = (TsjMethod) (thisObject, args) -> {
+            getterCalls[0]++;
+            return getterCalls[0];
+        };
+        TsjRuntime.defineAccessorProperty(object, "computed", getter, TsjRuntime.undefined());
+
+        final Object items = TsjRuntime.loopInvariantProperty(object, "items");
+        assertSame(TsjRuntime.getProperty(object, "items"), items);
+        assertFalse(TsjRuntime.isLoopInvariantPrimitive(items));
+        final Object length = TsjRuntime.loopInvariantProperty(items, "length");
+        assertEquals(2, length);
+        assertTrue(TsjRuntime.isLoopInvariantPrimitive(length));
+
+        final Object inherited = TsjRuntime.loopInvariantProperty(object, "inherited");
+        final Object computed = TsjRuntime.loopInvariantProperty(object, "computed");
+        final Object fromString = TsjRuntime.loopInvariantProperty("abc", "length");
+        final Object fromUndefined = TsjRuntime.loopInvariantProperty(TsjRuntime.undefined(), "x");
+        final Object chained = TsjRuntime.loopInvariantProperty(computed, "length");
+        for (Object miss : new Object[]{inherited, computed, fromString, fromUndefined, chained}) {
+            assertFalse(TsjRuntime.isLoopInvariantPrimitive(miss));
+        }
+        assertEquals(0, getterCalls[0]);
+        assertTrue(TsjRuntime.isLoopInvariantPrimitive(TsjRuntime.undefined()));
+        assertTrue(TsjRuntime.isLoopInvariantPrimitive(null));
+        assertTrue(TsjRuntime.isLoopInvariantPrimitive("text"));
+    }
+
     @Test
     void arrayMapSetAndSetBuiltinsSupportCoreCollectionsBehavior() {
         final Object arrayCtor = TsjRuntime.arrayBuiltin();
@@ -575,6 +622,111 @@ class TsjRuntimeTest {
         assertEquals(true, TsjRuntime.invokeMember(set, "has", 2));
     }
 
+    @Test
+    void invokeArrayCallbackMatchesBuiltinArrayMethodsAndTrimsCallbackArguments() {
+        final Object array = TsjRuntime.arrayLiteral(1, 2, 3);
+        final Object mapped = TsjRuntime.invokeArrayCallback(
+                array,
+                "map",
+                1,
+                (TsjCallable) args -> TsjRuntime.add(args[0], args.length * 10)
+        );
+        assertEquals(3, TsjRuntime.getProperty(mapped, "length"));
+        assertEquals(13, TsjRuntime.getProperty(mapped, "2"));
+
+        final Object indexes = TsjRuntime.invokeArrayCallback(
+                array,
+                "filter",
+                2,
+                (TsjCallable) args -> TsjRuntime.strictEquals(args[1], 1)
+        );
+        assertEquals(1, TsjRuntime.getProperty(indexes, "length"));
+        assertEquals(2, TsjRuntime.getProperty(indexes, "0"));
+        assertEquals(
+                2,
+                TsjRuntime.invokeArrayCallback(array, "findIndex", 1, (TsjCallable) args -> TsjRuntime.strictEquals(args[0], 3))
+        );
+        assertEquals(
+                TsjRuntime.undefined(),
+                TsjRuntime.invokeArrayCallback(array, "find", 1, (TsjCallable) args -> Boolean.FALSE)
+        );
+        assertEquals(true, TsjRuntime.invokeArrayCallback(array, "some", 1, (TsjCallable) args -> Boolean.TRUE));
+        assertEquals(false, TsjRuntime.invokeArrayCallback(array, "every", 1, (TsjCallable) args -> Boolean.FALSE));
+
+        final TsjObject custom = new TsjObject(null);
+        custom.setOwn("length", 1);
+        custom.setOwn("map", (TsjCallable) args -> "custom-map");
+        assertEquals("custom-map", TsjRuntime.invokeArrayCallback(custom, "map", 1, (TsjCallable) args -> args[0]));
+    }
+
+    @Test
+    void mapAndSetUseSameValueZeroKeysAndComputedSize() {
+        final Object map = TsjRuntime.construct(TsjRuntime.mapBuiltin());
+        TsjRuntime.invokeMember(map, "set", 1, "int");
+        TsjRuntime.invokeMember(map, "set", 1.0d, "double");
+        TsjRuntime.invokeMember(map, "set", Double.NaN, "nan");
+        TsjRuntime.invokeMember(map, "set", -0.0d, "zero");
+        assertEquals(3, TsjRuntime.getProperty(map, "size"));
+        assertEquals("double", TsjRuntime.invokeMember(map, "get", 1));
+        assertEquals("nan", TsjRuntime.invokeMember(map, "get", Double.NaN));
+        assertEquals("zero", TsjRuntime.invokeMember(map, "get", 0));
+        assertEquals(true, TsjRuntime.invokeMember(map, "delete", 1L));
+        assertEquals(false, TsjRuntime.invokeMember(map, "delete", 1));
+        assertEquals(2, TsjRuntime.getProperty(map, "size"));
+        assertFalse(((TsjObject) map).hasOwn("size"));
+
+        final Object set = TsjRuntime.construct(TsjRuntime.setBuiltin(), TsjRuntime.arrayLiteral(2, 2.0d, "2"));
+        assertEquals(2, TsjRuntime.getProperty(set, "size"));
+        assertEquals(true, TsjRuntime.invokeMember(set, "has", 2.0f));
+        final long shapeToken = ((TsjObject) set).shapeToken();
+        TsjRuntime.invokeMember(set, "add", 3);
+        TsjRuntime.invokeMember(set, "delete", 2);
+        assertEquals(shapeToken, ((TsjObject) set).shapeToken());
+    }
+
+    @Test
+    void mapAndSetIteratorsAreLiveAndDriveSpreadAndForOf() {
+        final Object map = TsjRuntime.construct(
+                TsjRuntime.mapBuiltin(),
+                TsjRuntime.arrayLiteral(TsjRuntime.arrayLiteral("a", 1), TsjRuntime.arrayLiteral("b", 2))
+        );
+        final Object keys = TsjRuntime.invokeMember(map, "keys");
+        final Object first = TsjRuntime.invokeMember(keys, "next");
+        assertEquals("a", TsjRuntime.getProperty(first, "value"));
+        TsjRuntime.invokeMember(map, "delete", "b");
+        TsjRuntime.invokeMember(map, "set", "c", 3);
+        assertEquals("c", TsjRuntime.getProperty(TsjRuntime.invokeMember(keys, "next"), "value"));
+        assertEquals(true, TsjRuntime.getProperty(TsjRuntime.invokeMember(keys, "next"), "done"));
+
+        final Object entries = TsjRuntime.forOfValues(map);
+        assertEquals(2, TsjRuntime.getProperty(entries, "length"));
+        assertEquals("c", TsjRuntime.getProperty(TsjRuntime.getProperty(entries, "1"), "0"));
+        assertEquals(3, TsjRuntime.getProperty(TsjRuntime.getProperty(entries, "1"), "1"));
+
+        final Object values = TsjRuntime.arraySpread(TsjRuntime.invokeMember(map, "values"));
+        assertEquals(1, TsjRuntime.getProperty(values, "0"));
+        assertEquals(3, TsjRuntime.getProperty(values, "1"));
+
+        final Object set = TsjRuntime.construct(TsjRuntime.setBuiltin(), "abca");
+        final Object setEntries = TsjRuntime.forOfValues(TsjRuntime.invokeMember(set, "entries"));
+        assertEquals(3, TsjRuntime.getProperty(setEntries, "length"));
+        assertEquals("b", TsjRuntime.getProperty(TsjRuntime.getProperty(setEntries, "1"), "1"));
+        final Object copy = TsjRuntime.construct(TsjRuntime.mapBuiltin(), map);
+        assertEquals(2, TsjRuntime.getProperty(copy, "size"));
+    }
+
+    @Test
+    void mapSubclassInstancesShareNativeBackingAndRejectForeignReceivers() {
+        final TsjClass subclass = new TsjClass("Registry", TsjRuntime.asClass(TsjRuntime.mapBuiltin()));
+        final Object registry = TsjRuntime.construct(subclass);
+        TsjRuntime.invokeMember(registry, "set", "k", "v");
+        assertEquals("v", TsjRuntime.invokeMember(registry, "get", "k"));
+        assertEquals(1, TsjRuntime.getProperty(registry, "size"));
+
+        final TsjObject plain = new TsjObject(TsjRuntime.asClass(TsjRuntime.mapBuiltin()).prototype());
+        assertThrows(IllegalArgumentException.class, () -> TsjRuntime.invokeMember(plain, "set", "k", "v"));
+    }
+
     @Test
     void regexpBuiltinSupportsLiteralAndConstructorStyleCalls() {
         final Object regexCtor = TsjRuntime.regexpBuiltin();
@@ -592,6 +744,18 @@ class TsjRuntimeTest {
         assertEquals("xxbxx", TsjRuntime.invokeMember("aabaa", "replace", "/a/g", "x"));
     }
 
+    @Test
+    void regexpLiteralEvaluationsCarryTheirOwnLastIndex() {
+        final Object first = TsjRuntime.regexpLiteral("\\d+", "g");
+        final Object second = TsjRuntime.regexpLiteral("\\d+", "g");
+        assertEquals("1", TsjRuntime.getProperty(TsjRuntime.invokeMember(first, "exec", "a1b22"), "0"));
+        assertEquals(2, TsjRuntime.getProperty(first, "lastIndex"));
+        assertEquals(0, TsjRuntime.getProperty(second, "lastIndex"));
+        assertEquals("1", TsjRuntime.getProperty(TsjRuntime.invokeMember(second, "exec", "a1b22"), "0"));
+        assertEquals("22", TsjRuntime.getProperty(TsjRuntime.invokeMember(first, "exec", "a1b22"), "0"));
+        assertEquals("/a+/gi", TsjRuntime.toDisplayString(TsjRuntime.regexpLiteral("a+", "ig")));
+    }
+
     @Test
     void displayStringFormatsWholeAndFractionalNumbers() {
         assertEquals("5", TsjRuntime.toDisplayString(5.0d));
@@ -1142,4 +1306,30 @@ class TsjRuntimeTest {
             return lastName;
         }
     }
+
+    @Test
+    void builtinsAreCreatedOnFirstAccess() throws Exception {
+        final URL runtimeClasses = TsjRuntime.class.getProtectionDomain().getCodeSource().getLocation();
+        try (IsolatedRuntimeLoader loader = new IsolatedRuntimeLoader(runtimeClasses)) {
+            final Class<?> runtime = Class.forName(TsjRuntime.class.getName(), true, loader);
+            runtime.getMethod("toDisplayString", Object.class).invoke(null, runtime.getMethod("add", Object.class, Object.class)
+                    .invoke(null, 1, 2));
+            assertFalse(loader.isLoaded(TsjRuntime.class.getName() + "$ProxyHolder"));
+            assertFalse(loader.isLoaded(TsjRuntime.class.getName() + "$DateHolder"));
+
+            final Object proxy = runtime.getMethod("proxyBuiltin").invoke(null);
+            assertTrue(loader.isLoaded(TsjRuntime.class.getName() + "$ProxyHolder"));
+            assertTrue(proxy == runtime.getMethod("proxyBuiltin").invoke(null));
+        }
+    }
+
+    private static final class IsolatedRuntimeLoader extends URLClassLoader {
+        private IsolatedRuntimeLoader(final URL runtimeClasses) {
+            super(new URL[]{runtimeClasses}, ClassLoader.getPlatformClassLoader());
+        }
+
+        private boolean isLoaded(final String className) {
+            return findLoadedClass(className) != null;
+        }
+    }
 }
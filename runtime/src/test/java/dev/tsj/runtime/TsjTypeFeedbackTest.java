@@ -0,0 +1,126 @@
+package dev.tsj.runtime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TsjTypeFeedbackTest {
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void resetUnits() {
+        TsjTypeFeedback.reset();
+    }
+
+    @Test
+    void sitesRecordOperandKindsBranchesAndReceiverShapes() throws Exception {
+        final Path output = tempDir.resolve("app.tsjprof");
+        final TsjTypeFeedback.Unit unit = TsjTypeFeedback.unit("demo.MainProgram@1", output.toString());
+        final TsjTypeFeedback.Site add = unit.site(0, TsjTypeFeedback.SiteKind.ADD);
+        final TsjTypeFeedback.Site branch = unit.site(1, TsjTypeFeedback.SiteKind.BRANCH);
+        final TsjTypeFeedback.Site call = unit.site(2, TsjTypeFeedback.SiteKind.CALL);
+        final TsjObject prototype = new TsjObject(null);
+        prototype.setOwn("twice", (TsjMethod) (thisObject, args) -> TsjRuntime.multiply(args[0], 2));
+
+        assertEquals(3, add.add(1, 2));
+        assertEquals(2.5d, add.add(1, 1.5d));
+        assertEquals("a1", add.add("a", 1));
+        assertTrue(branch.branch(true));
+        assertFalse(branch.branch(false));
+        assertFalse(branch.branch(false));
+        assertEquals(8, call.invokeMember(new TsjObject(prototype), "twice", 4));
+        assertEquals(6, call.invokeMember(new TsjObject(prototype), "twice", 3));
+        TsjTypeFeedback.flush();
+
+        assertEquals(
+                "tsj-type-feedback 1\n"
+                        + "unit demo.MainProgram@1\n"
+                        + "add 0 2 1 0\n"
+                        + "branch 1 1 2\n"
+                        + "call 2 2 mono\n",
+                Files.readString(output, UTF_8)
+        );
+    }
+
+    @Test
+    void flushMergesCountersIntoExistingProfileAndWidensShapes() throws Exception {
+        final Path output = tempDir.resolve("merged.tsjprof");
+        Files.writeString(
+                output,
+                "tsj-type-feedback 1\nunit demo.MainProgram@2\nadd 0 10 0 0\ncall 1 3 foreign\n",
+                UTF_8
+        );
+        final TsjTypeFeedback.Unit unit = TsjTypeFeedback.unit("demo.MainProgram@2", output.toString());
+        unit.site(0, TsjTypeFeedback.SiteKind.ADD).add(2, 3);
+        unit.site(1, TsjTypeFeedback.SiteKind.CALL).invokeMember(new TsjObject(null), "hasOwnProperty", "x");
+        TsjTypeFeedback.flush();
+        TsjTypeFeedback.flush();
+
+        final Map<Integer, TsjTypeFeedback.SiteProfile> sites = TsjTypeFeedback.read(output).unit("demo.MainProgram@2");
+        assertEquals(11L, sites.get(0).first());
+        assertTrue(sites.get(0).numericOnly());
+        assertEquals(4L, sites.get(1).first());
+        assertEquals(TsjTypeFeedback.ReceiverShape.POLY, sites.get(1).receiver());
+    }
+
+    @Test
+    void readRejectsMalformedProfiles() throws Exception {
+        final Path notProfile = tempDir.resolve("other.txt");
+        Files.writeString(notProfile, "hello\n", UTF_8);
+        final Path badLine = tempDir.resolve("bad.tsjprof");
+        Files.writeString(badLine, "tsj-type-feedback 1\nunit u\nbranch x 1 2\n", UTF_8);
+
+        assertThrows(IllegalArgumentException.class, () -> TsjTypeFeedback.read(notProfile));
+        final IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class, () -> TsjTypeFeedback.read(badLine));
+        assertTrue(exception.getMessage().contains("line 3"), exception.getMessage());
+    }
+
+    @Test
+    void memberCallCacheInvalidatesOnShadowingAndPrototypeWrites() {
+        final TsjObject base = new TsjObject(null);
+        base.setOwn("name", (TsjMethod) (thisObject, args) -> "base");
+        final TsjObject derived = new TsjObject(base);
+        final TsjObject receiver = new TsjObject(derived);
+        final TsjMemberCallCache cache = new TsjMemberCallCache("name");
+
+        assertEquals("base", TsjRuntime.invokeMemberCached(cache, receiver, "name"));
+        assertEquals("base", TsjRuntime.invokeMemberCached(cache, receiver, "name"));
+        derived.setOwn("name", (TsjMethod) (thisObject, args) -> "derived");
+        assertEquals("derived", TsjRuntime.invokeMemberCached(cache, receiver, "name"));
+        receiver.setOwn("name", (TsjMethod) (thisObject, args) -> "own");
+        assertEquals("own", TsjRuntime.invokeMemberCached(cache, receiver, "name"));
+        assertEquals("derived", TsjRuntime.invokeMemberCached(cache, new TsjObject(derived), "name"));
+        assertEquals(
+                TsjRuntime.invokeMember("abc", "indexOf", "c"),
+                TsjRuntime.invokeMemberCached(new TsjMemberCallCache("indexOf"), "abc", "indexOf", "c")
+        );
+    }
+
+    @Test
+    void addNumbersMatchesGenericAdd() {
+        final Object[][] operands = {
+                {1, 2},
+                {Integer.MAX_VALUE, 1},
+                {0.5d, 0.5d},
+                {1.5d, 2},
+                {"a", 1},
+                {null, 1},
+                {-0.0d, 0.0d}
+        };
+        for (Object[] pair : operands) {
+            assertEquals(TsjRuntime.add(pair[0], pair[1]), TsjRuntime.addNumbers(pair[0], pair[1]));
+        }
+    }
+}